@@ -27,6 +27,7 @@ import de.smartics.maven.plugin.buildmetadata.util.SettingsDecrypter;
 
 import org.apache.maven.execution.MavenSession;
 import org.apache.maven.execution.RuntimeInformation;
+import org.apache.maven.model.Build;
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
@@ -527,6 +528,22 @@ public abstract class AbstractBuildMojo extends AbstractMojo {
     }
   }
 
+  /**
+   * Adds the filter to the build, if it is not already registered. Repeated
+   * executions for the same project, possibly from different threads, do not
+   * register the filter twice.
+   *
+   * @param filter the path to the filter file to add.
+   */
+  private void addFilter(final String filter) {
+    final Build build = project.getBuild();
+    synchronized (build) {
+      if (!build.getFilters().contains(filter)) {
+        build.addFilter(filter);
+      }
+    }
+  }
+
   /**
    * Updates the Maven runtime with build properties.
    *
@@ -543,7 +560,7 @@ public abstract class AbstractBuildMojo extends AbstractMojo {
 
     // Filters are only added temporarily and are not written to the POM...
     if (addToFilters) {
-      project.getBuild().addFilter(propertiesOutputFile.getAbsolutePath());
+      addFilter(propertiesOutputFile.getAbsolutePath());
     }
 
     if (createManifestFile) {
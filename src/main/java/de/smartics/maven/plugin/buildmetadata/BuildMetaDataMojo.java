@@ -16,9 +16,12 @@
 package de.smartics.maven.plugin.buildmetadata;
 
 import de.smartics.maven.plugin.buildmetadata.common.Constant;
+import de.smartics.maven.plugin.buildmetadata.common.ReactorMetaDataIndex;
 import de.smartics.maven.plugin.buildmetadata.common.ScmControl;
 import de.smartics.maven.plugin.buildmetadata.common.ScmCredentials;
 import de.smartics.maven.plugin.buildmetadata.common.ScmInfo;
+import de.smartics.maven.plugin.buildmetadata.common.SessionCache;
+import de.smartics.maven.plugin.buildmetadata.common.SessionExecutor;
 import de.smartics.maven.plugin.buildmetadata.data.HostMetaDataProvider;
 import de.smartics.maven.plugin.buildmetadata.data.MavenMetaDataProvider;
 import de.smartics.maven.plugin.buildmetadata.data.MavenMetaDataSelection;
@@ -26,26 +29,40 @@ import de.smartics.maven.plugin.buildmetadata.data.ScmMetaDataProvider;
 import de.smartics.maven.plugin.buildmetadata.io.AdditionalLocationsSupport;
 import de.smartics.maven.plugin.buildmetadata.io.BuildPropertiesFileHelper;
 import de.smartics.maven.plugin.buildmetadata.io.BuildXmlFileHelper;
+import de.smartics.maven.plugin.buildmetadata.maven.BuildTimingListener;
 import de.smartics.maven.plugin.buildmetadata.maven.MavenPluginProperties;
 import de.smartics.maven.plugin.buildmetadata.scm.ScmNoRevisionException;
+import de.smartics.maven.plugin.buildmetadata.scm.maven.LazyScmManager;
 import de.smartics.maven.plugin.buildmetadata.util.FilePathNormalizer;
 
 import org.apache.maven.artifact.versioning.ArtifactVersion;
 import org.apache.maven.artifact.versioning.DefaultArtifactVersion;
+import org.apache.maven.model.Resource;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
 import org.apache.maven.scm.ScmBranch;
-import org.apache.maven.scm.manager.ScmManager;
 import org.apache.maven.settings.Settings;
+import org.codehaus.plexus.PlexusConstants;
+import org.codehaus.plexus.PlexusContainer;
+import org.codehaus.plexus.context.Context;
+import org.codehaus.plexus.context.ContextException;
+import org.codehaus.plexus.personality.plexus.lifecycle.phase.Contextualizable;
 import org.codehaus.plexus.util.StringUtils;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Locale;
 import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 
 /**
  * Provides the build properties. This information is also written to a
@@ -58,7 +75,8 @@ import java.util.Properties;
  * @since 1.0
  * @description Provides a build meta data to the build process.
  */
-public final class BuildMetaDataMojo extends AbstractBuildMojo {
+public final class BuildMetaDataMojo extends AbstractBuildMojo
+    implements Contextualizable {
   // ********************************* Fields *********************************
 
   // --- constants ------------------------------------------------------------
@@ -277,13 +295,11 @@ public final class BuildMetaDataMojo extends AbstractBuildMojo {
   private boolean validateCheckout;
 
   /**
-   * The manager instance to access the SCM system. Provides access to the
-   * repository and the provider information.
-   *
-   * @component
-   * @since 1.0
+   * The container to look up the SCM providers in. The providers are looked
+   * up only if SCM information is fetched and only for the type of the SCM
+   * connection of the project.
    */
-  private ScmManager scmManager;
+  private PlexusContainer container;
 
   /**
    * Allows the user to choose which scm connection to use when connecting to
@@ -295,6 +311,80 @@ public final class BuildMetaDataMojo extends AbstractBuildMojo {
    */
   private String connectionType;
 
+  /**
+   * Flag to share the SCM information with all modules of the reactor. If set
+   * to <code>true</code>, the revision is fetched only once per working copy
+   * and reused by all subsequent modules. If set to <code>false</code>, each
+   * module queries the SCM on its own.
+   * <p>
+   * For Git all modules within the same working copy share the revision. For
+   * all other SCM systems, the revision is shared by modules with the same
+   * connection URL and base directory. Since the check for locally modified
+   * files is restricted to the base directory of a module, this information is
+   * only shared by modules with the same base directory.
+   * </p>
+   *
+   * @parameter expression="${buildMetaData.shareScmInfo}" default-value="true"
+   * @since 1.7.2
+   */
+  private boolean shareScmInfo;
+
+  /**
+   * Flag to share the information that is the same for all modules of the
+   * reactor. If set to <code>true</code>, the host name, the version of Maven,
+   * the Java runtime, the operating system, the execution properties, and the
+   * goals are determined only once per build session and reused by all
+   * subsequent modules with the same configuration. Each module adds only the
+   * information specific to its project. If set to <code>false</code>, each
+   * module determines all information on its own.
+   *
+   * @parameter expression="${buildMetaData.shareReactorInfo}"
+   *            default-value="true"
+   * @since 1.7.2
+   */
+  private boolean shareReactorInfo;
+
+  /**
+   * Flag to read the SCM information directly from the metadata of the working
+   * copy instead of launching the SCM client. Currently supported for Git and
+   * Mercurial, where the revision and its date are read from the
+   * <code>.git</code> or <code>.hg</code> directory and locally modified files
+   * are detected by comparing the working tree with the stat information
+   * cached in the Git index or the Mercurial dirstate. For Subversion the
+   * revision is read by a single local <code>svn info</code> call instead of
+   * querying the change log from the server, so the
+   * <code>queryRangeInDays</code> is not relevant. If the metadata cannot be
+   * read, the SCM client is used.
+   *
+   * @parameter expression="${buildMetaData.nativeScmAccess}"
+   *            default-value="false"
+   * @since 1.7.2
+   */
+  private boolean nativeScmAccess;
+
+  /**
+   * Flag to fetch the revision and to check for locally modified files
+   * concurrently. If set to <code>true</code>, the SCM step takes about as long
+   * as the slower of both queries instead of their sum.
+   *
+   * @parameter expression="${buildMetaData.concurrentScmQueries}"
+   *            default-value="false"
+   * @since 1.7.2
+   */
+  private boolean concurrentScmQueries;
+
+  /**
+   * The time in milliseconds to wait for each concurrent SCM query. If the
+   * revision is not fetched in time, it is treated as missing. If the check for
+   * locally modified files is not finished in time, it is treated as failed.
+   * A value of zero or less waits without limit. Only used if
+   * <code>concurrentScmQueries</code> is set to <code>true</code>.
+   *
+   * @parameter expression="${buildMetaData.scmQueryTimeout}" default-value="0"
+   * @since 1.7.2
+   */
+  private long scmQueryTimeout;
+
   // ... core information .....................................................
 
   /**
@@ -428,12 +518,17 @@ public final class BuildMetaDataMojo extends AbstractBuildMojo {
 
   /**
    * The range of the query in days to fetch change log entries from the SCM. If
-   * no change logs have been found, the range is incremented up to
+   * no change logs have been found, the range is doubled up to
    * {@value de.smartics.maven.plugin.buildmetadata.scm.maven.ScmAccessInfo#DEFAULT_RETRY_COUNT}
-   * (5) times. If no change log has been found after these
-   * {@value de.smartics.maven.plugin.buildmetadata.scm.maven.ScmAccessInfo#DEFAULT_RETRY_COUNT}
-   * (5) additional queries, the revision number will not be set with a valid
-   * value.
+   * (5) times. For SCM systems that support limiting the number of change log
+   * entries (Git and Subversion), the latest entry is queried instead. If no
+   * change log has been found after these additional queries, the revision
+   * number will not be set with a valid value.
+   * <p>
+   * The smallest range containing the latest change log entry is stored in the
+   * <code>scmQueryRangeFile</code> and used as the initial range of the next
+   * build.
+   * </p>
    *
    * @parameter expression="${buildMetaData.queryRangeInDays}"
    *            default-value="30"
@@ -441,6 +536,222 @@ public final class BuildMetaDataMojo extends AbstractBuildMojo {
    */
   private int queryRangeInDays;
 
+  /**
+   * The file to store the range of the last successful change log query in.
+   * The next build starts its query with this range.
+   *
+   * @parameter expression="${buildMetaData.scmQueryRangeFile}"
+   *            default-value=
+   *            "${project.build.directory}/buildmetadata-scm-range.properties"
+   * @since 1.7.2
+   */
+  private File scmQueryRangeFile;
+
+  /**
+   * Flag to store the information fetched from the SCM in the
+   * <code>scmCacheFile</code>. The next build uses the stored information
+   * without querying the SCM, if the fingerprint of the working copy has not
+   * changed. The fingerprint covers the configuration, the revision the
+   * working copy is based on, the SCM metadata and the modification times and
+   * sizes of the files of the module.
+   *
+   * @parameter expression="${buildMetaData.cacheScmInfo}"
+   *            default-value="false"
+   * @since 1.7.2
+   */
+  private boolean cacheScmInfo;
+
+  /**
+   * The file to store the information fetched from the SCM in, if
+   * <code>cacheScmInfo</code> is set to <code>true</code>.
+   *
+   * @parameter expression="${buildMetaData.scmCacheFile}"
+   *            default-value=
+   *            "${project.build.directory}/buildmetadata-scm-cache.properties"
+   * @since 1.7.2
+   */
+  private File scmCacheFile;
+
+  /**
+   * The patterns of the files to check for local modifications, relative to
+   * the base directory of the module. The patterns follow the Ant syntax
+   * (e.g. <code>src/main/java/**</code>). If no pattern is given, all files
+   * are checked.
+   *
+   * @parameter
+   * @since 1.7.2
+   */
+  private List<String> scmIncludes;
+
+  /**
+   * The patterns of the files not to check for local modifications, relative
+   * to the base directory of the module.
+   *
+   * @parameter
+   * @since 1.7.2
+   */
+  private List<String> scmExcludes;
+
+  /**
+   * The rules of the files to ignore in the check for local modifications,
+   * relative to the base directory of the module. The rules follow the syntax
+   * of <code>.gitignore</code> files (e.g. <code>target/</code> ignores every
+   * directory named <code>target</code>, <code>!keep.txt</code> re-includes a
+   * file ignored by a preceding rule). The rules are compiled once and applied
+   * in a single pass to the files reported by the SCM.
+   *
+   * @parameter
+   * @since 1.7.2
+   */
+  private List<String> scmIgnores;
+
+  /**
+   * The file with rules of the files to ignore in the check for local
+   * modifications in the syntax of <code>.gitignore</code> files. The rules
+   * are relative to the base directory of the module and are applied before
+   * the rules of <code>scmIgnores</code>. A missing file is ignored.
+   *
+   * @parameter expression="${buildMetaData.scmIgnoreFile}"
+   * @since 1.7.2
+   */
+  private File scmIgnoreFile;
+
+  /**
+   * Flag to restrict the check for local modifications to the sources of the
+   * module: the compile and test source roots, the resource directories and
+   * the POM. The patterns specified by <code>scmIncludes</code> are checked in
+   * addition. Source roots outside of the base directory or within the build
+   * directory are not checked.
+   *
+   * @parameter expression="${buildMetaData.moduleScopedModificationCheck}"
+   *            default-value="false"
+   * @since 1.7.2
+   */
+  private boolean moduleScopedModificationCheck;
+
+  /**
+   * The maximum number of locally modified files to list in the property
+   * <code>build.scmLocallyModified.files</code>. The number of all modified
+   * files, the number per modification type and a digest over all modified
+   * files are provided in additional properties. A negative value lists all
+   * files.
+   *
+   * @parameter expression="${buildMetaData.maxLocallyModifiedFiles}"
+   *            default-value="-1"
+   * @since 1.7.2
+   */
+  private int maxLocallyModifiedFiles;
+
+  /**
+   * The file to write the complete list of locally modified files to. Each
+   * line contains the modification type and the path, separated by a tab.
+   *
+   * @parameter expression="${buildMetaData.locallyModifiedFilesFile}"
+   *            default-value=
+   *            "${project.build.directory}/buildmetadata-locally-modified.txt"
+   * @since 1.7.2
+   */
+  private File locallyModifiedFilesFile;
+
+  /**
+   * Flag to fetch the SCM information in the background, while the other
+   * build information (e.g. host, Maven and plugin information) is gathered.
+   * The background threads are shared by all modules of the build.
+   *
+   * @parameter expression="${buildMetaData.prefetchScmInfo}"
+   *            default-value="false"
+   * @since 1.7.2
+   */
+  private boolean prefetchScmInfo;
+
+  /**
+   * The time in milliseconds the SCM information has to be fetched in. If the
+   * time is exceeded, the SCM processes are cancelled and the revision
+   * information is set to <code>unknown</code>. If
+   * <code>cacheScmInfo</code> is set and the <code>scmCacheFile</code> holds
+   * the information of a previous build, this revision is used instead. The
+   * budget is shared by all modules of a reactor build: once it has been
+   * exceeded, the SCM is not queried again. A value of zero or less waits
+   * without limit.
+   *
+   * @parameter expression="${buildMetaData.scmTimeBudget}" default-value="0"
+   * @since 1.7.2
+   */
+  private long scmTimeBudget;
+
+  /**
+   * Flag to share Git processes with all modules of the build if the
+   * information cannot be read directly from the Git directory. The commits
+   * are resolved by one long-lived <code>git cat-file --batch</code> process
+   * that is terminated at the end of the build and the status of the working
+   * tree is read only once for all modules.
+   * This reduces the number of processes launched, which is expensive on some
+   * platforms. Requires Git 2.11 or later; older versions fall back to
+   * launching a process per query.
+   *
+   * @parameter expression="${buildMetaData.reuseGitProcesses}"
+   *            default-value="true"
+   * @since 1.7.2
+   */
+  private boolean reuseGitProcesses;
+
+  /**
+   * Flag to add the revisions of the Git submodules within the project
+   * directory to the build properties. For each submodule the properties
+   * <code>build.scmRevision.submodule.&lt;path&gt;.id</code> and
+   * <code>build.scmRevision.submodule.&lt;path&gt;.date</code> are added. If
+   * <code>validateCheckout</code> is set,
+   * <code>build.scmRevision.submodule.&lt;path&gt;.locallyModified</code> is
+   * added as well. The path is relative to the root
+   * of the working tree. Nested submodules are included.
+   *
+   * @parameter expression="${buildMetaData.addScmSubmoduleInfo}"
+   *            default-value="false"
+   * @since 1.7.2
+   */
+  private boolean addScmSubmoduleInfo;
+
+  /**
+   * Flag to compare the working tree with the merge base of the
+   * <code>remoteVersion</code> and <code>HEAD</code> instead of the remote
+   * version itself. Only the changes of the current branch are reported and
+   * only the names of the changed files are requested from Git, so no textual
+   * diff is created. Currently only supported for Git. If set to
+   * <code>false</code>, the diff of the SCM provider is used.
+   *
+   * @parameter expression="${buildMetaData.compareWithMergeBase}"
+   *            default-value="false"
+   * @since 1.7.2
+   */
+  private boolean compareWithMergeBase;
+
+  /**
+   * Flag to add the metrics of the calls to the SCM to the build properties.
+   * The properties start with <code>build.metrics.scm.</code> and provide the
+   * number of calls and the wall time in milliseconds per operation (e.g.
+   * <code>changeLog</code>, <code>status</code>, <code>diff</code>, or
+   * <code>remoteGitLog</code>, and <code>total</code> for fetching the whole
+   * SCM information), the number of retries of the change log query, the
+   * number of changed files, and the number of bytes of the output of the
+   * SCM.
+   *
+   * @parameter expression="${buildMetaData.addScmMetrics}"
+   *            default-value="false"
+   * @since 1.7.2
+   */
+  private boolean addScmMetrics;
+
+  /**
+   * The file to write the metrics of the calls to the SCM to. The metrics are
+   * written in the format of a properties file with the same names as used
+   * for <code>addScmMetrics</code>. The file is written independent of
+   * <code>addScmMetrics</code>. If not set, no file is written.
+   *
+   * @parameter expression="${buildMetaData.scmMetricsFile}"
+   * @since 1.7.2
+   */
+  private File scmMetricsFile;
+
   /**
    * Flag to fail if local modifications have been found. The value is
    * <code>true</code> if the build should fail if there are modifications (any
@@ -482,6 +793,24 @@ public final class BuildMetaDataMojo extends AbstractBuildMojo {
    */
   private List<String> addToLocations;
 
+  /**
+   * The file to write the index of the build meta data of all modules of the
+   * reactor to. The final build meta data of each module is collected in
+   * memory and written once to this file, when all modules of the reactor are
+   * processed. Values shared by all modules are stored only once. The header
+   * of the file provides the position of the section of each module, so the
+   * information of a single module can be read without parsing the whole
+   * file. If not set, no index is written.
+   * <p>
+   * Usually the file is placed in the target folder of the root of the
+   * reactor, e.g. <code>${session.executionRootDirectory}/target/</code>.
+   * </p>
+   *
+   * @parameter expression="${buildMetaData.reactorIndexFile}"
+   * @since 1.7.2
+   */
+  private File reactorIndexFile;
+
   // ****************************** Initializer *******************************
 
   // ****************************** Constructors ******************************
@@ -492,12 +821,23 @@ public final class BuildMetaDataMojo extends AbstractBuildMojo {
 
   // --- init -----------------------------------------------------------------
 
+  /**
+   * Stores the container to look up the SCM providers in.
+   *
+   * @param context the context providing the container.
+   * @throws ContextException if the container is not provided.
+   */
+  public void contextualize(final Context context) throws ContextException {
+    container = (PlexusContainer) context.get(PlexusConstants.PLEXUS_KEY);
+  }
+
   // --- get&set --------------------------------------------------------------
 
   // --- business -------------------------------------------------------------
 
   @Override
   public void execute() throws MojoExecutionException, MojoFailureException {
+    closeSessionCacheOnSessionEnd();
     if (!doSkip()) {
       super.execute();
 
@@ -518,9 +858,81 @@ public final class BuildMetaDataMojo extends AbstractBuildMojo {
         }
 
         updateMavenEnvironment(buildMetaDataProperties, helper);
+        addToReactorIndex(buildMetaDataProperties);
+      } else {
+        addToReactorIndex(null);
       }
     } else {
       getLog().info("Skipping buildmetadata collection since skip=true.");
+      addToReactorIndex(null);
+    }
+  }
+
+  /**
+   * Registers a hook to close the cache of the session when the session has
+   * ended. This releases the resources shared by the modules, like processes
+   * and threads, and writes pending information, like the reactor index. The
+   * hook is registered only once per session.
+   */
+  private void closeSessionCacheOnSessionEnd() {
+    final SessionCache cache = SessionCache.forSession(session);
+    final Boolean installed =
+        cache.get("sessionCloser", new Callable<Boolean>() {
+          public Boolean call() {
+            return BuildTimingListener.onSessionEnd(session, new Runnable() {
+              public void run() {
+                cache.close();
+              }
+            });
+          }
+        });
+    if (!installed && getLog().isDebugEnabled()) {
+      getLog().debug("Shared resources are released when the next session"
+                     + " starts.");
+    }
+  }
+
+  /**
+   * Adds the build meta data of the current module to the index of the
+   * reactor, if <code>reactorIndexFile</code> is set.
+   *
+   * @param buildMetaDataProperties the final build meta data of the module.
+   *        If <code>null</code>, the module is reported as skipped. This is
+   *        also the case if the build meta data has already been set for the
+   *        module, so that the module still counts as reported.
+   * @throws MojoExecutionException if the index cannot be written.
+   */
+  private void addToReactorIndex(final Properties buildMetaDataProperties)
+      throws MojoExecutionException {
+    if (reactorIndexFile == null) {
+      return;
+    }
+
+    final ReactorMetaDataIndex index = SessionCache.forSession(session).get(
+        "reactorIndex:" + reactorIndexFile.getAbsolutePath(),
+        new Callable<ReactorMetaDataIndex>() {
+          public ReactorMetaDataIndex call() {
+            final List<?> projects =
+                session != null ? session.getSortedProjects() : null;
+            final int moduleCount = projects != null ? projects.size() : 1;
+            return new ReactorMetaDataIndex(reactorIndexFile, moduleCount);
+          }
+        });
+    final String moduleId =
+        project.getGroupId() + ':' + project.getArtifactId();
+    try {
+      if (buildMetaDataProperties != null) {
+        index.add(moduleId, buildMetaDataProperties);
+      } else {
+        index.skip(moduleId);
+      }
+    } catch (final IOException e) {
+      throw new MojoExecutionException("Cannot write reactor index '"
+          + reactorIndexFile.getAbsolutePath() + "'.", e);
+    }
+    if (index.isWritten() && getLog().isInfoEnabled()) {
+      getLog().info("Wrote reactor index '"
+          + reactorIndexFile.getAbsolutePath() + "'.");
     }
   }
 
@@ -530,12 +942,15 @@ public final class BuildMetaDataMojo extends AbstractBuildMojo {
       throws MojoExecutionException, MojoFailureException {
     final Date buildDate = session.getStartTime();
 
+    final Properties scmProperties = new Properties();
+    final Future<ScmInfo> scmTask = startScmMetaData(scmProperties);
     provideBuildUser(projectProperties, buildMetaDataProperties);
-    provideMavenMetaData(buildMetaDataProperties);
-    provideHostMetaData(buildMetaDataProperties);
-    final ScmInfo scmInfo = provideScmMetaData(buildMetaDataProperties);
-    provideBuildDateMetaData(buildMetaDataProperties, buildDate);
+    provideReactorMetaData(buildMetaDataProperties);
+    provideModuleMetaData(buildMetaDataProperties);
     providePluginMetaData(buildMetaDataProperties);
+    final ScmInfo scmInfo = joinScmMetaData(scmTask);
+    buildMetaDataProperties.putAll(scmProperties);
+    provideBuildDateMetaData(buildMetaDataProperties, buildDate);
 
     // The custom providers are required to be run at the end.
     // This allows these providers to access the information generated
@@ -578,7 +993,60 @@ public final class BuildMetaDataMojo extends AbstractBuildMojo {
     }
   }
 
-  private void provideMavenMetaData(final Properties buildMetaDataProperties) {
+  /**
+   * Adds the information that is the same for all modules of the reactor. If
+   * <code>shareReactorInfo</code> is set, the information is determined only
+   * once per session and configuration.
+   *
+   * @param buildMetaDataProperties the build meta data properties.
+   * @throws MojoExecutionException if the host information cannot be
+   *         determined.
+   */
+  private void provideReactorMetaData(final Properties buildMetaDataProperties)
+      throws MojoExecutionException {
+    if (!shareReactorInfo) {
+      buildMetaDataProperties.putAll(createReactorMetaData());
+      return;
+    }
+
+    final String key = createReactorCacheKey();
+    try {
+      final Properties reactorProperties = SessionCache.forSession(session)
+          .get(key, new Callable<Properties>() {
+            public Properties call() throws MojoExecutionException {
+              return createReactorMetaData();
+            }
+          });
+      buildMetaDataProperties.putAll(reactorProperties);
+    } catch (final IllegalStateException e) {
+      if (e.getCause() instanceof MojoExecutionException) {
+        throw (MojoExecutionException) e.getCause();
+      }
+      throw e;
+    }
+  }
+
+  private void provideModuleMetaData(final Properties buildMetaDataProperties) {
+    final MavenMetaDataProvider mavenMetaDataProvider =
+        createMavenMetaDataProvider();
+    mavenMetaDataProvider.provideModuleMetaData(buildMetaDataProperties);
+  }
+
+  private Properties createReactorMetaData() throws MojoExecutionException {
+    final Properties reactorProperties = new Properties();
+    createMavenMetaDataProvider().provideReactorMetaData(reactorProperties);
+    provideHostMetaData(reactorProperties);
+    return reactorProperties;
+  }
+
+  private String createReactorCacheKey() {
+    return "reactor.metadata:" + addMavenExecutionInfo + '|' + addEnvInfo + '|'
+           + addJavaRuntimeInfo + '|' + addOsInfo + '|' + hideCommandLineInfo
+           + '|' + hideMavenOptsInfo + '|' + hideJavaOptsInfo + '|'
+           + addHostInfo;
+  }
+
+  private MavenMetaDataProvider createMavenMetaDataProvider() {
     final MavenMetaDataSelection selection = new MavenMetaDataSelection();
     selection.setAddMavenExecutionInfo(addMavenExecutionInfo);
     selection.setAddEnvInfo(addEnvInfo);
@@ -590,9 +1058,80 @@ public final class BuildMetaDataMojo extends AbstractBuildMojo {
     selection.setHideMavenOptsInfo(hideMavenOptsInfo);
     selection.setSelectedSystemProperties(properties);
 
-    final MavenMetaDataProvider mavenMetaDataProvider =
-        new MavenMetaDataProvider(project, session, runtime, selection);
-    mavenMetaDataProvider.provideBuildMetaData(buildMetaDataProperties);
+    return new MavenMetaDataProvider(project, session, runtime, selection);
+  }
+
+  /**
+   * Starts to fetch the SCM information. If <code>prefetchScmInfo</code> is
+   * set, the information is fetched by the executor of the session, while the
+   * other information is gathered. Otherwise it is fetched immediately.
+   *
+   * @param scmProperties the properties to add the SCM information to.
+   * @return the task providing the SCM information.
+   */
+  private Future<ScmInfo> startScmMetaData(final Properties scmProperties) {
+    final Callable<ScmInfo> provider = new Callable<ScmInfo>() {
+      public ScmInfo call() throws MojoFailureException {
+        return provideScmMetaData(scmProperties);
+      }
+    };
+    return startScmMetaData(
+        prefetchScmInfo ? SessionExecutor.forSession(session) : null,
+        provider);
+  }
+
+  /**
+   * Starts the given provider of SCM information.
+   *
+   * @param executor the executor to run the provider in the background. If
+   *        <code>null</code>, the provider is run immediately.
+   * @param provider the provider of the SCM information.
+   * @return the task providing the SCM information.
+   */
+  static Future<ScmInfo> startScmMetaData(final SessionExecutor executor,
+      final Callable<ScmInfo> provider) {
+    if (executor != null) {
+      return executor.submit(provider);
+    }
+
+    final FutureTask<ScmInfo> task = new FutureTask<ScmInfo>(provider);
+    task.run();
+    return task;
+  }
+
+  /**
+   * Waits for the SCM information and reports failures of the provider as if
+   * it had been called directly.
+   *
+   * @param task the task providing the SCM information.
+   * @return the SCM information.
+   * @throws MojoExecutionException if waiting has been interrupted or the
+   *         provider failed with a checked exception other than
+   *         {@link MojoFailureException}.
+   * @throws MojoFailureException if the provider reported a failure.
+   */
+  static ScmInfo joinScmMetaData(final Future<ScmInfo> task)
+      throws MojoExecutionException, MojoFailureException {
+    try {
+      return task.get();
+    } catch (final InterruptedException e) {
+      task.cancel(true);
+      Thread.currentThread().interrupt();
+      throw new MojoExecutionException(
+          "Interrupted while fetching SCM information.", e);
+    } catch (final ExecutionException e) {
+      final Throwable cause = e.getCause();
+      if (cause instanceof MojoFailureException) {
+        throw (MojoFailureException) cause;
+      }
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new MojoExecutionException("Cannot fetch SCM information.", cause);
+    }
   }
 
   private ScmInfo provideScmMetaData(final Properties buildMetaDataProperties)
@@ -630,13 +1169,72 @@ public final class BuildMetaDataMojo extends AbstractBuildMojo {
     final ScmControl scmControl =
         new ScmControl(failOnLocalModifications, ignoreDotFilesInBaseDir,
             offline, addScmInfo, validateCheckout, failOnMissingRevision);
-    final ScmInfo scmInfo = new ScmInfo(scmManager, connectionType,
-        scmDateFormat, basedir, scmCredentials, tagBase, queryRangeInDays,
-        buildDatePattern, scmControl, StringUtils.isNotBlank(remoteVersion)
-            ? new ScmBranch(remoteVersion) : null);
+    final ScmInfo scmInfo = new ScmInfo.Builder()
+        .setScmManager(new LazyScmManager(container))
+        .setConnectionType(connectionType).setScmDateFormat(scmDateFormat)
+        .setBasedir(basedir).setScmCrendentials(scmCredentials)
+        .setTagBase(tagBase).setQueryRangeInDays(queryRangeInDays)
+        .setBuildDatePattern(buildDatePattern).setScmControl(scmControl)
+        .setRemoteVersion(StringUtils.isNotBlank(remoteVersion)
+            ? new ScmBranch(remoteVersion) : null)
+        .setSessionCache(shareScmInfo ? SessionCache.forSession(session) : null)
+        .setExecutor(SessionExecutor.forSession(session))
+        .setNativeScmAccess(nativeScmAccess)
+        .setConcurrentQueries(concurrentScmQueries)
+        .setQueryTimeout(scmQueryTimeout)
+        .setQueryRangeFile(scmQueryRangeFile)
+        .setStateCacheFile(cacheScmInfo ? scmCacheFile : null)
+        .setBuildDirectory(new File(project.getBuild().getDirectory()))
+        .setModificationIncludes(createModificationIncludes())
+        .setModificationExcludes(scmExcludes)
+        .setModificationIgnores(scmIgnores)
+        .setModificationIgnoreFile(scmIgnoreFile)
+        .setMaxLocallyModifiedFiles(maxLocallyModifiedFiles)
+        .setLocallyModifiedFilesFile(locallyModifiedFilesFile)
+        .setTimeBudget(scmTimeBudget)
+        .setReuseGitProcesses(reuseGitProcesses)
+        .setAddSubmoduleInfo(addScmSubmoduleInfo)
+        .setCompareWithMergeBase(compareWithMergeBase)
+        .setAddScmMetrics(addScmMetrics)
+        .setScmMetricsFile(scmMetricsFile)
+        .build();
     return scmInfo;
   }
 
+  @SuppressWarnings("unchecked")
+  private List<String> createModificationIncludes() {
+    final List<String> includes = new ArrayList<String>();
+    if (scmIncludes != null) {
+      includes.addAll(scmIncludes);
+    }
+    if (moduleScopedModificationCheck) {
+      final List<String> directories = new ArrayList<String>();
+      directories.addAll(project.getCompileSourceRoots());
+      directories.addAll(project.getTestCompileSourceRoots());
+      for (final Object resource : project.getResources()) {
+        directories.add(((Resource) resource).getDirectory());
+      }
+      for (final Object resource : project.getTestResources()) {
+        directories.add(((Resource) resource).getDirectory());
+      }
+
+      final Path basePath = basedir.toPath().toAbsolutePath().normalize();
+      final Path buildPath = new File(project.getBuild().getDirectory())
+          .toPath().toAbsolutePath().normalize();
+      for (final String directory : directories) {
+        final Path path = basePath.resolve(directory).normalize();
+        if (path.startsWith(basePath) && !path.startsWith(buildPath)
+            && !path.equals(basePath)) {
+          includes.add(basePath.relativize(path).toString()
+              .replace(File.separatorChar, '/') + "/**");
+        }
+      }
+      final File pomFile = project.getFile();
+      includes.add(pomFile != null ? pomFile.getName() : "pom.xml");
+    }
+    return includes;
+  }
+
   private boolean isBuildPropertiesToBeRebuild() {
     return forceNewProperties || !propertiesOutputFile.exists();
   }
@@ -124,6 +124,18 @@ public final class BuildReportMojo extends AbstractReportMojo {
    */
   protected boolean createPropertiesReport;
 
+  /**
+   * The file with the build timings written by the
+   * <code>record-build-timings</code> goal. If the file is readable, the
+   * analysis of the reactor, including its critical path and parallelism, is
+   * added to the report of the execution root.
+   *
+   * @parameter expression="${buildMetaData.timingsFile}"
+   *            default-value="${session.executionRootDirectory}/target/buildmetadata-timings.properties"
+   * @since 1.7.2
+   */
+  private File timingsFile;
+
   // ****************************** Initializer *******************************
 
   // ****************************** Constructors ******************************
@@ -204,9 +216,11 @@ public final class BuildReportMojo extends AbstractReportMojo {
     final Sink sink = getSink();
     final ResourceBundle messages = getBundle(locale);
     final String baseDir = project.getBasedir().getAbsolutePath();
+    final File reactorTimingsFile =
+        project.isExecutionRoot() ? timingsFile : null;
     final BuildReportRenderer renderer =
         new BuildReportRenderer(new FilePathNormalizer(baseDir), messages, sink,
-            propertiesOutputFile, properties);
+            propertiesOutputFile, properties, reactorTimingsFile);
     renderer.renderReport();
   }
 
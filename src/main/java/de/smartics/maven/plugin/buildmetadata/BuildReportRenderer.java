@@ -18,6 +18,7 @@ package de.smartics.maven.plugin.buildmetadata;
 import de.smartics.maven.plugin.buildmetadata.common.Constant;
 import de.smartics.maven.plugin.buildmetadata.common.Constant.Section;
 import de.smartics.maven.plugin.buildmetadata.common.Property;
+import de.smartics.maven.plugin.buildmetadata.maven.ReactorTimingAnalysis;
 import de.smartics.maven.plugin.buildmetadata.util.FilePathNormalizer;
 import de.smartics.maven.plugin.buildmetadata.util.NoopNormalizer;
 import de.smartics.maven.plugin.buildmetadata.util.Normalizer;
@@ -33,6 +34,7 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Arrays;
 import java.util.Enumeration;
 import java.util.HashSet;
 import java.util.List;
@@ -50,6 +52,28 @@ public final class BuildReportRenderer {
 
   // --- constants ------------------------------------------------------------
 
+  /**
+   * The key to the title of the section with the analysis of the reactor.
+   * <p>
+   * The value of this constant is {@value}.
+   * </p>
+   */
+  private static final String SECTION_REACTOR_TIMINGS =
+      "build.timing.reactor";
+
+  /**
+   * The properties of the analysis of the reactor in the order to render.
+   */
+  private static final List<String> REACTOR_TIMINGS = Arrays.asList(
+      ReactorTimingAnalysis.PREFIX + "wallMillis",
+      ReactorTimingAnalysis.PREFIX + "modulesMillis",
+      ReactorTimingAnalysis.PROP_NAME_CRITICAL_PATH,
+      ReactorTimingAnalysis.PROP_NAME_CRITICAL_PATH + ".millis",
+      ReactorTimingAnalysis.PREFIX + "parallelism.achieved",
+      ReactorTimingAnalysis.PREFIX + "parallelism.theoretical",
+      ReactorTimingAnalysis.PREFIX + "parallelism.efficiency",
+      ReactorTimingAnalysis.PROP_NAME_TOP_MODULES);
+
   // --- members --------------------------------------------------------------
 
   /**
@@ -97,6 +121,12 @@ public final class BuildReportRenderer {
    */
   private final List<Property> properties;
 
+  /**
+   * The file with the build timings to render the analysis of the reactor
+   * from. May be <code>null</code>.
+   */
+  private final File timingsFile;
+
   // ****************************** Initializer *******************************
 
   // ****************************** Constructors ******************************
@@ -113,15 +143,20 @@ public final class BuildReportRenderer {
    * @param properties the list of a system properties or environment variables
    *        to be selected by the user to include into the build meta data
    *        properties.
+   * @param timingsFile the file with the build timings to render the analysis
+   *        of the reactor from. If <code>null</code> or not readable, no
+   *        analysis is rendered.
    */
   public BuildReportRenderer(final FilePathNormalizer filePathNormalizer,
       final ResourceBundle messages, final Sink sink,
-      final File buildMetaDataPropertiesFile, final List<Property> properties) {
+      final File buildMetaDataPropertiesFile, final List<Property> properties,
+      final File timingsFile) {
     this.filePathNormalizer = filePathNormalizer;
     this.sink = sink;
     this.messages = messages;
     this.buildMetaDataPropertiesFile = buildMetaDataPropertiesFile;
     this.properties = properties;
+    this.timingsFile = timingsFile;
   }
 
   // ****************************** Inner Classes *****************************
@@ -172,6 +207,7 @@ public final class BuildReportRenderer {
     final Properties buildMetaDataProperties = readBuildMetaDataProperties();
 
     renderSections(buildMetaDataProperties);
+    renderReactorTimings();
 
     renderFooter();
     sink.section1_();
@@ -197,6 +233,27 @@ public final class BuildReportRenderer {
     renderNonStandardProperties(buildMetaDataProperties);
   }
 
+  private void renderReactorTimings() throws MavenReportException {
+    if (timingsFile == null || !timingsFile.canRead()) {
+      return;
+    }
+
+    final Properties timings = readProperties(timingsFile);
+    if (timings.getProperty(ReactorTimingAnalysis.PREFIX + "wallMillis")
+        == null) {
+      return;
+    }
+
+    sink.sectionTitle2();
+    sink.text(messages.getString(SECTION_REACTOR_TIMINGS));
+    sink.sectionTitle2_();
+    renderTableStart();
+    for (final String key : REACTOR_TIMINGS) {
+      renderCell(timings, key);
+    }
+    renderTableEnd();
+  }
+
   private boolean hasPropertiesProvided(
       final Properties buildMetaDataProperties, final List<String> properties) {
     for (final String key : properties) {
@@ -305,6 +362,9 @@ public final class BuildReportRenderer {
         renderMultiValue(value, NoopNormalizer.INSTANCE);
       } else if (Constant.PROP_NAME_MAVEN_FILTERS.equals(key)) {
         renderMultiValue(value, filePathNormalizer);
+      } else if (ReactorTimingAnalysis.PROP_NAME_CRITICAL_PATH.equals(key)
+          || ReactorTimingAnalysis.PROP_NAME_TOP_MODULES.equals(key)) {
+        renderMultiValue(value, NoopNormalizer.INSTANCE);
       } else {
         renderSingleValue(value);
       }
@@ -407,19 +467,23 @@ public final class BuildReportRenderer {
    * @throws MavenReportException if the properties cannot be read.
    */
   private Properties readBuildMetaDataProperties() throws MavenReportException {
-    final Properties buildMetaDataProperties = new Properties();
+    return readProperties(this.buildMetaDataPropertiesFile);
+  }
+
+  private static Properties readProperties(final File file)
+      throws MavenReportException {
+    final Properties properties = new Properties();
     InputStream inStream = null;
     try {
-      inStream = new BufferedInputStream(
-          new FileInputStream(this.buildMetaDataPropertiesFile));
-      buildMetaDataProperties.load(inStream);
+      inStream = new BufferedInputStream(new FileInputStream(file));
+      properties.load(inStream);
     } catch (final IOException e) {
-      throw new MavenReportException("Cannot read build properties file '"
-          + this.buildMetaDataPropertiesFile + "'.", e);
+      throw new MavenReportException(
+          "Cannot read build properties file '" + file + "'.", e);
     } finally {
       IOUtil.close(inStream);
     }
-    return buildMetaDataProperties;
+    return properties;
   }
 
   // --- object basics --------------------------------------------------------
@@ -0,0 +1,185 @@
+/*
+ * Copyright 2006-2025 smartics, Kronseder & Reiner GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package de.smartics.maven.plugin.buildmetadata;
+
+import de.smartics.maven.plugin.buildmetadata.common.SessionCache;
+import de.smartics.maven.plugin.buildmetadata.maven.BuildTimingListener;
+import de.smartics.maven.plugin.buildmetadata.maven.BuildTimingRecorder;
+
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.project.MavenProject;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.Callable;
+
+/**
+ * Records the wall time of all modules and mojo executions of the build and
+ * writes the durations per lifecycle phase, per mojo and per module once, when
+ * the build session has ended. The critical path of the reactor and the
+ * achieved and theoretical parallelism are calculated from the durations of
+ * the modules and the dependencies between them.
+ * <p>
+ * Modules and mojos started before the listener is registered are not
+ * recorded. The start of the module registering the listener is the time of
+ * the registration.
+ * </p>
+ *
+ * @goal record-build-timings
+ * @phase validate
+ * @requiresProject
+ * @threadSafe
+ * @since 1.7.2
+ * @description Registers a listener for the execution events of the build
+ *              that records the start and end of each mojo execution. The
+ *              durations per lifecycle phase, per mojo and per module, as
+ *              well as the critical path of the reactor, are written to a
+ *              properties file at the end of the build. Contrary to the build
+ *              point mojo no execution per measured phase is required. Only
+ *              the first execution within a build registers the listener.
+ *              Requires Maven 3.
+ */
+public final class BuildTimingMojo extends AbstractMojo {
+  // ********************************* Fields *********************************
+
+  // --- constants ------------------------------------------------------------
+
+  /**
+   * The key of the recorder in the cache of the session.
+   * <p>
+   * The value of this constant is {@value}.
+   * </p>
+   */
+  private static final String CACHE_KEY = "buildTimings";
+
+  // --- members --------------------------------------------------------------
+
+  // ... Mojo infrastructure ..................................................
+
+  /**
+   * The Maven project.
+   *
+   * @parameter expression="${project}"
+   * @required
+   * @readonly
+   */
+  private MavenProject project;
+
+  /**
+   * The Maven session instance.
+   *
+   * @parameter expression="${session}"
+   * @required
+   * @readonly
+   */
+  private MavenSession session;
+
+  // ... core information .....................................................
+
+  /**
+   * The file to write the timings to. The file is written in the format of a
+   * properties file with names starting with <code>build.timing.</code>.
+   *
+   * @parameter expression="${buildMetaData.timingsFile}"
+   *            default-value="${session.executionRootDirectory}/target/buildmetadata-timings.properties"
+   * @since 1.7.2
+   */
+  private File timingsFile;
+
+  /**
+   * A simple flag to skip the recording of the build timings. If set on the
+   * command line use <code>-DbuildMetaData.skip</code>.
+   *
+   * @parameter expression="${buildMetaData.skip}" default-value="false"
+   * @since 1.7.2
+   */
+  private boolean skip;
+
+  // ****************************** Initializer *******************************
+
+  // ****************************** Constructors ******************************
+
+  // ****************************** Inner Classes *****************************
+
+  // ********************************* Methods ********************************
+
+  // --- init -----------------------------------------------------------------
+
+  // --- get&set --------------------------------------------------------------
+
+  // --- business -------------------------------------------------------------
+
+  /**
+   * {@inheritDoc}
+   */
+  public void execute() throws MojoExecutionException, MojoFailureException {
+    if (skip) {
+      getLog().info("Skipping recording of build timings since skip=true.");
+      return;
+    }
+
+    final SessionCache cache = SessionCache.forSession(session);
+    final Boolean installed = cache.get(CACHE_KEY, new Callable<Boolean>() {
+      public Boolean call() {
+        return install();
+      }
+    });
+    if (!installed && getLog().isDebugEnabled()) {
+      getLog().debug("Build timings are not recorded.");
+    }
+  }
+
+  private Boolean install() {
+    final BuildTimingRecorder recorder = new BuildTimingRecorder();
+    final File file = timingsFile;
+    final Log log = getLog();
+    final boolean installed =
+        BuildTimingListener.install(session, recorder, new Runnable() {
+          public void run() {
+            writeTimings(log, recorder, file);
+          }
+        });
+    if (installed) {
+      recorder.moduleStarted(
+          project.getGroupId() + ':' + project.getArtifactId(),
+          System.nanoTime());
+      log.info("Recording build timings to '" + file.getAbsolutePath()
+          + "'.");
+    } else {
+      log.warn("Cannot record build timings: execution listeners are not"
+          + " supported by this version of Maven.");
+    }
+    return installed;
+  }
+
+  private static void writeTimings(final Log log,
+      final BuildTimingRecorder recorder, final File file) {
+    try {
+      recorder.write(file);
+      log.info("Wrote build timings to '" + file.getAbsolutePath() + "'.");
+    } catch (final IOException e) {
+      log.warn("Cannot write build timings to '" + file.getAbsolutePath()
+          + "': " + e.getMessage());
+    }
+  }
+
+  // --- object basics --------------------------------------------------------
+
+}
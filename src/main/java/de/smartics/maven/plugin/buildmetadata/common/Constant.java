@@ -149,6 +149,61 @@ public final class Constant {
   public static final String PROP_NAME_SCM_LOCALLY_MODIFIED_FILES =
       "build.scmLocallyModified.files";
 
+  /**
+   * The name of the project property that stores the number of files that are
+   * locally modified. The list of files may be restricted to a subset of these
+   * files.
+   * <p>
+   * The value of this constant is {@value}.
+   * </p>
+   */
+  public static final String PROP_NAME_SCM_LOCALLY_MODIFIED_COUNT =
+      "build.scmLocallyModified.count";
+
+  /**
+   * The prefix of the project properties that store the number of files that
+   * are locally modified per modification type. The name of the type is
+   * appended.
+   * <p>
+   * The value of this constant is {@value}.
+   * </p>
+   */
+  public static final String PROP_NAME_SCM_LOCALLY_MODIFIED_COUNT_PREFIX =
+      "build.scmLocallyModified.count.";
+
+  /**
+   * The name of the project property that stores the digest over all files
+   * that are locally modified.
+   * <p>
+   * The value of this constant is {@value}.
+   * </p>
+   */
+  public static final String PROP_NAME_SCM_LOCALLY_MODIFIED_DIGEST =
+      "build.scmLocallyModified.digest";
+
+  /**
+   * The prefix of the project properties that store the revisions of the Git
+   * submodules. The path of the submodule and the name of the information
+   * (<code>id</code>, <code>date</code>, or <code>locallyModified</code>) are
+   * appended, separated by a dot.
+   * <p>
+   * The value of this constant is {@value}.
+   * </p>
+   */
+  public static final String PROP_NAME_SCM_SUBMODULE_PREFIX =
+      "build.scmRevision.submodule.";
+
+  /**
+   * The name of the project property that signals that the history of the
+   * working copy has been truncated, e.g. by a shallow clone. The property is
+   * only set if the history is truncated.
+   * <p>
+   * The value of this constant is {@value}.
+   * </p>
+   */
+  public static final String PROP_NAME_SCM_HISTORY_TRUNCATED =
+      "build.scmRevision.historyTruncated";
+
   /**
    * The name of the project property that stores the formatted build date.
    * <p>
@@ -627,7 +682,10 @@ public final class Constant {
     final List<Section> sections = new ArrayList<Section>();
     final Section scm = new Section(SECTION_BUILD_SCM,
         PROP_NAME_SCM_REVISION_ID, PROP_NAME_SCM_REVISION_DATE,
-        PROP_NAME_SCM_URL, PROP_NAME_SCM_LOCALLY_MODIFIED_FILES);
+        PROP_NAME_SCM_URL, PROP_NAME_SCM_HISTORY_TRUNCATED,
+        PROP_NAME_SCM_LOCALLY_MODIFIED_FILES,
+        PROP_NAME_SCM_LOCALLY_MODIFIED_COUNT,
+        PROP_NAME_SCM_LOCALLY_MODIFIED_DIGEST);
     sections.add(scm);
 
     final Section artifact =
@@ -670,7 +728,10 @@ public final class Constant {
     final Set<String> properties = new HashSet<String>(
         Arrays.asList(new String[] {PROP_NAME_SCM_REVISION_ID,
             PROP_NAME_SCM_REVISION_DATE, PROP_NAME_SCM_URL,
-            PROP_NAME_SCM_LOCALLY_MODIFIED_FILES, PROP_NAME_BUILD_DATE,
+            PROP_NAME_SCM_HISTORY_TRUNCATED,
+            PROP_NAME_SCM_LOCALLY_MODIFIED_FILES,
+            PROP_NAME_SCM_LOCALLY_MODIFIED_COUNT,
+            PROP_NAME_SCM_LOCALLY_MODIFIED_DIGEST, PROP_NAME_BUILD_DATE,
             PROP_NAME_BUILD_TIMESTAMP, PROP_NAME_BUILD_YEAR,
             PROP_NAME_COPYRIGHT_YEAR, DEFAULT_DATE_PATTERN, PROP_NAME_GROUP_ID,
             PROP_NAME_ARTIFACT_ID, PROP_NAME_VERSION, PROP_NAME_FULL_VERSION,
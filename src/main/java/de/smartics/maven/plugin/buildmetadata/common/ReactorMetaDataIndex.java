@@ -0,0 +1,188 @@
+/*
+ * Copyright 2006-2025 smartics, Kronseder & Reiner GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package de.smartics.maven.plugin.buildmetadata.common;
+
+import de.smartics.maven.plugin.buildmetadata.io.ReactorIndexFileHelper;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Collects the final build meta data of each module of a reactor build in
+ * memory and writes a single index for all modules.
+ * <p>
+ * The index is written once, as soon as each module of the reactor has either
+ * provided its build meta data or reported to be skipped. If not all modules
+ * report (e.g. because the plugin is not configured for some of them), the
+ * index is written when the session cache is closed at the end of the build
+ * session.
+ * </p>
+ * <p>
+ * Instances are shared by all modules of a session via the
+ * {@link SessionCache} and are safe to use from parallel builds.
+ * </p>
+ */
+public final class ReactorMetaDataIndex implements Closeable {
+  // ********************************* Fields *********************************
+
+  // --- constants ------------------------------------------------------------
+
+  // --- members --------------------------------------------------------------
+
+  /**
+   * The helper to write the index file.
+   */
+  private final ReactorIndexFileHelper fileHelper;
+
+  /**
+   * The number of modules in the reactor.
+   */
+  private final int moduleCount;
+
+  /**
+   * The build meta data of the modules, with the module identifier as key.
+   */
+  private final Map<String, Properties> modules =
+      new TreeMap<String, Properties>();
+
+  /**
+   * The identifiers of all modules that have reported, either with build meta
+   * data or as skipped.
+   */
+  private final Set<String> reported = new HashSet<String>();
+
+  /**
+   * The flag signals that the index file reflects the current state of the
+   * collected information.
+   */
+  private boolean written;
+
+  // ****************************** Initializer *******************************
+
+  // ****************************** Constructors ******************************
+
+  /**
+   * Default constructor.
+   *
+   * @param indexFile the file to write the index to.
+   * @param moduleCount the number of modules in the reactor.
+   */
+  public ReactorMetaDataIndex(final File indexFile, final int moduleCount) {
+    this.fileHelper = new ReactorIndexFileHelper(indexFile);
+    this.moduleCount = moduleCount;
+  }
+
+  // ****************************** Inner Classes *****************************
+
+  // ********************************* Methods ********************************
+
+  // --- init -----------------------------------------------------------------
+
+  // --- get&set --------------------------------------------------------------
+
+  /**
+   * Returns the file to write the index to.
+   *
+   * @return the file to write the index to.
+   */
+  public File getIndexFile() {
+    return fileHelper.getIndexFile();
+  }
+
+  /**
+   * Checks whether the index file has been written and reflects all
+   * information collected so far.
+   *
+   * @return <code>true</code> if the index is up to date, <code>false</code>
+   *         otherwise.
+   */
+  public synchronized boolean isWritten() {
+    return written;
+  }
+
+  // --- business -------------------------------------------------------------
+
+  /**
+   * Adds the final build meta data of a module. If all modules of the reactor
+   * have reported, the index is written.
+   *
+   * @param moduleId the identifier of the module
+   *        (<code>groupId:artifactId</code>).
+   * @param properties the build meta data of the module.
+   * @throws IOException on any problem writing the index.
+   */
+  public synchronized void add(final String moduleId,
+      final Properties properties) throws IOException {
+    final Properties copy = new Properties();
+    copy.putAll(properties);
+    modules.put(moduleId, copy);
+    report(moduleId);
+  }
+
+  /**
+   * Signals that a module does not provide build meta data. If all modules of
+   * the reactor have reported, the index is written.
+   *
+   * @param moduleId the identifier of the module
+   *        (<code>groupId:artifactId</code>).
+   * @throws IOException on any problem writing the index.
+   */
+  public synchronized void skip(final String moduleId) throws IOException {
+    report(moduleId);
+  }
+
+  private void report(final String moduleId) throws IOException {
+    written = false;
+    reported.add(moduleId);
+    if (reported.size() >= moduleCount) {
+      write();
+    }
+  }
+
+  /**
+   * Writes the index if there is information that has not been written yet.
+   *
+   * @throws IOException on any problem writing the index.
+   */
+  public synchronized void flush() throws IOException {
+    if (!written && !modules.isEmpty()) {
+      write();
+    }
+  }
+
+  private void write() throws IOException {
+    fileHelper.write(modules);
+    written = true;
+  }
+
+  /**
+   * Writes any pending information.
+   *
+   * @throws IOException on any problem writing the index.
+   */
+  public void close() throws IOException {
+    flush();
+  }
+
+  // --- object basics --------------------------------------------------------
+
+}
@@ -18,8 +18,16 @@ package de.smartics.maven.plugin.buildmetadata.common;
 import de.smartics.maven.plugin.buildmetadata.scm.LocallyModifiedInfo;
 import de.smartics.maven.plugin.buildmetadata.scm.Revision;
 import de.smartics.maven.plugin.buildmetadata.scm.RevisionNumberFetcher;
+import de.smartics.maven.plugin.buildmetadata.scm.RevisionNumberFetcherFactory;
 import de.smartics.maven.plugin.buildmetadata.scm.ScmException;
+import de.smartics.maven.plugin.buildmetadata.scm.ScmMetrics;
 import de.smartics.maven.plugin.buildmetadata.scm.ScmNoRevisionException;
+import de.smartics.maven.plugin.buildmetadata.scm.WorkingCopyFingerprint;
+import de.smartics.maven.plugin.buildmetadata.scm.WorkingCopyState;
+import de.smartics.maven.plugin.buildmetadata.scm.WorkingCopyStateStore;
+import de.smartics.maven.plugin.buildmetadata.scm.git.GitRepository;
+import de.smartics.maven.plugin.buildmetadata.scm.git.GitSubmoduleScanner;
+import de.smartics.maven.plugin.buildmetadata.scm.git.GitSubmoduleScanner.Submodule;
 import de.smartics.maven.plugin.buildmetadata.scm.maven.MavenScmRevisionNumberFetcher;
 import de.smartics.maven.plugin.buildmetadata.scm.maven.ScmAccessInfo;
 import de.smartics.maven.plugin.buildmetadata.scm.maven.ScmConnectionInfo;
@@ -27,13 +35,26 @@ import de.smartics.maven.plugin.buildmetadata.scm.maven.ScmConnectionInfo;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.maven.scm.ScmFileSet;
+import org.apache.maven.scm.ScmVersion;
 import org.apache.maven.scm.manager.ScmManager;
+import org.apache.maven.scm.provider.ScmUrlUtils;
 
+import java.io.File;
+import java.io.IOException;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
+import java.util.Collections;
 import java.util.Date;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Helper to access the revision information.
@@ -71,6 +92,24 @@ public final class RevisionHelper {
    */
   private final String buildDatePattern;
 
+  /**
+   * The cache to share the state of working copies with other modules of the
+   * reactor. May be <code>null</code> if each module queries the SCM.
+   */
+  private final SessionCache sessionCache;
+
+  /**
+   * The executor to run queries to the SCM with a time limit or concurrently.
+   * If <code>null</code>, an executor is created for the queries of this
+   * helper.
+   */
+  private final SessionExecutor executor;
+
+  /**
+   * The factory to create the fetchers to query the SCM.
+   */
+  private final RevisionNumberFetcherFactory fetcherFactory;
+
   // ****************************** Initializer *******************************
 
   // ****************************** Constructors ******************************
@@ -86,10 +125,61 @@ public final class RevisionHelper {
   public RevisionHelper(final ScmManager scmManager,
       final ScmConnectionInfo scmConnectionInfo,
       final ScmAccessInfo scmAccessInfo, final String buildDatePattern) {
+    this(scmManager, scmConnectionInfo, scmAccessInfo, buildDatePattern, null);
+  }
+
+  /**
+   * Constructor to share the fetched SCM information within the reactor.
+   *
+   * @param scmManager the manager instance to access the SCM system.
+   * @param scmConnectionInfo the information to connect to the SCM.
+   * @param scmAccessInfo the information to query the SCM.
+   * @param buildDatePattern the date pattern to use to format revision dates.
+   * @param sessionCache the cache to share the state of working copies with
+   *        other modules of the reactor. May be <code>null</code>.
+   */
+  public RevisionHelper(final ScmManager scmManager,
+      final ScmConnectionInfo scmConnectionInfo,
+      final ScmAccessInfo scmAccessInfo, final String buildDatePattern,
+      final SessionCache sessionCache) {
+    this(scmManager, scmConnectionInfo, scmAccessInfo, buildDatePattern,
+        sessionCache, null);
+  }
+
+  /**
+   * Constructor to share the fetched SCM information and the threads to query
+   * the SCM within the reactor.
+   *
+   * @param scmManager the manager instance to access the SCM system.
+   * @param scmConnectionInfo the information to connect to the SCM.
+   * @param scmAccessInfo the information to query the SCM.
+   * @param buildDatePattern the date pattern to use to format revision dates.
+   * @param sessionCache the cache to share the state of working copies with
+   *        other modules of the reactor. May be <code>null</code>.
+   * @param executor the executor to run queries to the SCM with a time limit
+   *        or concurrently. May be <code>null</code>.
+   */
+  public RevisionHelper(final ScmManager scmManager,
+      final ScmConnectionInfo scmConnectionInfo,
+      final ScmAccessInfo scmAccessInfo, final String buildDatePattern,
+      final SessionCache sessionCache, final SessionExecutor executor) {
+    this(scmManager, scmConnectionInfo, scmAccessInfo, buildDatePattern,
+        sessionCache, executor, RevisionNumberFetcherFactory.getDefault());
+  }
+
+  RevisionHelper(final ScmManager scmManager,
+      final ScmConnectionInfo scmConnectionInfo,
+      final ScmAccessInfo scmAccessInfo, final String buildDatePattern,
+      final SessionCache sessionCache, final SessionExecutor executor,
+      final RevisionNumberFetcherFactory fetcherFactory) {
     this.scmManager = scmManager;
     this.scmConnectionInfo = scmConnectionInfo;
     this.scmAccessInfo = scmAccessInfo;
     this.buildDatePattern = buildDatePattern;
+    this.sessionCache = sessionCache;
+    this.executor =
+        executor != null ? executor : SessionExecutor.forSession(null);
+    this.fetcherFactory = fetcherFactory;
   }
 
   // ****************************** Inner Classes *****************************
@@ -112,11 +202,18 @@ public final class RevisionHelper {
   public void provideScmBuildInfo(final Properties buildMetaDataProperties,
       final ScmControl scmControl) throws ScmException {
     final boolean failOnMissingRevision = scmControl.isFailOnMissingRevision();
+    final boolean validateCheckout = scmControl.isValidateCheckout();
 
-    final RevisionNumberFetcher revisionFetcher =
-        new MavenScmRevisionNumberFetcher(scmManager, scmConnectionInfo,
-            scmAccessInfo);
-    final Revision revision = revisionFetcher.fetchLatestRevisionNumber();
+    final ScmMetrics metrics = scmAccessInfo.getMetrics();
+    final long start = metrics.start();
+    final WorkingCopyState state;
+    try {
+      state = fetchWorkingCopyState(validateCheckout);
+    } finally {
+      metrics.stop("total", start);
+      provideMetrics(buildMetaDataProperties, metrics);
+    }
+    final Revision revision = state.getRevision();
     if (revision != null) {
       buildMetaDataProperties.setProperty(Constant.PROP_NAME_SCM_URL,
           scmConnectionInfo.getConnectionUrl());
@@ -129,44 +226,613 @@ public final class RevisionHelper {
       final String revisionDateString = format.format(revisionDate);
       buildMetaDataProperties.setProperty(Constant.PROP_NAME_SCM_REVISION_DATE,
           revisionDateString);
+      if (isGit() && isShallowGitClone(scmAccessInfo.getRootDirectory())) {
+        buildMetaDataProperties
+            .setProperty(Constant.PROP_NAME_SCM_HISTORY_TRUNCATED, "true");
+      }
 
-      final boolean validateCheckout = scmControl.isValidateCheckout();
       if (validateCheckout) {
-        provideLocallyModifiedInfo(buildMetaDataProperties, revisionFetcher);
+        provideLocallyModifiedInfo(buildMetaDataProperties, state);
+      }
+      if (scmAccessInfo.isAddSubmoduleInfo() && isGit()) {
+        provideSubmoduleInfo(buildMetaDataProperties, validateCheckout);
+      }
+    } else if (state.isTimedOut()) {
+      if (failOnMissingRevision) {
+        throw new ScmNoRevisionException(
+            "Cannot fetch SCM revision within the time budget of "
+                + scmAccessInfo.getTimeBudget() + "ms. " + scmConnectionInfo);
       }
+      provideUnknownScmBuildInfo(buildMetaDataProperties, validateCheckout);
     } else if (failOnMissingRevision) {
       throw new ScmNoRevisionException(
           "Cannot fetch SCM revision. " + scmConnectionInfo);
     }
   }
 
+  /**
+   * Adds the metrics of the calls to the SCM to the build properties and
+   * writes them to the metrics file, if requested.
+   *
+   * @param buildMetaDataProperties the build meta data properties.
+   * @param metrics the metrics of the calls to the SCM.
+   */
+  private void provideMetrics(final Properties buildMetaDataProperties,
+      final ScmMetrics metrics) {
+    if (scmAccessInfo.isAddMetrics()) {
+      metrics.addTo(buildMetaDataProperties);
+    }
+    final File metricsFile = scmAccessInfo.getMetricsFile();
+    if (metricsFile != null) {
+      try {
+        metrics.write(metricsFile);
+      } catch (final IOException e) {
+        LOG.warn("Cannot write SCM metrics to " + metricsFile + ": "
+                 + e.getMessage());
+      }
+    }
+  }
+
+  /**
+   * Adds the revisions of the Git submodules within the directory of the
+   * module. The submodules of the working tree are scanned once per session.
+   *
+   * @param buildMetaDataProperties the build meta data properties.
+   * @param validateCheckout the flag to check submodules for modifications.
+   */
+  private void provideSubmoduleInfo(final Properties buildMetaDataProperties,
+      final boolean validateCheckout) {
+    final File rootDirectory = scmAccessInfo.getRootDirectory();
+    final GitRepository repository;
+    final String prefix;
+    try {
+      repository = GitRepository.find(rootDirectory);
+      if (repository == null) {
+        return;
+      }
+      prefix = repository.getRelativePath(rootDirectory);
+    } catch (final IOException e) {
+      LOG.warn("Cannot read the Git submodules of " + rootDirectory + ": "
+               + e.getMessage());
+      return;
+    }
+
+    final DateFormat format =
+        new SimpleDateFormat(buildDatePattern, Locale.ENGLISH);
+    for (final Submodule submodule : scanSubmodules(repository,
+        validateCheckout)) {
+      final String path = submodule.getPath();
+      if (!path.startsWith(prefix)) {
+        continue;
+      }
+      final String name = Constant.PROP_NAME_SCM_SUBMODULE_PREFIX + path + '.';
+      final String id = submodule.getId();
+      buildMetaDataProperties.setProperty(name + "id",
+          id != null ? id : submodule.getRecordedId());
+      final Date date = submodule.getDate();
+      if (date != null) {
+        buildMetaDataProperties.setProperty(name + "date", format.format(date));
+      }
+      final Boolean locallyModified = submodule.getLocallyModified();
+      if (locallyModified != null) {
+        buildMetaDataProperties.setProperty(name + "locallyModified",
+            locallyModified.toString());
+      }
+    }
+  }
+
+  private List<Submodule> scanSubmodules(final GitRepository repository,
+      final boolean validateCheckout) {
+    if (sessionCache == null) {
+      return readSubmodules(repository, validateCheckout);
+    }
+
+    final String key = "git.submodules:"
+                       + repository.getWorkTree().getAbsolutePath() + '|'
+                       + validateCheckout;
+    return sessionCache.get(key, new Callable<List<Submodule>>() {
+      public List<Submodule> call() {
+        return readSubmodules(repository, validateCheckout);
+      }
+    });
+  }
+
+  private List<Submodule> readSubmodules(final GitRepository repository,
+      final boolean validateCheckout) {
+    try {
+      return new GitSubmoduleScanner(repository, executor)
+          .scan(validateCheckout);
+    } catch (final IOException e) {
+      LOG.warn("Cannot read the Git submodules of " + repository + ": "
+               + e.getMessage());
+      return Collections.<Submodule> emptyList();
+    }
+  }
+
+  private void provideUnknownScmBuildInfo(
+      final Properties buildMetaDataProperties,
+      final boolean validateCheckout) {
+    buildMetaDataProperties.setProperty(Constant.PROP_NAME_SCM_URL,
+        scmConnectionInfo.getConnectionUrl());
+    buildMetaDataProperties.setProperty(Constant.PROP_NAME_SCM_REVISION_ID,
+        "unknown");
+    buildMetaDataProperties.setProperty(Constant.PROP_NAME_SCM_REVISION_DATE,
+        "unknown");
+    if (validateCheckout) {
+      buildMetaDataProperties.setProperty(
+          Constant.PROP_NAME_SCM_LOCALLY_MODIFIED, "unknown");
+    }
+  }
+
+  /**
+   * Fetches the state of the working copy. If a state cache file is provided
+   * and the fingerprint of the working copy matches the stored fingerprint,
+   * the stored state is returned without querying the SCM. Otherwise the state
+   * is fetched from the SCM and stored for the next build.
+   *
+   * @param validateCheckout the flag to check for locally modified files.
+   * @return the state of the working copy.
+   * @throws ScmException if the revision information cannot be fetched.
+   */
+  private WorkingCopyState fetchWorkingCopyState(
+      final boolean validateCheckout) throws ScmException {
+    final File stateCacheFile = scmAccessInfo.getStateCacheFile();
+    if (stateCacheFile == null) {
+      return fetchWorkingCopyStateInTime(validateCheckout);
+    }
+
+    final String fingerprint = calculateFingerprint(validateCheckout);
+    if (fingerprint == null) {
+      return fetchWorkingCopyStateInTime(validateCheckout);
+    }
+
+    final WorkingCopyStateStore store =
+        new WorkingCopyStateStore(stateCacheFile);
+    final WorkingCopyState storedState = store.load(fingerprint);
+    if (storedState != null) {
+      if (LOG.isDebugEnabled()) {
+        LOG.debug("  Reusing SCM information stored in " + stateCacheFile
+                  + '.');
+      }
+      return storedState;
+    }
+
+    final WorkingCopyState state =
+        fetchWorkingCopyStateInTime(validateCheckout);
+    store.store(fingerprint, state);
+    return state;
+  }
+
+  /**
+   * Fetches the state of the working copy from the SCM within the time budget.
+   * The query is run by the executor shared with the other modules of the
+   * reactor. If the budget is exceeded, the query is cancelled, which also
+   * terminates the SCM processes started by it. The exceeded budget is
+   * recorded in the session cache so that the other modules of the reactor do
+   * not query the SCM again.
+   *
+   * @param validateCheckout the flag to check for locally modified files.
+   * @return the state of the working copy. If the budget has been exceeded,
+   *         the state is marked as timed out.
+   * @throws ScmException if the revision information cannot be fetched.
+   */
+  private WorkingCopyState fetchWorkingCopyStateInTime(
+      final boolean validateCheckout) throws ScmException {
+    final long budget = scmAccessInfo.getTimeBudget();
+    if (budget <= 0) {
+      return fetchScmWorkingCopyState(validateCheckout);
+    }
+
+    final String budgetKey = "scm.budgetExceeded:" + createRevisionCacheKey();
+    if (sessionCache != null && sessionCache.contains(budgetKey)) {
+      if (LOG.isDebugEnabled()) {
+        LOG.debug("  SCM time budget already exceeded for " + budgetKey + '.');
+      }
+      return createTimedOutState(null);
+    }
+
+    final Future<WorkingCopyState> task =
+        executor.submit(new Callable<WorkingCopyState>() {
+          public WorkingCopyState call() throws ScmException {
+            return fetchScmWorkingCopyState(validateCheckout);
+          }
+        });
+
+    try {
+      return task.get(budget, TimeUnit.MILLISECONDS);
+    } catch (final TimeoutException e) {
+      task.cancel(true);
+      if (sessionCache != null) {
+        sessionCache.put(budgetKey, Boolean.TRUE);
+      }
+      LOG.warn("Fetching the SCM information exceeded the time budget of "
+               + budget + "ms and has been cancelled. " + scmConnectionInfo);
+      return createTimedOutState(e);
+    } catch (final InterruptedException e) {
+      task.cancel(true);
+      Thread.currentThread().interrupt();
+      throw new ScmException("Interrupted while fetching SCM information.", e);
+    } catch (final ExecutionException e) {
+      if (sessionCache != null && sessionCache.contains(budgetKey)) {
+        return createTimedOutState(null);
+      }
+      final Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new ScmException("Cannot fetch SCM information.", cause);
+    }
+  }
+
+  /**
+   * Creates the state to use if the SCM could not be queried within the time
+   * budget. If a state cache file is provided, the state stored by the last
+   * build is used, although it may be out of date. The check for locally
+   * modified files is always reported as failed.
+   *
+   * @param cause the reason for the missing state. May be <code>null</code>.
+   * @return the state marked as timed out.
+   */
+  private WorkingCopyState createTimedOutState(final Exception cause) {
+    final Exception failure = cause != null ? cause : new TimeoutException(
+        "SCM time budget of " + scmAccessInfo.getTimeBudget()
+            + "ms exceeded.");
+    final File stateCacheFile = scmAccessInfo.getStateCacheFile();
+    if (stateCacheFile != null) {
+      final WorkingCopyState storedState =
+          new WorkingCopyStateStore(stateCacheFile).loadLatest();
+      if (storedState != null && storedState.getRevision() != null) {
+        if (LOG.isDebugEnabled()) {
+          LOG.debug("  Using SCM revision of a previous build stored in "
+                    + stateCacheFile + '.');
+        }
+        return new WorkingCopyState(storedState.getRevision(), null, failure,
+            true);
+      }
+    }
+    return new WorkingCopyState(null, null, failure, true);
+  }
+
+  private String calculateFingerprint(final boolean validateCheckout) {
+    final File rootDirectory = scmAccessInfo.getRootDirectory();
+    final ScmVersion remoteVersion = scmConnectionInfo.getRemoteVersion();
+    final String configuration = scmConnectionInfo.getConnectionUrl()
+                                 + "|validateCheckout=" + validateCheckout
+                                 + "|ignoreDotFiles="
+                                 + scmAccessInfo.isIgnoreDotFilesInBaseDir()
+                                 + "|native="
+                                 + scmAccessInfo.isNativeScmAccess()
+                                 + "|mergeBase="
+                                 + scmAccessInfo.isCompareWithMergeBase()
+                                 + "|includes="
+                                 + scmAccessInfo.getModificationIncludes()
+                                 + "|excludes="
+                                 + scmAccessInfo.getModificationExcludes()
+                                 + "|ignores="
+                                 + scmAccessInfo.getModificationIgnores()
+                                 + "|ignoreFile="
+                                 + scmAccessInfo.getModificationIgnoreFile()
+                                 + "|maxFiles="
+                                 + scmAccessInfo.getMaxLocallyModifiedFiles();
+    final File buildDirectory = scmAccessInfo.getBuildDirectory();
+    final Set<String> excludedDirectoryNames = buildDirectory != null
+        ? Collections.singleton(buildDirectory.getName())
+        : Collections.<String> emptySet();
+    return WorkingCopyFingerprint.calculate(rootDirectory, configuration,
+        remoteVersion != null ? remoteVersion.getName() : null,
+        excludedDirectoryNames);
+  }
+
+  /**
+   * Fetches the state of the working copy from the SCM. If a session cache is
+   * provided, the state is shared with all modules of the reactor that refer
+   * to the same working copy: the revision is shared by all modules of the
+   * working copy, the information about locally modified files by all modules
+   * with the same base directory.
+   *
+   * @param validateCheckout the flag to check for locally modified files.
+   * @return the state of the working copy.
+   * @throws ScmException if the revision information cannot be fetched.
+   */
+  private WorkingCopyState fetchScmWorkingCopyState(
+      final boolean validateCheckout) throws ScmException {
+    if (sessionCache == null) {
+      return queryWorkingCopyState(validateCheckout);
+    }
+
+    if (!validateCheckout) {
+      return new WorkingCopyState(fetchRevision(createRevisionFetcher()), null,
+          null);
+    }
+
+    final String key = createStateCacheKey();
+    if (LOG.isDebugEnabled() && sessionCache.contains(key)) {
+      LOG.debug("  Reusing SCM information for " + key + '.');
+    }
+    return sessionCache.get(key, new Callable<WorkingCopyState>() {
+      public WorkingCopyState call() throws ScmException {
+        return queryWorkingCopyState(true);
+      }
+    });
+  }
+
+  /**
+   * Fetches the latest revision. If a session cache is provided, the revision
+   * is shared with all modules of the reactor that refer to the same working
+   * copy.
+   *
+   * @param revisionFetcher the fetcher to query the SCM.
+   * @return the latest revision or <code>null</code> if none has been found.
+   * @throws ScmException if the revision information cannot be fetched.
+   */
+  private Revision fetchRevision(final RevisionNumberFetcher revisionFetcher)
+      throws ScmException {
+    if (sessionCache == null) {
+      return revisionFetcher.fetchLatestRevisionNumber();
+    }
+
+    final String key = createRevisionCacheKey();
+    if (LOG.isDebugEnabled() && sessionCache.contains(key)) {
+      LOG.debug("  Reusing SCM revision for " + key + '.');
+    }
+    return sessionCache.get(key, new Callable<Revision>() {
+      public Revision call() throws ScmException {
+        return revisionFetcher.fetchLatestRevisionNumber();
+      }
+    });
+  }
+
+  private WorkingCopyState queryWorkingCopyState(
+      final boolean validateCheckout) throws ScmException {
+    final RevisionNumberFetcher revisionFetcher = createRevisionFetcher();
+    if (validateCheckout && scmAccessInfo.isConcurrentQueries()) {
+      return queryWorkingCopyStateConcurrently(revisionFetcher);
+    }
+
+    final Revision revision = fetchRevision(revisionFetcher);
+    if (revision == null || !validateCheckout) {
+      return new WorkingCopyState(revision, null, null);
+    }
+
+    try {
+      final LocallyModifiedInfo info =
+          revisionFetcher.containsModifications(createFileSet());
+      return new WorkingCopyState(revision, info, null);
+    } catch (final Exception e) {
+      return new WorkingCopyState(revision, null, e);
+    }
+  }
+
+  /**
+   * Fetches the revision and checks for modifications concurrently. Both
+   * queries are run by the executor shared with the other modules of the
+   * session. If the revision cannot be fetched in time, it is treated as
+   * missing. If the check for modifications cannot be finished in time, it is
+   * treated as failed.
+   *
+   * @param revisionFetcher the fetcher to query the SCM.
+   * @return the state of the working copy.
+   * @throws ScmException if the revision information cannot be fetched.
+   */
+  private WorkingCopyState queryWorkingCopyStateConcurrently(
+      final RevisionNumberFetcher revisionFetcher) throws ScmException {
+    final long timeout = scmAccessInfo.getQueryTimeout();
+    final long deadline =
+        timeout > 0 ? System.currentTimeMillis() + timeout : Long.MAX_VALUE;
+    final Future<Revision> revisionFuture =
+        executor.submit(new Callable<Revision>() {
+          public Revision call() throws ScmException {
+            return fetchRevision(revisionFetcher);
+          }
+        });
+    final Future<LocallyModifiedInfo> modificationFuture =
+        executor.submit(new Callable<LocallyModifiedInfo>() {
+          public LocallyModifiedInfo call() throws Exception {
+            return revisionFetcher.containsModifications(createFileSet());
+          }
+        });
+    try {
+      final Revision revision = joinRevision(revisionFuture, deadline);
+      if (revision == null) {
+        return new WorkingCopyState(null, null, null);
+      }
+
+      try {
+        final LocallyModifiedInfo info = join(modificationFuture, deadline);
+        return new WorkingCopyState(revision, info, null);
+      } catch (final Exception e) {
+        return new WorkingCopyState(revision, null, e);
+      }
+    } finally {
+      revisionFuture.cancel(true);
+      modificationFuture.cancel(true);
+    }
+  }
+
+  private Revision joinRevision(final Future<Revision> future,
+      final long deadline) throws ScmException {
+    try {
+      return join(future, deadline);
+    } catch (final TimeoutException e) {
+      LOG.warn("Fetching the SCM revision timed out after "
+               + scmAccessInfo.getQueryTimeout() + "ms. " + scmConnectionInfo);
+      return null;
+    } catch (final ScmException e) {
+      throw e;
+    } catch (final RuntimeException e) {
+      throw e;
+    } catch (final Exception e) {
+      throw new ScmException("Cannot fetch SCM revision.", e);
+    }
+  }
+
+  private static <T> T join(final Future<T> future, final long deadline)
+      throws Exception {
+    try {
+      if (deadline == Long.MAX_VALUE) {
+        return future.get();
+      }
+      return future.get(Math.max(0L, deadline - System.currentTimeMillis()),
+          TimeUnit.MILLISECONDS);
+    } catch (final TimeoutException e) {
+      future.cancel(true);
+      throw e;
+    } catch (final InterruptedException e) {
+      future.cancel(true);
+      Thread.currentThread().interrupt();
+      throw e;
+    } catch (final ExecutionException e) {
+      final Throwable cause = e.getCause();
+      if (cause instanceof Exception) {
+        throw (Exception) cause;
+      }
+      throw e;
+    }
+  }
+
+  private ScmFileSet createFileSet() throws IOException {
+    return scmAccessInfo.createModificationFileSet();
+  }
+
+  private RevisionNumberFetcher createRevisionFetcher() {
+    final RevisionNumberFetcher mavenFetcher =
+        new MavenScmRevisionNumberFetcher(scmManager, scmConnectionInfo,
+            scmAccessInfo);
+    return fetcherFactory.create(scmConnectionInfo, scmAccessInfo,
+        mavenFetcher);
+  }
+
+  private boolean isGit() {
+    return "git"
+        .equals(ScmUrlUtils.getProvider(scmConnectionInfo.getConnectionUrl()));
+  }
+
+  /**
+   * Creates the key to the cached revision. Git commands work on the whole
+   * repository, so all modules within the same Git working copy share one key,
+   * regardless of the module path Maven appends to inherited connection URLs.
+   * For all other SCM systems the connection URL and the directory of the
+   * module are used.
+   *
+   * @return the key to the cached revision.
+   */
+  private String createRevisionCacheKey() {
+    final String connectionUrl = scmConnectionInfo.getConnectionUrl();
+    final File rootDirectory = scmAccessInfo.getRootDirectory();
+    final StringBuilder buffer = new StringBuilder(128);
+    buffer.append("scm.revision:");
+    final File gitRoot =
+        isGit() ? findGitWorkingCopyRoot(rootDirectory) : null;
+    if (gitRoot != null) {
+      buffer.append("git:").append(gitRoot.getAbsolutePath());
+    } else {
+      buffer.append(connectionUrl).append('|')
+          .append(rootDirectory.getAbsolutePath());
+    }
+
+    final ScmVersion remoteVersion = scmConnectionInfo.getRemoteVersion();
+    if (remoteVersion != null) {
+      buffer.append("|remote=").append(remoteVersion.getName());
+    }
+    buffer.append("|native=").append(scmAccessInfo.isNativeScmAccess());
+    return buffer.toString();
+  }
+
+  /**
+   * Creates the key to the cached working copy state including the
+   * information about locally modified files. The check for modifications is
+   * restricted to the directory of the module, so the key contains this
+   * directory.
+   *
+   * @return the key to the cached working copy state.
+   */
+  private String createStateCacheKey() {
+    final StringBuilder buffer = new StringBuilder(128);
+    buffer.append("scm.workingCopyState:")
+        .append(scmConnectionInfo.getConnectionUrl()).append('|')
+        .append(scmAccessInfo.getRootDirectory().getAbsolutePath());
+    final ScmVersion remoteVersion = scmConnectionInfo.getRemoteVersion();
+    if (remoteVersion != null) {
+      buffer.append("|remote=").append(remoteVersion.getName());
+    }
+    buffer.append("|ignoreDotFiles=")
+        .append(scmAccessInfo.isIgnoreDotFilesInBaseDir())
+        .append("|native=").append(scmAccessInfo.isNativeScmAccess())
+        .append("|concurrent=").append(scmAccessInfo.isConcurrentQueries())
+        .append("|includes=").append(scmAccessInfo.getModificationIncludes())
+        .append("|excludes=").append(scmAccessInfo.getModificationExcludes())
+        .append("|ignores=").append(scmAccessInfo.getModificationIgnores())
+        .append("|ignoreFile=")
+        .append(scmAccessInfo.getModificationIgnoreFile())
+        .append("|maxFiles=")
+        .append(scmAccessInfo.getMaxLocallyModifiedFiles());
+    return buffer.toString();
+  }
+
+  /**
+   * Checks if the given directory is part of a shallow Git clone.
+   *
+   * @param directory the directory within the working copy.
+   * @return <code>true</code> if the history of the working copy is truncated,
+   *         <code>false</code> otherwise or if the Git directory cannot be
+   *         read.
+   */
+  private static boolean isShallowGitClone(final File directory) {
+    try {
+      final GitRepository repository = GitRepository.find(directory);
+      return repository != null && repository.isShallow();
+    } catch (final IOException e) {
+      if (LOG.isDebugEnabled()) {
+        LOG.debug("  Cannot check for shallow clone in " + directory + ": "
+                  + e.getMessage());
+      }
+      return false;
+    }
+  }
+
+  private static File findGitWorkingCopyRoot(final File directory) {
+    File current = directory.getAbsoluteFile();
+    while (current != null) {
+      if (new File(current, ".git").exists()) {
+        return current;
+      }
+      current = current.getParentFile();
+    }
+    return null;
+  }
+
   // --- object basics --------------------------------------------------------
 
   /**
    * Provides the information of locally modified files to the build properties.
    *
    * @param buildMetaDataProperties the build meta data properties.
-   * @param revisionFetcher the fetcher to use.
+   * @param state the state of the working copy.
    * @throws ScmException if the creation of the modification information
    *         failed.
    */
   private void provideLocallyModifiedInfo(
-      final Properties buildMetaDataProperties,
-      final RevisionNumberFetcher revisionFetcher) throws ScmException {
+      final Properties buildMetaDataProperties, final WorkingCopyState state)
+      throws ScmException {
     try {
-      final ScmFileSet fileSet =
-          new ScmFileSet(scmAccessInfo.getRootDirectory(), "**/*", null);
-      final LocallyModifiedInfo info =
-          revisionFetcher.containsModifications(fileSet);
+      final Exception failure = state.getModificationFailure();
+      if (failure != null) {
+        throw failure;
+      }
+
+      final LocallyModifiedInfo info = state.getLocallyModifiedInfo();
       buildMetaDataProperties.setProperty(
           Constant.PROP_NAME_SCM_LOCALLY_MODIFIED,
           String.valueOf(info.isLocallyModified()));
       if (info.isLocallyModified()) {
-        buildMetaDataProperties.setProperty(
-            Constant.PROP_NAME_SCM_LOCALLY_MODIFIED_FILES, info.getFiles());
+        provideModifiedFiles(buildMetaDataProperties, info);
         if (scmAccessInfo.isFailIndicated()) {
           throw new ScmException(
-              "Local Modifications detected (" + info.getFiles() + ").");
+              "Local Modifications detected (" + (info.getFiles() != null
+                  ? info.getFiles() : info.getFileCount() + " files") + ").");
         }
       }
     } catch (final Exception e) {
@@ -181,4 +847,29 @@ public final class RevisionHelper {
       }
     }
   }
+
+  private static void provideModifiedFiles(
+      final Properties buildMetaDataProperties,
+      final LocallyModifiedInfo info) {
+    if (info.getFiles() != null) {
+      buildMetaDataProperties.setProperty(
+          Constant.PROP_NAME_SCM_LOCALLY_MODIFIED_FILES, info.getFiles());
+    }
+    if (info.getFileCount() >= 0) {
+      buildMetaDataProperties.setProperty(
+          Constant.PROP_NAME_SCM_LOCALLY_MODIFIED_COUNT,
+          String.valueOf(info.getFileCount()));
+    }
+    for (final Map.Entry<String, Integer> entry : info.getStatusCounts()
+        .entrySet()) {
+      buildMetaDataProperties.setProperty(
+          Constant.PROP_NAME_SCM_LOCALLY_MODIFIED_COUNT_PREFIX
+              + entry.getKey(),
+          String.valueOf(entry.getValue()));
+    }
+    if (info.getDigest() != null) {
+      buildMetaDataProperties.setProperty(
+          Constant.PROP_NAME_SCM_LOCALLY_MODIFIED_DIGEST, info.getDigest());
+    }
+  }
 }
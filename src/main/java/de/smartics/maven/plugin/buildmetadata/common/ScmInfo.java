@@ -19,6 +19,7 @@ import org.apache.maven.scm.ScmVersion;
 import org.apache.maven.scm.manager.ScmManager;
 
 import java.io.File;
+import java.util.List;
 
 /**
  * Bundles the SCM information to be passed to meta data providers.
@@ -93,6 +94,121 @@ public final class ScmInfo {
    */
   private final ScmVersion remoteVersion;
 
+  /**
+   * The cache to share SCM information with all modules of the reactor. If
+   * <code>null</code>, each module queries the SCM on its own.
+   */
+  private final SessionCache sessionCache;
+
+  /**
+   * The executor to run queries to the SCM in the background. If
+   * <code>null</code>, queries with a time limit use an executor of their
+   * own.
+   */
+  private final SessionExecutor executor;
+
+  /**
+   * The flag to read the SCM information directly from the metadata of the
+   * working copy instead of launching the SCM client.
+   */
+  private final boolean nativeScmAccess;
+
+  /**
+   * The flag to fetch the revision and to check for modifications
+   * concurrently.
+   */
+  private final boolean concurrentQueries;
+
+  /**
+   * The time in milliseconds to wait for the result of each concurrent query.
+   */
+  private final long queryTimeout;
+
+  /**
+   * The file to store the range of the last successful change log query in.
+   */
+  private final File queryRangeFile;
+
+  /**
+   * The file to store the state of the working copy in. If the fingerprint of
+   * the working copy has not changed, the stored state is used without
+   * querying the SCM.
+   */
+  private final File stateCacheFile;
+
+  /**
+   * The build directory of the module. It is not part of the working copy
+   * state.
+   */
+  private final File buildDirectory;
+
+  /**
+   * The patterns of the files to check for modifications.
+   */
+  private final List<String> modificationIncludes;
+
+  /**
+   * The patterns of the files not to check for modifications.
+   */
+  private final List<String> modificationExcludes;
+
+  /**
+   * The rules of the files to ignore in the check for modifications in the
+   * syntax of <code>.gitignore</code> files.
+   */
+  private final List<String> modificationIgnores;
+
+  /**
+   * The file with further rules of the files to ignore in the check for
+   * modifications.
+   */
+  private final File modificationIgnoreFile;
+
+  /**
+   * The maximum number of locally modified files to list in the build
+   * properties.
+   */
+  private final int maxLocallyModifiedFiles;
+
+  /**
+   * The file to write the complete list of locally modified files to.
+   */
+  private final File locallyModifiedFilesFile;
+
+  /**
+   * The time in milliseconds the SCM information has to be fetched in.
+   */
+  private final long timeBudget;
+
+  /**
+   * The flag to share Git processes with all modules of the build.
+   */
+  private final boolean reuseGitProcesses;
+
+  /**
+   * The flag to add the revisions of the Git submodules to the build
+   * properties.
+   */
+  private final boolean addSubmoduleInfo;
+
+  /**
+   * The flag to compare the working tree with the merge base of the remote
+   * version and HEAD by the names of the changed files only.
+   */
+  private final boolean compareWithMergeBase;
+
+  /**
+   * The flag to add the metrics of the calls to the SCM to the build
+   * properties.
+   */
+  private final boolean addScmMetrics;
+
+  /**
+   * The file to write the metrics of the calls to the SCM to. May be
+   * <code>null</code> if the metrics are not to be written to a file.
+   */
+  private final File scmMetricsFile;
+
   // ****************************** Initializer *******************************
 
   // ****************************** Constructors ******************************
@@ -114,8 +230,7 @@ public final class ScmInfo {
    *        data.
    * @param remoteVersion the branch or tag version on the remote server to
    *        compare against.
-   * @note This argument list is quite long. The next time we touch this class,
-   *       we should provide a builder.
+   * @see Builder
    */
   public ScmInfo(final ScmManager scmManager, final String connectionType, // NOPMD
       final String scmDateFormat, final File basedir,
@@ -132,10 +247,615 @@ public final class ScmInfo {
     this.buildDatePattern = buildDatePattern;
     this.scmControl = scmControl;
     this.remoteVersion = remoteVersion;
+    this.sessionCache = null;
+    this.executor = null;
+    this.nativeScmAccess = false;
+    this.concurrentQueries = false;
+    this.queryTimeout = 0L;
+    this.queryRangeFile = null;
+    this.stateCacheFile = null;
+    this.buildDirectory = null;
+    this.modificationIncludes = null;
+    this.modificationExcludes = null;
+    this.modificationIgnores = null;
+    this.modificationIgnoreFile = null;
+    this.maxLocallyModifiedFiles = -1;
+    this.locallyModifiedFilesFile = null;
+    this.timeBudget = 0L;
+    this.reuseGitProcesses = false;
+    this.addSubmoduleInfo = false;
+    this.compareWithMergeBase = false;
+    this.addScmMetrics = false;
+    this.scmMetricsFile = null;
+  }
+
+  private ScmInfo(final Builder builder) {
+    this.scmManager = builder.scmManager;
+    this.connectionType = builder.connectionType;
+    this.scmDateFormat = builder.scmDateFormat;
+    this.basedir = builder.basedir;
+    this.scmCrendentials = builder.scmCrendentials;
+    this.tagBase = builder.tagBase;
+    this.queryRangeInDays = builder.queryRangeInDays;
+    this.buildDatePattern = builder.buildDatePattern;
+    this.scmControl = builder.scmControl;
+    this.remoteVersion = builder.remoteVersion;
+    this.sessionCache = builder.sessionCache;
+    this.executor = builder.executor;
+    this.nativeScmAccess = builder.nativeScmAccess;
+    this.concurrentQueries = builder.concurrentQueries;
+    this.queryTimeout = builder.queryTimeout;
+    this.queryRangeFile = builder.queryRangeFile;
+    this.stateCacheFile = builder.stateCacheFile;
+    this.buildDirectory = builder.buildDirectory;
+    this.modificationIncludes = builder.modificationIncludes;
+    this.modificationExcludes = builder.modificationExcludes;
+    this.modificationIgnores = builder.modificationIgnores;
+    this.modificationIgnoreFile = builder.modificationIgnoreFile;
+    this.maxLocallyModifiedFiles = builder.maxLocallyModifiedFiles;
+    this.locallyModifiedFilesFile = builder.locallyModifiedFilesFile;
+    this.timeBudget = builder.timeBudget;
+    this.reuseGitProcesses = builder.reuseGitProcesses;
+    this.addSubmoduleInfo = builder.addSubmoduleInfo;
+    this.compareWithMergeBase = builder.compareWithMergeBase;
+    this.addScmMetrics = builder.addScmMetrics;
+    this.scmMetricsFile = builder.scmMetricsFile;
   }
 
   // ****************************** Inner Classes *****************************
 
+  /**
+   * Builds instances of {@link ScmInfo}.
+   */
+  public static final class Builder {
+    /**
+     * The manager instance to access the SCM system.
+     */
+    private ScmManager scmManager;
+
+    /**
+     * The SCM connection to use. Can either be "connection" or
+     * "developerConnection".
+     */
+    private String connectionType;
+
+    /**
+     * The date format of the log entries that are retrieved from the SCM.
+     */
+    private String scmDateFormat;
+
+    /**
+     * The directory where the files under SCM control are located.
+     */
+    private File basedir;
+
+    /**
+     * The authentication for the SCM server.
+     */
+    private ScmCredentials scmCrendentials;
+
+    /**
+     * The url of tags base directory (used by svn protocol).
+     */
+    private String tagBase;
+
+    /**
+     * The range of the query in days to fetch change log entries from the SCM.
+     */
+    private int queryRangeInDays;
+
+    /**
+     * The date pattern to use to format the build and revision dates.
+     */
+    private String buildDatePattern;
+
+    /**
+     * The information to control the gathering of SCM meta data.
+     */
+    private ScmControl scmControl;
+
+    /**
+     * The branch or tag version on the remote server to compare against.
+     */
+    private ScmVersion remoteVersion;
+
+    /**
+     * The cache to share SCM information with all modules of the reactor.
+     */
+    private SessionCache sessionCache;
+
+    /**
+     * The executor to run queries to the SCM in the background.
+     */
+    private SessionExecutor executor;
+
+    /**
+     * The flag to read the SCM information directly from the metadata of the
+     * working copy.
+     */
+    private boolean nativeScmAccess;
+
+    /**
+     * The flag to fetch the revision and to check for modifications
+     * concurrently.
+     */
+    private boolean concurrentQueries;
+
+    /**
+     * The time in milliseconds to wait for the result of each concurrent
+     * query.
+     */
+    private long queryTimeout;
+
+    /**
+     * The file to store the range of the last successful change log query in.
+     */
+    private File queryRangeFile;
+
+    /**
+     * The file to store the state of the working copy in.
+     */
+    private File stateCacheFile;
+
+    /**
+     * The build directory of the module.
+     */
+    private File buildDirectory;
+
+    /**
+     * The patterns of the files to check for modifications.
+     */
+    private List<String> modificationIncludes;
+
+    /**
+     * The patterns of the files not to check for modifications.
+     */
+    private List<String> modificationExcludes;
+
+    /**
+     * The rules of the files to ignore in the check for modifications in the
+     * syntax of <code>.gitignore</code> files.
+     */
+    private List<String> modificationIgnores;
+
+    /**
+     * The file with further rules of the files to ignore in the check for
+     * modifications.
+     */
+    private File modificationIgnoreFile;
+
+    /**
+     * The maximum number of locally modified files to list in the build
+     * properties.
+     */
+    private int maxLocallyModifiedFiles = -1;
+
+    /**
+     * The file to write the complete list of locally modified files to.
+     */
+    private File locallyModifiedFilesFile;
+
+    /**
+     * The time in milliseconds the SCM information has to be fetched in.
+     */
+    private long timeBudget;
+
+    /**
+     * The flag to share Git processes with all modules of the build.
+     */
+    private boolean reuseGitProcesses;
+
+    /**
+     * The flag to add the revisions of the Git submodules to the build
+     * properties.
+     */
+    private boolean addSubmoduleInfo;
+
+    /**
+     * The flag to compare the working tree with the merge base of the remote
+     * version and HEAD by the names of the changed files only.
+     */
+    private boolean compareWithMergeBase;
+
+    /**
+     * The flag to add the metrics of the calls to the SCM to the build
+     * properties.
+     */
+    private boolean addScmMetrics;
+
+    /**
+     * The file to write the metrics of the calls to the SCM to. May be
+     * <code>null</code> if the metrics are not to be written to a file.
+     */
+    private File scmMetricsFile;
+
+    /**
+     * Sets the manager instance to access the SCM system.
+     *
+     * @param scmManager the manager instance to access the SCM system.
+     * @return a reference to this builder.
+     */
+    public Builder setScmManager(final ScmManager scmManager) {
+      this.scmManager = scmManager;
+      return this;
+    }
+
+    /**
+     * Sets the SCM connection to use. Can either be "connection" or
+     * "developerConnection".
+     *
+     * @param connectionType the SCM connection to use.
+     * @return a reference to this builder.
+     */
+    public Builder setConnectionType(final String connectionType) {
+      this.connectionType = connectionType;
+      return this;
+    }
+
+    /**
+     * Sets the date format of the log entries that are retrieved from the SCM.
+     *
+     * @param scmDateFormat the date format of the log entries.
+     * @return a reference to this builder.
+     */
+    public Builder setScmDateFormat(final String scmDateFormat) {
+      this.scmDateFormat = scmDateFormat;
+      return this;
+    }
+
+    /**
+     * Sets the directory where the files under SCM control are located.
+     *
+     * @param basedir the directory where the files under SCM control are
+     *        located.
+     * @return a reference to this builder.
+     */
+    public Builder setBasedir(final File basedir) {
+      this.basedir = basedir;
+      return this;
+    }
+
+    /**
+     * Sets the authentication for the SCM server.
+     *
+     * @param scmCrendentials the authentication for the SCM server.
+     * @return a reference to this builder.
+     */
+    public Builder setScmCrendentials(final ScmCredentials scmCrendentials) {
+      this.scmCrendentials = scmCrendentials;
+      return this;
+    }
+
+    /**
+     * Sets the url of tags base directory (used by svn protocol).
+     *
+     * @param tagBase the url of tags base directory.
+     * @return a reference to this builder.
+     */
+    public Builder setTagBase(final String tagBase) {
+      this.tagBase = tagBase;
+      return this;
+    }
+
+    /**
+     * Sets the range of the query in days to fetch change log entries from the
+     * SCM.
+     *
+     * @param queryRangeInDays the range of the query in days.
+     * @return a reference to this builder.
+     */
+    public Builder setQueryRangeInDays(final int queryRangeInDays) {
+      this.queryRangeInDays = queryRangeInDays;
+      return this;
+    }
+
+    /**
+     * Sets the date pattern to use to format the build and revision dates.
+     *
+     * @param buildDatePattern the date pattern to use to format the build and
+     *        revision dates.
+     * @return a reference to this builder.
+     */
+    public Builder setBuildDatePattern(final String buildDatePattern) {
+      this.buildDatePattern = buildDatePattern;
+      return this;
+    }
+
+    /**
+     * Sets the information to control the gathering of SCM meta data.
+     *
+     * @param scmControl the information to control the gathering of SCM meta
+     *        data.
+     * @return a reference to this builder.
+     */
+    public Builder setScmControl(final ScmControl scmControl) {
+      this.scmControl = scmControl;
+      return this;
+    }
+
+    /**
+     * Sets the branch or tag version on the remote server to compare against.
+     *
+     * @param remoteVersion the branch or tag version on the remote server to
+     *        compare against. May be <code>null</code>.
+     * @return a reference to this builder.
+     */
+    public Builder setRemoteVersion(final ScmVersion remoteVersion) {
+      this.remoteVersion = remoteVersion;
+      return this;
+    }
+
+    /**
+     * Sets the cache to share SCM information with all modules of the reactor.
+     *
+     * @param sessionCache the cache to share SCM information. May be
+     *        <code>null</code> if each module is to query the SCM on its own.
+     * @return a reference to this builder.
+     */
+    public Builder setSessionCache(final SessionCache sessionCache) {
+      this.sessionCache = sessionCache;
+      return this;
+    }
+
+    /**
+     * Sets the executor to run queries to the SCM in the background.
+     *
+     * @param executor the executor to run queries to the SCM. May be
+     *        <code>null</code>.
+     * @return a reference to this builder.
+     */
+    public Builder setExecutor(final SessionExecutor executor) {
+      this.executor = executor;
+      return this;
+    }
+
+    /**
+     * Sets the flag to read the SCM information directly from the metadata of
+     * the working copy instead of launching the SCM client.
+     *
+     * @param nativeScmAccess the flag to read the SCM information directly
+     *        from the metadata of the working copy.
+     * @return a reference to this builder.
+     */
+    public Builder setNativeScmAccess(final boolean nativeScmAccess) {
+      this.nativeScmAccess = nativeScmAccess;
+      return this;
+    }
+
+    /**
+     * Sets the flag to fetch the revision and to check for modifications
+     * concurrently.
+     *
+     * @param concurrentQueries the flag to fetch the revision and to check for
+     *        modifications concurrently.
+     * @return a reference to this builder.
+     */
+    public Builder setConcurrentQueries(final boolean concurrentQueries) {
+      this.concurrentQueries = concurrentQueries;
+      return this;
+    }
+
+    /**
+     * Sets the time in milliseconds to wait for the result of each concurrent
+     * query.
+     *
+     * @param queryTimeout the time in milliseconds to wait for the result of
+     *        each concurrent query. A value of zero or less waits without
+     *        limit.
+     * @return a reference to this builder.
+     */
+    public Builder setQueryTimeout(final long queryTimeout) {
+      this.queryTimeout = queryTimeout;
+      return this;
+    }
+
+    /**
+     * Sets the file to store the range of the last successful change log query
+     * in.
+     *
+     * @param queryRangeFile the file to store the range of the last successful
+     *        change log query in. May be <code>null</code> if the range is not
+     *        to be stored.
+     * @return a reference to this builder.
+     */
+    public Builder setQueryRangeFile(final File queryRangeFile) {
+      this.queryRangeFile = queryRangeFile;
+      return this;
+    }
+
+    /**
+     * Sets the file to store the state of the working copy in.
+     *
+     * @param stateCacheFile the file to store the state of the working copy
+     *        in. May be <code>null</code> if the state is not to be stored.
+     * @return a reference to this builder.
+     */
+    public Builder setStateCacheFile(final File stateCacheFile) {
+      this.stateCacheFile = stateCacheFile;
+      return this;
+    }
+
+    /**
+     * Sets the build directory of the module.
+     *
+     * @param buildDirectory the build directory of the module.
+     * @return a reference to this builder.
+     */
+    public Builder setBuildDirectory(final File buildDirectory) {
+      this.buildDirectory = buildDirectory;
+      return this;
+    }
+
+    /**
+     * Sets the patterns of the files to check for modifications, relative to
+     * the base directory.
+     *
+     * @param modificationIncludes the patterns of the files to check for
+     *        modifications. If <code>null</code> or empty, all files are
+     *        checked.
+     * @return a reference to this builder.
+     */
+    public Builder setModificationIncludes(
+        final List<String> modificationIncludes) {
+      this.modificationIncludes = modificationIncludes;
+      return this;
+    }
+
+    /**
+     * Sets the patterns of the files not to check for modifications, relative
+     * to the base directory.
+     *
+     * @param modificationExcludes the patterns of the files not to check for
+     *        modifications. May be <code>null</code>.
+     * @return a reference to this builder.
+     */
+    public Builder setModificationExcludes(
+        final List<String> modificationExcludes) {
+      this.modificationExcludes = modificationExcludes;
+      return this;
+    }
+
+    /**
+     * Sets the rules of the files to ignore in the check for modifications in
+     * the syntax of <code>.gitignore</code> files.
+     *
+     * @param modificationIgnores the rules of the files to ignore in the syntax
+     *        of <code>.gitignore</code> files.
+     * @return a reference to this builder.
+     */
+    public Builder setModificationIgnores(
+        final List<String> modificationIgnores) {
+      this.modificationIgnores = modificationIgnores;
+      return this;
+    }
+
+    /**
+     * Sets the file with further rules of the files to ignore in the check for
+     * modifications.
+     *
+     * @param modificationIgnoreFile the file with further rules of the files to
+     *        ignore. May be <code>null</code>.
+     * @return a reference to this builder.
+     */
+    public Builder setModificationIgnoreFile(
+        final File modificationIgnoreFile) {
+      this.modificationIgnoreFile = modificationIgnoreFile;
+      return this;
+    }
+
+    /**
+     * Sets the maximum number of locally modified files to list in the build
+     * properties.
+     *
+     * @param maxLocallyModifiedFiles the maximum number of locally modified
+     *        files to list. A negative value lists all files.
+     * @return a reference to this builder.
+     */
+    public Builder setMaxLocallyModifiedFiles(
+        final int maxLocallyModifiedFiles) {
+      this.maxLocallyModifiedFiles = maxLocallyModifiedFiles;
+      return this;
+    }
+
+    /**
+     * Sets the file to write the complete list of locally modified files to.
+     *
+     * @param locallyModifiedFilesFile the file to write the complete list of
+     *        locally modified files to. May be <code>null</code> if the list
+     *        is not to be written.
+     * @return a reference to this builder.
+     */
+    public Builder setLocallyModifiedFilesFile(
+        final File locallyModifiedFilesFile) {
+      this.locallyModifiedFilesFile = locallyModifiedFilesFile;
+      return this;
+    }
+
+    /**
+     * Sets the time in milliseconds the SCM information has to be fetched in.
+     *
+     * @param timeBudget the time in milliseconds the SCM information has to be
+     *        fetched in. A value of zero or less waits without limit.
+     * @return a reference to this builder.
+     */
+    public Builder setTimeBudget(final long timeBudget) {
+      this.timeBudget = timeBudget;
+      return this;
+    }
+
+    /**
+     * Sets the flag to share Git processes with all modules of the build.
+     *
+     * @param reuseGitProcesses the flag to share Git processes with all modules
+     *        of the build.
+     * @return a reference to this builder.
+     */
+    public Builder setReuseGitProcesses(final boolean reuseGitProcesses) {
+      this.reuseGitProcesses = reuseGitProcesses;
+      return this;
+    }
+
+    /**
+     * Sets the flag to add the revisions of the Git submodules to the build
+     * properties.
+     *
+     * @param addSubmoduleInfo the flag to add the revisions of the Git
+     *        submodules to the build properties.
+     * @return a reference to this builder.
+     */
+    public Builder setAddSubmoduleInfo(final boolean addSubmoduleInfo) {
+      this.addSubmoduleInfo = addSubmoduleInfo;
+      return this;
+    }
+
+    /**
+     * Sets the flag to compare the working tree with the merge base of the
+     * remote version and HEAD by the names of the changed files only.
+     *
+     * @param compareWithMergeBase the flag to compare with the merge base by
+     *        the names of the changed files only.
+     * @return a reference to this builder.
+     */
+    public Builder setCompareWithMergeBase(final boolean compareWithMergeBase) {
+      this.compareWithMergeBase = compareWithMergeBase;
+      return this;
+    }
+
+    /**
+     * Sets the flag to add the metrics of the calls to the SCM to the build
+     * properties.
+     *
+     * @param addScmMetrics the flag to add the metrics of the calls to the SCM.
+     * @return a reference to this builder.
+     */
+    public Builder setAddScmMetrics(final boolean addScmMetrics) {
+      this.addScmMetrics = addScmMetrics;
+      return this;
+    }
+
+    /**
+     * Sets the file to write the metrics of the calls to the SCM to. May be
+     * <code>null</code> if the metrics are not to be written to a file.
+     *
+     * @param scmMetricsFile the file to write the metrics of the calls to the
+     *        SCM to.
+     * @return a reference to this builder.
+     */
+    public Builder setScmMetricsFile(final File scmMetricsFile) {
+      this.scmMetricsFile = scmMetricsFile;
+      return this;
+    }
+
+    /**
+     * Creates the SCM information instance.
+     *
+     * @return the SCM information instance.
+     */
+    public ScmInfo build() {
+      return new ScmInfo(this);
+    }
+  }
+
   // ********************************* Methods ********************************
 
   // --- init -----------------------------------------------------------------
@@ -255,6 +975,217 @@ public final class ScmInfo {
     return remoteVersion;
   }
 
+  /**
+   * Returns the cache to share SCM information with all modules of the
+   * reactor.
+   *
+   * @return the cache to share SCM information. If <code>null</code>, each
+   *         module queries the SCM on its own.
+   */
+  public SessionCache getSessionCache() {
+    return sessionCache;
+  }
+
+  /**
+   * Returns the executor to run queries to the SCM in the background.
+   *
+   * @return the executor to run queries to the SCM. May be <code>null</code>.
+   */
+  public SessionExecutor getExecutor() {
+    return executor;
+  }
+
+  /**
+   * Returns the flag to read the SCM information directly from the metadata of
+   * the working copy instead of launching the SCM client.
+   *
+   * @return the flag to read the SCM information directly from the metadata of
+   *         the working copy.
+   */
+  public boolean isNativeScmAccess() {
+    return nativeScmAccess;
+  }
+
+  /**
+   * Returns the flag to fetch the revision and to check for modifications
+   * concurrently.
+   *
+   * @return the flag to fetch the revision and to check for modifications
+   *         concurrently.
+   */
+  public boolean isConcurrentQueries() {
+    return concurrentQueries;
+  }
+
+  /**
+   * Returns the time in milliseconds to wait for the result of each concurrent
+   * query.
+   *
+   * @return the time in milliseconds to wait for the result of each concurrent
+   *         query. A value of zero or less waits without limit.
+   */
+  public long getQueryTimeout() {
+    return queryTimeout;
+  }
+
+  /**
+   * Returns the file to store the range of the last successful change log query
+   * in.
+   *
+   * @return the file to store the range of the last successful change log query
+   *         in. May be <code>null</code> if the range is not to be stored.
+   */
+  public File getQueryRangeFile() {
+    return queryRangeFile;
+  }
+
+  /**
+   * Returns the file to store the state of the working copy in. If the
+   * fingerprint of the working copy has not changed, the stored state is used
+   * without querying the SCM.
+   *
+   * @return the file to store the state of the working copy in. May be
+   *         <code>null</code> if the state is not to be stored.
+   */
+  public File getStateCacheFile() {
+    return stateCacheFile;
+  }
+
+  /**
+   * Returns the build directory of the module.
+   *
+   * @return the build directory of the module. May be <code>null</code>.
+   */
+  public File getBuildDirectory() {
+    return buildDirectory;
+  }
+
+  /**
+   * Returns the patterns of the files to check for modifications, relative to
+   * the base directory.
+   *
+   * @return the patterns of the files to check for modifications. If
+   *         <code>null</code> or empty, all files are checked.
+   */
+  public List<String> getModificationIncludes() {
+    return modificationIncludes;
+  }
+
+  /**
+   * Returns the patterns of the files not to check for modifications,
+   * relative to the base directory.
+   *
+   * @return the patterns of the files not to check for modifications. May be
+   *         <code>null</code>.
+   */
+  public List<String> getModificationExcludes() {
+    return modificationExcludes;
+  }
+
+  /**
+   * Returns the rules of the files to ignore in the check for modifications in
+   * the syntax of <code>.gitignore</code> files.
+   *
+   * @return the rules of the files to ignore in the syntax of
+   *         <code>.gitignore</code> files.
+   */
+  public List<String> getModificationIgnores() {
+    return modificationIgnores;
+  }
+
+  /**
+   * Returns the file with further rules of the files to ignore in the check for
+   * modifications.
+   *
+   * @return the file with further rules of the files to ignore. May be
+   *         <code>null</code>.
+   */
+  public File getModificationIgnoreFile() {
+    return modificationIgnoreFile;
+  }
+
+  /**
+   * Returns the maximum number of locally modified files to list in the build
+   * properties.
+   *
+   * @return the maximum number of locally modified files to list. A negative
+   *         value lists all files.
+   */
+  public int getMaxLocallyModifiedFiles() {
+    return maxLocallyModifiedFiles;
+  }
+
+  /**
+   * Returns the file to write the complete list of locally modified files to.
+   *
+   * @return the file to write the complete list of locally modified files to.
+   *         May be <code>null</code> if the list is not to be written.
+   */
+  public File getLocallyModifiedFilesFile() {
+    return locallyModifiedFilesFile;
+  }
+
+  /**
+   * Returns the time in milliseconds the SCM information has to be fetched in.
+   *
+   * @return the time in milliseconds the SCM information has to be fetched
+   *         in. A value of zero or less waits without limit.
+   */
+  public long getTimeBudget() {
+    return timeBudget;
+  }
+
+  /**
+   * Returns the flag to share Git processes with all modules of the build.
+   *
+   * @return the flag to share Git processes with all modules of the build.
+   */
+  public boolean isReuseGitProcesses() {
+    return reuseGitProcesses;
+  }
+
+  /**
+   * Returns the flag to add the revisions of the Git submodules to the build
+   * properties.
+   *
+   * @return the flag to add the revisions of the Git submodules to the build
+   *         properties.
+   */
+  public boolean isAddSubmoduleInfo() {
+    return addSubmoduleInfo;
+  }
+
+  /**
+   * Returns the flag to compare the working tree with the merge base of the
+   * remote version and HEAD by the names of the changed files only.
+   *
+   * @return the flag to compare with the merge base by the names of the changed
+   *         files only.
+   */
+  public boolean isCompareWithMergeBase() {
+    return compareWithMergeBase;
+  }
+
+  /**
+   * Returns the flag to add the metrics of the calls to the SCM to the build
+   * properties.
+   *
+   * @return the flag to add the metrics of the calls to the SCM.
+   */
+  public boolean isAddScmMetrics() {
+    return addScmMetrics;
+  }
+
+  /**
+   * Returns the file to write the metrics of the calls to the SCM to. May be
+   * <code>null</code> if the metrics are not to be written to a file.
+   *
+   * @return the file to write the metrics of the calls to the SCM to.
+   */
+  public File getScmMetricsFile() {
+    return scmMetricsFile;
+  }
+
   // --- business -------------------------------------------------------------
 
   // --- object basics --------------------------------------------------------
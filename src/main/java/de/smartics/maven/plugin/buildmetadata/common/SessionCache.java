@@ -0,0 +1,243 @@
+/*
+ * Copyright 2006-2025 smartics, Kronseder & Reiner GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package de.smartics.maven.plugin.buildmetadata.common;
+
+import org.apache.maven.execution.MavenSession;
+
+import java.io.Closeable;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Stores values for the duration of a build session. All modules of a reactor
+ * build share the same instance, so expensive information, like the revision
+ * of a working copy, is calculated only once.
+ * <p>
+ * A value is calculated by the first caller requesting it. Concurrent callers
+ * (e.g. in a parallel build) block until this calculation is finished and are
+ * then served with the same result. If the calculation failed, the failure is
+ * reported to every caller.
+ * </p>
+ */
+public final class SessionCache {
+  // ********************************* Fields *********************************
+
+  // --- constants ------------------------------------------------------------
+
+  /**
+   * The caches of the sessions currently known. Usually there is only one
+   * session per JVM. Caches of previous sessions (e.g. if Maven is run
+   * embedded or as a daemon) are removed and closed if a new session is
+   * started.
+   */
+  private static final ConcurrentMap<String, SessionCache> CACHES =
+      new ConcurrentHashMap<String, SessionCache>();
+
+  // --- members --------------------------------------------------------------
+
+  /**
+   * The identifier of the session the values are cached for.
+   */
+  private final String sessionId;
+
+  /**
+   * The cached values. Each value is wrapped by a task that calculates the
+   * value on first access.
+   */
+  private final ConcurrentMap<String, FutureTask<?>> values =
+      new ConcurrentHashMap<String, FutureTask<?>>();
+
+  // ****************************** Initializer *******************************
+
+  // ****************************** Constructors ******************************
+
+  private SessionCache(final String sessionId) {
+    this.sessionId = sessionId;
+  }
+
+  // ****************************** Inner Classes *****************************
+
+  // ********************************* Methods ********************************
+
+  // --- init -----------------------------------------------------------------
+
+  /**
+   * Returns the cache for the given session.
+   *
+   * @param session the session whose cache is requested. May be
+   *        <code>null</code>.
+   * @return the cache for the session. If the session is <code>null</code> a
+   *         new cache is returned that is not shared with any other caller.
+   */
+  public static SessionCache forSession(final MavenSession session) {
+    final String sessionId = createSessionId(session);
+    if (sessionId == null) {
+      return new SessionCache(null);
+    }
+
+    SessionCache cache = CACHES.get(sessionId);
+    if (cache == null) {
+      final SessionCache newCache = new SessionCache(sessionId);
+      cache = CACHES.putIfAbsent(sessionId, newCache);
+      if (cache == null) {
+        cache = newCache;
+        closePreviousSessions(sessionId);
+      }
+    }
+    return cache;
+  }
+
+  private static void closePreviousSessions(final String sessionId) {
+    for (final Iterator<Map.Entry<String, SessionCache>> i =
+        CACHES.entrySet().iterator(); i.hasNext();) {
+      final Map.Entry<String, SessionCache> entry = i.next();
+      if (!sessionId.equals(entry.getKey())) {
+        i.remove();
+        entry.getValue().close();
+      }
+    }
+  }
+
+  private static String createSessionId(final MavenSession session) {
+    if (session == null) {
+      return null;
+    }
+
+    final Date startTime = session.getStartTime();
+    if (startTime == null) {
+      return null;
+    }
+
+    return startTime.getTime() + "@" + session.getExecutionRootDirectory();
+  }
+
+  // --- get&set --------------------------------------------------------------
+
+  /**
+   * Returns the identifier of the session the values are cached for.
+   *
+   * @return the identifier of the session the values are cached for. If
+   *         <code>null</code>, the cache is not shared.
+   */
+  public String getSessionId() {
+    return sessionId;
+  }
+
+  // --- business -------------------------------------------------------------
+
+  /**
+   * Returns the value for the given key. If the value has not been calculated
+   * yet, the given loader is called to provide it.
+   *
+   * @param <T> the type of the value.
+   * @param key the key to the value.
+   * @param loader the loader to calculate the value if it is not in the cache.
+   * @return the cached value.
+   * @throws RuntimeException any runtime exception thrown by the loader.
+   * @throws IllegalStateException if the loader throws a checked exception or
+   *         the calculation has been interrupted.
+   */
+  @SuppressWarnings("unchecked")
+  public <T> T get(final String key, final Callable<T> loader) {
+    FutureTask<?> task = values.get(key);
+    if (task == null) {
+      final FutureTask<T> newTask = new FutureTask<T>(loader);
+      task = values.putIfAbsent(key, newTask);
+      if (task == null) {
+        task = newTask;
+        newTask.run();
+      }
+    }
+
+    try {
+      return (T) task.get();
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(
+          "Interrupted while waiting for cached value '" + key + "'.", e);
+    } catch (final ExecutionException e) {
+      final Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new IllegalStateException(
+          "Cannot calculate cached value '" + key + "'.", cause);
+    }
+  }
+
+  /**
+   * Stores the given value for the key. A value previously cached for the key
+   * is replaced. This is useful to record a state for the other modules of
+   * the session, like the fact that a query has been abandoned.
+   *
+   * @param <T> the type of the value.
+   * @param key the key to the value.
+   * @param value the value to store.
+   */
+  public <T> void put(final String key, final T value) {
+    final FutureTask<T> task = new FutureTask<T>(new Callable<T>() {
+      public T call() {
+        return value;
+      }
+    });
+    task.run();
+    values.put(key, task);
+  }
+
+  /**
+   * Checks if a value for the given key has been requested before.
+   *
+   * @param key the key to the value.
+   * @return <code>true</code> if the value is already cached or is currently
+   *         calculated, <code>false</code> otherwise.
+   */
+  public boolean contains(final String key) {
+    return values.containsKey(key);
+  }
+
+  /**
+   * Closes all cached values that hold resources, like processes shared by
+   * the modules of the session. Values that are still calculated are not
+   * closed.
+   */
+  public void close() {
+    for (final FutureTask<?> task : values.values()) {
+      if (!task.isDone() || task.isCancelled()) {
+        continue;
+      }
+      try {
+        final Object value = task.get();
+        if (value instanceof Closeable) {
+          ((Closeable) value).close();
+        }
+      } catch (final Exception e) {
+        // The value has not been calculated or cannot be closed: nothing to do.
+      }
+    }
+  }
+
+  // --- object basics --------------------------------------------------------
+
+}
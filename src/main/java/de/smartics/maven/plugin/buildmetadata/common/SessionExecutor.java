@@ -0,0 +1,163 @@
+/*
+ * Copyright 2006-2025 smartics, Kronseder & Reiner GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package de.smartics.maven.plugin.buildmetadata.common;
+
+import org.apache.maven.execution.MavenSession;
+
+import java.io.Closeable;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs tasks of the plugin, like queries to the SCM, in the background. All
+ * modules of a reactor build share the same instance, so the number of
+ * threads is bounded for the whole session.
+ * <p>
+ * If all threads are busy, a task is run by the thread submitting it. This
+ * way tasks that wait for other tasks cannot block each other, but a task run
+ * by the submitting thread cannot be abandoned on a timeout. Idle threads are
+ * terminated after a short while, all threads are terminated if the session
+ * is closed.
+ * </p>
+ * <p>
+ * The executor is passed as a plain {@link Executor} to the SCM classes that
+ * run work in parallel, so they do not depend on the session.
+ * </p>
+ */
+public final class SessionExecutor implements Executor, Closeable {
+  // ********************************* Fields *********************************
+
+  // --- constants ------------------------------------------------------------
+
+  /**
+   * The key to the executor in the {@link SessionCache}.
+   * <p>
+   * The value of this constant is {@value}.
+   * </p>
+   */
+  private static final String CACHE_KEY = "session.executor";
+
+  /**
+   * The number of seconds an idle thread is kept alive.
+   * <p>
+   * The value of this constant is {@value}.
+   * </p>
+   */
+  private static final long KEEP_ALIVE_SECONDS = 10L;
+
+  // --- members --------------------------------------------------------------
+
+  /**
+   * The pool of threads to run the tasks.
+   */
+  private final ThreadPoolExecutor executor;
+
+  // ****************************** Initializer *******************************
+
+  // ****************************** Constructors ******************************
+
+  /**
+   * Default constructor.
+   *
+   * @param maxThreads the maximum number of threads to run tasks in the
+   *        background.
+   */
+  public SessionExecutor(final int maxThreads) {
+    final AtomicInteger counter = new AtomicInteger();
+    executor = new ThreadPoolExecutor(0, maxThreads, KEEP_ALIVE_SECONDS,
+        TimeUnit.SECONDS, new SynchronousQueue<Runnable>(),
+        new ThreadFactory() {
+          public Thread newThread(final Runnable runnable) {
+            final Thread thread = new Thread(runnable,
+                "buildmetadata-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+          }
+        }, new RejectedExecutionHandler() {
+          public void rejectedExecution(final Runnable runnable,
+              final ThreadPoolExecutor executor) {
+            runnable.run();
+          }
+        });
+  }
+
+  // ****************************** Inner Classes *****************************
+
+  // ********************************* Methods ********************************
+
+  // --- init -----------------------------------------------------------------
+
+  /**
+   * Returns the executor for the given session.
+   *
+   * @param session the session whose executor is requested. May be
+   *        <code>null</code>.
+   * @return the executor for the session. If the session is <code>null</code>
+   *         a new executor is returned that is not shared with any other
+   *         caller.
+   */
+  public static SessionExecutor forSession(final MavenSession session) {
+    return SessionCache.forSession(session).get(CACHE_KEY,
+        new Callable<SessionExecutor>() {
+          public SessionExecutor call() {
+            return new SessionExecutor(
+                Math.max(4, 2 * Runtime.getRuntime().availableProcessors()));
+          }
+        });
+  }
+
+  // --- get&set --------------------------------------------------------------
+
+  // --- business -------------------------------------------------------------
+
+  /**
+   * Submits the given task to be run in the background.
+   *
+   * @param <T> the type of the result of the task.
+   * @param task the task to run.
+   * @return the future to access the result of the task.
+   */
+  public <T> Future<T> submit(final Callable<T> task) {
+    return executor.submit(task);
+  }
+
+  /**
+   * Runs the given task in the background.
+   *
+   * @param task the task to run.
+   */
+  public void execute(final Runnable task) {
+    executor.execute(task);
+  }
+
+  /**
+   * Terminates all threads. Running tasks are interrupted, tasks submitted
+   * afterwards are run by the submitting thread.
+   */
+  public void close() {
+    executor.shutdownNow();
+  }
+
+  // --- object basics --------------------------------------------------------
+
+}
@@ -88,6 +88,18 @@ public final class MavenMetaDataProvider extends AbstractMetaDataProvider {
    * @param buildMetaDataProperties the build meta data properties.
    */
   public void provideBuildMetaData(final Properties buildMetaDataProperties) {
+    provideReactorMetaData(buildMetaDataProperties);
+    provideModuleMetaData(buildMetaDataProperties);
+  }
+
+  /**
+   * Adds the information that is the same for all modules of a reactor build
+   * as build properties. This is the information of the Maven runtime, the
+   * Java runtime, the operating system, and the session.
+   *
+   * @param buildMetaDataProperties the build meta data properties.
+   */
+  public void provideReactorMetaData(final Properties buildMetaDataProperties) {
     if (runtime != null) {
       provideRuntimeInfo(buildMetaDataProperties);
     }
@@ -95,7 +107,16 @@ public final class MavenMetaDataProvider extends AbstractMetaDataProvider {
     if (session != null) {
       provideSessionInfo(buildMetaDataProperties);
     }
+  }
 
+  /**
+   * Adds the information that is specific to the project as build properties.
+   * This is the information about the project and the selected properties,
+   * which may be resolved in the context of the project.
+   *
+   * @param buildMetaDataProperties the build meta data properties.
+   */
+  public void provideModuleMetaData(final Properties buildMetaDataProperties) {
     if (project != null) {
       provideProjectInfo(buildMetaDataProperties);
     }
@@ -19,6 +19,9 @@ import de.smartics.maven.plugin.buildmetadata.common.RevisionHelper;
 import de.smartics.maven.plugin.buildmetadata.common.ScmControl;
 import de.smartics.maven.plugin.buildmetadata.common.ScmCredentials;
 import de.smartics.maven.plugin.buildmetadata.common.ScmInfo;
+import de.smartics.maven.plugin.buildmetadata.common.SessionCache;
+import de.smartics.maven.plugin.buildmetadata.scm.git.GitBatchSession;
+import de.smartics.maven.plugin.buildmetadata.scm.git.GitRepository;
 import de.smartics.maven.plugin.buildmetadata.scm.maven.ScmAccessInfo;
 import de.smartics.maven.plugin.buildmetadata.scm.maven.ScmConnectionInfo;
 
@@ -27,12 +30,15 @@ import org.apache.commons.logging.LogFactory;
 import org.apache.maven.project.MavenProject;
 import org.apache.maven.scm.manager.NoSuchScmProviderException;
 import org.apache.maven.scm.provider.ScmProviderRepositoryWithHost;
+import org.apache.maven.scm.provider.ScmUrlUtils;
 import org.apache.maven.scm.repository.ScmRepository;
 import org.apache.maven.scm.repository.ScmRepositoryException;
 import org.codehaus.plexus.util.StringUtils;
 
+import java.io.IOException;
 import java.util.Locale;
 import java.util.Properties;
+import java.util.concurrent.Callable;
 
 /**
  * Extracts information from the Maven project, session, and runtime
@@ -93,7 +99,8 @@ public class ScmMetaDataProvider extends AbstractMetaDataProvider {
         final ScmAccessInfo scmAccessInfo = createScmAccessInfo();
         final RevisionHelper helper =
             new RevisionHelper(scmInfo.getScmManager(), scmConnectionInfo,
-                scmAccessInfo, scmInfo.getBuildDatePattern());
+                scmAccessInfo, scmInfo.getBuildDatePattern(),
+                scmInfo.getSessionCache(), scmInfo.getExecutor());
         helper.provideScmBuildInfo(buildMetaDataProperties, scmControl);
       } catch (final ScmRepositoryException e) {
         throw new IllegalStateException(
@@ -209,10 +216,68 @@ public class ScmMetaDataProvider extends AbstractMetaDataProvider {
     accessInfo.setIgnoreDotFilesInBaseDir(
         scmInfo.getScmControl().isIgnoreDotFilesInBaseDir());
     accessInfo.setQueryRangeInDays(scmInfo.getQueryRangeInDays());
+    accessInfo.setNativeScmAccess(scmInfo.isNativeScmAccess());
+    accessInfo.setConcurrentQueries(scmInfo.isConcurrentQueries());
+    accessInfo.setQueryTimeout(scmInfo.getQueryTimeout());
+    accessInfo.setQueryRangeFile(scmInfo.getQueryRangeFile());
+    accessInfo.setStateCacheFile(scmInfo.getStateCacheFile());
+    accessInfo.setBuildDirectory(scmInfo.getBuildDirectory());
+    accessInfo.setModificationIncludes(scmInfo.getModificationIncludes());
+    accessInfo.setModificationExcludes(scmInfo.getModificationExcludes());
+    accessInfo.setModificationIgnores(scmInfo.getModificationIgnores());
+    accessInfo.setModificationIgnoreFile(scmInfo.getModificationIgnoreFile());
+    accessInfo
+        .setMaxLocallyModifiedFiles(scmInfo.getMaxLocallyModifiedFiles());
+    accessInfo
+        .setLocallyModifiedFilesFile(scmInfo.getLocallyModifiedFilesFile());
+    accessInfo.setTimeBudget(scmInfo.getTimeBudget());
+    accessInfo.setGitBatchSession(findGitBatchSession());
+    accessInfo.setExecutor(scmInfo.getExecutor());
+    accessInfo.setAddSubmoduleInfo(scmInfo.isAddSubmoduleInfo());
+    accessInfo.setCompareWithMergeBase(scmInfo.isCompareWithMergeBase());
+    accessInfo.setAddMetrics(scmInfo.isAddScmMetrics());
+    accessInfo.setMetricsFile(scmInfo.getScmMetricsFile());
 
     return accessInfo;
   }
 
+  /**
+   * Returns the session sharing Git processes with all modules of the build
+   * that refer to the same Git working tree. The session is closed with the
+   * session cache at the end of the build.
+   *
+   * @return the session sharing Git processes or <code>null</code> if
+   *         processes are not to be shared or the project is not a Git working
+   *         copy.
+   */
+  private GitBatchSession findGitBatchSession() {
+    final SessionCache sessionCache = scmInfo.getSessionCache();
+    if (!scmInfo.isReuseGitProcesses() || sessionCache == null
+        || !"git".equals(ScmUrlUtils.getProvider(getConnection()))) {
+      return null;
+    }
+
+    try {
+      final GitRepository repository = GitRepository.find(scmInfo.getBasedir());
+      if (repository == null) {
+        return null;
+      }
+      final String key =
+          "git.batch:" + repository.getWorkTree().getAbsolutePath();
+      return sessionCache.get(key, new Callable<GitBatchSession>() {
+        public GitBatchSession call() {
+          return new GitBatchSession(repository);
+        }
+      });
+    } catch (final IOException e) {
+      if (LOG.isDebugEnabled()) {
+        LOG.debug("Cannot find Git working tree of " + scmInfo.getBasedir()
+                  + ": " + e.getMessage());
+      }
+      return null;
+    }
+  }
+
   // --- object basics --------------------------------------------------------
 
 }
@@ -0,0 +1,410 @@
+/*
+ * Copyright 2006-2025 smartics, Kronseder & Reiner GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package de.smartics.maven.plugin.buildmetadata.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * Reads and writes the index of the build meta data of all modules of a
+ * reactor.
+ * <p>
+ * The index is a properties file. Values that are the same for all modules
+ * are stored once with the prefix <code>shared.</code>, the remaining values
+ * of each module with the prefix <code>module.&lt;id&gt;.</code>, where the
+ * identifier of a module is <code>groupId:artifactId</code>.
+ * The header of the file provides the byte offset and length of the section
+ * of each module (<code>index.module.&lt;id&gt;</code>) and of the shared
+ * values (<code>index.shared</code>). This allows to read the information of
+ * a single module without parsing the whole file. Since all characters are
+ * escaped to ASCII, the file may also be loaded as a whole with
+ * {@link Properties#load(java.io.InputStream)}.
+ * </p>
+ */
+public final class ReactorIndexFileHelper {
+  // ********************************* Fields *********************************
+
+  // --- constants ------------------------------------------------------------
+
+  /**
+   * The version of the index format.
+   * <p>
+   * The value of this constant is {@value}.
+   * </p>
+   */
+  public static final String FORMAT_VERSION = "1";
+
+  /**
+   * The prefix of the keys of the values shared by all modules.
+   * <p>
+   * The value of this constant is {@value}.
+   * </p>
+   */
+  public static final String SHARED_PREFIX = "shared.";
+
+  /**
+   * The prefix of the keys of the values of a module.
+   * <p>
+   * The value of this constant is {@value}.
+   * </p>
+   */
+  public static final String MODULE_PREFIX = "module.";
+
+  /**
+   * The prefix of the keys of the header.
+   * <p>
+   * The value of this constant is {@value}.
+   * </p>
+   */
+  private static final String INDEX_PREFIX = "index.";
+
+  /**
+   * The key to the position of the shared values.
+   * <p>
+   * The value of this constant is {@value}.
+   * </p>
+   */
+  private static final String INDEX_SHARED = INDEX_PREFIX + "shared";
+
+  /**
+   * The number of digits of offsets and lengths in the header. The fixed
+   * width allows to calculate the size of the header before the offsets are
+   * known.
+   */
+  private static final int POSITION_DIGITS = 12;
+
+  /**
+   * The encoding of the file. All characters not in the range of printable
+   * ASCII characters are escaped.
+   */
+  private static final Charset ENCODING = Charset.forName("ISO-8859-1");
+
+  /**
+   * The hex digits to escape characters.
+   */
+  private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+  // --- members --------------------------------------------------------------
+
+  /**
+   * The file to read from or write to.
+   */
+  private final File indexFile;
+
+  // ****************************** Initializer *******************************
+
+  // ****************************** Constructors ******************************
+
+  /**
+   * Default constructor.
+   *
+   * @param indexFile the file to read from or write to.
+   */
+  public ReactorIndexFileHelper(final File indexFile) {
+    this.indexFile = indexFile;
+  }
+
+  // ****************************** Inner Classes *****************************
+
+  // ********************************* Methods ********************************
+
+  // --- init -----------------------------------------------------------------
+
+  // --- get&set --------------------------------------------------------------
+
+  /**
+   * Returns the file to read from or write to.
+   *
+   * @return the file to read from or write to.
+   */
+  public File getIndexFile() {
+    return indexFile;
+  }
+
+  // --- business -------------------------------------------------------------
+
+  /**
+   * Writes the build meta data of the modules to the index file. The file is
+   * replaced atomically, if supported by the file system, so readers never
+   * see a partially written index.
+   *
+   * @param modules the build meta data of each module, with the identifier of
+   *        the module as key.
+   * @throws IOException on any problem writing the file.
+   */
+  public void write(final Map<String, Properties> modules) throws IOException {
+    final Map<String, String> shared = createShared(modules);
+
+    final String sharedSection = createSection(SHARED_PREFIX, shared);
+    final Map<String, String> sections = new TreeMap<String, String>();
+    for (final Map.Entry<String, Properties> entry : modules.entrySet()) {
+      final String id = entry.getKey();
+      final Map<String, String> values =
+          createModuleValues(entry.getValue(), shared);
+      sections.put(id, createSection(MODULE_PREFIX + id + '.', values));
+    }
+
+    final String content = createContent(sharedSection, sections);
+    final File dir = indexFile.getAbsoluteFile().getParentFile();
+    if (dir != null && !dir.isDirectory() && !dir.mkdirs()) {
+      throw new IOException("Cannot create folder '" + dir + "'.");
+    }
+    final File tmp = new File(dir, indexFile.getName() + ".tmp");
+    Files.write(tmp.toPath(), content.getBytes(ENCODING));
+    try {
+      Files.move(tmp.toPath(), indexFile.toPath(),
+          StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+    } catch (final IOException e) {
+      Files.move(tmp.toPath(), indexFile.toPath(),
+          StandardCopyOption.REPLACE_EXISTING);
+    }
+  }
+
+  /**
+   * Reads the build meta data of a single module from the index file. Only
+   * the header, the shared values and the section of the module are read.
+   *
+   * @param moduleId the identifier of the module
+   *        (<code>groupId:artifactId</code>).
+   * @return the build meta data of the module including the shared values or
+   *         <code>null</code> if the module is not part of the index.
+   * @throws IOException on any problem reading the file.
+   */
+  public Properties readModule(final String moduleId) throws IOException {
+    final RandomAccessFile in = new RandomAccessFile(indexFile, "r");
+    try {
+      final Properties header = readHeader(in);
+      final String position = header.getProperty(
+          INDEX_PREFIX + MODULE_PREFIX + moduleId);
+      if (position == null) {
+        return null;
+      }
+
+      final Properties properties = new Properties();
+      readSection(in, header.getProperty(INDEX_SHARED), SHARED_PREFIX,
+          properties);
+      readSection(in, position, MODULE_PREFIX + moduleId + '.', properties);
+      return properties;
+    } finally {
+      in.close();
+    }
+  }
+
+  private static Map<String, String> createShared(
+      final Map<String, Properties> modules) {
+    final Map<String, String> shared = new TreeMap<String, String>();
+    final Iterator<Properties> i = modules.values().iterator();
+    if (!i.hasNext()) {
+      return shared;
+    }
+
+    final Properties first = i.next();
+    for (final String key : first.stringPropertyNames()) {
+      shared.put(key, first.getProperty(key));
+    }
+    while (i.hasNext()) {
+      final Properties properties = i.next();
+      for (final Iterator<Map.Entry<String, String>> s =
+          shared.entrySet().iterator(); s.hasNext();) {
+        final Map.Entry<String, String> entry = s.next();
+        if (!entry.getValue().equals(properties.getProperty(entry.getKey()))) {
+          s.remove();
+        }
+      }
+    }
+    return shared;
+  }
+
+  private static Map<String, String> createModuleValues(
+      final Properties properties, final Map<String, String> shared) {
+    final Map<String, String> values = new TreeMap<String, String>();
+    for (final String key : properties.stringPropertyNames()) {
+      if (!shared.containsKey(key)) {
+        values.put(key, properties.getProperty(key));
+      }
+    }
+    return values;
+  }
+
+  private static String createSection(final String prefix,
+      final Map<String, String> values) {
+    final StringBuilder buffer = new StringBuilder(values.size() * 64);
+    for (final Map.Entry<String, String> entry : values.entrySet()) {
+      appendLine(buffer, prefix + entry.getKey(), entry.getValue());
+    }
+    return buffer.toString();
+  }
+
+  private static String createContent(final String sharedSection,
+      final Map<String, String> sections) {
+    final String placeholder = formatPosition(0, 0);
+    final int headerLength =
+        createHeader(sections.keySet(), placeholder, null).length();
+
+    final Map<String, String> positions = new TreeMap<String, String>();
+    long offset = headerLength + sharedSection.length();
+    for (final Map.Entry<String, String> entry : sections.entrySet()) {
+      final int length = entry.getValue().length();
+      positions.put(entry.getKey(), formatPosition(offset, length));
+      offset += length;
+    }
+
+    final StringBuilder buffer = new StringBuilder((int) offset);
+    buffer.append(createHeader(sections.keySet(),
+        formatPosition(headerLength, sharedSection.length()), positions));
+    buffer.append(sharedSection);
+    for (final String section : sections.values()) {
+      buffer.append(section);
+    }
+    return buffer.toString();
+  }
+
+  private static String createHeader(final Iterable<String> ids,
+      final String sharedPosition, final Map<String, String> positions) {
+    final StringBuilder buffer = new StringBuilder(256);
+    buffer.append("#Created by buildmetadata-maven-plugin.\n");
+    appendLine(buffer, INDEX_PREFIX + "format", FORMAT_VERSION);
+    appendLine(buffer, INDEX_SHARED, sharedPosition);
+    for (final String id : ids) {
+      final String position =
+          positions != null ? positions.get(id) : sharedPosition;
+      appendLine(buffer, INDEX_PREFIX + MODULE_PREFIX + id, position);
+    }
+    buffer.append('\n');
+    return buffer.toString();
+  }
+
+  private static String formatPosition(final long offset, final int length) {
+    return pad(offset) + ',' + pad(length);
+  }
+
+  private static String pad(final long value) {
+    final String digits = String.valueOf(value);
+    final StringBuilder buffer = new StringBuilder(POSITION_DIGITS);
+    for (int i = digits.length(); i < POSITION_DIGITS; i++) {
+      buffer.append('0');
+    }
+    return buffer.append(digits).toString();
+  }
+
+  private static void appendLine(final StringBuilder buffer, final String key,
+      final String value) {
+    escape(buffer, key, true);
+    buffer.append('=');
+    escape(buffer, value, false);
+    buffer.append('\n');
+  }
+
+  private static void escape(final StringBuilder buffer, final String value,
+      final boolean key) {
+    for (int i = 0, length = value.length(); i < length; i++) {
+      final char c = value.charAt(i);
+      switch (c) {
+        case '\\':
+          buffer.append("\\\\");
+          break;
+        case '\t':
+          buffer.append("\\t");
+          break;
+        case '\n':
+          buffer.append("\\n");
+          break;
+        case '\r':
+          buffer.append("\\r");
+          break;
+        case '\f':
+          buffer.append("\\f");
+          break;
+        case '=':
+        case ':':
+        case '#':
+        case '!':
+          buffer.append('\\').append(c);
+          break;
+        case ' ':
+          if (key || i == 0) {
+            buffer.append('\\');
+          }
+          buffer.append(c);
+          break;
+        default:
+          if (c < 0x20 || c > 0x7e) {
+            buffer.append("\\u").append(HEX[(c >> 12) & 0xF])
+                .append(HEX[(c >> 8) & 0xF]).append(HEX[(c >> 4) & 0xF])
+                .append(HEX[c & 0xF]);
+          } else {
+            buffer.append(c);
+          }
+      }
+    }
+  }
+
+  private static Properties readHeader(final RandomAccessFile in)
+      throws IOException {
+    final StringBuilder buffer = new StringBuilder(256);
+    String line;
+    while ((line = in.readLine()) != null && line.length() > 0) {
+      buffer.append(line).append('\n');
+    }
+    final Properties header = new Properties();
+    header.load(new ByteArrayInputStream(buffer.toString().getBytes(ENCODING)));
+    return header;
+  }
+
+  private static void readSection(final RandomAccessFile in,
+      final String position, final String prefix, final Properties properties)
+      throws IOException {
+    if (position == null) {
+      throw new IOException("Missing position of section '" + prefix + "'.");
+    }
+    final int separator = position.indexOf(',');
+    final long offset;
+    final int length;
+    try {
+      offset = Long.parseLong(position.substring(0, separator));
+      length = Integer.parseInt(position.substring(separator + 1));
+    } catch (final RuntimeException e) {
+      throw new IOException("Invalid position '" + position + "' of section '"
+          + prefix + "'.", e);
+    }
+
+    final byte[] bytes = new byte[length];
+    in.seek(offset);
+    in.readFully(bytes);
+    final Properties section = new Properties();
+    section.load(new ByteArrayInputStream(bytes));
+    final int prefixLength = prefix.length();
+    for (final String key : section.stringPropertyNames()) {
+      if (key.startsWith(prefix)) {
+        properties.setProperty(key.substring(prefixLength),
+            section.getProperty(key));
+      }
+    }
+  }
+
+  // --- object basics --------------------------------------------------------
+
+}
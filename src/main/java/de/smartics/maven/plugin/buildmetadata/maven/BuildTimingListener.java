@@ -0,0 +1,330 @@
+/*
+ * Copyright 2006-2025 smartics, Kronseder & Reiner GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package de.smartics.maven.plugin.buildmetadata.maven;
+
+import org.apache.maven.execution.MavenSession;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Listens to the execution events of a Maven 3 build and records the start and
+ * end of each module and each mojo execution with a
+ * {@link BuildTimingRecorder}. At the end of the session the dependencies
+ * between the modules are read from the project dependency graph of the
+ * session, to allow the calculation of the critical path of the reactor.
+ * <p>
+ * Without a recorder the listener serves as a hook to run an action at the
+ * end of the session, e.g. to release resources shared by the modules.
+ * </p>
+ * <p>
+ * The plugin is compiled against the Maven 2 API, which provides no execution
+ * listeners. Therefore the listener is registered at runtime as a proxy for
+ * <code>org.apache.maven.execution.ExecutionListener</code> with the execution
+ * request of the session. All events are passed on to the listener registered
+ * previously, so the output of the build is not altered. On Maven 2 the
+ * listener cannot be installed.
+ * </p>
+ */
+public final class BuildTimingListener implements InvocationHandler {
+  // ********************************* Fields *********************************
+
+  // --- constants ------------------------------------------------------------
+
+  /**
+   * The name of the interface of execution listeners of Maven 3.
+   * <p>
+   * The value of this constant is {@value}.
+   * </p>
+   */
+  private static final String LISTENER_TYPE =
+      "org.apache.maven.execution.ExecutionListener";
+
+  // --- members --------------------------------------------------------------
+
+  /**
+   * The listener registered previously. May be <code>null</code>.
+   */
+  private final Object delegate;
+
+  /**
+   * The recorder of the timings. May be <code>null</code> if no timings are
+   * recorded.
+   */
+  private final BuildTimingRecorder recorder;
+
+  /**
+   * The action to run once when the session has ended.
+   */
+  private final Runnable sessionEndAction;
+
+  /**
+   * The flag signals that the session end action has been run.
+   */
+  private final AtomicBoolean sessionEnded = new AtomicBoolean();
+
+  // ****************************** Initializer *******************************
+
+  // ****************************** Constructors ******************************
+
+  /**
+   * Default constructor.
+   *
+   * @param delegate the listener registered previously. May be
+   *        <code>null</code>.
+   * @param recorder the recorder of the timings. May be <code>null</code> if
+   *        no timings are to be recorded.
+   * @param sessionEndAction the action to run once when the session has
+   *        ended.
+   */
+  public BuildTimingListener(final Object delegate,
+      final BuildTimingRecorder recorder, final Runnable sessionEndAction) {
+    this.delegate = delegate;
+    this.recorder = recorder;
+    this.sessionEndAction = sessionEndAction;
+  }
+
+  // ****************************** Inner Classes *****************************
+
+  // ********************************* Methods ********************************
+
+  // --- init -----------------------------------------------------------------
+
+  /**
+   * Registers a listener that only runs the given action when the session has
+   * ended.
+   *
+   * @param session the session of the build.
+   * @param sessionEndAction the action to run once when the session has
+   *        ended.
+   * @return <code>true</code> if the listener has been registered,
+   *         <code>false</code> if the version of Maven running the build does
+   *         not support execution listeners.
+   */
+  public static boolean onSessionEnd(final MavenSession session,
+      final Runnable sessionEndAction) {
+    return install(session, null, sessionEndAction);
+  }
+
+  /**
+   * Registers a listener with the execution request of the session.
+   *
+   * @param session the session of the build.
+   * @param recorder the recorder of the timings. May be <code>null</code> if
+   *        no timings are to be recorded.
+   * @param sessionEndAction the action to run once when the session has
+   *        ended.
+   * @return <code>true</code> if the listener has been registered,
+   *         <code>false</code> if the version of Maven running the build does
+   *         not support execution listeners.
+   */
+  public static boolean install(final MavenSession session,
+      final BuildTimingRecorder recorder, final Runnable sessionEndAction) {
+    try {
+      final Object request =
+          session.getClass().getMethod("getRequest").invoke(session);
+      if (request == null) {
+        return false;
+      }
+
+      final Class<?> requestType = request.getClass();
+      final Class<?> listenerType =
+          Class.forName(LISTENER_TYPE, false, requestType.getClassLoader());
+      final Object delegate =
+          requestType.getMethod("getExecutionListener").invoke(request);
+      final Object listener = Proxy.newProxyInstance(
+          listenerType.getClassLoader(), new Class<?>[] {listenerType},
+          new BuildTimingListener(delegate, recorder, sessionEndAction));
+      requestType.getMethod("setExecutionListener", listenerType)
+          .invoke(request, listener);
+      return true;
+    } catch (final ReflectiveOperationException e) {
+      return false;
+    }
+  }
+
+  // --- get&set --------------------------------------------------------------
+
+  // --- business -------------------------------------------------------------
+
+  /**
+   * Passes the event to the listener registered previously and records the
+   * timing of mojo executions.
+   *
+   * @param proxy the proxy instance the method is invoked on.
+   * @param method the method of the listener.
+   * @param args the arguments, usually the execution event.
+   * @return always <code>null</code> for the methods of the listener.
+   * @throws Throwable any exception thrown by the listener registered
+   *         previously.
+   */
+  public Object invoke(final Object proxy, final Method method,
+      final Object[] args) throws Throwable {
+    final long nanos = System.nanoTime();
+    final String name = method.getName();
+    if (method.getDeclaringClass() == Object.class) {
+      return invokeObjectMethod(proxy, name, args);
+    }
+
+    if (delegate != null) {
+      try {
+        method.invoke(delegate, args);
+      } catch (final InvocationTargetException e) {
+        throw e.getCause();
+      }
+    }
+
+    final Object event = args != null && args.length > 0 ? args[0] : null;
+    if ("sessionEnded".equals(name)) {
+      if (sessionEnded.compareAndSet(false, true)) {
+        if (event != null && recorder != null) {
+          recordDependencies(method.getParameterTypes()[0], event);
+        }
+        sessionEndAction.run();
+      }
+    } else if (event != null && recorder != null) {
+      record(name, method.getParameterTypes()[0], event, nanos);
+    }
+    return null;
+  }
+
+  private Object invokeObjectMethod(final Object proxy, final String name,
+      final Object[] args) {
+    if ("equals".equals(name)) {
+      return proxy == args[0];
+    }
+    if ("hashCode".equals(name)) {
+      return System.identityHashCode(proxy);
+    }
+    return "BuildTimingListener[" + delegate + ']';
+  }
+
+  private void record(final String name, final Class<?> eventType,
+      final Object event, final long nanos) {
+    final boolean projectEvent = name.startsWith("project");
+    final boolean started = "mojoStarted".equals(name)
+        || "projectStarted".equals(name);
+    if (!started && !"mojoSucceeded".equals(name)
+        && !"mojoFailed".equals(name) && !"projectSucceeded".equals(name)
+        && !"projectFailed".equals(name)) {
+      return;
+    }
+
+    try {
+      // The implementation of the event is not public, so the accessors are
+      // looked up from the type declared by the listener.
+      final Object project =
+          eventType.getMethod("getProject").invoke(event);
+      if (project == null) {
+        return;
+      }
+      final String moduleId = createModuleId(project);
+      if (projectEvent) {
+        if (started) {
+          recorder.moduleStarted(moduleId, nanos);
+        } else {
+          recorder.moduleEnded(moduleId, nanos);
+        }
+        return;
+      }
+
+      final Object execution =
+          eventType.getMethod("getMojoExecution").invoke(event);
+      if (execution == null) {
+        return;
+      }
+      final String mojo =
+          get(execution, "getArtifactId") + ":" + get(execution, "getGoal");
+      final String executionId = mojo + '@' + get(execution, "getExecutionId");
+      if (started) {
+        recorder.mojoStarted(moduleId, executionId, nanos);
+      } else {
+        final Object phase = get(execution, "getLifecyclePhase");
+        recorder.mojoEnded(moduleId, executionId, mojo,
+            phase != null ? String.valueOf(phase) : null, nanos);
+      }
+    } catch (final ReflectiveOperationException e) {
+      // Unknown event structure: the timing is not recorded.
+    }
+  }
+
+  private void recordDependencies(final Class<?> eventType,
+      final Object event) {
+    try {
+      final Object session = eventType.getMethod("getSession").invoke(event);
+      if (session == null) {
+        return;
+      }
+      final Method graphGetter =
+          session.getClass().getMethod("getProjectDependencyGraph");
+      final Object graph = graphGetter.invoke(session);
+      if (graph == null) {
+        return;
+      }
+
+      // Access via the declared type since the implementation of the graph is
+      // not necessarily public.
+      final Class<?> graphType = graphGetter.getReturnType();
+      final Method upstreamGetter =
+          findMethod(graphType, "getUpstreamProjects");
+      final Map<String, List<String>> upstreamModules =
+          new HashMap<String, List<String>>();
+      for (final Object project : (List<?>) graphType
+          .getMethod("getSortedProjects").invoke(graph)) {
+        final List<String> upstream = new ArrayList<String>();
+        for (final Object upstreamProject : (List<?>) upstreamGetter
+            .invoke(graph, project, Boolean.FALSE)) {
+          upstream.add(createModuleId(upstreamProject));
+        }
+        upstreamModules.put(createModuleId(project), upstream);
+      }
+      recorder.setUpstreamModules(upstreamModules);
+    } catch (final ReflectiveOperationException e) {
+      // No dependency graph available: the critical path is not calculated.
+    }
+  }
+
+  private static Method findMethod(final Class<?> type, final String name)
+      throws NoSuchMethodException {
+    for (final Method method : type.getMethods()) {
+      if (name.equals(method.getName())
+          && method.getParameterTypes().length == 2) {
+        return method;
+      }
+    }
+    throw new NoSuchMethodException(type.getName() + '.' + name);
+  }
+
+  private static String createModuleId(final Object project)
+      throws ReflectiveOperationException {
+    return get(project, "getGroupId") + ":" + get(project, "getArtifactId");
+  }
+
+  private static Object get(final Object instance, final String getter)
+      throws ReflectiveOperationException {
+    return instance.getClass().getMethod(getter).invoke(instance);
+  }
+
+  // --- object basics --------------------------------------------------------
+
+}
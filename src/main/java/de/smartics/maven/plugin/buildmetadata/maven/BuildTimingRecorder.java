@@ -0,0 +1,306 @@
+/*
+ * Copyright 2006-2025 smartics, Kronseder & Reiner GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package de.smartics.maven.plugin.buildmetadata.maven;
+
+import de.smartics.maven.plugin.buildmetadata.common.SortedProperties;
+
+import org.apache.commons.io.IOUtils;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the start and end of each mojo execution of all modules of a build
+ * and aggregates the wall time per lifecycle phase and per mojo. The timings
+ * are written as properties with names starting with
+ * <code>build.timing.</code>:
+ * <ul>
+ * <li><code>phase.&lt;phase&gt;.count</code> - the number of mojo executions
+ * bound to the phase,</li>
+ * <li><code>phase.&lt;phase&gt;.millis</code> - the accumulated wall time of
+ * the mojo executions bound to the phase in milliseconds,</li>
+ * <li><code>mojo.&lt;artifactId&gt;:&lt;goal&gt;.count</code> - the number of
+ * executions of the mojo,</li>
+ * <li><code>mojo.&lt;artifactId&gt;:&lt;goal&gt;.millis</code> - the
+ * accumulated wall time of the mojo in milliseconds,</li>
+ * <li><code>mojo.&lt;artifactId&gt;:&lt;goal&gt;.maxMillis</code> - the wall
+ * time of the slowest execution of the mojo in milliseconds,</li>
+ * <li><code>mojos.millis</code> - the accumulated wall time of all mojo
+ * executions in milliseconds,</li>
+ * <li><code>module.&lt;id&gt;.startMillis</code> - the start of the module
+ * relative to the start of the first module in milliseconds,</li>
+ * <li><code>module.&lt;id&gt;.millis</code> - the exclusive time of the module
+ * from its start to its end in milliseconds.</li>
+ * </ul>
+ * <p>
+ * If modules have been recorded, the analysis of the reactor is added, too.
+ * See {@link ReactorTimingAnalysis} for details.
+ * </p>
+ * <p>
+ * Mojo executions without a phase (e.g. goals called from the command line)
+ * are recorded for the phase <code>none</code>. Events may be recorded by
+ * multiple threads concurrently.
+ * </p>
+ */
+public final class BuildTimingRecorder {
+  // ********************************* Fields *********************************
+
+  // --- constants ------------------------------------------------------------
+
+  /**
+   * The prefix of the names of the properties the timings are written to.
+   * <p>
+   * The value of this constant is {@value}.
+   * </p>
+   */
+  public static final String PREFIX = "build.timing.";
+
+  /**
+   * The name of the phase for mojo executions not bound to a phase.
+   * <p>
+   * The value of this constant is {@value}.
+   * </p>
+   */
+  public static final String NO_PHASE = "none";
+
+  /**
+   * The end time of a module that is still built.
+   */
+  private static final long RUNNING = Long.MIN_VALUE;
+
+  // --- members --------------------------------------------------------------
+
+  /**
+   * The start times of the running mojo executions in nanoseconds.
+   */
+  private final Map<String, Long> running = new HashMap<String, Long>();
+
+  /**
+   * The timings per phase. Each timing stores the number of executions, the
+   * accumulated and the maximum wall time in nanoseconds.
+   */
+  private final Map<String, long[]> phases = new TreeMap<String, long[]>();
+
+  /**
+   * The timings per mojo. Each timing stores the number of executions, the
+   * accumulated and the maximum wall time in nanoseconds.
+   */
+  private final Map<String, long[]> mojos = new TreeMap<String, long[]>();
+
+  /**
+   * The accumulated wall time of all mojo executions in nanoseconds.
+   */
+  private long total;
+
+  /**
+   * The start and end time in nanoseconds of each module in the order the
+   * modules have been started. The end time is {@link #RUNNING} as long as
+   * the module is built.
+   */
+  private final Map<String, long[]> modules =
+      new LinkedHashMap<String, long[]>();
+
+  /**
+   * The identifiers of the modules each module directly depends on. Is
+   * <code>null</code> if the dependencies are not known.
+   */
+  private Map<String, List<String>> upstreamModules;
+
+  // ****************************** Initializer *******************************
+
+  // ****************************** Constructors ******************************
+
+  /**
+   * Default constructor.
+   */
+  public BuildTimingRecorder() {}
+
+  // ****************************** Inner Classes *****************************
+
+  // ********************************* Methods ********************************
+
+  // --- init -----------------------------------------------------------------
+
+  // --- get&set --------------------------------------------------------------
+
+  /**
+   * Sets the dependencies between the modules of the reactor to calculate the
+   * critical path.
+   *
+   * @param upstreamModules the identifiers of the modules each module directly
+   *        depends on. May be <code>null</code> if the dependencies are not
+   *        known.
+   */
+  public synchronized void setUpstreamModules(
+      final Map<String, List<String>> upstreamModules) {
+    this.upstreamModules = upstreamModules;
+  }
+
+  // --- business -------------------------------------------------------------
+
+  /**
+   * Records the start of the build of a module.
+   *
+   * @param moduleId the identifier of the module.
+   * @param nanos the start time as provided by {@link System#nanoTime()}.
+   */
+  public synchronized void moduleStarted(final String moduleId,
+      final long nanos) {
+    modules.put(moduleId, new long[] {nanos, RUNNING});
+  }
+
+  /**
+   * Records the end of the build of a module. The end of a module whose start
+   * has not been recorded is ignored.
+   *
+   * @param moduleId the identifier of the module.
+   * @param nanos the end time as provided by {@link System#nanoTime()}.
+   */
+  public synchronized void moduleEnded(final String moduleId,
+      final long nanos) {
+    final long[] timing = modules.get(moduleId);
+    if (timing != null) {
+      timing[1] = nanos;
+    }
+  }
+
+  /**
+   * Records the start of a mojo execution.
+   *
+   * @param moduleId the identifier of the module the mojo is executed for.
+   * @param executionId the identifier of the mojo execution, unique within the
+   *        module.
+   * @param nanos the start time as provided by {@link System#nanoTime()}.
+   */
+  public synchronized void mojoStarted(final String moduleId,
+      final String executionId, final long nanos) {
+    running.put(moduleId + ' ' + executionId, nanos);
+  }
+
+  /**
+   * Records the end of a mojo execution. The end of an execution whose start
+   * has not been recorded is ignored.
+   *
+   * @param moduleId the identifier of the module the mojo is executed for.
+   * @param executionId the identifier of the mojo execution, unique within the
+   *        module.
+   * @param mojo the identifier of the mojo (<code>artifactId:goal</code>).
+   * @param phase the lifecycle phase the mojo is bound to. May be
+   *        <code>null</code>.
+   * @param nanos the end time as provided by {@link System#nanoTime()}.
+   */
+  public synchronized void mojoEnded(final String moduleId,
+      final String executionId, final String mojo, final String phase,
+      final long nanos) {
+    final Long start = running.remove(moduleId + ' ' + executionId);
+    if (start == null) {
+      return;
+    }
+
+    final long duration = nanos - start;
+    add(phases, phase != null ? phase : NO_PHASE, duration);
+    add(mojos, mojo, duration);
+    total += duration;
+  }
+
+  private static void add(final Map<String, long[]> timings, final String key,
+      final long duration) {
+    long[] timing = timings.get(key);
+    if (timing == null) {
+      timing = new long[3];
+      timings.put(key, timing);
+    }
+    timing[0]++;
+    timing[1] += duration;
+    timing[2] = Math.max(timing[2], duration);
+  }
+
+  /**
+   * Adds the timings to the given properties.
+   *
+   * @param properties the properties to add the timings to.
+   */
+  public synchronized void addTo(final Properties properties) {
+    for (final Map.Entry<String, long[]> entry : phases.entrySet()) {
+      final String name = PREFIX + "phase." + entry.getKey() + '.';
+      final long[] timing = entry.getValue();
+      properties.setProperty(name + "count", String.valueOf(timing[0]));
+      properties.setProperty(name + "millis", toMillis(timing[1]));
+    }
+    for (final Map.Entry<String, long[]> entry : mojos.entrySet()) {
+      final String name = PREFIX + "mojo." + entry.getKey() + '.';
+      final long[] timing = entry.getValue();
+      properties.setProperty(name + "count", String.valueOf(timing[0]));
+      properties.setProperty(name + "millis", toMillis(timing[1]));
+      properties.setProperty(name + "maxMillis", toMillis(timing[2]));
+    }
+    properties.setProperty(PREFIX + "mojos.millis", toMillis(total));
+
+    final Map<String, long[]> completed = new LinkedHashMap<String, long[]>();
+    long start = Long.MAX_VALUE;
+    for (final Map.Entry<String, long[]> entry : modules.entrySet()) {
+      final long[] timing = entry.getValue();
+      if (timing[1] != RUNNING) {
+        completed.put(entry.getKey(), timing.clone());
+        start = Math.min(start, timing[0]);
+      }
+    }
+    for (final Map.Entry<String, long[]> entry : completed.entrySet()) {
+      final String name = PREFIX + "module." + entry.getKey() + '.';
+      final long[] timing = entry.getValue();
+      properties.setProperty(name + "startMillis", toMillis(timing[0] - start));
+      properties.setProperty(name + "millis", toMillis(timing[1] - timing[0]));
+    }
+    new ReactorTimingAnalysis(completed, upstreamModules).addTo(properties);
+  }
+
+  private static String toMillis(final long nanos) {
+    return String.valueOf(TimeUnit.NANOSECONDS.toMillis(nanos));
+  }
+
+  /**
+   * Writes the timings to the given file in the format of a properties file.
+   *
+   * @param file the file to write to.
+   * @throws IOException if the file cannot be written.
+   */
+  public void write(final File file) throws IOException {
+    final Properties properties = new SortedProperties();
+    addTo(properties);
+    final File directory = file.getParentFile();
+    if (directory != null && !directory.isDirectory() && !directory.mkdirs()) {
+      throw new IOException("Cannot create directory " + directory + '.');
+    }
+    final OutputStream out = new FileOutputStream(file);
+    try {
+      properties.store(out, "Build timings");
+    } finally {
+      IOUtils.closeQuietly(out);
+    }
+  }
+
+  // --- object basics --------------------------------------------------------
+
+}
@@ -0,0 +1,292 @@
+/*
+ * Copyright 2006-2025 smartics, Kronseder & Reiner GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package de.smartics.maven.plugin.buildmetadata.maven;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Analyzes the start and end times of the modules of a reactor build. The
+ * analysis is written as properties with names starting with
+ * <code>build.timing.reactor.</code>:
+ * <ul>
+ * <li><code>wallMillis</code> - the time from the start of the first to the
+ * end of the last module in milliseconds,</li>
+ * <li><code>modulesMillis</code> - the accumulated exclusive time of all
+ * modules in milliseconds,</li>
+ * <li><code>criticalPath</code> - the comma separated identifiers of the
+ * modules on the longest chain of dependent modules, in build order,</li>
+ * <li><code>criticalPath.millis</code> - the accumulated exclusive time of the
+ * modules on the critical path in milliseconds,</li>
+ * <li><code>parallelism.achieved</code> - the accumulated exclusive time
+ * divided by the wall time,</li>
+ * <li><code>parallelism.theoretical</code> - the accumulated exclusive time
+ * divided by the time of the critical path. This is the best parallelism
+ * possible with an unlimited number of threads,</li>
+ * <li><code>parallelism.efficiency</code> - the achieved divided by the
+ * theoretical parallelism,</li>
+ * <li><code>topModules</code> - the comma separated identifiers of the modules
+ * with the longest exclusive time, in descending order.</li>
+ * </ul>
+ * <p>
+ * The exclusive time of a module is the time from its start to its end. The
+ * critical path and the theoretical parallelism are only provided, if the
+ * dependencies between the modules are known.
+ * </p>
+ */
+public final class ReactorTimingAnalysis {
+  // ********************************* Fields *********************************
+
+  // --- constants ------------------------------------------------------------
+
+  /**
+   * The prefix of the names of the properties the analysis is written to.
+   * <p>
+   * The value of this constant is {@value}.
+   * </p>
+   */
+  public static final String PREFIX = BuildTimingRecorder.PREFIX + "reactor.";
+
+  /**
+   * The name of the property with the modules on the critical path.
+   * <p>
+   * The value of this constant is {@value}.
+   * </p>
+   */
+  public static final String PROP_NAME_CRITICAL_PATH = PREFIX + "criticalPath";
+
+  /**
+   * The name of the property with the modules with the longest exclusive time.
+   * <p>
+   * The value of this constant is {@value}.
+   * </p>
+   */
+  public static final String PROP_NAME_TOP_MODULES = PREFIX + "topModules";
+
+  /**
+   * The number of modules listed as top modules.
+   */
+  private static final int TOP_MODULE_COUNT = 5;
+
+  // --- members --------------------------------------------------------------
+
+  /**
+   * The start and end time in nanoseconds of each module with the module
+   * identifier as key.
+   */
+  private final Map<String, long[]> modules;
+
+  /**
+   * The identifiers of the modules each module directly depends on. May be
+   * <code>null</code> if the dependencies are not known.
+   */
+  private final Map<String, List<String>> upstreamModules;
+
+  // ****************************** Initializer *******************************
+
+  // ****************************** Constructors ******************************
+
+  /**
+   * Default constructor.
+   *
+   * @param modules the start and end time in nanoseconds of each module with
+   *        the module identifier as key.
+   * @param upstreamModules the identifiers of the modules each module directly
+   *        depends on. May be <code>null</code> if the dependencies are not
+   *        known.
+   */
+  public ReactorTimingAnalysis(final Map<String, long[]> modules,
+      final Map<String, List<String>> upstreamModules) {
+    this.modules = modules;
+    this.upstreamModules = upstreamModules;
+  }
+
+  // ****************************** Inner Classes *****************************
+
+  // ********************************* Methods ********************************
+
+  // --- init -----------------------------------------------------------------
+
+  // --- get&set --------------------------------------------------------------
+
+  // --- business -------------------------------------------------------------
+
+  /**
+   * Calculates the critical path, that is the chain of dependent modules with
+   * the longest accumulated exclusive time.
+   *
+   * @return the identifiers of the modules on the critical path in build
+   *         order. The list is empty if the dependencies between the modules
+   *         are not known or no module has been built.
+   */
+  public List<String> calcCriticalPath() {
+    final List<String> path = new LinkedList<String>();
+    if (upstreamModules == null || modules.isEmpty()) {
+      return path;
+    }
+
+    final Map<String, Long> lengths = new HashMap<String, Long>();
+    final Map<String, String> predecessors = new HashMap<String, String>();
+    String end = null;
+    for (final String id : modules.keySet()) {
+      final long length = calcPathLength(id, lengths, predecessors);
+      if (end == null || length > lengths.get(end)) {
+        end = id;
+      }
+    }
+
+    for (String id = end; id != null; id = predecessors.get(id)) {
+      path.add(0, id);
+    }
+    return path;
+  }
+
+  private long calcPathLength(final String id, final Map<String, Long> lengths,
+      final Map<String, String> predecessors) {
+    final Long cached = lengths.get(id);
+    if (cached != null) {
+      return cached;
+    }
+
+    // Guards against cycles, which Maven does not allow anyway.
+    lengths.put(id, 0L);
+    long longest = 0;
+    String predecessor = null;
+    final List<String> upstream = upstreamModules.get(id);
+    if (upstream != null) {
+      for (final String upstreamId : upstream) {
+        if (modules.containsKey(upstreamId)) {
+          final long length =
+              calcPathLength(upstreamId, lengths, predecessors);
+          if (predecessor == null || length > longest) {
+            longest = length;
+            predecessor = upstreamId;
+          }
+        }
+      }
+    }
+    if (predecessor != null) {
+      predecessors.put(id, predecessor);
+    }
+    final long length = longest + calcDuration(id);
+    lengths.put(id, length);
+    return length;
+  }
+
+  /**
+   * Returns the modules with the longest exclusive time.
+   *
+   * @param count the maximum number of modules to return.
+   * @return the identifiers of the modules in descending order of their
+   *         exclusive time.
+   */
+  public List<String> calcTopModules(final int count) {
+    final List<String> ids = new ArrayList<String>(modules.keySet());
+    Collections.sort(ids, new Comparator<String>() {
+      public int compare(final String o1, final String o2) {
+        final long d1 = calcDuration(o1);
+        final long d2 = calcDuration(o2);
+        return d1 < d2 ? 1 : (d1 == d2 ? o1.compareTo(o2) : -1);
+      }
+    });
+    return ids.subList(0, Math.min(count, ids.size()));
+  }
+
+  /**
+   * Adds the analysis to the given properties. Nothing is added if no module
+   * has been built.
+   *
+   * @param properties the properties to add the analysis to.
+   */
+  public void addTo(final Properties properties) {
+    if (modules.isEmpty()) {
+      return;
+    }
+
+    long start = Long.MAX_VALUE;
+    long end = Long.MIN_VALUE;
+    long total = 0;
+    for (final Map.Entry<String, long[]> entry : modules.entrySet()) {
+      final long[] timing = entry.getValue();
+      start = Math.min(start, timing[0]);
+      end = Math.max(end, timing[1]);
+      total += calcDuration(entry.getKey());
+    }
+    final long wall = end - start;
+    final double achieved = divide(total, wall);
+
+    properties.setProperty(PREFIX + "wallMillis", toMillis(wall));
+    properties.setProperty(PREFIX + "modulesMillis", toMillis(total));
+    properties.setProperty(PREFIX + "parallelism.achieved", format(achieved));
+    properties.setProperty(PROP_NAME_TOP_MODULES,
+        join(calcTopModules(TOP_MODULE_COUNT)));
+
+    final List<String> criticalPath = calcCriticalPath();
+    if (!criticalPath.isEmpty()) {
+      long critical = 0;
+      for (final String id : criticalPath) {
+        critical += calcDuration(id);
+      }
+      final double theoretical = divide(total, critical);
+      properties.setProperty(PROP_NAME_CRITICAL_PATH, join(criticalPath));
+      properties.setProperty(PROP_NAME_CRITICAL_PATH + ".millis",
+          toMillis(critical));
+      properties.setProperty(PREFIX + "parallelism.theoretical",
+          format(theoretical));
+      properties.setProperty(PREFIX + "parallelism.efficiency",
+          format(divide(achieved, theoretical)));
+    }
+  }
+
+  private long calcDuration(final String id) {
+    final long[] timing = modules.get(id);
+    return Math.max(0, timing[1] - timing[0]);
+  }
+
+  private static double divide(final double dividend, final double divisor) {
+    return divisor > 0 ? dividend / divisor : 1.0;
+  }
+
+  private static String format(final double value) {
+    return String.format(Locale.ENGLISH, "%.2f", value);
+  }
+
+  private static String toMillis(final long nanos) {
+    return String.valueOf(TimeUnit.NANOSECONDS.toMillis(nanos));
+  }
+
+  private static String join(final List<String> ids) {
+    final StringBuilder buffer = new StringBuilder(ids.size() * 32);
+    for (final String id : ids) {
+      if (buffer.length() > 0) {
+        buffer.append(',');
+      }
+      buffer.append(id);
+    }
+    return buffer.toString();
+  }
+
+  // --- object basics --------------------------------------------------------
+
+}
@@ -0,0 +1,227 @@
+/*
+ * Copyright 2006-2025 smartics, Kronseder & Reiner GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package de.smartics.maven.plugin.buildmetadata.scm;
+
+import java.util.Collection;
+import java.util.regex.Pattern;
+
+/**
+ * Matches relative paths against include and exclude patterns. The patterns
+ * follow the Ant syntax used by Maven: <code>**</code> matches any number of
+ * directories, <code>*</code> any number of characters within a path
+ * segment and <code>?</code> exactly one character within a path segment. A
+ * pattern ending with a slash matches everything within the directory.
+ * <p>
+ * All include patterns are compiled into a single regular expression, as are
+ * all exclude patterns, so matching a path does not depend on the number of
+ * patterns.
+ * </p>
+ * <p>
+ * Additionally paths may be excluded by {@link IgnoreRules} in the syntax of
+ * <code>.gitignore</code> files.
+ * </p>
+ */
+public final class GlobMatcher {
+  // ********************************* Fields *********************************
+
+  // --- constants ------------------------------------------------------------
+
+  /**
+   * The matcher that accepts every path.
+   */
+  public static final GlobMatcher ALL = new GlobMatcher(null, null, null);
+
+  /**
+   * The regular expression for a <code>**&#47;</code> token, matching any
+   * number of directories.
+   * <p>
+   * The value of this constant is {@value}.
+   * </p>
+   */
+  private static final String ANY_DIRECTORIES = "(?:.*/)?";
+
+  // --- members --------------------------------------------------------------
+
+  /**
+   * The compiled include patterns. If <code>null</code>, every path is
+   * included.
+   */
+  private final Pattern includes;
+
+  /**
+   * The compiled exclude patterns. If <code>null</code>, no path is excluded.
+   */
+  private final Pattern excludes;
+
+  /**
+   * The rules to ignore paths. If <code>null</code>, no path is ignored.
+   */
+  private final IgnoreRules ignores;
+
+  // ****************************** Initializer *******************************
+
+  // ****************************** Constructors ******************************
+
+  private GlobMatcher(final Pattern includes, final Pattern excludes,
+      final IgnoreRules ignores) {
+    this.includes = includes;
+    this.excludes = excludes;
+    this.ignores = ignores;
+  }
+
+  // ****************************** Inner Classes *****************************
+
+  // ********************************* Methods ********************************
+
+  // --- init -----------------------------------------------------------------
+
+  /**
+   * Compiles the given patterns.
+   *
+   * @param includes the patterns of paths to include. If <code>null</code> or
+   *        empty, every path not excluded is included.
+   * @param excludes the patterns of paths to exclude. May be <code>null</code>.
+   * @return the matcher for the patterns.
+   */
+  public static GlobMatcher compile(final Collection<String> includes,
+      final Collection<String> excludes) {
+    return compile(includes, excludes, null);
+  }
+
+  /**
+   * Compiles the given patterns and ignore rules.
+   *
+   * @param includes the patterns of paths to include. If <code>null</code> or
+   *        empty, every path not excluded is included.
+   * @param excludes the patterns of paths to exclude. May be <code>null</code>.
+   * @param ignores the rules of paths to ignore in the syntax of
+   *        <code>.gitignore</code> files. May be <code>null</code>.
+   * @return the matcher for the patterns.
+   */
+  public static GlobMatcher compile(final Collection<String> includes,
+      final Collection<String> excludes, final Collection<String> ignores) {
+    final Pattern includePattern = compile(includes);
+    final Pattern excludePattern = compile(excludes);
+    final IgnoreRules ignoreRules = IgnoreRules.compile(ignores);
+    if (includePattern == null && excludePattern == null
+        && ignoreRules == null) {
+      return ALL;
+    }
+    return new GlobMatcher(includePattern, excludePattern, ignoreRules);
+  }
+
+  private static Pattern compile(final Collection<String> globs) {
+    if (globs == null || globs.isEmpty()) {
+      return null;
+    }
+
+    final StringBuilder buffer = new StringBuilder(64 * globs.size());
+    for (final String glob : globs) {
+      if (buffer.length() > 0) {
+        buffer.append('|');
+      }
+      buffer.append("(?:").append(toRegex(glob)).append(')');
+    }
+    return Pattern.compile(buffer.toString());
+  }
+
+  /**
+   * Translates the glob into a regular expression.
+   *
+   * @param glob the glob to translate.
+   * @return the regular expression matching the same paths as the glob.
+   */
+  static String toRegex(final String glob) {
+    String normalized = normalize(glob.trim());
+    if (normalized.endsWith("/")) {
+      normalized += "**";
+    }
+
+    final int length = normalized.length();
+    final StringBuilder buffer = new StringBuilder(length * 2);
+    int index = 0;
+    while (index < length) {
+      final char c = normalized.charAt(index);
+      if (c == '*' && index + 1 < length
+          && normalized.charAt(index + 1) == '*') {
+        final boolean atStart =
+            index == 0 || normalized.charAt(index - 1) == '/';
+        final int next = index + 2;
+        if (atStart && next < length && normalized.charAt(next) == '/') {
+          buffer.append(ANY_DIRECTORIES);
+          index = next + 1;
+          continue;
+        }
+        if (atStart && next == length && index > 0
+            && !endsWith(buffer, ANY_DIRECTORIES)) {
+          buffer.setLength(buffer.length() - 1);
+          buffer.append("(?:/.*)?");
+        } else {
+          buffer.append(".*");
+        }
+        index = next;
+        continue;
+      }
+
+      if (c == '*') {
+        buffer.append("[^/]*");
+      } else if (c == '?') {
+        buffer.append("[^/]");
+      } else if ("\\.[]{}()+-^$|".indexOf(c) != -1) {
+        buffer.append('\\').append(c);
+      } else {
+        buffer.append(c);
+      }
+      index++;
+    }
+    return buffer.toString();
+  }
+
+  private static boolean endsWith(final StringBuilder buffer,
+      final String suffix) {
+    final int start = buffer.length() - suffix.length();
+    return start >= 0 && buffer.indexOf(suffix, start) == start;
+  }
+
+  private static String normalize(final String path) {
+    String normalized = path.replace('\\', '/');
+    while (normalized.startsWith("./")) {
+      normalized = normalized.substring(2);
+    }
+    return normalized;
+  }
+
+  // --- get&set --------------------------------------------------------------
+
+  // --- business -------------------------------------------------------------
+
+  /**
+   * Checks if the given path is included and neither excluded nor ignored.
+   *
+   * @param path the path relative to the base directory of the patterns.
+   * @return <code>true</code> if the path matches, <code>false</code>
+   *         otherwise.
+   */
+  public boolean matches(final String path) {
+    final String normalized = normalize(path);
+    return (includes == null || includes.matcher(normalized).matches())
+           && (excludes == null || !excludes.matcher(normalized).matches())
+           && (ignores == null || !ignores.isIgnored(normalized));
+  }
+
+  // --- object basics --------------------------------------------------------
+
+}
@@ -0,0 +1,303 @@
+/*
+ * Copyright 2006-2025 smartics, Kronseder & Reiner GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package de.smartics.maven.plugin.buildmetadata.scm;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Matches relative paths against ignore rules in the syntax of
+ * <code>.gitignore</code> files.
+ * <ul>
+ * <li>Blank lines and lines starting with <code>#</code> are skipped.</li>
+ * <li>A rule starting with <code>!</code> re-includes paths ignored by a
+ * preceding rule. The last matching rule wins.</li>
+ * <li>A rule ending with a slash matches directories only.</li>
+ * <li>A rule containing a slash other than a trailing one is anchored at the
+ * base directory. Otherwise it matches a name on any level.</li>
+ * <li><code>*</code> matches any number of characters within a path segment,
+ * <code>?</code> one character and <code>[...]</code> a character class.
+ * A leading <code>**&#47;</code>, a trailing <code>&#47;**</code> and an
+ * inner <code>&#47;**&#47;</code> match any number of directories.</li>
+ * </ul>
+ * <p>
+ * As with Git, a path within an ignored directory cannot be re-included. The
+ * rules are compiled once. Consecutive rules of the same kind are combined
+ * into a single regular expression, so checking a path does not depend on
+ * the number of rules, but only on the number of changes between ignoring
+ * and re-including rules and the depth of the path.
+ * </p>
+ */
+public final class IgnoreRules {
+  // ********************************* Fields *********************************
+
+  // --- constants ------------------------------------------------------------
+
+  // --- members --------------------------------------------------------------
+
+  /**
+   * The groups of consecutive rules of the same kind in the order of their
+   * declaration.
+   */
+  private final Group[] groups;
+
+  // ****************************** Initializer *******************************
+
+  // ****************************** Constructors ******************************
+
+  private IgnoreRules(final Group[] groups) {
+    this.groups = groups;
+  }
+
+  // ****************************** Inner Classes *****************************
+
+  /**
+   * Consecutive rules that either all ignore or all re-include paths.
+   */
+  private static final class Group {
+    /**
+     * The flag signals that the rules re-include paths.
+     */
+    private final boolean negated;
+
+    /**
+     * The rules that match files. May be <code>null</code> if all rules of
+     * the group match directories only.
+     */
+    private final Pattern files;
+
+    /**
+     * The rules that match directories.
+     */
+    private final Pattern directories;
+
+    private Group(final boolean negated, final Pattern files,
+        final Pattern directories) {
+      this.negated = negated;
+      this.files = files;
+      this.directories = directories;
+    }
+  }
+
+  // ********************************* Methods ********************************
+
+  // --- init -----------------------------------------------------------------
+
+  /**
+   * Compiles the given rules.
+   *
+   * @param lines the rules in the syntax of <code>.gitignore</code> files.
+   *        May be <code>null</code>.
+   * @return the compiled rules or <code>null</code> if no rule has been
+   *         given.
+   */
+  public static IgnoreRules compile(final Collection<String> lines) {
+    if (lines == null) {
+      return null;
+    }
+
+    final List<Group> groups = new ArrayList<Group>();
+    final StringBuilder files = new StringBuilder(256);
+    final StringBuilder directories = new StringBuilder(256);
+    boolean negated = false;
+    for (final String line : lines) {
+      String rule = trim(line);
+      if (rule.length() == 0 || rule.charAt(0) == '#') {
+        continue;
+      }
+      final boolean negation = rule.charAt(0) == '!';
+      if (negation) {
+        rule = rule.substring(1);
+      }
+      if (negation != negated) {
+        addGroup(groups, negated, files, directories);
+        negated = negation;
+      }
+
+      final boolean directoryOnly = rule.endsWith("/");
+      if (directoryOnly) {
+        rule = rule.substring(0, rule.length() - 1);
+      }
+      if (rule.length() == 0) {
+        continue;
+      }
+      final String regex = toRegex(rule);
+      append(directories, regex);
+      if (!directoryOnly) {
+        append(files, regex);
+      }
+    }
+    addGroup(groups, negated, files, directories);
+
+    return groups.isEmpty() ? null
+        : new IgnoreRules(groups.toArray(new Group[groups.size()]));
+  }
+
+  private static void append(final StringBuilder buffer, final String regex) {
+    if (buffer.length() > 0) {
+      buffer.append('|');
+    }
+    buffer.append("(?:").append(regex).append(')');
+  }
+
+  private static void addGroup(final List<Group> groups, final boolean negated,
+      final StringBuilder files, final StringBuilder directories) {
+    if (directories.length() > 0) {
+      groups.add(new Group(negated,
+          files.length() > 0 ? Pattern.compile(files.toString()) : null,
+          Pattern.compile(directories.toString())));
+    }
+    files.setLength(0);
+    directories.setLength(0);
+  }
+
+  private static String trim(final String line) {
+    int end = line.length();
+    while (end > 0 && Character.isWhitespace(line.charAt(end - 1))
+           && !(end > 1 && line.charAt(end - 2) == '\\')) {
+      end--;
+    }
+    return line.substring(0, end);
+  }
+
+  /**
+   * Translates the rule into a regular expression matching the whole path.
+   *
+   * @param rule the rule without negation and trailing slash.
+   * @return the regular expression matching the same paths as the rule.
+   */
+  static String toRegex(final String rule) {
+    String pattern = rule;
+    if (pattern.startsWith("\\!") || pattern.startsWith("\\#")) {
+      pattern = pattern.substring(1);
+    }
+    final boolean anchored = pattern.indexOf('/') != -1;
+    if (pattern.startsWith("/")) {
+      pattern = pattern.substring(1);
+    }
+
+    final int length = pattern.length();
+    final StringBuilder buffer = new StringBuilder(length * 2 + 12);
+    if (!anchored) {
+      buffer.append("(?:.*/)?");
+    }
+    int index = 0;
+    while (index < length) {
+      final char c = pattern.charAt(index);
+      if (c == '*' && pattern.startsWith("**", index)) {
+        final boolean atStart = index == 0 || pattern.charAt(index - 1) == '/';
+        final int next = index + 2;
+        if (atStart && next < length && pattern.charAt(next) == '/') {
+          buffer.append("(?:.*/)?");
+          index = next + 1;
+          continue;
+        }
+        if (atStart && next == length) {
+          buffer.append(".*");
+          index = next;
+          continue;
+        }
+      }
+
+      if (c == '*') {
+        buffer.append("[^/]*");
+      } else if (c == '?') {
+        buffer.append("[^/]");
+      } else if (c == '[' && findClassEnd(pattern, index) != -1) {
+        index = appendCharacterClass(buffer, pattern, index);
+        continue;
+      } else if (c == '\\' && index + 1 < length) {
+        buffer.append(Pattern.quote(String.valueOf(pattern.charAt(++index))));
+      } else if ("\\.[]{}()+-^$|".indexOf(c) != -1) {
+        buffer.append('\\').append(c);
+      } else {
+        buffer.append(c);
+      }
+      index++;
+    }
+    return buffer.toString();
+  }
+
+  private static int findClassEnd(final String pattern, final int start) {
+    int index = start + 1;
+    if (index < pattern.length()
+        && (pattern.charAt(index) == '!' || pattern.charAt(index) == '^')) {
+      index++;
+    }
+    return pattern.indexOf(']', index + 1);
+  }
+
+  private static int appendCharacterClass(final StringBuilder buffer,
+      final String pattern, final int start) {
+    final int end = findClassEnd(pattern, start);
+    int index = start + 1;
+    buffer.append('[');
+    if (pattern.charAt(index) == '!' || pattern.charAt(index) == '^') {
+      buffer.append('^');
+      index++;
+    }
+    for (; index < end; index++) {
+      final char c = pattern.charAt(index);
+      if (c == '\\' || c == '[' || c == ']' || c == '&' || c == '^') {
+        buffer.append('\\');
+      }
+      buffer.append(c);
+    }
+    buffer.append(']');
+    return end + 1;
+  }
+
+  // --- get&set --------------------------------------------------------------
+
+  // --- business -------------------------------------------------------------
+
+  /**
+   * Checks if the given path is ignored by the rules. The path is ignored if
+   * one of its parent directories is ignored or the last rule matching the
+   * path itself does not re-include it.
+   *
+   * @param path the slash separated path of a file relative to the base
+   *        directory of the rules.
+   * @return <code>true</code> if the path is ignored, <code>false</code>
+   *         otherwise.
+   */
+  public boolean isIgnored(final String path) {
+    int slash = path.indexOf('/');
+    while (slash != -1) {
+      if (slash > 0 && isIgnored(path.substring(0, slash), true)) {
+        return true;
+      }
+      slash = path.indexOf('/', slash + 1);
+    }
+    return isIgnored(path, false);
+  }
+
+  private boolean isIgnored(final String path, final boolean directory) {
+    for (int i = groups.length - 1; i >= 0; i--) {
+      final Group group = groups[i];
+      final Pattern pattern = directory ? group.directories : group.files;
+      if (pattern != null && pattern.matcher(path).matches()) {
+        return !group.negated;
+      }
+    }
+    return false;
+  }
+
+  // --- object basics --------------------------------------------------------
+
+}
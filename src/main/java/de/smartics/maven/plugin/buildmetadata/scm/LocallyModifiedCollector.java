@@ -0,0 +1,205 @@
+/*
+ * Copyright 2006-2025 smartics, Kronseder & Reiner GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package de.smartics.maven.plugin.buildmetadata.scm;
+
+import org.apache.maven.scm.ScmFile;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigInteger;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Collects locally modified files one by one without keeping all of them in
+ * memory. The collector keeps
+ * <ul>
+ * <li>the first files in sort order, up to a configurable maximum,</li>
+ * <li>the number of files per modification type,</li>
+ * <li>a digest over all files that does not depend on the order the files
+ * are reported in.</li>
+ * </ul>
+ * <p>
+ * Optionally every file is written to a writer, so the complete list is
+ * available without putting it into the build properties.
+ * </p>
+ */
+public final class LocallyModifiedCollector {
+  // ********************************* Fields *********************************
+
+  // --- constants ------------------------------------------------------------
+
+  /**
+   * The encoding of the file information the digest is calculated on.
+   */
+  private static final Charset UTF8 = Charset.forName("UTF-8");
+
+  /**
+   * The modulus of the digest sum. The sum of the SHA-1 values of the files is
+   * truncated to the length of a single SHA-1 value.
+   */
+  private static final BigInteger DIGEST_MODULUS =
+      BigInteger.ONE.shiftLeft(160);
+
+  // --- members --------------------------------------------------------------
+
+  /**
+   * The maximum number of files to keep. A negative value keeps all files.
+   */
+  private final int maxFiles;
+
+  /**
+   * The writer to write every file to. May be <code>null</code>.
+   */
+  private final Writer details;
+
+  /**
+   * The files kept, in order of their paths.
+   */
+  private final TreeSet<ScmFile> files =
+      new TreeSet<ScmFile>(new Comparator<ScmFile>() {
+        public int compare(final ScmFile o1, final ScmFile o2) {
+          return o2.compareTo(o1);
+        }
+      });
+
+  /**
+   * The number of files per modification type.
+   */
+  private final Map<String, Integer> statusCounts =
+      new TreeMap<String, Integer>();
+
+  /**
+   * The digest to calculate the hash value of a single file.
+   */
+  private final MessageDigest digest;
+
+  /**
+   * The sum of the hash values of all files.
+   */
+  private BigInteger digestSum = BigInteger.ZERO;
+
+  /**
+   * The number of files collected.
+   */
+  private int fileCount;
+
+  // ****************************** Initializer *******************************
+
+  // ****************************** Constructors ******************************
+
+  /**
+   * Default constructor.
+   *
+   * @param maxFiles the maximum number of files to keep. A negative value keeps
+   *        all files.
+   * @param details the writer to write every file to. May be
+   *        <code>null</code>.
+   */
+  public LocallyModifiedCollector(final int maxFiles, final Writer details) {
+    this.maxFiles = maxFiles;
+    this.details = details;
+    try {
+      this.digest = MessageDigest.getInstance("SHA-1");
+    } catch (final NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-1 is not supported.", e);
+    }
+  }
+
+  // ****************************** Inner Classes *****************************
+
+  // ********************************* Methods ********************************
+
+  // --- init -----------------------------------------------------------------
+
+  // --- get&set --------------------------------------------------------------
+
+  /**
+   * Returns the number of files collected.
+   *
+   * @return the number of files collected.
+   */
+  public int getFileCount() {
+    return fileCount;
+  }
+
+  // --- business -------------------------------------------------------------
+
+  /**
+   * Adds the given file.
+   *
+   * @param file the locally modified file.
+   * @throws IOException if the file cannot be written to the details writer.
+   */
+  public void add(final ScmFile file) throws IOException {
+    final String path = file.getPath().replace('\\', '/');
+    final String status = String.valueOf(file.getStatus());
+
+    fileCount++;
+    final Integer count = statusCounts.get(status);
+    statusCounts.put(status, count != null ? count + 1 : 1);
+
+    final byte[] hash =
+        digest.digest((status + ':' + path + '\n').getBytes(UTF8));
+    digestSum = digestSum.add(new BigInteger(1, hash)).mod(DIGEST_MODULUS);
+
+    if (maxFiles != 0) {
+      files.add(file);
+      if (maxFiles > 0 && files.size() > maxFiles) {
+        files.pollLast();
+      }
+    }
+
+    if (details != null) {
+      details.write(status);
+      details.write('\t');
+      details.write(path);
+      details.write('\n');
+    }
+  }
+
+  /**
+   * Creates the information about the collected files.
+   *
+   * @return the information about the collected files.
+   */
+  public LocallyModifiedInfo createInfo() {
+    if (fileCount == 0) {
+      return new LocallyModifiedInfo(false, null, 0, statusCounts, null);
+    }
+
+    String fileList = null;
+    if (!files.isEmpty()) {
+      final StringBuilder buffer = new StringBuilder(files.size() * 32);
+      for (final ScmFile file : files) {
+        buffer.append(file).append(' ');
+      }
+      buffer.setLength(buffer.length() - 1);
+      fileList = buffer.toString();
+    }
+    final String digestString = String.format("%040x", digestSum);
+    return new LocallyModifiedInfo(true, fileList, fileCount, statusCounts,
+        digestString);
+  }
+
+  // --- object basics --------------------------------------------------------
+
+}
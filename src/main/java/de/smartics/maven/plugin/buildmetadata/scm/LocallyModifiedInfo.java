@@ -15,6 +15,10 @@
  */
 package de.smartics.maven.plugin.buildmetadata.scm;
 
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
 /**
  * Stores the information about locally modified files.
  */
@@ -37,6 +41,24 @@ public final class LocallyModifiedInfo {
    */
   private final String files;
 
+  /**
+   * The number of files reported to be modified. The list of files may be
+   * restricted to a subset of these files. A negative value signals that the
+   * number is not known.
+   */
+  private final int fileCount;
+
+  /**
+   * The number of files reported to be modified per modification type.
+   */
+  private final Map<String, Integer> statusCounts;
+
+  /**
+   * The digest over all files reported to be modified. May be
+   * <code>null</code>.
+   */
+  private final String digest;
+
   // ****************************** Initializer *******************************
 
   // ****************************** Constructors ******************************
@@ -50,8 +72,34 @@ public final class LocallyModifiedInfo {
    */
   public LocallyModifiedInfo(final boolean locallyModified,
       final String files) {
+    this(locallyModified, files, -1, null, null);
+  }
+
+  /**
+   * Constructor providing summary information about the modified files.
+   *
+   * @param locallyModified the flag that shows whether the files are modified (
+   *        <code>true</code>) or not (<code>false</code>).
+   * @param files the list of files that where reported to be modified. May be
+   *        restricted to a subset of these files.
+   * @param fileCount the number of files reported to be modified. A negative
+   *        value signals that the number is not known.
+   * @param statusCounts the number of files reported to be modified per
+   *        modification type. May be <code>null</code>.
+   * @param digest the digest over all files reported to be modified. May be
+   *        <code>null</code>.
+   */
+  public LocallyModifiedInfo(final boolean locallyModified, final String files,
+      final int fileCount, final Map<String, Integer> statusCounts,
+      final String digest) {
     this.locallyModified = locallyModified;
     this.files = normalize(files);
+    this.fileCount = fileCount;
+    this.statusCounts = statusCounts != null
+        ? Collections.unmodifiableMap(
+            new TreeMap<String, Integer>(statusCounts))
+        : Collections.<String, Integer> emptyMap();
+    this.digest = digest;
   }
 
   // ****************************** Inner Classes *****************************
@@ -90,6 +138,38 @@ public final class LocallyModifiedInfo {
     return files;
   }
 
+  /**
+   * Returns the number of files reported to be modified. The list of files
+   * returned by {@link #getFiles()} may be restricted to a subset of these
+   * files.
+   *
+   * @return the number of files reported to be modified. A negative value
+   *         signals that the number is not known.
+   */
+  public int getFileCount() {
+    return fileCount;
+  }
+
+  /**
+   * Returns the number of files reported to be modified per modification
+   * type.
+   *
+   * @return the number of files per modification type, sorted by type.
+   */
+  public Map<String, Integer> getStatusCounts() {
+    return statusCounts;
+  }
+
+  /**
+   * Returns the digest over all files reported to be modified.
+   *
+   * @return the digest over all files reported to be modified. May be
+   *         <code>null</code>.
+   */
+  public String getDigest() {
+    return digest;
+  }
+
   // --- business -------------------------------------------------------------
 
   // --- object basics --------------------------------------------------------
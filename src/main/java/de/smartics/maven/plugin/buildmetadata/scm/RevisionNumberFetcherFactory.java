@@ -0,0 +1,228 @@
+/*
+ * Copyright 2006-2025 smartics, Kronseder & Reiner GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package de.smartics.maven.plugin.buildmetadata.scm;
+
+import de.smartics.maven.plugin.buildmetadata.scm.RevisionNumberFetcherProvider.Capability;
+import de.smartics.maven.plugin.buildmetadata.scm.maven.ScmAccessInfo;
+import de.smartics.maven.plugin.buildmetadata.scm.maven.ScmConnectionInfo;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.maven.scm.ScmFileSet;
+import org.apache.maven.scm.provider.ScmUrlUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.ServiceLoader;
+import java.util.Set;
+
+/**
+ * Selects the {@link RevisionNumberFetcher} for a working copy from the
+ * registered {@link RevisionNumberFetcherProvider providers}.
+ * <p>
+ * For each request the first provider is selected that supports the type of
+ * the SCM and declares the required capability. The latest revision requires
+ * {@link Capability#REVISION} or, if a remote version is configured,
+ * {@link Capability#REMOTE_REVISION}. The check for modifications requires
+ * {@link Capability#MODIFICATIONS} and is never delegated to a provider if a
+ * remote version is configured. Requests no provider is selected for are
+ * served by the fetcher based on Maven SCM.
+ * </p>
+ */
+public final class RevisionNumberFetcherFactory {
+  // ********************************* Fields *********************************
+
+  // --- constants ------------------------------------------------------------
+
+  /**
+   * Reference to the logger for this class.
+   */
+  private static final Log LOG =
+      LogFactory.getLog(RevisionNumberFetcherFactory.class);
+
+  // --- members --------------------------------------------------------------
+
+  /**
+   * The providers in the order they are consulted.
+   */
+  private final List<RevisionNumberFetcherProvider> providers;
+
+  // ****************************** Initializer *******************************
+
+  // ****************************** Constructors ******************************
+
+  /**
+   * Default constructor.
+   *
+   * @param providers the providers in the order they are consulted.
+   */
+  public RevisionNumberFetcherFactory(
+      final List<RevisionNumberFetcherProvider> providers) {
+    this.providers = Collections.unmodifiableList(
+        new ArrayList<RevisionNumberFetcherProvider>(providers));
+  }
+
+  // ****************************** Inner Classes *****************************
+
+  /**
+   * Holds the factory with the providers registered on the class path of the
+   * plugin. The providers are loaded on first access.
+   */
+  private static final class DefaultHolder {
+    /**
+     * The factory with the registered providers.
+     */
+    private static final RevisionNumberFetcherFactory INSTANCE =
+        new RevisionNumberFetcherFactory(
+            load(RevisionNumberFetcherFactory.class.getClassLoader()));
+  }
+
+  /**
+   * Routes each request to the selected fetcher.
+   */
+  private static final class RoutingRevisionNumberFetcher
+      implements RevisionNumberFetcher {
+    /**
+     * The fetcher to fetch the latest revision.
+     */
+    private final RevisionNumberFetcher revisionFetcher;
+
+    /**
+     * The fetcher to check for modifications.
+     */
+    private final RevisionNumberFetcher modificationFetcher;
+
+    private RoutingRevisionNumberFetcher(
+        final RevisionNumberFetcher revisionFetcher,
+        final RevisionNumberFetcher modificationFetcher) {
+      this.revisionFetcher = revisionFetcher;
+      this.modificationFetcher = modificationFetcher;
+    }
+
+    @Override
+    public Revision fetchLatestRevisionNumber() throws ScmException {
+      return revisionFetcher.fetchLatestRevisionNumber();
+    }
+
+    @Override
+    public LocallyModifiedInfo containsModifications(final ScmFileSet fileSet)
+        throws ScmException {
+      return modificationFetcher.containsModifications(fileSet);
+    }
+  }
+
+  // ********************************* Methods ********************************
+
+  // --- init -----------------------------------------------------------------
+
+  /**
+   * Returns the factory with the providers registered on the class path of the
+   * plugin.
+   *
+   * @return the factory with the registered providers.
+   */
+  public static RevisionNumberFetcherFactory getDefault() {
+    return DefaultHolder.INSTANCE;
+  }
+
+  /**
+   * Loads the providers registered with the given class loader.
+   *
+   * @param classLoader the class loader to load the providers from.
+   * @return the registered providers in the order of the class path.
+   */
+  public static List<RevisionNumberFetcherProvider> load(
+      final ClassLoader classLoader) {
+    final List<RevisionNumberFetcherProvider> providers =
+        new ArrayList<RevisionNumberFetcherProvider>();
+    for (final RevisionNumberFetcherProvider provider : ServiceLoader
+        .load(RevisionNumberFetcherProvider.class, classLoader)) {
+      if (LOG.isDebugEnabled()) {
+        LOG.debug("  Found revision fetcher provider for '"
+                  + provider.getScmType() + "': "
+                  + provider.getClass().getName() + ' '
+                  + provider.getCapabilities());
+      }
+      providers.add(provider);
+    }
+    return providers;
+  }
+
+  // --- get&set --------------------------------------------------------------
+
+  // --- business -------------------------------------------------------------
+
+  /**
+   * Creates the fetcher for the given working copy.
+   *
+   * @param connectionInfo the information to connect to the SCM.
+   * @param accessInfo the information to access the working copy.
+   * @param fallback the fetcher based on Maven SCM to serve all requests no
+   *        provider is selected for.
+   * @return the fetcher for the working copy.
+   */
+  public RevisionNumberFetcher create(final ScmConnectionInfo connectionInfo,
+      final ScmAccessInfo accessInfo, final RevisionNumberFetcher fallback) {
+    final String scmType =
+        ScmUrlUtils.getProvider(connectionInfo.getConnectionUrl());
+    final boolean remote = connectionInfo.getRemoteVersion() != null;
+
+    final boolean providedModifications = !remote;
+
+    RevisionNumberFetcher revisionFetcher = null;
+    RevisionNumberFetcher modificationFetcher = null;
+    for (final RevisionNumberFetcherProvider provider : providers) {
+      if (revisionFetcher != null
+          && (modificationFetcher != null || !providedModifications)) {
+        break;
+      }
+      if (!provider.getScmType().equals(scmType)) {
+        continue;
+      }
+
+      final Set<Capability> capabilities = provider.getCapabilities();
+      final boolean revision = revisionFetcher == null && capabilities
+          .contains(remote ? Capability.REMOTE_REVISION : Capability.REVISION);
+      final boolean modifications = providedModifications
+          && modificationFetcher == null
+          && capabilities.contains(Capability.MODIFICATIONS);
+      if (revision || modifications) {
+        final RevisionNumberFetcher fetcher =
+            provider.create(connectionInfo, accessInfo, fallback);
+        if (fetcher != null) {
+          if (LOG.isDebugEnabled()) {
+            LOG.debug("  Using " + fetcher.getClass().getName()
+                      + (revision ? " for revisions" : "")
+                      + (modifications ? " for modifications" : "") + '.');
+          }
+          revisionFetcher = revision ? fetcher : revisionFetcher;
+          modificationFetcher = modifications ? fetcher : modificationFetcher;
+        }
+      }
+    }
+
+    if (revisionFetcher == null && modificationFetcher == null) {
+      return fallback;
+    }
+    return new RoutingRevisionNumberFetcher(
+        revisionFetcher != null ? revisionFetcher : fallback,
+        modificationFetcher != null ? modificationFetcher : fallback);
+  }
+
+  // --- object basics --------------------------------------------------------
+
+}
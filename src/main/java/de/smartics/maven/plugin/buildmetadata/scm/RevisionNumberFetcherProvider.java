@@ -0,0 +1,103 @@
+/*
+ * Copyright 2006-2025 smartics, Kronseder & Reiner GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package de.smartics.maven.plugin.buildmetadata.scm;
+
+import de.smartics.maven.plugin.buildmetadata.scm.maven.ScmAccessInfo;
+import de.smartics.maven.plugin.buildmetadata.scm.maven.ScmConnectionInfo;
+
+import java.util.Set;
+
+/**
+ * Service to provide {@link RevisionNumberFetcher} implementations for a type
+ * of SCM. Implementations are registered as services in
+ * <code>META-INF/services</code> under the name of this interface and are
+ * discovered on the class path of the plugin, so they can be added as a
+ * dependency of the plugin.
+ * <p>
+ * A fetcher is only asked for the information its provider declares as
+ * capabilities. All other requests are served by the fetcher based on Maven
+ * SCM.
+ * </p>
+ *
+ * @see RevisionNumberFetcherFactory
+ */
+public interface RevisionNumberFetcherProvider {
+  // ********************************* Fields *********************************
+
+  // --- constants ------------------------------------------------------------
+
+  // ****************************** Initializer *******************************
+
+  // ****************************** Inner Classes *****************************
+
+  /**
+   * The information a fetcher is able to provide.
+   */
+  enum Capability {
+    /**
+     * The latest revision of the working copy.
+     */
+    REVISION,
+
+    /**
+     * The latest revision of a remote branch or tag.
+     */
+    REMOTE_REVISION,
+
+    /**
+     * The locally modified files of the working copy.
+     */
+    MODIFICATIONS
+  }
+
+  // ********************************* Methods ********************************
+
+  // --- get&set --------------------------------------------------------------
+
+  /**
+   * Returns the type of the SCM supported by the fetchers of this provider.
+   * The type is the provider part of the SCM connection URL, e.g.
+   * <code>git</code> or <code>svn</code>.
+   *
+   * @return the type of the SCM supported.
+   */
+  String getScmType();
+
+  /**
+   * Returns the information the fetchers of this provider are able to provide.
+   *
+   * @return the capabilities of the fetchers.
+   */
+  Set<Capability> getCapabilities();
+
+  // --- business -------------------------------------------------------------
+
+  /**
+   * Creates the fetcher for the given working copy.
+   *
+   * @param connectionInfo the information to connect to the SCM.
+   * @param accessInfo the information to access the working copy.
+   * @param fallback the fetcher based on Maven SCM. The created fetcher may
+   *        delegate to it, e.g. if the working copy cannot be read.
+   * @return the fetcher or <code>null</code> if the provider does not apply to
+   *         the given configuration.
+   */
+  RevisionNumberFetcher create(ScmConnectionInfo connectionInfo,
+      ScmAccessInfo accessInfo, RevisionNumberFetcher fallback);
+
+  // --- object basics --------------------------------------------------------
+
+}
@@ -0,0 +1,227 @@
+/*
+ * Copyright 2006-2025 smartics, Kronseder & Reiner GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package de.smartics.maven.plugin.buildmetadata.scm;
+
+import org.apache.commons.io.IOUtils;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the wall time of the calls to the SCM, the number of retries of the
+ * change log query, the number of changed files, and the number of bytes of
+ * the output of the SCM. The metrics are written as properties with names
+ * starting with <code>build.metrics.scm.</code>:
+ * <ul>
+ * <li><code>&lt;operation&gt;.calls</code> - the number of calls,</li>
+ * <li><code>&lt;operation&gt;.millis</code> - the accumulated wall time in
+ * milliseconds,</li>
+ * <li><code>&lt;operation&gt;.maxMillis</code> - the wall time of the slowest
+ * call in milliseconds,</li>
+ * <li><code>changeLog.retries</code> - the number of change log queries
+ * repeated with a larger range,</li>
+ * <li><code>changedFiles</code> - the number of changed files reported by the
+ * SCM,</li>
+ * <li><code>outputBytes</code> - the number of bytes of the output of the
+ * SCM.</li>
+ * </ul>
+ * <p>
+ * The metrics may be recorded by multiple threads concurrently.
+ * </p>
+ */
+public final class ScmMetrics {
+  // ********************************* Fields *********************************
+
+  // --- constants ------------------------------------------------------------
+
+  /**
+   * The prefix of the names of the properties the metrics are written to.
+   * <p>
+   * The value of this constant is {@value}.
+   * </p>
+   */
+  public static final String PREFIX = "build.metrics.scm.";
+
+  /**
+   * The name of the change log query operation.
+   * <p>
+   * The value of this constant is {@value}.
+   * </p>
+   */
+  public static final String CHANGE_LOG = "changeLog";
+
+  /**
+   * The encoding to count the bytes of the output of the SCM in.
+   */
+  private static final Charset UTF8 = Charset.forName("UTF-8");
+
+  // --- members --------------------------------------------------------------
+
+  /**
+   * The timings per operation in order of the names of the operations. Each
+   * timing stores the number of calls, the accumulated and the maximum wall
+   * time in nanoseconds.
+   */
+  private final Map<String, long[]> timings = new TreeMap<String, long[]>();
+
+  /**
+   * The number of change log queries repeated with a larger range.
+   */
+  private int retries;
+
+  /**
+   * The number of changed files reported by the SCM.
+   */
+  private int changedFiles;
+
+  /**
+   * The number of bytes of the output of the SCM.
+   */
+  private long outputBytes;
+
+  // ****************************** Initializer *******************************
+
+  // ****************************** Constructors ******************************
+
+  /**
+   * Default constructor.
+   */
+  public ScmMetrics() {}
+
+  // ****************************** Inner Classes *****************************
+
+  // ********************************* Methods ********************************
+
+  // --- init -----------------------------------------------------------------
+
+  // --- get&set --------------------------------------------------------------
+
+  // --- business -------------------------------------------------------------
+
+  /**
+   * Starts the timing of a call.
+   *
+   * @return the start time to pass to {@link #stop(String, long)}.
+   */
+  public long start() {
+    return System.nanoTime();
+  }
+
+  /**
+   * Stops the timing of a call and adds its wall time to the operation.
+   *
+   * @param operation the name of the operation called.
+   * @param start the start time returned by {@link #start()}.
+   */
+  public synchronized void stop(final String operation, final long start) {
+    final long duration = System.nanoTime() - start;
+    long[] timing = timings.get(operation);
+    if (timing == null) {
+      timing = new long[3];
+      timings.put(operation, timing);
+    }
+    timing[0]++;
+    timing[1] += duration;
+    timing[2] = Math.max(timing[2], duration);
+  }
+
+  /**
+   * Adds to the number of change log queries repeated with a larger range.
+   *
+   * @param count the number of repeated queries.
+   */
+  public synchronized void addRetries(final int count) {
+    retries += count;
+  }
+
+  /**
+   * Adds to the number of changed files reported by the SCM.
+   *
+   * @param count the number of changed files.
+   */
+  public synchronized void addChangedFiles(final int count) {
+    changedFiles += count;
+  }
+
+  /**
+   * Adds the size of the output of the SCM.
+   *
+   * @param output the output of the SCM. May be <code>null</code>.
+   */
+  public void addOutput(final String output) {
+    if (output != null) {
+      final int bytes = output.getBytes(UTF8).length;
+      synchronized (this) {
+        outputBytes += bytes;
+      }
+    }
+  }
+
+  /**
+   * Adds the metrics to the given properties.
+   *
+   * @param properties the properties to add the metrics to.
+   */
+  public synchronized void addTo(final Properties properties) {
+    for (final Map.Entry<String, long[]> entry : timings.entrySet()) {
+      final String name = PREFIX + entry.getKey() + '.';
+      final long[] timing = entry.getValue();
+      properties.setProperty(name + "calls", String.valueOf(timing[0]));
+      properties.setProperty(name + "millis", toMillis(timing[1]));
+      properties.setProperty(name + "maxMillis", toMillis(timing[2]));
+    }
+    properties.setProperty(PREFIX + CHANGE_LOG + ".retries",
+        String.valueOf(retries));
+    properties.setProperty(PREFIX + "changedFiles",
+        String.valueOf(changedFiles));
+    properties.setProperty(PREFIX + "outputBytes", String.valueOf(outputBytes));
+  }
+
+  private static String toMillis(final long nanos) {
+    return String.valueOf(TimeUnit.NANOSECONDS.toMillis(nanos));
+  }
+
+  /**
+   * Writes the metrics to the given file in the format of a properties file.
+   *
+   * @param file the file to write to.
+   * @throws IOException if the file cannot be written.
+   */
+  public void write(final File file) throws IOException {
+    final Properties properties = new Properties();
+    addTo(properties);
+    final File directory = file.getParentFile();
+    if (directory != null && !directory.isDirectory() && !directory.mkdirs()) {
+      throw new IOException("Cannot create directory " + directory + '.');
+    }
+    final OutputStream out = new FileOutputStream(file);
+    try {
+      properties.store(out, "SCM metrics");
+    } finally {
+      IOUtils.closeQuietly(out);
+    }
+  }
+
+  // --- object basics --------------------------------------------------------
+
+}
@@ -0,0 +1,243 @@
+/*
+ * Copyright 2006-2025 smartics, Kronseder & Reiner GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package de.smartics.maven.plugin.buildmetadata.scm;
+
+import de.smartics.maven.plugin.buildmetadata.scm.git.GitIndex;
+import de.smartics.maven.plugin.buildmetadata.scm.git.GitRepository;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Set;
+
+/**
+ * Calculates a fingerprint of the state of a working copy. If the fingerprint
+ * has not changed, the information fetched from the SCM for the working copy
+ * is still valid.
+ * <p>
+ * The fingerprint is cheap to calculate: no SCM client is launched and no file
+ * content is read. It covers
+ * </p>
+ * <ul>
+ * <li>the configuration of the SCM query,</li>
+ * <li>the metadata of the SCM (for Git the commit <code>HEAD</code> refers to
+ * and the modification time of the index, for Subversion and Mercurial the
+ * modification time of the working copy database),</li>
+ * <li>the modification times and sizes of the files of the module. For Git
+ * only the files tracked by the index are considered, for all other SCM
+ * systems all files except those in hidden and excluded directories.</li>
+ * </ul>
+ */
+public final class WorkingCopyFingerprint {
+  // ********************************* Fields *********************************
+
+  // --- constants ------------------------------------------------------------
+
+  /**
+   * Reference to the logger for this class.
+   */
+  private static final Log LOG =
+      LogFactory.getLog(WorkingCopyFingerprint.class);
+
+  /**
+   * The encoding of the fingerprint input.
+   */
+  private static final Charset UTF8 = Charset.forName("UTF-8");
+
+  /**
+   * The files that store the state of Subversion and Mercurial working copies.
+   */
+  private static final String[] METADATA_FILES =
+      {".svn/wc.db", ".svn/entries", ".hg/dirstate", ".hg/store/00changelog.i"};
+
+  // --- members --------------------------------------------------------------
+
+  /**
+   * The digest to calculate the fingerprint.
+   */
+  private final MessageDigest digest;
+
+  // ****************************** Initializer *******************************
+
+  // ****************************** Constructors ******************************
+
+  private WorkingCopyFingerprint() {
+    try {
+      this.digest = MessageDigest.getInstance("SHA-1");
+    } catch (final NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-1 is not supported.", e);
+    }
+  }
+
+  // ****************************** Inner Classes *****************************
+
+  // ********************************* Methods ********************************
+
+  // --- init -----------------------------------------------------------------
+
+  // --- get&set --------------------------------------------------------------
+
+  // --- business -------------------------------------------------------------
+
+  /**
+   * Calculates the fingerprint of the working copy the given directory
+   * belongs to.
+   *
+   * @param directory the directory of the module within the working copy.
+   * @param configuration the configuration of the SCM query. Any change to the
+   *        configuration changes the fingerprint.
+   * @param remoteVersion the name of the remote branch or tag the working copy
+   *        is compared with. May be <code>null</code>.
+   * @param excludedDirectoryNames the names of directories to skip while
+   *        walking the module directory (e.g. the build directory).
+   * @return the fingerprint or <code>null</code> if no fingerprint can be
+   *         calculated for the working copy.
+   */
+  public static String calculate(final File directory,
+      final String configuration, final String remoteVersion,
+      final Set<String> excludedDirectoryNames) {
+    try {
+      final WorkingCopyFingerprint fingerprint = new WorkingCopyFingerprint();
+      fingerprint.update("config", configuration);
+      final GitRepository repository = GitRepository.find(directory);
+      if (repository != null) {
+        if (!fingerprint.updateGit(repository, directory, remoteVersion)) {
+          return null;
+        }
+      } else if (remoteVersion != null
+                 || !fingerprint.updateMetadata(directory)) {
+        return null;
+      } else {
+        fingerprint.updateFiles(directory, excludedDirectoryNames);
+      }
+      return toHex(fingerprint.digest.digest());
+    } catch (final IOException e) {
+      if (LOG.isDebugEnabled()) {
+        LOG.debug("  Cannot calculate fingerprint of working copy " + directory
+                  + ": " + e.getMessage());
+      }
+      return null;
+    }
+  }
+
+  private boolean updateGit(final GitRepository repository,
+      final File directory, final String remoteVersion) throws IOException {
+    final String head = repository.resolveCommit("HEAD");
+    update("HEAD", head + ' ' + repository.resolveSymbolicHead());
+    if (remoteVersion != null) {
+      update("remote", repository.resolveCommit(remoteVersion));
+    }
+
+    final GitIndex index = GitIndex.read(repository);
+    if (index == null) {
+      return head == null;
+    }
+    update("index", String.valueOf(index.getLastModified()));
+    final String prefix = repository.getRelativePath(directory);
+    final File workTree = repository.getWorkTree();
+    for (final GitIndex.Entry entry : index.getEntries()) {
+      final String path = entry.getPath();
+      if (path.startsWith(prefix)) {
+        updateFile(path, new File(workTree, path).toPath());
+      }
+    }
+    return true;
+  }
+
+  private boolean updateMetadata(final File directory) {
+    File current = directory.getAbsoluteFile();
+    boolean found = false;
+    while (current != null) {
+      for (final String name : METADATA_FILES) {
+        final File file = new File(current, name);
+        if (file.isFile()) {
+          update(file.getAbsolutePath(),
+              file.lastModified() + " " + file.length());
+          found = true;
+        }
+      }
+      current = current.getParentFile();
+    }
+    return found;
+  }
+
+  private void updateFiles(final File directory,
+      final Set<String> excludedDirectoryNames) throws IOException {
+    final Path root = directory.toPath();
+    Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+      @Override
+      public FileVisitResult preVisitDirectory(final Path dir,
+          final BasicFileAttributes attributes) {
+        final Path name = dir.getFileName();
+        if (!dir.equals(root) && name != null
+            && (name.toString().startsWith(".")
+                || excludedDirectoryNames.contains(name.toString()))) {
+          return FileVisitResult.SKIP_SUBTREE;
+        }
+        return FileVisitResult.CONTINUE;
+      }
+
+      @Override
+      public FileVisitResult visitFile(final Path file,
+          final BasicFileAttributes attributes) {
+        update(root.relativize(file).toString(),
+            attributes.lastModifiedTime().toMillis() + " "
+                + attributes.size());
+        return FileVisitResult.CONTINUE;
+      }
+    });
+  }
+
+  private void updateFile(final String name, final Path file) {
+    try {
+      final BasicFileAttributes attributes =
+          Files.readAttributes(file, BasicFileAttributes.class);
+      update(name, attributes.lastModifiedTime().toMillis() + " "
+                   + attributes.size());
+    } catch (final IOException e) {
+      update(name, "-");
+    }
+  }
+
+  private void update(final String key, final String value) {
+    digest.update(key.getBytes(UTF8));
+    digest.update((byte) 0);
+    digest.update(String.valueOf(value).getBytes(UTF8));
+    digest.update((byte) '\n');
+  }
+
+  private static String toHex(final byte[] bytes) {
+    final StringBuilder buffer = new StringBuilder(bytes.length * 2);
+    for (final byte b : bytes) {
+      buffer.append(Character.forDigit((b >> 4) & 0x0f, 16))
+          .append(Character.forDigit(b & 0x0f, 16));
+    }
+    return buffer.toString();
+  }
+
+  // --- object basics --------------------------------------------------------
+
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2006-2025 smartics, Kronseder & Reiner GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package de.smartics.maven.plugin.buildmetadata.scm;
+
+/**
+ * Stores the information fetched from the SCM for a working copy: the latest
+ * revision and the information about locally modified files.
+ */
+public final class WorkingCopyState {
+  // ********************************* Fields *********************************
+
+  // --- constants ------------------------------------------------------------
+
+  // --- members --------------------------------------------------------------
+
+  /**
+   * The latest revision of the working copy. May be <code>null</code> if no
+   * revision has been found.
+   */
+  private final Revision revision;
+
+  /**
+   * The information about locally modified files. May be <code>null</code> if
+   * the check has not been run or failed.
+   */
+  private final LocallyModifiedInfo locallyModifiedInfo;
+
+  /**
+   * The reason why the check for locally modified files failed. Is
+   * <code>null</code> if the check has not been run or succeeded.
+   */
+  private final Exception modificationFailure;
+
+  /**
+   * The flag signals that the SCM could not be queried within the time budget.
+   * The revision, if any, has not been fetched from the SCM.
+   */
+  private final boolean timedOut;
+
+  // ****************************** Initializer *******************************
+
+  // ****************************** Constructors ******************************
+
+  /**
+   * Default constructor.
+   *
+   * @param revision the latest revision of the working copy.
+   * @param locallyModifiedInfo the information about locally modified files.
+   * @param modificationFailure the reason why the check for locally modified
+   *        files failed.
+   */
+  public WorkingCopyState(final Revision revision,
+      final LocallyModifiedInfo locallyModifiedInfo,
+      final Exception modificationFailure) {
+    this(revision, locallyModifiedInfo, modificationFailure, false);
+  }
+
+  /**
+   * Constructor to signal whether the SCM could be queried in time.
+   *
+   * @param revision the latest revision of the working copy.
+   * @param locallyModifiedInfo the information about locally modified files.
+   * @param modificationFailure the reason why the check for locally modified
+   *        files failed.
+   * @param timedOut the flag signals that the SCM could not be queried within
+   *        the time budget.
+   */
+  public WorkingCopyState(final Revision revision,
+      final LocallyModifiedInfo locallyModifiedInfo,
+      final Exception modificationFailure, final boolean timedOut) {
+    this.revision = revision;
+    this.locallyModifiedInfo = locallyModifiedInfo;
+    this.modificationFailure = modificationFailure;
+    this.timedOut = timedOut;
+  }
+
+  // ****************************** Inner Classes *****************************
+
+  // ********************************* Methods ********************************
+
+  // --- init -----------------------------------------------------------------
+
+  // --- get&set --------------------------------------------------------------
+
+  /**
+   * Returns the latest revision of the working copy.
+   *
+   * @return the latest revision of the working copy. May be <code>null</code>
+   *         if no revision has been found.
+   */
+  public Revision getRevision() {
+    return revision;
+  }
+
+  /**
+   * Returns the information about locally modified files.
+   *
+   * @return the information about locally modified files. May be
+   *         <code>null</code> if the check has not been run or failed.
+   */
+  public LocallyModifiedInfo getLocallyModifiedInfo() {
+    return locallyModifiedInfo;
+  }
+
+  /**
+   * Returns the reason why the check for locally modified files failed.
+   *
+   * @return the reason why the check for locally modified files failed. Is
+   *         <code>null</code> if the check has not been run or succeeded.
+   */
+  public Exception getModificationFailure() {
+    return modificationFailure;
+  }
+
+  /**
+   * Checks whether the SCM could not be queried within the time budget. In
+   * this case the revision, if any, has not been fetched from the SCM.
+   *
+   * @return <code>true</code> if the SCM could not be queried in time,
+   *         <code>false</code> otherwise.
+   */
+  public boolean isTimedOut() {
+    return timedOut;
+  }
+
+  // --- business -------------------------------------------------------------
+
+  // --- object basics --------------------------------------------------------
+
+}
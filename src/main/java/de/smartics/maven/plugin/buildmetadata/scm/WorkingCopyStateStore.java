@@ -0,0 +1,289 @@
+/*
+ * Copyright 2006-2025 smartics, Kronseder & Reiner GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package de.smartics.maven.plugin.buildmetadata.scm;
+
+import de.smartics.maven.plugin.buildmetadata.scm.maven.StringRevision;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Date;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * Stores the state of a working copy in a file together with the fingerprint
+ * of the working copy. The state is only loaded if the fingerprint matches.
+ * <p>
+ * Problems reading or writing the file are logged and otherwise ignored.
+ * </p>
+ *
+ * @see WorkingCopyFingerprint
+ */
+public final class WorkingCopyStateStore {
+  // ********************************* Fields *********************************
+
+  // --- constants ------------------------------------------------------------
+
+  /**
+   * Reference to the logger for this class.
+   */
+  private static final Log LOG =
+      LogFactory.getLog(WorkingCopyStateStore.class);
+
+  /**
+   * The name of the property that stores the fingerprint.
+   * <p>
+   * The value of this constant is {@value}.
+   * </p>
+   */
+  private static final String PROP_FINGERPRINT = "fingerprint";
+
+  /**
+   * The name of the property that stores the revision identifier.
+   * <p>
+   * The value of this constant is {@value}.
+   * </p>
+   */
+  private static final String PROP_REVISION_ID = "revision.id";
+
+  /**
+   * The name of the property that stores the revision date in milliseconds.
+   * <p>
+   * The value of this constant is {@value}.
+   * </p>
+   */
+  private static final String PROP_REVISION_DATE = "revision.date";
+
+  /**
+   * The name of the property that stores the locally modified flag.
+   * <p>
+   * The value of this constant is {@value}.
+   * </p>
+   */
+  private static final String PROP_LOCALLY_MODIFIED = "locallyModified";
+
+  /**
+   * The name of the property that stores the locally modified files.
+   * <p>
+   * The value of this constant is {@value}.
+   * </p>
+   */
+  private static final String PROP_LOCALLY_MODIFIED_FILES =
+      "locallyModified.files";
+
+  /**
+   * The name of the property that stores the number of modified files.
+   * <p>
+   * The value of this constant is {@value}.
+   * </p>
+   */
+  private static final String PROP_LOCALLY_MODIFIED_COUNT =
+      "locallyModified.count";
+
+  /**
+   * The prefix of the properties that store the number of modified files per
+   * modification type.
+   * <p>
+   * The value of this constant is {@value}.
+   * </p>
+   */
+  private static final String PROP_LOCALLY_MODIFIED_COUNT_PREFIX =
+      "locallyModified.count.";
+
+  /**
+   * The name of the property that stores the digest over all modified files.
+   * <p>
+   * The value of this constant is {@value}.
+   * </p>
+   */
+  private static final String PROP_LOCALLY_MODIFIED_DIGEST =
+      "locallyModified.digest";
+
+  // --- members --------------------------------------------------------------
+
+  /**
+   * The file to store the state in.
+   */
+  private final File file;
+
+  // ****************************** Initializer *******************************
+
+  // ****************************** Constructors ******************************
+
+  /**
+   * Default constructor.
+   *
+   * @param file the file to store the state in.
+   */
+  public WorkingCopyStateStore(final File file) {
+    this.file = file;
+  }
+
+  // ****************************** Inner Classes *****************************
+
+  // ********************************* Methods ********************************
+
+  // --- init -----------------------------------------------------------------
+
+  // --- get&set --------------------------------------------------------------
+
+  // --- business -------------------------------------------------------------
+
+  /**
+   * Loads the state stored by the last build, regardless of the fingerprint.
+   * The state may not reflect the current state of the working copy.
+   *
+   * @return the stored state or <code>null</code> if no state has been stored.
+   */
+  public WorkingCopyState loadLatest() {
+    return load(null);
+  }
+
+  /**
+   * Loads the state stored for the given fingerprint.
+   *
+   * @param fingerprint the current fingerprint of the working copy. If
+   *        <code>null</code>, the stored state is returned regardless of its
+   *        fingerprint.
+   * @return the stored state or <code>null</code> if no state has been stored
+   *         for the fingerprint.
+   */
+  public WorkingCopyState load(final String fingerprint) {
+    if (!file.isFile()) {
+      return null;
+    }
+
+    try {
+      final Properties properties = read();
+      if (fingerprint != null
+          && !fingerprint.equals(properties.getProperty(PROP_FINGERPRINT))) {
+        return null;
+      }
+
+      final Revision revision =
+          new StringRevision(properties.getProperty(PROP_REVISION_ID),
+              new Date(Long.parseLong(
+                  properties.getProperty(PROP_REVISION_DATE))));
+      final String locallyModified =
+          properties.getProperty(PROP_LOCALLY_MODIFIED);
+      final LocallyModifiedInfo info =
+          locallyModified != null ? createLocallyModifiedInfo(properties,
+              Boolean.parseBoolean(locallyModified)) : null;
+      return new WorkingCopyState(revision, info, null);
+    } catch (final IOException e) {
+      LOG.debug("Cannot read SCM state from " + file + ": " + e.getMessage());
+    } catch (final RuntimeException e) {
+      LOG.debug("Invalid SCM state in " + file + ": " + e.getMessage());
+    }
+    return null;
+  }
+
+  /**
+   * Stores the state for the given fingerprint. Only states with a revision
+   * fetched in time and without a failed modification check are stored.
+   *
+   * @param fingerprint the fingerprint of the working copy.
+   * @param state the state of the working copy.
+   */
+  public void store(final String fingerprint, final WorkingCopyState state) {
+    final Revision revision = state.getRevision();
+    if (revision == null || revision.getId() == null || state.isTimedOut()
+        || state.getModificationFailure() != null) {
+      return;
+    }
+
+    final Properties properties = new Properties();
+    properties.setProperty(PROP_FINGERPRINT, fingerprint);
+    properties.setProperty(PROP_REVISION_ID, revision.getId());
+    properties.setProperty(PROP_REVISION_DATE,
+        String.valueOf(revision.getDate().getTime()));
+    final LocallyModifiedInfo info = state.getLocallyModifiedInfo();
+    if (info != null) {
+      properties.setProperty(PROP_LOCALLY_MODIFIED,
+          String.valueOf(info.isLocallyModified()));
+      if (info.getFiles() != null) {
+        properties.setProperty(PROP_LOCALLY_MODIFIED_FILES, info.getFiles());
+      }
+      properties.setProperty(PROP_LOCALLY_MODIFIED_COUNT,
+          String.valueOf(info.getFileCount()));
+      for (final Map.Entry<String, Integer> entry : info.getStatusCounts()
+          .entrySet()) {
+        properties.setProperty(
+            PROP_LOCALLY_MODIFIED_COUNT_PREFIX + entry.getKey(),
+            String.valueOf(entry.getValue()));
+      }
+      if (info.getDigest() != null) {
+        properties.setProperty(PROP_LOCALLY_MODIFIED_DIGEST, info.getDigest());
+      }
+    }
+
+    try {
+      final File directory = file.getParentFile();
+      if (directory != null && !directory.isDirectory()
+          && !directory.mkdirs()) {
+        throw new IOException("Cannot create directory " + directory);
+      }
+      final OutputStream out = new FileOutputStream(file);
+      try {
+        properties.store(out, "SCM state of the working copy");
+      } finally {
+        IOUtils.closeQuietly(out);
+      }
+    } catch (final IOException e) {
+      LOG.debug("Cannot store SCM state to " + file + ": " + e.getMessage());
+    }
+  }
+
+  private static LocallyModifiedInfo createLocallyModifiedInfo(
+      final Properties properties, final boolean locallyModified) {
+    final String count = properties.getProperty(PROP_LOCALLY_MODIFIED_COUNT);
+    final Map<String, Integer> statusCounts = new TreeMap<String, Integer>();
+    for (final String name : properties.stringPropertyNames()) {
+      if (name.startsWith(PROP_LOCALLY_MODIFIED_COUNT_PREFIX)) {
+        statusCounts.put(
+            name.substring(PROP_LOCALLY_MODIFIED_COUNT_PREFIX.length()),
+            Integer.valueOf(properties.getProperty(name)));
+      }
+    }
+    return new LocallyModifiedInfo(locallyModified,
+        properties.getProperty(PROP_LOCALLY_MODIFIED_FILES),
+        count != null ? Integer.parseInt(count) : -1, statusCounts,
+        properties.getProperty(PROP_LOCALLY_MODIFIED_DIGEST));
+  }
+
+  private Properties read() throws IOException {
+    final Properties properties = new Properties();
+    final InputStream in = new FileInputStream(file);
+    try {
+      properties.load(in);
+    } finally {
+      IOUtils.closeQuietly(in);
+    }
+    return properties;
+  }
+
+  // --- object basics --------------------------------------------------------
+
+}
@@ -0,0 +1,395 @@
+/*
+ * Copyright 2006-2025 smartics, Kronseder & Reiner GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package de.smartics.maven.plugin.buildmetadata.scm.git;
+
+import de.smartics.maven.plugin.buildmetadata.scm.Revision;
+import de.smartics.maven.plugin.buildmetadata.scm.maven.StringRevision;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.maven.scm.ScmFile;
+import org.apache.maven.scm.ScmFileStatus;
+import org.apache.maven.scm.provider.git.gitexe.command.GitCommandLineUtils;
+import org.codehaus.plexus.util.IOUtil;
+import org.codehaus.plexus.util.cli.CommandLineException;
+import org.codehaus.plexus.util.cli.CommandLineUtils;
+import org.codehaus.plexus.util.cli.Commandline;
+import org.codehaus.plexus.util.cli.StreamPumper;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Shares Git processes with all modules of a build that refer to the same
+ * working tree. Instead of launching a Git process for each query, commits are
+ * resolved by one long-lived <code>git cat-file --batch</code> process and the
+ * status of the working tree is read by a single run of
+ * <code>git status --porcelain=v2 -z</code>. The output of the status is
+ * parsed while it is streamed.
+ * <p>
+ * Instances are thread-safe. The batch process is started on first use and
+ * shared by all modules of the build. It is terminated by {@link #close()},
+ * which is called when the session cache holding the instance is closed at
+ * the end of the build.
+ * </p>
+ *
+ * @since 1.7.2
+ */
+public final class GitBatchSession implements Closeable {
+  // ********************************* Fields *********************************
+
+  // --- constants ------------------------------------------------------------
+
+  /**
+   * Reference to the logger for this class.
+   */
+  private static final Log LOG = LogFactory.getLog(GitBatchSession.class);
+
+  // --- members --------------------------------------------------------------
+
+  /**
+   * The repository of the working tree the Git processes are run in.
+   */
+  private final GitRepository repository;
+
+  /**
+   * The running <code>git cat-file --batch</code> process. Is
+   * <code>null</code> if the process has not been started yet or failed.
+   */
+  private Process batch;
+
+  /**
+   * The standard input of the batch process.
+   */
+  private OutputStream batchInput;
+
+  /**
+   * The standard output of the batch process.
+   */
+  private InputStream batchOutput;
+
+  /**
+   * The status of the files tracked in the working tree, keyed by their paths
+   * relative to the root of the working tree. Is <code>null</code> if the
+   * status has not been read yet.
+   */
+  private SortedMap<String, ScmFileStatus> status;
+
+  /**
+   * The flag signals that the session has been closed.
+   */
+  private boolean closed;
+
+  // ****************************** Initializer *******************************
+
+  // ****************************** Constructors ******************************
+
+  /**
+   * Default constructor.
+   *
+   * @param repository the repository of the working tree the Git processes
+   *        are run in.
+   */
+  public GitBatchSession(final GitRepository repository) {
+    this.repository = repository;
+  }
+
+  // ****************************** Inner Classes *****************************
+
+  // ********************************* Methods ********************************
+
+  // --- init -----------------------------------------------------------------
+
+  // --- get&set --------------------------------------------------------------
+
+  /**
+   * Returns the repository of the working tree the Git processes are run in.
+   *
+   * @return the repository of the working tree.
+   */
+  public GitRepository getRepository() {
+    return repository;
+  }
+
+  // --- business -------------------------------------------------------------
+
+  /**
+   * Resolves the given revision to a commit by the batch process.
+   *
+   * @param revision the revision to resolve, e.g. <code>HEAD</code> or the
+   *        name of a remote branch.
+   * @return the commit or <code>null</code> if the revision cannot be
+   *         resolved.
+   * @throws IOException if the batch process cannot be run.
+   */
+  public synchronized Revision resolveRevision(final String revision)
+      throws IOException {
+    if (closed) {
+      throw new IOException("Git batch session for " + repository
+                            + " has been closed.");
+    }
+    try {
+      startBatch();
+      batchInput.write((revision + "^{commit}\n").getBytes(GitRepository.UTF8));
+      batchInput.flush();
+
+      final String header = readLine(batchOutput);
+      if (header == null) {
+        throw new IOException("Git batch process terminated unexpectedly.");
+      }
+      final String[] tokens = header.split(" ");
+      if (tokens.length != 3 || !"commit".equals(tokens[1])) {
+        if (LOG.isDebugEnabled()) {
+          LOG.debug("  Cannot resolve '" + revision + "' in " + repository
+                    + ": " + header);
+        }
+        return null;
+      }
+
+      final String id = tokens[0];
+      final byte[] content = readContent(Integer.parseInt(tokens[2]));
+      final Date date = GitRepository.parseCommitDate(content, id);
+      return new StringRevision(id, date);
+    } catch (final IOException e) {
+      stopBatch();
+      throw e;
+    } catch (final NumberFormatException e) {
+      stopBatch();
+      throw new IOException("Cannot parse output of Git batch process.", e);
+    }
+  }
+
+  /**
+   * Finds the modified files within the given directory. The status of the
+   * whole working tree is read on first call and shared with all subsequent
+   * calls. Untracked files are not reported.
+   *
+   * @param directory the directory within the working tree to check.
+   * @return the modified files with their paths relative to the directory.
+   * @throws IOException if the status cannot be read.
+   */
+  public List<ScmFile> findModifications(final File directory)
+      throws IOException {
+    final String prefix = repository.getRelativePath(directory);
+    final SortedMap<String, ScmFileStatus> entries =
+        prefix.length() == 0 ? readStatus()
+            : readStatus().subMap(prefix, prefix + Character.MAX_VALUE);
+    final List<ScmFile> files = new ArrayList<ScmFile>(entries.size());
+    for (final Map.Entry<String, ScmFileStatus> entry : entries.entrySet()) {
+      files.add(new ScmFile(entry.getKey().substring(prefix.length()),
+          entry.getValue()));
+    }
+    return files;
+  }
+
+  private synchronized SortedMap<String, ScmFileStatus> readStatus()
+      throws IOException {
+    if (status == null) {
+      final Commandline cl = GitCommandLineUtils
+          .getBaseGitCommandLine(repository.getWorkTree(), "status");
+      cl.createArg().setValue("--porcelain=v2");
+      cl.createArg().setValue("-z");
+      cl.createArg().setValue("--untracked-files=no");
+      final Process process = execute(cl);
+      final CommandLineUtils.StringStreamConsumer errors =
+          new CommandLineUtils.StringStreamConsumer();
+      final StreamPumper errorPumper =
+          new StreamPumper(process.getErrorStream(), errors);
+      errorPumper.start();
+      try {
+        final SortedMap<String, ScmFileStatus> entries =
+            parseStatus(new BufferedInputStream(process.getInputStream()));
+        final int exitValue = process.waitFor();
+        errorPumper.join();
+        if (exitValue != 0) {
+          throw new IOException("Cannot read status of " + repository + " ("
+              + exitValue + "): " + errors.getOutput());
+        }
+        status = Collections.unmodifiableSortedMap(entries);
+        if (LOG.isDebugEnabled()) {
+          LOG.debug("  Read status of " + repository + ", found "
+                    + entries.size() + " modifications.");
+        }
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IOException("Interrupted while reading status of "
+                              + repository + '.', e);
+      } finally {
+        process.destroy();
+      }
+    }
+    return status;
+  }
+
+  /**
+   * Parses the output of <code>git status --porcelain=v2 -z</code>. Each
+   * record is terminated by a NUL character. Renamed and copied entries are
+   * followed by a record with the original path.
+   *
+   * @param in the output of the status command.
+   * @return the status of the files, keyed by their paths relative to the
+   *         root of the working tree.
+   * @throws IOException if the output cannot be read.
+   */
+  static SortedMap<String, ScmFileStatus> parseStatus(final InputStream in)
+      throws IOException {
+    final SortedMap<String, ScmFileStatus> entries =
+        new TreeMap<String, ScmFileStatus>();
+    String record;
+    while ((record = readRecord(in)) != null) {
+      if (record.length() < 2 || record.charAt(1) != ' ') {
+        continue;
+      }
+      switch (record.charAt(0)) {
+        case '1':
+          addEntry(entries, record, 9, createStatus(record.substring(2, 4)));
+          break;
+        case '2':
+          addEntry(entries, record, 10, ScmFileStatus.RENAMED);
+          readRecord(in);
+          break;
+        case 'u':
+          addEntry(entries, record, 11, ScmFileStatus.MODIFIED);
+          break;
+        default:
+          break;
+      }
+    }
+    return entries;
+  }
+
+  private static void addEntry(final Map<String, ScmFileStatus> entries,
+      final String record, final int fieldCount, final ScmFileStatus status) {
+    final String[] fields = record.split(" ", fieldCount);
+    if (fields.length == fieldCount) {
+      entries.put(fields[fieldCount - 1], status);
+    }
+  }
+
+  private static ScmFileStatus createStatus(final String xy) {
+    final char index = xy.charAt(0);
+    final char workTree = xy.charAt(1);
+    if (index == 'A') {
+      return ScmFileStatus.ADDED;
+    }
+    if (index == 'D' || workTree == 'D') {
+      return ScmFileStatus.DELETED;
+    }
+    return ScmFileStatus.MODIFIED;
+  }
+
+  private static String readRecord(final InputStream in) throws IOException {
+    final ByteArrayOutputStream record = new ByteArrayOutputStream(128);
+    int b;
+    while ((b = in.read()) != -1) {
+      if (b == 0) {
+        return new String(record.toByteArray(), GitRepository.UTF8);
+      }
+      record.write(b);
+    }
+    return record.size() > 0
+        ? new String(record.toByteArray(), GitRepository.UTF8) : null;
+  }
+
+  private static String readLine(final InputStream in) throws IOException {
+    final ByteArrayOutputStream line = new ByteArrayOutputStream(64);
+    int b;
+    while ((b = in.read()) != -1) {
+      if (b == '\n') {
+        return new String(line.toByteArray(), GitRepository.UTF8);
+      }
+      line.write(b);
+    }
+    return null;
+  }
+
+  private byte[] readContent(final int size) throws IOException {
+    final byte[] content = new byte[size];
+    int offset = 0;
+    while (offset < size) {
+      final int count = batchOutput.read(content, offset, size - offset);
+      if (count == -1) {
+        throw new IOException("Git batch process terminated unexpectedly.");
+      }
+      offset += count;
+    }
+    if (batchOutput.read() != '\n') {
+      throw new IOException("Cannot parse output of Git batch process.");
+    }
+    return content;
+  }
+
+  private void startBatch() throws IOException {
+    if (batch == null) {
+      final Commandline cl = GitCommandLineUtils
+          .getBaseGitCommandLine(repository.getWorkTree(), "cat-file");
+      cl.createArg().setValue("--batch");
+      batch = execute(cl);
+      batchInput = batch.getOutputStream();
+      batchOutput = new BufferedInputStream(batch.getInputStream());
+      if (LOG.isDebugEnabled()) {
+        LOG.debug("  Started Git batch process for " + repository + '.');
+      }
+    }
+  }
+
+  private void stopBatch() {
+    if (batch != null) {
+      IOUtil.close(batchInput);
+      IOUtil.close(batchOutput);
+      batch.destroy();
+      batch = null;
+      batchInput = null;
+      batchOutput = null;
+    }
+  }
+
+  private static Process execute(final Commandline cl) throws IOException {
+    try {
+      return cl.execute();
+    } catch (final CommandLineException e) {
+      throw new IOException("Cannot run " + cl + '.', e);
+    }
+  }
+
+  /**
+   * Terminates the batch process. Subsequent requests to resolve revisions
+   * fail.
+   */
+  public synchronized void close() {
+    closed = true;
+    stopBatch();
+  }
+
+  // --- object basics --------------------------------------------------------
+
+  @Override
+  public String toString() {
+    return "Git batch session for " + repository;
+  }
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright 2006-2025 smartics, Kronseder & Reiner GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package de.smartics.maven.plugin.buildmetadata.scm.git;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Provides the configuration values of a Git repository. The system, global
+ * and repository configuration files are read in this order, later values
+ * override earlier ones.
+ * <p>
+ * Only the subset of the Git configuration syntax required to read simple
+ * values is supported. Includes are not followed.
+ * </p>
+ */
+public final class GitConfig {
+  // ********************************* Fields *********************************
+
+  // --- constants ------------------------------------------------------------
+
+  // --- members --------------------------------------------------------------
+
+  /**
+   * The configuration values. The key is the lower case section, the optional
+   * subsection and the lower case name, separated by dots.
+   */
+  private final Map<String, String> values;
+
+  // ****************************** Initializer *******************************
+
+  // ****************************** Constructors ******************************
+
+  private GitConfig(final Map<String, String> values) {
+    this.values = values;
+  }
+
+  // ****************************** Inner Classes *****************************
+
+  // ********************************* Methods ********************************
+
+  // --- init -----------------------------------------------------------------
+
+  /**
+   * Reads the configuration of the given repository.
+   *
+   * @param repository the repository whose configuration is to be read.
+   * @return the configuration.
+   * @throws IOException on any problem reading a configuration file.
+   */
+  public static GitConfig read(final GitRepository repository)
+      throws IOException {
+    final Map<String, String> values = new HashMap<String, String>();
+    parse(new File("/etc/gitconfig"), values);
+    final String xdgConfigHome = System.getenv("XDG_CONFIG_HOME");
+    final String home = System.getProperty("user.home");
+    if (xdgConfigHome != null && xdgConfigHome.length() > 0) {
+      parse(new File(xdgConfigHome, "git/config"), values);
+    } else if (home != null) {
+      parse(new File(home, ".config/git/config"), values);
+    }
+    if (home != null) {
+      parse(new File(home, ".gitconfig"), values);
+    }
+    parse(new File(repository.getCommonDir(), "config"), values);
+    return new GitConfig(values);
+  }
+
+  /**
+   * Parses the given configuration content.
+   *
+   * @param content the content in Git configuration syntax.
+   * @return the configuration.
+   */
+  static GitConfig parse(final String content) {
+    final Map<String, String> values = new HashMap<String, String>();
+    parse(content, values);
+    return new GitConfig(values);
+  }
+
+  private static void parse(final File file, final Map<String, String> values)
+      throws IOException {
+    if (file.isFile()) {
+      parse(new String(GitRepository.readFully(file), GitRepository.UTF8),
+          values);
+    }
+  }
+
+  private static void parse(final String content,
+      final Map<String, String> values) {
+    String section = "";
+    for (final String rawLine : content.split("\r?\n")) {
+      final String line = stripComment(rawLine).trim();
+      if (line.length() == 0) {
+        continue;
+      }
+
+      if (line.charAt(0) == '[') {
+        final int end = line.lastIndexOf(']');
+        final String header = line.substring(1, end > 0 ? end : line.length());
+        final int quote = header.indexOf('"');
+        if (quote >= 0) {
+          final String name = header.substring(0, quote).trim();
+          final String subsection =
+              header.substring(quote + 1, header.lastIndexOf('"'));
+          section = name.toLowerCase(Locale.ENGLISH) + '.' + subsection;
+        } else {
+          section = header.trim().toLowerCase(Locale.ENGLISH);
+        }
+      } else {
+        final int equals = line.indexOf('=');
+        final String name;
+        final String value;
+        if (equals >= 0) {
+          name = line.substring(0, equals).trim();
+          value = unquote(line.substring(equals + 1).trim());
+        } else {
+          name = line;
+          value = "true";
+        }
+        values.put(section + '.' + name.toLowerCase(Locale.ENGLISH), value);
+      }
+    }
+  }
+
+  private static String stripComment(final String line) {
+    boolean quoted = false;
+    for (int i = 0; i < line.length(); i++) {
+      final char c = line.charAt(i);
+      if (c == '"') {
+        quoted = !quoted;
+      } else if (!quoted && (c == '#' || c == ';')) {
+        return line.substring(0, i);
+      }
+    }
+    return line;
+  }
+
+  private static String unquote(final String value) {
+    if (value.length() >= 2 && value.charAt(0) == '"'
+        && value.charAt(value.length() - 1) == '"') {
+      return value.substring(1, value.length() - 1);
+    }
+    return value;
+  }
+
+  // --- get&set --------------------------------------------------------------
+
+  // --- business -------------------------------------------------------------
+
+  /**
+   * Returns the value of the given key.
+   *
+   * @param key the key in the form <code>section.name</code> or
+   *        <code>section.subsection.name</code>. Section and name are case
+   *        insensitive.
+   * @return the value or <code>null</code> if the key is not set.
+   */
+  public String getString(final String key) {
+    final int first = key.indexOf('.');
+    final int last = key.lastIndexOf('.');
+    final String normalized;
+    if (first == last) {
+      normalized = key.toLowerCase(Locale.ENGLISH);
+    } else {
+      normalized = key.substring(0, first).toLowerCase(Locale.ENGLISH)
+                   + key.substring(first, last + 1)
+                   + key.substring(last + 1).toLowerCase(Locale.ENGLISH);
+    }
+    return values.get(normalized);
+  }
+
+  /**
+   * Returns the boolean value of the given key.
+   *
+   * @param key the key in the form <code>section.name</code>.
+   * @param defaultValue the value to return if the key is not set.
+   * @return the boolean value or the default value if the key is not set.
+   */
+  public boolean getBoolean(final String key, final boolean defaultValue) {
+    final String value = getString(key);
+    if (value == null) {
+      return defaultValue;
+    }
+    final String normalized = value.toLowerCase(Locale.ENGLISH);
+    return "true".equals(normalized) || "yes".equals(normalized)
+           || "on".equals(normalized) || "1".equals(normalized);
+  }
+
+  // --- object basics --------------------------------------------------------
+
+}
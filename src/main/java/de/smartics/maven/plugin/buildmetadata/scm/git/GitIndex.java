@@ -0,0 +1,538 @@
+/*
+ * Copyright 2006-2025 smartics, Kronseder & Reiner GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package de.smartics.maven.plugin.buildmetadata.scm.git;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The content of the Git index (<code>.git/index</code>) in version 2, 3 or 4.
+ * <p>
+ * Besides the entries, the cached tree extension is read to allow skipping
+ * unchanged directories when comparing the index with a commit. Split and
+ * sparse indexes are not supported.
+ * </p>
+ */
+public final class GitIndex {
+  // ********************************* Fields *********************************
+
+  // --- constants ------------------------------------------------------------
+
+  /**
+   * The signature of an index file.
+   */
+  private static final int SIGNATURE = 0x44495243;
+
+  /**
+   * The signature of the cached tree extension.
+   */
+  private static final int EXTENSION_TREE = 0x54524545;
+
+  /**
+   * The signature of the split index extension.
+   */
+  private static final int EXTENSION_LINK = 0x6c696e6b;
+
+  /**
+   * The signature of the sparse directory extension.
+   */
+  private static final int EXTENSION_SDIR = 0x73646972;
+
+  /**
+   * The length of an object identifier in bytes.
+   */
+  private static final int ID_LENGTH = 20;
+
+  // --- members --------------------------------------------------------------
+
+  /**
+   * The version of the index format.
+   */
+  private final int version;
+
+  /**
+   * The time the index file has been last modified in milliseconds.
+   */
+  private final long lastModified;
+
+  /**
+   * The entries of the index in index order.
+   */
+  private final List<Entry> entries;
+
+  /**
+   * The object identifiers of the valid entries of the cached tree. The key is
+   * the path of the directory relative to the root of the working tree, the
+   * empty string for the root.
+   */
+  private final Map<String, String> cachedTrees;
+
+  // ****************************** Initializer *******************************
+
+  // ****************************** Constructors ******************************
+
+  private GitIndex(final int version, final long lastModified,
+      final List<Entry> entries, final Map<String, String> cachedTrees) {
+    this.version = version;
+    this.lastModified = lastModified;
+    this.entries = entries;
+    this.cachedTrees = cachedTrees;
+  }
+
+  // ****************************** Inner Classes *****************************
+
+  /**
+   * An entry of the index.
+   */
+  public static final class Entry {
+    /**
+     * The mask to select the type bits of the mode.
+     */
+    public static final int MODE_TYPE_MASK = 0170000;
+
+    /**
+     * The type bits of a symbolic link.
+     */
+    public static final int TYPE_SYMLINK = 0120000;
+
+    /**
+     * The type bits of a gitlink (submodule).
+     */
+    public static final int TYPE_GITLINK = 0160000;
+
+    /**
+     * The type bits of a directory in a sparse index.
+     */
+    public static final int TYPE_TREE = 0040000;
+
+    /**
+     * The path of the file relative to the root of the working tree.
+     */
+    private final String path;
+
+    /**
+     * The seconds part of the cached modification time.
+     */
+    private final long mtimeSeconds;
+
+    /**
+     * The nanoseconds part of the cached modification time.
+     */
+    private final int mtimeNanos;
+
+    /**
+     * The lower 32 bits of the cached inode number.
+     */
+    private final long inode;
+
+    /**
+     * The mode of the file.
+     */
+    private final int mode;
+
+    /**
+     * The lower 32 bits of the cached file size.
+     */
+    private final long size;
+
+    /**
+     * The object identifier of the staged content.
+     */
+    private final String objectId;
+
+    /**
+     * The merge stage.
+     */
+    private final int stage;
+
+    /**
+     * The flag to assume the file is unchanged.
+     */
+    private final boolean assumeValid;
+
+    /**
+     * The flag signaling that the file is not checked out.
+     */
+    private final boolean skipWorktree;
+
+    /**
+     * The flag signaling that the file has been added with
+     * <code>git add -N</code>.
+     */
+    private final boolean intentToAdd;
+
+    // CHECKSTYLE:OFF
+    Entry(final String path, final long mtimeSeconds, // NOPMD
+        final int mtimeNanos, final long inode, final int mode, final long size,
+        final String objectId, final int stage, final boolean assumeValid,
+        final boolean skipWorktree, final boolean intentToAdd) {
+      // CHECKSTYLE:ON
+      this.path = path;
+      this.mtimeSeconds = mtimeSeconds;
+      this.mtimeNanos = mtimeNanos;
+      this.inode = inode;
+      this.mode = mode;
+      this.size = size;
+      this.objectId = objectId;
+      this.stage = stage;
+      this.assumeValid = assumeValid;
+      this.skipWorktree = skipWorktree;
+      this.intentToAdd = intentToAdd;
+    }
+
+    /**
+     * Returns the path of the file relative to the root of the working tree,
+     * separated by slashes.
+     *
+     * @return the path of the file.
+     */
+    public String getPath() {
+      return path;
+    }
+
+    /**
+     * Returns the seconds part of the cached modification time.
+     *
+     * @return the seconds part of the cached modification time.
+     */
+    public long getMtimeSeconds() {
+      return mtimeSeconds;
+    }
+
+    /**
+     * Returns the nanoseconds part of the cached modification time.
+     *
+     * @return the nanoseconds part of the cached modification time.
+     */
+    public int getMtimeNanos() {
+      return mtimeNanos;
+    }
+
+    /**
+     * Returns the lower 32 bits of the cached inode number.
+     *
+     * @return the lower 32 bits of the cached inode number.
+     */
+    public long getInode() {
+      return inode;
+    }
+
+    /**
+     * Returns the mode of the file.
+     *
+     * @return the mode of the file.
+     */
+    public int getMode() {
+      return mode;
+    }
+
+    /**
+     * Returns the lower 32 bits of the cached file size.
+     *
+     * @return the lower 32 bits of the cached file size.
+     */
+    public long getSize() {
+      return size;
+    }
+
+    /**
+     * Returns the object identifier of the staged content.
+     *
+     * @return the object identifier of the staged content.
+     */
+    public String getObjectId() {
+      return objectId;
+    }
+
+    /**
+     * Returns the merge stage. Entries with a stage other than
+     * <code>0</code> are unmerged.
+     *
+     * @return the merge stage.
+     */
+    public int getStage() {
+      return stage;
+    }
+
+    /**
+     * Returns the flag to assume the file is unchanged.
+     *
+     * @return the flag to assume the file is unchanged.
+     */
+    public boolean isAssumeValid() {
+      return assumeValid;
+    }
+
+    /**
+     * Returns the flag signaling that the file is not checked out.
+     *
+     * @return the flag signaling that the file is not checked out.
+     */
+    public boolean isSkipWorktree() {
+      return skipWorktree;
+    }
+
+    /**
+     * Returns the flag signaling that the file has been added with
+     * <code>git add -N</code>.
+     *
+     * @return the flag signaling an intent to add.
+     */
+    public boolean isIntentToAdd() {
+      return intentToAdd;
+    }
+
+    /**
+     * Returns the type bits of the mode.
+     *
+     * @return the type bits of the mode.
+     */
+    public int getType() {
+      return mode & MODE_TYPE_MASK;
+    }
+
+    @Override
+    public String toString() {
+      return path + " (" + Integer.toOctalString(mode) + ' ' + objectId + ')';
+    }
+  }
+
+  // ********************************* Methods ********************************
+
+  // --- init -----------------------------------------------------------------
+
+  /**
+   * Reads the index of the given repository.
+   *
+   * @param repository the repository whose index is to be read.
+   * @return the index or <code>null</code> if the repository has no index.
+   * @throws IOException if the index cannot be read or its format is not
+   *         supported.
+   */
+  public static GitIndex read(final GitRepository repository)
+      throws IOException {
+    final File file = new File(repository.getGitDir(), "index");
+    if (!file.isFile()) {
+      return null;
+    }
+    final long lastModified = file.lastModified();
+    return parse(GitRepository.readFully(file), lastModified);
+  }
+
+  /**
+   * Parses the content of an index file.
+   *
+   * @param content the content of the index file.
+   * @param lastModified the time the index file has been last modified.
+   * @return the index.
+   * @throws IOException if the format of the index is not supported.
+   */
+  static GitIndex parse(final byte[] content, final long lastModified)
+      throws IOException {
+    try {
+      return parse(ByteBuffer.wrap(content), lastModified);
+    } catch (final BufferUnderflowException e) {
+      throw new IOException("Truncated Git index.", e);
+    } catch (final IndexOutOfBoundsException e) {
+      throw new IOException("Corrupt Git index.", e);
+    }
+  }
+
+  private static GitIndex parse(final ByteBuffer buffer,
+      final long lastModified) throws IOException {
+    if (buffer.getInt() != SIGNATURE) {
+      throw new IOException("Not a Git index.");
+    }
+    final int version = buffer.getInt();
+    if (version < 2 || version > 4) {
+      throw new IOException("Unsupported Git index version " + version + '.');
+    }
+    final int count = buffer.getInt();
+
+    final List<Entry> entries = new ArrayList<Entry>(count);
+    String previousPath = "";
+    for (int i = 0; i < count; i++) {
+      final Entry entry = readEntry(buffer, version, previousPath);
+      if (entry.getType() == Entry.TYPE_TREE) {
+        throw new IOException("Sparse Git index is not supported.");
+      }
+      entries.add(entry);
+      previousPath = entry.getPath();
+    }
+
+    Map<String, String> cachedTrees = Collections.emptyMap();
+    final int end = buffer.limit() - ID_LENGTH;
+    while (buffer.position() < end) {
+      final int signature = buffer.getInt();
+      final int size = buffer.getInt();
+      if (signature == EXTENSION_LINK || signature == EXTENSION_SDIR) {
+        throw new IOException("Split or sparse Git index is not supported.");
+      }
+      if (signature == EXTENSION_TREE) {
+        final ByteBuffer extension = buffer.slice();
+        extension.limit(size);
+        cachedTrees = new HashMap<String, String>();
+        if (extension.hasRemaining()) {
+          readCachedTree(extension, "", cachedTrees);
+        }
+      }
+      buffer.position(buffer.position() + size);
+    }
+
+    return new GitIndex(version, lastModified,
+        Collections.unmodifiableList(entries),
+        Collections.unmodifiableMap(cachedTrees));
+  }
+
+  private static Entry readEntry(final ByteBuffer buffer, final int version,
+      final String previousPath) throws IOException {
+    final int start = buffer.position();
+    buffer.position(start + 8); // ctime
+    final long mtimeSeconds = buffer.getInt() & 0xffffffffL;
+    final int mtimeNanos = buffer.getInt();
+    buffer.getInt(); // dev
+    final long inode = buffer.getInt() & 0xffffffffL;
+    final int mode = buffer.getInt();
+    buffer.position(buffer.position() + 8); // uid, gid
+    final long size = buffer.getInt() & 0xffffffffL;
+    final byte[] id = new byte[ID_LENGTH];
+    buffer.get(id);
+    final int flags = buffer.getShort() & 0xffff;
+    int extendedFlags = 0;
+    if (version >= 3 && (flags & 0x4000) != 0) {
+      extendedFlags = buffer.getShort() & 0xffff;
+    }
+
+    final String path;
+    if (version == 4) {
+      final long strip = readOffset(buffer);
+      final String suffix = readNulTerminated(buffer);
+      path = previousPath.substring(0, previousPath.length() - (int) strip)
+             + suffix;
+    } else {
+      path = readNulTerminated(buffer);
+      final int length = buffer.position() - start;
+      final int padded = (length + 7) & ~7;
+      buffer.position(start + padded);
+    }
+
+    return new Entry(path, mtimeSeconds, mtimeNanos, inode, mode, size,
+        GitRepository.toHex(id), (flags >> 12) & 0x3, (flags & 0x8000) != 0,
+        (extendedFlags & 0x4000) != 0, (extendedFlags & 0x2000) != 0);
+  }
+
+  private static long readOffset(final ByteBuffer buffer) {
+    int current = buffer.get() & 0xff;
+    long value = current & 0x7f;
+    while ((current & 0x80) != 0) {
+      current = buffer.get() & 0xff;
+      value = ((value + 1) << 7) | (current & 0x7f);
+    }
+    return value;
+  }
+
+  private static String readNulTerminated(final ByteBuffer buffer) {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream(64);
+    byte current = buffer.get();
+    while (current != 0) {
+      out.write(current);
+      current = buffer.get();
+    }
+    return new String(out.toByteArray(), GitRepository.UTF8);
+  }
+
+  private static void readCachedTree(final ByteBuffer buffer,
+      final String path, final Map<String, String> cachedTrees) {
+    final String name = readNulTerminated(buffer);
+    final String directory =
+        path.length() == 0 ? name : path + '/' + name;
+    final int entryCount = Integer.parseInt(readToken(buffer, ' '));
+    final int subtreeCount = Integer.parseInt(readToken(buffer, '\n'));
+    if (entryCount >= 0) {
+      final byte[] id = new byte[ID_LENGTH];
+      buffer.get(id);
+      cachedTrees.put(directory, GitRepository.toHex(id));
+    }
+    for (int i = 0; i < subtreeCount; i++) {
+      readCachedTree(buffer, directory, cachedTrees);
+    }
+  }
+
+  private static String readToken(final ByteBuffer buffer,
+      final char terminator) {
+    final StringBuilder token = new StringBuilder(8);
+    char current = (char) buffer.get();
+    while (current != terminator) {
+      token.append(current);
+      current = (char) buffer.get();
+    }
+    return token.toString();
+  }
+
+  // --- get&set --------------------------------------------------------------
+
+  /**
+   * Returns the version of the index format.
+   *
+   * @return the version of the index format.
+   */
+  public int getVersion() {
+    return version;
+  }
+
+  /**
+   * Returns the time the index file has been last modified.
+   *
+   * @return the time the index file has been last modified in milliseconds.
+   */
+  public long getLastModified() {
+    return lastModified;
+  }
+
+  /**
+   * Returns the entries of the index in index order.
+   *
+   * @return the entries of the index.
+   */
+  public List<Entry> getEntries() {
+    return entries;
+  }
+
+  /**
+   * Returns the object identifier of the tree cached for the given directory.
+   *
+   * @param directory the path of the directory relative to the root of the
+   *        working tree, the empty string for the root.
+   * @return the object identifier or <code>null</code> if no valid tree is
+   *         cached for the directory.
+   */
+  public String getCachedTree(final String directory) {
+    return cachedTrees.get(directory);
+  }
+
+  // --- business -------------------------------------------------------------
+
+  // --- object basics --------------------------------------------------------
+
+}
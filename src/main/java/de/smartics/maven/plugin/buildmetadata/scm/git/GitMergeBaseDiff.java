@@ -0,0 +1,220 @@
+/*
+ * Copyright 2006-2025 smartics, Kronseder & Reiner GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package de.smartics.maven.plugin.buildmetadata.scm.git;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.maven.scm.ScmFile;
+import org.apache.maven.scm.ScmFileStatus;
+import org.apache.maven.scm.provider.git.gitexe.command.GitCommandLineUtils;
+import org.codehaus.plexus.util.IOUtil;
+import org.codehaus.plexus.util.cli.CommandLineException;
+import org.codehaus.plexus.util.cli.Commandline;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Determines the files changed in a working tree in comparison to a remote
+ * version. The working tree is compared with the merge base of the remote
+ * version and <code>HEAD</code>, so only the changes of the current branch
+ * are reported. Only the names of the changed files are requested from Git,
+ * no textual diff is created.
+ *
+ * @since 1.7.2
+ */
+public final class GitMergeBaseDiff {
+  // ********************************* Fields *********************************
+
+  // --- constants ------------------------------------------------------------
+
+  /**
+   * Reference to the logger for this class.
+   */
+  private static final Log LOG = LogFactory.getLog(GitMergeBaseDiff.class);
+
+  // --- members --------------------------------------------------------------
+
+  /**
+   * The directory within the working tree whose changes are requested.
+   */
+  private final File directory;
+
+  // ****************************** Initializer *******************************
+
+  // ****************************** Constructors ******************************
+
+  /**
+   * Default constructor.
+   *
+   * @param directory the directory within the working tree whose changes are
+   *        requested.
+   */
+  public GitMergeBaseDiff(final File directory) {
+    this.directory = directory;
+  }
+
+  // ****************************** Inner Classes *****************************
+
+  /**
+   * Parses the output of a Git command while it is streamed.
+   *
+   * @param <T> the type of the result.
+   */
+  private interface Parser<T> {
+    T parse(InputStream in) throws IOException;
+  }
+
+  // ********************************* Methods ********************************
+
+  // --- init -----------------------------------------------------------------
+
+  // --- get&set --------------------------------------------------------------
+
+  // --- business -------------------------------------------------------------
+
+  /**
+   * Finds the files changed in comparison to the merge base of the given
+   * remote version and <code>HEAD</code>.
+   *
+   * @param remoteVersion the branch or tag to compare with.
+   * @return the changed files with their paths relative to the directory.
+   * @throws IOException if Git cannot be run or fails.
+   */
+  public List<ScmFile> findChangedFiles(final String remoteVersion)
+      throws IOException {
+    final String mergeBase = findMergeBase(remoteVersion);
+
+    final Commandline cl =
+        GitCommandLineUtils.getBaseGitCommandLine(directory, "diff");
+    cl.createArg().setValue("--name-status");
+    cl.createArg().setValue("--no-renames");
+    cl.createArg().setValue("--relative");
+    cl.createArg().setValue("-z");
+    cl.createArg().setValue(mergeBase);
+    cl.createArg().setValue("--");
+    cl.createArg().setValue(".");
+    final List<ScmFile> files = run(cl, new Parser<List<ScmFile>>() {
+      public List<ScmFile> parse(final InputStream in) throws IOException {
+        return parseNameStatus(in);
+      }
+    });
+    if (LOG.isDebugEnabled()) {
+      LOG.debug("  Compared " + directory + " with merge base " + mergeBase
+                + " of '" + remoteVersion + "', found " + files.size()
+                + " changed files.");
+    }
+    return files;
+  }
+
+  private String findMergeBase(final String remoteVersion) throws IOException {
+    final Commandline cl =
+        GitCommandLineUtils.getBaseGitCommandLine(directory, "merge-base");
+    cl.createArg().setValue(remoteVersion);
+    cl.createArg().setValue("HEAD");
+    final String mergeBase = run(cl, new Parser<String>() {
+      public String parse(final InputStream in) throws IOException {
+        return IOUtil.toString(in).trim();
+      }
+    });
+    if (mergeBase.length() == 0) {
+      throw new IOException(
+          "No merge base of '" + remoteVersion + "' and HEAD found.");
+    }
+    return mergeBase;
+  }
+
+  /**
+   * Parses the output of <code>git diff --name-status -z</code> without
+   * rename detection. Each status is followed by the path of the file, both
+   * terminated by a NUL character.
+   *
+   * @param in the output of the diff command.
+   * @return the changed files.
+   * @throws IOException if the output cannot be read.
+   */
+  static List<ScmFile> parseNameStatus(final InputStream in)
+      throws IOException {
+    final List<ScmFile> files = new ArrayList<ScmFile>();
+    String status;
+    while ((status = readRecord(in)) != null) {
+      final String path = readRecord(in);
+      if (path == null || status.length() == 0) {
+        throw new IOException("Cannot parse name status of diff.");
+      }
+      files.add(new ScmFile(path, createStatus(status.charAt(0))));
+    }
+    return files;
+  }
+
+  private static ScmFileStatus createStatus(final char status) {
+    switch (status) {
+      case 'A':
+        return ScmFileStatus.ADDED;
+      case 'D':
+        return ScmFileStatus.DELETED;
+      default:
+        return ScmFileStatus.MODIFIED;
+    }
+  }
+
+  private static String readRecord(final InputStream in) throws IOException {
+    final ByteArrayOutputStream record = new ByteArrayOutputStream(128);
+    int b;
+    while ((b = in.read()) != -1) {
+      if (b == 0) {
+        return new String(record.toByteArray(), GitRepository.UTF8);
+      }
+      record.write(b);
+    }
+    return record.size() > 0
+        ? new String(record.toByteArray(), GitRepository.UTF8) : null;
+  }
+
+  private static <T> T run(final Commandline cl, final Parser<T> parser)
+      throws IOException {
+    final Process process;
+    try {
+      process = cl.execute();
+    } catch (final CommandLineException e) {
+      throw new IOException("Cannot run " + cl + '.', e);
+    }
+    try {
+      process.getOutputStream().close();
+      final T result =
+          parser.parse(new BufferedInputStream(process.getInputStream()));
+      final int exitValue = process.waitFor();
+      if (exitValue != 0) {
+        throw new IOException("Command " + cl + " failed (" + exitValue + "): "
+                              + IOUtil.toString(process.getErrorStream()));
+      }
+      return result;
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while running " + cl + '.', e);
+    } finally {
+      process.destroy();
+    }
+  }
+
+  // --- object basics --------------------------------------------------------
+
+}
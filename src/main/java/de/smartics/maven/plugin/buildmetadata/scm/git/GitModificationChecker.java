@@ -0,0 +1,617 @@
+/*
+ * Copyright 2006-2025 smartics, Kronseder & Reiner GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package de.smartics.maven.plugin.buildmetadata.scm.git;
+
+import de.smartics.maven.plugin.buildmetadata.scm.GlobMatcher;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.maven.scm.ScmFile;
+import org.apache.maven.scm.ScmFileStatus;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Finds the tracked files of a Git working tree that have been modified. The
+ * result is equivalent to the tracked entries reported by
+ * <code>git status</code>: files that differ between the working tree and the
+ * index as well as files that differ between the index and <code>HEAD</code>.
+ * Untracked files are not reported.
+ * <p>
+ * The working tree is compared with the stat information cached in the index.
+ * Only files whose modification time, size or inode differ from the cached
+ * values (or that are racily clean) are hashed. The files of large indexes
+ * are checked in parallel, if an executor is passed in. The index is compared
+ * with <code>HEAD</code> by walking the trees of the commit, skipping
+ * directories whose tree is still valid in the cached tree extension of the
+ * index.
+ * </p>
+ * <p>
+ * If a file's content differs and content filters (like end of line
+ * conversion) may apply, the result cannot be determined without running Git
+ * and an {@link IOException} is thrown.
+ * </p>
+ */
+public final class GitModificationChecker {
+  // ********************************* Fields *********************************
+
+  // --- constants ------------------------------------------------------------
+
+  /**
+   * Reference to the logger for this class.
+   */
+  private static final Log LOG =
+      LogFactory.getLog(GitModificationChecker.class);
+
+  /**
+   * The number of entries to check before the check is run in parallel.
+   * <p>
+   * The value of this constant is {@value}.
+   * </p>
+   */
+  private static final int PARALLEL_THRESHOLD = 2048;
+
+  /**
+   * The mode of a tree entry that refers to a tree.
+   */
+  private static final int TREE_MODE = 040000;
+
+  /**
+   * The attributes to read from the Unix file attribute view.
+   * <p>
+   * The value of this constant is {@value}.
+   * </p>
+   */
+  private static final String UNIX_ATTRIBUTES =
+      "unix:size,lastModifiedTime,ino,mode,isRegularFile,isSymbolicLink";
+
+  // --- members --------------------------------------------------------------
+
+  /**
+   * The repository whose working tree is checked.
+   */
+  private final GitRepository repository;
+
+  /**
+   * The executor to check large indexes in parallel. If <code>null</code>,
+   * all files are checked by the calling thread.
+   */
+  private final Executor executor;
+
+  /**
+   * The flag signals that the file system supports the Unix file attribute
+   * view. Set to <code>false</code> on the first failure to read the view.
+   */
+  private volatile boolean unixAttributes = true;
+
+  // ****************************** Initializer *******************************
+
+  // ****************************** Constructors ******************************
+
+  /**
+   * Constructor to check all files by the calling thread.
+   *
+   * @param repository the repository whose working tree is checked.
+   */
+  public GitModificationChecker(final GitRepository repository) {
+    this(repository, null);
+  }
+
+  /**
+   * Default constructor.
+   *
+   * @param repository the repository whose working tree is checked.
+   * @param executor the executor to check large indexes in parallel. If
+   *        <code>null</code>, all files are checked by the calling thread.
+   */
+  public GitModificationChecker(final GitRepository repository,
+      final Executor executor) {
+    this.repository = repository;
+    this.executor = executor;
+  }
+
+  // ****************************** Inner Classes *****************************
+
+  /**
+   * The settings of the repository that control the comparison of the working
+   * tree with the index.
+   */
+  private static final class CheckContext {
+    /**
+     * The index the working tree is compared with.
+     */
+    private final GitIndex index;
+
+    /**
+     * The flag to respect the executable bit.
+     */
+    private final boolean fileMode;
+
+    /**
+     * The flag signals that the content of files may be converted by Git on
+     * checkin.
+     */
+    private final boolean contentFilters;
+
+    private CheckContext(final GitIndex index, final boolean fileMode,
+        final boolean contentFilters) {
+      this.index = index;
+      this.fileMode = fileMode;
+      this.contentFilters = contentFilters;
+    }
+  }
+
+  // ********************************* Methods ********************************
+
+  // --- init -----------------------------------------------------------------
+
+  // --- get&set --------------------------------------------------------------
+
+  // --- business -------------------------------------------------------------
+
+  /**
+   * Finds the modified files within the given directory.
+   *
+   * @param directory the directory within the working tree to check.
+   * @return the modified files with their paths relative to the directory.
+   * @throws IOException if the modifications cannot be determined without
+   *         running Git.
+   */
+  public List<ScmFile> findModifications(final File directory)
+      throws IOException {
+    return findModifications(directory, GlobMatcher.ALL);
+  }
+
+  /**
+   * Finds the modified files within the given directory that match the given
+   * patterns. Only the matching files of the working tree are checked.
+   *
+   * @param directory the directory within the working tree to check.
+   * @param matcher the matcher for the paths relative to the directory.
+   * @return the modified files with their paths relative to the directory.
+   * @throws IOException if the modifications cannot be determined without
+   *         running Git.
+   */
+  public List<ScmFile> findModifications(final File directory,
+      final GlobMatcher matcher) throws IOException {
+    final GitIndex index = GitIndex.read(repository);
+    if (index == null) {
+      throw new IOException("No Git index found in " + repository + '.');
+    }
+    final String prefix = repository.getRelativePath(directory);
+    final GitConfig config = GitConfig.read(repository);
+    final CheckContext context =
+        new CheckContext(index, config.getBoolean("core.fileMode", true),
+            hasContentFilters(config, index));
+
+    final Map<String, GitIndex.Entry> staged =
+        new TreeMap<String, GitIndex.Entry>();
+    final Set<String> unmerged = new HashSet<String>();
+    final List<GitIndex.Entry> toCheck = new ArrayList<GitIndex.Entry>();
+    for (final GitIndex.Entry entry : index.getEntries()) {
+      final String path = entry.getPath();
+      if (!path.startsWith(prefix)) {
+        continue;
+      }
+      if (entry.getStage() != 0) {
+        unmerged.add(path);
+      } else {
+        staged.put(path, entry);
+        if (!entry.isIntentToAdd() && !entry.isAssumeValid()
+            && !entry.isSkipWorktree()
+            && entry.getType() != GitIndex.Entry.TYPE_GITLINK
+            && matcher.matches(path.substring(prefix.length()))) {
+          toCheck.add(entry);
+        }
+      }
+    }
+
+    final Map<String, ScmFileStatus> changes =
+        new TreeMap<String, ScmFileStatus>();
+    for (final String path : unmerged) {
+      changes.put(path, ScmFileStatus.MODIFIED);
+    }
+    compareWithHead(index, prefix, staged, unmerged, changes);
+    for (final ScmFile file : checkWorkingTree(context, toCheck)) {
+      if (file.getStatus() == ScmFileStatus.DELETED
+          || !changes.containsKey(file.getPath())) {
+        changes.put(file.getPath(), file.getStatus());
+      }
+    }
+
+    final List<ScmFile> files = new ArrayList<ScmFile>(changes.size());
+    for (final Map.Entry<String, ScmFileStatus> change : changes.entrySet()) {
+      final String path = change.getKey().substring(prefix.length());
+      if (matcher.matches(path)) {
+        files.add(new ScmFile(path, change.getValue()));
+      }
+    }
+    if (LOG.isDebugEnabled()) {
+      LOG.debug("  Checked " + toCheck.size() + " files of " + repository
+                + " in '" + prefix + "', found " + files.size()
+                + " modifications.");
+    }
+    return files;
+  }
+
+  private boolean hasContentFilters(final GitConfig config,
+      final GitIndex index) {
+    final String autocrlf = config.getString("core.autocrlf");
+    if ((autocrlf != null && !"false".equalsIgnoreCase(autocrlf))
+        || config.getString("core.attributesFile") != null
+        || new File(repository.getCommonDir(), "info/attributes").isFile()) {
+      return true;
+    }
+    for (final GitIndex.Entry entry : index.getEntries()) {
+      final String path = entry.getPath();
+      if (path.equals(".gitattributes") || path.endsWith("/.gitattributes")) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  // ... index versus HEAD ....................................................
+
+  private void compareWithHead(final GitIndex index, final String prefix,
+      final Map<String, GitIndex.Entry> staged, final Set<String> unmerged,
+      final Map<String, ScmFileStatus> changes) throws IOException {
+    final Set<String> matched = new HashSet<String>();
+    final Set<String> validDirectories = new HashSet<String>();
+
+    final String treeId = findTree(prefix);
+    if (treeId != null) {
+      final String directory =
+          prefix.length() == 0 ? "" : prefix.substring(0, prefix.length() - 1);
+      walkTree(index, directory, treeId, staged, unmerged, matched,
+          validDirectories, changes);
+    }
+
+    for (final GitIndex.Entry entry : staged.values()) {
+      final String path = entry.getPath();
+      if (!matched.contains(path) && !isWithin(path, validDirectories)) {
+        changes.put(path, ScmFileStatus.ADDED);
+      }
+    }
+  }
+
+  private String findTree(final String prefix) throws IOException {
+    final String commitId = repository.resolveCommit("HEAD");
+    if (commitId == null) {
+      return null;
+    }
+    String treeId = GitRepository.readHeader(
+        repository.readObject(commitId).getContent(), "tree");
+    if (prefix.length() > 0) {
+      for (final String name : prefix.split("/")) {
+        treeId = findSubtree(treeId, name);
+        if (treeId == null) {
+          return null;
+        }
+      }
+    }
+    return treeId;
+  }
+
+  private String findSubtree(final String treeId, final String name)
+      throws IOException {
+    final byte[] content = repository.readObject(treeId).getContent();
+    int index = 0;
+    while (index < content.length) {
+      final int space = indexOf(content, (byte) ' ', index);
+      final int nul = indexOf(content, (byte) 0, space);
+      final int mode = Integer.parseInt(
+          new String(content, index, space - index, GitRepository.UTF8), 8);
+      final String entryName =
+          new String(content, space + 1, nul - space - 1, GitRepository.UTF8);
+      if (mode == TREE_MODE && entryName.equals(name)) {
+        final byte[] id = new byte[20];
+        System.arraycopy(content, nul + 1, id, 0, 20);
+        return GitRepository.toHex(id);
+      }
+      index = nul + 21;
+    }
+    return null;
+  }
+
+  // CHECKSTYLE:OFF
+  private void walkTree(final GitIndex index, final String directory, // NOPMD
+      final String treeId, final Map<String, GitIndex.Entry> staged,
+      final Set<String> unmerged, final Set<String> matched,
+      final Set<String> validDirectories,
+      final Map<String, ScmFileStatus> changes) throws IOException {
+    // CHECKSTYLE:ON
+    if (treeId.equals(index.getCachedTree(directory))) {
+      validDirectories.add(directory);
+      return;
+    }
+
+    final byte[] content = repository.readObject(treeId).getContent();
+    final byte[] id = new byte[20];
+    int position = 0;
+    while (position < content.length) {
+      final int space = indexOf(content, (byte) ' ', position);
+      final int nul = indexOf(content, (byte) 0, space);
+      final int mode = Integer.parseInt(
+          new String(content, position, space - position, GitRepository.UTF8),
+          8);
+      final String name =
+          new String(content, space + 1, nul - space - 1, GitRepository.UTF8);
+      System.arraycopy(content, nul + 1, id, 0, 20);
+      position = nul + 21;
+
+      final String path =
+          directory.length() == 0 ? name : directory + '/' + name;
+      final String objectId = GitRepository.toHex(id);
+      if (mode == TREE_MODE) {
+        walkTree(index, path, objectId, staged, unmerged, matched,
+            validDirectories, changes);
+      } else {
+        final GitIndex.Entry entry = staged.get(path);
+        if (entry == null) {
+          if (!unmerged.contains(path)) {
+            changes.put(path, ScmFileStatus.DELETED);
+          }
+        } else {
+          matched.add(path);
+          if (!objectId.equals(entry.getObjectId())
+              || mode != entry.getMode()) {
+            changes.put(path, ScmFileStatus.MODIFIED);
+          }
+        }
+      }
+    }
+  }
+
+  private static boolean isWithin(final String path,
+      final Set<String> directories) {
+    if (directories.isEmpty()) {
+      return false;
+    }
+    String current = path;
+    int slash = current.lastIndexOf('/');
+    while (slash > 0) {
+      current = current.substring(0, slash);
+      if (directories.contains(current)) {
+        return true;
+      }
+      slash = current.lastIndexOf('/');
+    }
+    return directories.contains("");
+  }
+
+  private static int indexOf(final byte[] content, final byte value,
+      final int from) throws IOException {
+    for (int i = from; i < content.length; i++) {
+      if (content[i] == value) {
+        return i;
+      }
+    }
+    throw new IOException("Corrupt Git tree object.");
+  }
+
+  // ... working tree versus index ............................................
+
+  private List<ScmFile> checkWorkingTree(final CheckContext context,
+      final List<GitIndex.Entry> entries) throws IOException {
+    final int count = entries.size();
+    if (executor == null || count < PARALLEL_THRESHOLD) {
+      return checkEntries(context, entries);
+    }
+
+    final int threads = Runtime.getRuntime().availableProcessors();
+    final int chunkSize = Math.max(256, count / (threads * 4) + 1);
+    final List<Future<List<ScmFile>>> futures =
+        new ArrayList<Future<List<ScmFile>>>();
+    try {
+      for (int start = 0; start < count; start += chunkSize) {
+        final List<GitIndex.Entry> chunk =
+            entries.subList(start, Math.min(count, start + chunkSize));
+        final FutureTask<List<ScmFile>> task =
+            new FutureTask<List<ScmFile>>(new Callable<List<ScmFile>>() {
+              public List<ScmFile> call() throws IOException {
+                return checkEntries(context, chunk);
+              }
+            });
+        futures.add(task);
+        executor.execute(task);
+      }
+
+      final List<ScmFile> modified = new ArrayList<ScmFile>();
+      for (final Future<List<ScmFile>> future : futures) {
+        modified.addAll(future.get());
+      }
+      return modified;
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while checking " + repository + '.',
+          e);
+    } catch (final ExecutionException e) {
+      final Throwable cause = e.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      }
+      throw new IOException("Cannot check " + repository + '.', cause);
+    } finally {
+      for (final Future<List<ScmFile>> future : futures) {
+        future.cancel(true);
+      }
+    }
+  }
+
+  private List<ScmFile> checkEntries(final CheckContext context,
+      final List<GitIndex.Entry> entries) throws IOException {
+    final List<ScmFile> modified = new ArrayList<ScmFile>();
+    for (final GitIndex.Entry entry : entries) {
+      final ScmFileStatus status = checkEntry(context, entry);
+      if (status != null) {
+        modified.add(new ScmFile(entry.getPath(), status));
+      }
+    }
+    return modified;
+  }
+
+  private ScmFileStatus checkEntry(final CheckContext context,
+      final GitIndex.Entry entry) throws IOException {
+    final Path path =
+        new File(repository.getWorkTree(), entry.getPath()).toPath();
+    final Map<String, Object> attributes;
+    try {
+      attributes = readAttributes(path);
+    } catch (final NoSuchFileException e) {
+      return ScmFileStatus.DELETED;
+    }
+
+    final boolean symlink =
+        Boolean.TRUE.equals(attributes.get("isSymbolicLink"));
+    final boolean regularFile =
+        Boolean.TRUE.equals(attributes.get("isRegularFile"));
+    if (symlink != (entry.getType() == GitIndex.Entry.TYPE_SYMLINK)
+        || (!symlink && !regularFile)) {
+      return ScmFileStatus.MODIFIED;
+    }
+
+    final Integer mode = (Integer) attributes.get("mode");
+    if (context.fileMode && mode != null && !symlink
+        && ((mode & 0100) != 0) != ((entry.getMode() & 0100) != 0)) {
+      return ScmFileStatus.MODIFIED;
+    }
+
+    // With content filters a file of a different size may still match the
+    // index, so the content has to be compared.
+    final long size = ((Long) attributes.get("size")) & 0xffffffffL;
+    if (size != entry.getSize() && entry.getSize() != 0
+        && !context.contentFilters) {
+      return ScmFileStatus.MODIFIED;
+    }
+
+    if (!isStatChanged(context, entry, attributes, size)) {
+      return null;
+    }
+
+    final String objectId =
+        symlink ? hashSymlink(path) : hashFile(path.toFile());
+    if (objectId.equals(entry.getObjectId())) {
+      return null;
+    }
+    if (context.contentFilters && !symlink) {
+      throw new IOException("Content filters may apply to modified file '"
+                            + entry.getPath() + "'.");
+    }
+    return ScmFileStatus.MODIFIED;
+  }
+
+  private static boolean isStatChanged(final CheckContext context,
+      final GitIndex.Entry entry, final Map<String, Object> attributes,
+      final long size) {
+    final FileTime modified = (FileTime) attributes.get("lastModifiedTime");
+    final long millis = modified.toMillis();
+    final long seconds = Math.floorDiv(millis, 1000L);
+    final long nanos = modified.toInstant().getNano();
+    if (size != entry.getSize() || seconds != entry.getMtimeSeconds()
+        || (entry.getMtimeNanos() != 0 && nanos != entry.getMtimeNanos())) {
+      return true;
+    }
+
+    final Object inode = attributes.get("ino");
+    if (inode != null && entry.getInode() != 0
+        && (((Long) inode) & 0xffffffffL) != entry.getInode()) {
+      return true;
+    }
+
+    return millis >= context.index.getLastModified();
+  }
+
+  private Map<String, Object> readAttributes(final Path path)
+      throws IOException {
+    if (unixAttributes) {
+      try {
+        return Files.readAttributes(path, UNIX_ATTRIBUTES,
+            LinkOption.NOFOLLOW_LINKS);
+      } catch (final UnsupportedOperationException e) {
+        unixAttributes = false;
+      } catch (final IllegalArgumentException e) {
+        unixAttributes = false;
+      }
+    }
+    final BasicFileAttributes basic = Files.readAttributes(path,
+        BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+    final Map<String, Object> attributes = new TreeMap<String, Object>();
+    attributes.put("size", basic.size());
+    attributes.put("lastModifiedTime", basic.lastModifiedTime());
+    attributes.put("isRegularFile", basic.isRegularFile());
+    attributes.put("isSymbolicLink", basic.isSymbolicLink());
+    return attributes;
+  }
+
+  private static String hashSymlink(final Path path) throws IOException {
+    final byte[] target =
+        Files.readSymbolicLink(path).toString().getBytes(GitRepository.UTF8);
+    final MessageDigest digest = createBlobDigest(target.length);
+    digest.update(target);
+    return GitRepository.toHex(digest.digest());
+  }
+
+  private static String hashFile(final File file) throws IOException {
+    final MessageDigest digest = createBlobDigest(file.length());
+    final InputStream in = Files.newInputStream(file.toPath());
+    try {
+      final byte[] buffer = new byte[8192];
+      int read = in.read(buffer);
+      while (read >= 0) {
+        digest.update(buffer, 0, read);
+        read = in.read(buffer);
+      }
+    } finally {
+      in.close();
+    }
+    return GitRepository.toHex(digest.digest());
+  }
+
+  private static MessageDigest createBlobDigest(final long size) {
+    try {
+      final MessageDigest digest = MessageDigest.getInstance("SHA-1");
+      digest.update(("blob " + size + '\0').getBytes(GitRepository.UTF8));
+      return digest;
+    } catch (final NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-1 is not supported.", e);
+    }
+  }
+
+  // --- object basics --------------------------------------------------------
+
+}
@@ -0,0 +1,888 @@
+/*
+ * Copyright 2006-2025 smartics, Kronseder & Reiner GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package de.smartics.maven.plugin.buildmetadata.scm.git;
+
+import org.codehaus.plexus.util.IOUtil;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Reads references and objects directly from the <code>.git</code> directory
+ * of a working copy. No Git process is launched.
+ * <p>
+ * The reader supports symbolic and loose references, <code>packed-refs</code>,
+ * loose objects, pack files (index version 1 and 2, including deltified
+ * entries), alternate object directories as well as linked worktrees and
+ * submodules whose <code>.git</code> is a file pointing to the Git directory.
+ * </p>
+ */
+public final class GitRepository {
+  // ********************************* Fields *********************************
+
+  // --- constants ------------------------------------------------------------
+
+  /**
+   * The encoding of Git metadata files.
+   */
+  static final Charset UTF8 = Charset.forName("UTF-8");
+
+  /**
+   * The prefix of a symbolic reference.
+   * <p>
+   * The value of this constant is {@value}.
+   * </p>
+   */
+  private static final String SYMREF_PREFIX = "ref: ";
+
+  /**
+   * The prefix of a <code>.git</code> file pointing to the Git directory.
+   * <p>
+   * The value of this constant is {@value}.
+   * </p>
+   */
+  private static final String GITDIR_PREFIX = "gitdir:";
+
+  /**
+   * The maximum number of symbolic references to follow.
+   * <p>
+   * The value of this constant is {@value}.
+   * </p>
+   */
+  private static final int MAX_SYMREF_DEPTH = 5;
+
+  /**
+   * The magic number of pack index files of version 2 and later.
+   */
+  private static final byte[] PACK_INDEX_MAGIC =
+      {(byte) 0xff, (byte) 't', (byte) 'O', (byte) 'c'};
+
+  /**
+   * The pack entry type of a delta relative to an offset in the same pack.
+   */
+  private static final int OBJ_OFS_DELTA = 6;
+
+  /**
+   * The pack entry type of a delta relative to an object identifier.
+   */
+  private static final int OBJ_REF_DELTA = 7;
+
+  /**
+   * The names of object types, indexed by their pack type number.
+   */
+  private static final String[] TYPE_NAMES =
+      {null, "commit", "tree", "blob", "tag"};
+
+  // --- members --------------------------------------------------------------
+
+  /**
+   * The root directory of the working tree.
+   */
+  private final File workTree;
+
+  /**
+   * The Git directory of the working tree. For linked worktrees this is the
+   * private directory of the worktree that contains its <code>HEAD</code>.
+   */
+  private final File gitDir;
+
+  /**
+   * The directory shared by all worktrees that contains the objects and
+   * references.
+   */
+  private final File commonDir;
+
+  /**
+   * The packed references, lazily loaded.
+   */
+  private Map<String, String> packedRefs;
+
+  /**
+   * The directories to search for objects, lazily loaded.
+   */
+  private List<File> objectDirectories;
+
+  // ****************************** Initializer *******************************
+
+  // ****************************** Constructors ******************************
+
+  private GitRepository(final File workTree, final File gitDir,
+      final File commonDir) {
+    this.workTree = workTree;
+    this.gitDir = gitDir;
+    this.commonDir = commonDir;
+  }
+
+  // ****************************** Inner Classes *****************************
+
+  /**
+   * An object read from the repository.
+   */
+  public static final class GitObject {
+    /**
+     * The type of the object. One of <code>commit</code>, <code>tree</code>,
+     * <code>blob</code>, or <code>tag</code>.
+     */
+    private final String type;
+
+    /**
+     * The uncompressed content of the object.
+     */
+    private final byte[] content;
+
+    private GitObject(final String type, final byte[] content) {
+      this.type = type;
+      this.content = content;
+    }
+
+    /**
+     * Returns the type of the object.
+     *
+     * @return the type of the object.
+     */
+    public String getType() {
+      return type;
+    }
+
+    /**
+     * Returns the uncompressed content of the object.
+     *
+     * @return the uncompressed content of the object.
+     */
+    public byte[] getContent() {
+      return content;
+    }
+  }
+
+  // ********************************* Methods ********************************
+
+  // --- init -----------------------------------------------------------------
+
+  /**
+   * Finds the repository the given directory belongs to. The directory and its
+   * parents are searched for a <code>.git</code> directory or file.
+   *
+   * @param directory the directory within the working tree.
+   * @return the repository or <code>null</code> if the directory is not part
+   *         of a Git working tree.
+   * @throws IOException if a <code>.git</code> file cannot be read.
+   */
+  public static GitRepository find(final File directory) throws IOException {
+    File current = directory.getAbsoluteFile();
+    while (current != null) {
+      final File dotGit = new File(current, ".git");
+      if (dotGit.isDirectory()) {
+        return new GitRepository(current, dotGit, dotGit);
+      } else if (dotGit.isFile()) {
+        return open(current, dotGit);
+      }
+      current = current.getParentFile();
+    }
+    return null;
+  }
+
+  private static GitRepository open(final File workTree, final File dotGitFile)
+      throws IOException {
+    final String content = readFirstLine(dotGitFile);
+    if (content == null || !content.startsWith(GITDIR_PREFIX)) {
+      throw new IOException("Invalid Git file: " + dotGitFile);
+    }
+    final File gitDir =
+        resolve(workTree, content.substring(GITDIR_PREFIX.length()).trim());
+    final File commonDirFile = new File(gitDir, "commondir");
+    final File commonDir;
+    if (commonDirFile.isFile()) {
+      commonDir = resolve(gitDir, readFirstLine(commonDirFile).trim());
+    } else {
+      commonDir = gitDir;
+    }
+    return new GitRepository(workTree, gitDir, commonDir);
+  }
+
+  private static File resolve(final File base, final String path)
+      throws IOException {
+    final File file = new File(path);
+    return (file.isAbsolute() ? file : new File(base, path)).getCanonicalFile();
+  }
+
+  // --- get&set --------------------------------------------------------------
+
+  /**
+   * Returns the root directory of the working tree.
+   *
+   * @return the root directory of the working tree.
+   */
+  public File getWorkTree() {
+    return workTree;
+  }
+
+  /**
+   * Returns the Git directory of the working tree.
+   *
+   * @return the Git directory of the working tree.
+   */
+  public File getGitDir() {
+    return gitDir;
+  }
+
+  /**
+   * Returns the directory shared by all worktrees of the repository.
+   *
+   * @return the directory shared by all worktrees of the repository.
+   */
+  public File getCommonDir() {
+    return commonDir;
+  }
+
+  /**
+   * Checks if the repository is a shallow clone. The history of a shallow
+   * clone is truncated at the commits listed in the <code>shallow</code> file.
+   *
+   * @return <code>true</code> if the history of the repository is truncated,
+   *         <code>false</code> otherwise.
+   */
+  public boolean isShallow() {
+    final File shallow = new File(commonDir, "shallow");
+    return shallow.isFile() && shallow.length() > 0;
+  }
+
+  // --- business -------------------------------------------------------------
+
+  /**
+   * Returns the path of the given directory relative to the root of the
+   * working tree as it is used by Git.
+   *
+   * @param directory the directory within the working tree.
+   * @return the empty string for the root of the working tree, otherwise the
+   *         slash separated path of the directory with a trailing slash.
+   * @throws IOException if the directory is not within the working tree.
+   */
+  public String getRelativePath(final File directory) throws IOException {
+    final String root = workTree.getCanonicalPath();
+    final String path = directory.getCanonicalPath();
+    if (path.equals(root)) {
+      return "";
+    }
+    if (!path.startsWith(root + File.separatorChar)) {
+      throw new IOException(
+          "Directory " + directory + " is not within " + this + '.');
+    }
+    return path.substring(root.length() + 1).replace(File.separatorChar, '/')
+           + '/';
+  }
+
+  /**
+   * Resolves the given revision to an object identifier. Supported are full
+   * object identifiers, <code>HEAD</code> and reference names that are
+   * resolved in the same order as <code>git rev-parse</code> does.
+   *
+   * @param revision the revision to resolve.
+   * @return the object identifier or <code>null</code> if the revision cannot
+   *         be resolved (e.g. <code>HEAD</code> of an empty repository).
+   * @throws IOException on any problem reading the references.
+   */
+  public String resolve(final String revision) throws IOException {
+    if (isObjectId(revision)) {
+      return revision;
+    }
+
+    final String[] candidates =
+        {revision, "refs/" + revision, "refs/tags/" + revision,
+            "refs/heads/" + revision, "refs/remotes/" + revision,
+            "refs/remotes/" + revision + "/HEAD"};
+    for (final String candidate : candidates) {
+      final String id = readRef(candidate, 0);
+      if (id != null) {
+        return id;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Returns the name of the reference <code>HEAD</code> refers to.
+   *
+   * @return the full name of the reference (e.g.
+   *         <code>refs/heads/master</code>) or <code>null</code> if
+   *         <code>HEAD</code> is detached.
+   * @throws IOException on any problem reading <code>HEAD</code>.
+   */
+  public String resolveSymbolicHead() throws IOException {
+    final String content = readLooseRef("HEAD");
+    if (content != null && content.startsWith(SYMREF_PREFIX)) {
+      return content.substring(SYMREF_PREFIX.length()).trim();
+    }
+    return null;
+  }
+
+  /**
+   * Resolves the given revision to the identifier of a commit. Annotated tags
+   * are peeled.
+   *
+   * @param revision the revision to resolve.
+   * @return the identifier of the commit or <code>null</code> if the revision
+   *         cannot be resolved.
+   * @throws IOException on any problem reading the references or objects.
+   */
+  public String resolveCommit(final String revision) throws IOException {
+    String id = resolve(revision);
+    for (int depth = 0; id != null && depth < MAX_SYMREF_DEPTH; depth++) {
+      final GitObject object = readObject(id);
+      if (!"tag".equals(object.getType())) {
+        return id;
+      }
+      id = readHeader(object.getContent(), "object");
+    }
+    return id;
+  }
+
+  /**
+   * Reads the committer date of the given commit.
+   *
+   * @param commitId the identifier of the commit.
+   * @return the date the commit has been committed.
+   * @throws IOException on any problem reading the commit.
+   */
+  public Date readCommitDate(final String commitId) throws IOException {
+    final GitObject object = readObject(commitId);
+    if (!"commit".equals(object.getType())) {
+      throw new IOException(
+          "Object " + commitId + " is a " + object.getType()
+              + ", not a commit.");
+    }
+
+    return parseCommitDate(object.getContent(), commitId);
+  }
+
+  /**
+   * Parses the committer date of the given commit content.
+   *
+   * @param content the content of the commit object.
+   * @param commitId the identifier of the commit, used for error messages.
+   * @return the date the commit has been committed.
+   * @throws IOException if the committer date cannot be parsed.
+   */
+  static Date parseCommitDate(final byte[] content, final String commitId)
+      throws IOException {
+    final String committer = readHeader(content, "committer");
+    if (committer == null) {
+      throw new IOException("Commit " + commitId + " has no committer.");
+    }
+    final String[] tokens = committer.trim().split(" ");
+    if (tokens.length < 2) {
+      throw new IOException("Cannot parse committer of " + commitId + '.');
+    }
+    try {
+      final long seconds = Long.parseLong(tokens[tokens.length - 2]);
+      return new Date(seconds * 1000L);
+    } catch (final NumberFormatException e) {
+      throw new IOException("Cannot parse commit date of " + commitId + '.', e);
+    }
+  }
+
+  /**
+   * Reads the object with the given identifier from the loose objects or the
+   * pack files.
+   *
+   * @param id the identifier of the object.
+   * @return the object.
+   * @throws IOException if the object cannot be found or read.
+   */
+  public GitObject readObject(final String id) throws IOException {
+    for (final File objectDirectory : getObjectDirectories()) {
+      final File loose =
+          new File(objectDirectory, id.substring(0, 2) + '/' + id.substring(2));
+      if (loose.isFile()) {
+        return readLooseObject(loose);
+      }
+    }
+
+    final byte[] rawId = toBytes(id);
+    for (final File objectDirectory : getObjectDirectories()) {
+      final File[] indexFiles = new File(objectDirectory, "pack").listFiles();
+      if (indexFiles != null) {
+        for (final File indexFile : indexFiles) {
+          final String name = indexFile.getName();
+          if (name.endsWith(".idx")) {
+            final long offset = findOffset(indexFile, rawId);
+            if (offset >= 0) {
+              final File packFile = new File(indexFile.getParentFile(),
+                  name.substring(0, name.length() - 4) + ".pack");
+              return readPackedObject(packFile, offset);
+            }
+          }
+        }
+      }
+    }
+
+    throw new IOException("Cannot find Git object " + id + '.');
+  }
+
+  // ... references ...........................................................
+
+  private String readRef(final String name, final int depth)
+      throws IOException {
+    if (depth > MAX_SYMREF_DEPTH) {
+      throw new IOException("Too many levels of symbolic references: " + name);
+    }
+
+    final String content = readLooseRef(name);
+    if (content != null) {
+      if (content.startsWith(SYMREF_PREFIX)) {
+        return readRef(content.substring(SYMREF_PREFIX.length()).trim(),
+            depth + 1);
+      }
+      return isObjectId(content) ? content : null;
+    }
+
+    return getPackedRefs().get(name);
+  }
+
+  private String readLooseRef(final String name) throws IOException {
+    File file = new File(gitDir, name);
+    if (!file.isFile() && !gitDir.equals(commonDir)) {
+      file = new File(commonDir, name);
+    }
+    if (file.isFile()) {
+      final String line = readFirstLine(file);
+      return line != null ? line.trim() : null;
+    }
+    return null;
+  }
+
+  private synchronized Map<String, String> getPackedRefs() throws IOException {
+    if (packedRefs == null) {
+      final Map<String, String> refs = new HashMap<String, String>();
+      final File file = new File(commonDir, "packed-refs");
+      if (file.isFile()) {
+        final String content = new String(readFully(file), UTF8);
+        for (final String line : content.split("\n")) {
+          if (line.length() > 41 && line.charAt(0) != '#'
+              && line.charAt(0) != '^') {
+            final String id = line.substring(0, 40);
+            final String name = line.substring(41).trim();
+            refs.put(name, id);
+          }
+        }
+      }
+      packedRefs = Collections.unmodifiableMap(refs);
+    }
+    return packedRefs;
+  }
+
+  // ... objects ..............................................................
+
+  private synchronized List<File> getObjectDirectories() throws IOException {
+    if (objectDirectories == null) {
+      final List<File> directories = new ArrayList<File>();
+      final File objects = new File(commonDir, "objects");
+      directories.add(objects);
+      final File alternates = new File(objects, "info/alternates");
+      if (alternates.isFile()) {
+        final String content = new String(readFully(alternates), UTF8);
+        for (final String line : content.split("\n")) {
+          final String path = line.trim();
+          if (path.length() > 0 && path.charAt(0) != '#') {
+            directories.add(resolve(objects, path));
+          }
+        }
+      }
+      objectDirectories = Collections.unmodifiableList(directories);
+    }
+    return objectDirectories;
+  }
+
+  private static GitObject readLooseObject(final File file)
+      throws IOException {
+    final InputStream in =
+        new InflaterInputStream(new FileInputStream(file));
+    final byte[] raw;
+    try {
+      raw = IOUtil.toByteArray(in);
+    } finally {
+      IOUtil.close(in);
+    }
+
+    int index = 0;
+    while (index < raw.length && raw[index] != 0) {
+      index++;
+    }
+    if (index == raw.length) {
+      throw new IOException("Invalid loose object: " + file);
+    }
+    final String header = new String(raw, 0, index, UTF8);
+    final int space = header.indexOf(' ');
+    final String type = space > 0 ? header.substring(0, space) : header;
+    final byte[] content = Arrays.copyOfRange(raw, index + 1, raw.length);
+    return new GitObject(type, content);
+  }
+
+  private static long findOffset(final File indexFile, final byte[] id)
+      throws IOException {
+    final RandomAccessFile index = new RandomAccessFile(indexFile, "r");
+    try {
+      final byte[] magic = new byte[4];
+      index.readFully(magic);
+      final boolean version2 = Arrays.equals(magic, PACK_INDEX_MAGIC);
+      final long fanoutStart = version2 ? 8L : 0L;
+      final int firstByte = id[0] & 0xff;
+      int low = 0;
+      if (firstByte != 0) {
+        index.seek(fanoutStart + (firstByte - 1) * 4L);
+        low = index.readInt();
+      }
+      index.seek(fanoutStart + firstByte * 4L);
+      final int high = index.readInt();
+      index.seek(fanoutStart + 255 * 4L);
+      final int count = index.readInt();
+
+      final long entriesStart = fanoutStart + 256 * 4L;
+      final int entrySize = version2 ? 20 : 24;
+      final int idOffset = version2 ? 0 : 4;
+      final int position =
+          binarySearch(index, entriesStart, entrySize, idOffset, low, high, id);
+      if (position < 0) {
+        return -1L;
+      }
+
+      if (!version2) {
+        index.seek(entriesStart + position * (long) entrySize);
+        return index.readInt() & 0xffffffffL;
+      }
+
+      final long offsetsStart = entriesStart + count * 20L + count * 4L;
+      index.seek(offsetsStart + position * 4L);
+      final int offset = index.readInt();
+      if ((offset & 0x80000000) == 0) {
+        return offset;
+      }
+      final long largeOffsetsStart = offsetsStart + count * 4L;
+      index.seek(largeOffsetsStart + (offset & 0x7fffffff) * 8L);
+      return index.readLong();
+    } finally {
+      index.close();
+    }
+  }
+
+  private static int binarySearch(final RandomAccessFile index,
+      final long entriesStart, final int entrySize, final int idOffset,
+      final int low, final int high, final byte[] id) throws IOException {
+    final byte[] current = new byte[20];
+    int from = low;
+    int to = high - 1;
+    while (from <= to) {
+      final int middle = (from + to) >>> 1;
+      index.seek(entriesStart + middle * (long) entrySize + idOffset);
+      index.readFully(current);
+      final int comparison = compare(current, id);
+      if (comparison < 0) {
+        from = middle + 1;
+      } else if (comparison > 0) {
+        to = middle - 1;
+      } else {
+        return middle;
+      }
+    }
+    return -1;
+  }
+
+  private static int compare(final byte[] a, final byte[] b) {
+    for (int i = 0; i < a.length; i++) {
+      final int diff = (a[i] & 0xff) - (b[i] & 0xff);
+      if (diff != 0) {
+        return diff;
+      }
+    }
+    return 0;
+  }
+
+  private GitObject readPackedObject(final File packFile, final long offset)
+      throws IOException {
+    final RandomAccessFile pack = new RandomAccessFile(packFile, "r");
+    try {
+      return readPackedObject(pack, offset);
+    } finally {
+      pack.close();
+    }
+  }
+
+  private GitObject readPackedObject(final RandomAccessFile pack,
+      final long offset) throws IOException {
+    pack.seek(offset);
+    int current = pack.readUnsignedByte();
+    final int type = (current >> 4) & 0x07;
+    long size = current & 0x0f;
+    int shift = 4;
+    while ((current & 0x80) != 0) {
+      current = pack.readUnsignedByte();
+      size |= (long) (current & 0x7f) << shift;
+      shift += 7;
+    }
+
+    if (type == OBJ_OFS_DELTA) {
+      current = pack.readUnsignedByte();
+      long baseDistance = current & 0x7f;
+      while ((current & 0x80) != 0) {
+        current = pack.readUnsignedByte();
+        baseDistance = ((baseDistance + 1) << 7) | (current & 0x7f);
+      }
+      final long dataOffset = pack.getFilePointer();
+      final GitObject base = readPackedObject(pack, offset - baseDistance);
+      pack.seek(dataOffset);
+      final byte[] delta = inflate(pack, size);
+      return new GitObject(base.getType(),
+          applyDelta(base.getContent(), delta));
+    } else if (type == OBJ_REF_DELTA) {
+      final byte[] baseId = new byte[20];
+      pack.readFully(baseId);
+      final byte[] delta = inflate(pack, size);
+      final GitObject base = readObject(toHex(baseId));
+      return new GitObject(base.getType(),
+          applyDelta(base.getContent(), delta));
+    } else if (type > 0 && type < TYPE_NAMES.length) {
+      return new GitObject(TYPE_NAMES[type], inflate(pack, size));
+    }
+
+    throw new IOException("Unsupported pack entry type " + type + " at offset "
+        + offset + " in " + pack + '.');
+  }
+
+  private static byte[] inflate(final RandomAccessFile pack, final long size)
+      throws IOException {
+    if (size > Integer.MAX_VALUE) {
+      throw new IOException("Pack entry too large: " + size);
+    }
+    final byte[] result = new byte[(int) size];
+    final Inflater inflater = new Inflater();
+    try {
+      final byte[] buffer = new byte[2048];
+      int written = 0;
+      while (written < result.length && !inflater.finished()) {
+        if (inflater.needsInput()) {
+          final int read = pack.read(buffer);
+          if (read < 0) {
+            throw new IOException("Unexpected end of pack file.");
+          }
+          inflater.setInput(buffer, 0, read);
+        }
+        if (inflater.needsDictionary()) {
+          throw new IOException("Unsupported compression in pack file.");
+        }
+        written += inflater.inflate(result, written, result.length - written);
+      }
+      if (written < result.length) {
+        throw new IOException("Truncated pack entry.");
+      }
+      return result;
+    } catch (final DataFormatException e) {
+      throw new IOException("Cannot inflate pack entry.", e);
+    } finally {
+      inflater.end();
+    }
+  }
+
+  /**
+   * Applies a Git delta to the base content.
+   *
+   * @param base the content the delta refers to.
+   * @param delta the delta instructions.
+   * @return the resulting content.
+   * @throws IOException if the delta is corrupt.
+   */
+  static byte[] applyDelta(final byte[] base, final byte[] delta)
+      throws IOException {
+    final int[] position = {0};
+    final long baseSize = readVarInt(delta, position);
+    if (baseSize != base.length) {
+      throw new IOException("Delta base size mismatch.");
+    }
+    final long resultSize = readVarInt(delta, position);
+    final ByteArrayOutputStream out =
+        new ByteArrayOutputStream((int) resultSize);
+
+    int index = position[0];
+    while (index < delta.length) {
+      final int command = delta[index++] & 0xff;
+      if ((command & 0x80) != 0) {
+        long copyOffset = 0;
+        int copySize = 0;
+        for (int bit = 0; bit < 4; bit++) {
+          if ((command & (1 << bit)) != 0) {
+            copyOffset |= (long) (delta[index++] & 0xff) << (bit * 8);
+          }
+        }
+        for (int bit = 0; bit < 3; bit++) {
+          if ((command & (1 << (bit + 4))) != 0) {
+            copySize |= (delta[index++] & 0xff) << (bit * 8);
+          }
+        }
+        if (copySize == 0) {
+          copySize = 0x10000;
+        }
+        if (copyOffset + copySize > base.length) {
+          throw new IOException("Delta copy exceeds base.");
+        }
+        out.write(base, (int) copyOffset, copySize);
+      } else if (command != 0) {
+        out.write(delta, index, command);
+        index += command;
+      } else {
+        throw new IOException("Invalid delta command.");
+      }
+    }
+
+    final byte[] result = out.toByteArray();
+    if (result.length != resultSize) {
+      throw new IOException("Delta result size mismatch.");
+    }
+    return result;
+  }
+
+  private static long readVarInt(final byte[] data, final int[] position) {
+    long value = 0;
+    int shift = 0;
+    int current;
+    do {
+      current = data[position[0]++] & 0xff;
+      value |= (long) (current & 0x7f) << shift;
+      shift += 7;
+    } while ((current & 0x80) != 0);
+    return value;
+  }
+
+  // ... helper ...............................................................
+
+  /**
+   * Returns the value of the first header line of a commit or tag with the
+   * given key.
+   *
+   * @param content the content of the commit or tag.
+   * @param key the key of the header line.
+   * @return the value of the header or <code>null</code> if there is none.
+   */
+  static String readHeader(final byte[] content, final String key) {
+    final String prefix = key + ' ';
+    int start = 0;
+    while (start < content.length) {
+      int end = start;
+      while (end < content.length && content[end] != '\n') {
+        end++;
+      }
+      if (end == start) {
+        return null;
+      }
+      final String line = new String(content, start, end - start, UTF8);
+      if (line.startsWith(prefix)) {
+        return line.substring(prefix.length());
+      }
+      start = end + 1;
+    }
+    return null;
+  }
+
+  /**
+   * Checks if the given string is a full hexadecimal SHA-1 object identifier.
+   *
+   * @param value the value to check.
+   * @return <code>true</code> if the value is an object identifier,
+   *         <code>false</code> otherwise.
+   */
+  static boolean isObjectId(final String value) {
+    if (value == null || value.length() != 40) {
+      return false;
+    }
+    for (int i = 0; i < 40; i++) {
+      final char c = value.charAt(i);
+      if (!((c >= '0' && c <= '9') || (c >= 'a' && c <= 'f'))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Converts the raw bytes of an object identifier to its hex representation.
+   *
+   * @param id the raw object identifier.
+   * @return the hex representation.
+   */
+  static String toHex(final byte[] id) {
+    final StringBuilder buffer = new StringBuilder(id.length * 2);
+    for (final byte b : id) {
+      buffer.append(Character.forDigit((b >> 4) & 0x0f, 16))
+          .append(Character.forDigit(b & 0x0f, 16));
+    }
+    return buffer.toString();
+  }
+
+  /**
+   * Converts the hex representation of an object identifier to its raw form.
+   *
+   * @param hex the hex representation.
+   * @return the raw object identifier.
+   */
+  static byte[] toBytes(final String hex) {
+    final byte[] bytes = new byte[hex.length() / 2];
+    for (int i = 0; i < bytes.length; i++) {
+      bytes[i] = (byte) Integer.parseInt(hex.substring(i * 2, i * 2 + 2), 16);
+    }
+    return bytes;
+  }
+
+  /**
+   * Reads the given file completely.
+   *
+   * @param file the file to read.
+   * @return the content of the file.
+   * @throws IOException on any problem reading the file.
+   */
+  static byte[] readFully(final File file) throws IOException {
+    final InputStream in = new FileInputStream(file);
+    try {
+      return IOUtil.toByteArray(in);
+    } finally {
+      IOUtil.close(in);
+    }
+  }
+
+  private static String readFirstLine(final File file) throws IOException {
+    final String content = new String(readFully(file), UTF8);
+    final int end = content.indexOf('\n');
+    return end >= 0 ? content.substring(0, end) : content;
+  }
+
+  // --- object basics --------------------------------------------------------
+
+  @Override
+  public String toString() {
+    return "Git repository " + gitDir;
+  }
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright 2006-2025 smartics, Kronseder & Reiner GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package de.smartics.maven.plugin.buildmetadata.scm.git;
+
+import de.smartics.maven.plugin.buildmetadata.scm.LocallyModifiedInfo;
+import de.smartics.maven.plugin.buildmetadata.scm.Revision;
+import de.smartics.maven.plugin.buildmetadata.scm.RevisionNumberFetcher;
+import de.smartics.maven.plugin.buildmetadata.scm.ScmException;
+import de.smartics.maven.plugin.buildmetadata.scm.ScmMetrics;
+import de.smartics.maven.plugin.buildmetadata.scm.maven.ScmAccessInfo;
+import de.smartics.maven.plugin.buildmetadata.scm.maven.StringRevision;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.maven.scm.ScmFile;
+import org.apache.maven.scm.ScmFileSet;
+import org.apache.maven.scm.ScmVersion;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Fetches the latest revision of a Git working copy by reading the
+ * <code>.git</code> directory and checks for modifications by comparing the
+ * working tree with the Git index. No Git process is launched.
+ * <p>
+ * If the Git directory cannot be read, the request is delegated to the
+ * fallback fetcher.
+ * </p>
+ */
+public final class GitRevisionNumberFetcher implements RevisionNumberFetcher {
+  // ********************************* Fields *********************************
+
+  // --- constants ------------------------------------------------------------
+
+  /**
+   * Reference to the logger for this class.
+   */
+  private static final Log LOG =
+      LogFactory.getLog(GitRevisionNumberFetcher.class);
+
+  // --- members --------------------------------------------------------------
+
+  /**
+   * The information to access the working copy.
+   */
+  private final ScmAccessInfo accessInfo;
+
+  /**
+   * The branch or tag version to fetch the revision of. If <code>null</code>,
+   * the revision of <code>HEAD</code> is fetched.
+   */
+  private final ScmVersion remoteVersion;
+
+  /**
+   * The fetcher to delegate to if the Git directory cannot be read.
+   */
+  private final RevisionNumberFetcher fallback;
+
+  // ****************************** Initializer *******************************
+
+  // ****************************** Constructors ******************************
+
+  /**
+   * Default constructor.
+   *
+   * @param accessInfo the information to access the working copy.
+   * @param remoteVersion the branch or tag version to fetch the revision of.
+   *        If <code>null</code>, the revision of <code>HEAD</code> is fetched.
+   * @param fallback the fetcher to delegate to if the Git directory cannot be
+   *        read.
+   */
+  public GitRevisionNumberFetcher(final ScmAccessInfo accessInfo,
+      final ScmVersion remoteVersion, final RevisionNumberFetcher fallback) {
+    this.accessInfo = accessInfo;
+    this.remoteVersion = remoteVersion;
+    this.fallback = fallback;
+  }
+
+  // ****************************** Inner Classes *****************************
+
+  // ********************************* Methods ********************************
+
+  // --- init -----------------------------------------------------------------
+
+  // --- get&set --------------------------------------------------------------
+
+  // --- business -------------------------------------------------------------
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * Resolves <code>HEAD</code> or the configured remote version and reads the
+   * committer date of the commit.
+   * </p>
+   */
+  @Override
+  public Revision fetchLatestRevisionNumber() throws ScmException {
+    final String revision =
+        remoteVersion != null ? remoteVersion.getName() : "HEAD";
+    final File rootDirectory = accessInfo.getRootDirectory();
+    try {
+      final GitRepository repository = GitRepository.find(rootDirectory);
+      if (repository != null) {
+        final String id = repository.resolveCommit(revision);
+        if (id != null) {
+          final Date date = repository.readCommitDate(id);
+          if (LOG.isDebugEnabled()) {
+            LOG.debug("  Read revision " + id + " of '" + revision + "' from "
+                      + repository + '.');
+          }
+          return new StringRevision(id, date);
+        } else if (remoteVersion == null) {
+          LOG.debug("  No commit found for HEAD in " + repository + '.');
+          return null;
+        }
+      }
+    } catch (final IOException e) {
+      if (LOG.isDebugEnabled()) {
+        LOG.debug("  Cannot read revision '" + revision + "' from "
+                  + rootDirectory + ", using fallback: " + e.getMessage());
+      }
+    }
+
+    return fallback.fetchLatestRevisionNumber();
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * Compares the working tree with the stat information cached in the Git
+   * index. If the index cannot be read, the request is delegated to the
+   * fallback fetcher.
+   * </p>
+   */
+  @Override
+  public LocallyModifiedInfo containsModifications(final ScmFileSet fileSet)
+      throws ScmException {
+    final ScmMetrics metrics = accessInfo.getMetrics();
+    final long start = metrics.start();
+    final List<ScmFile> changedFiles = findModifications(fileSet.getBasedir());
+    metrics.stop("gitIndex", start);
+    if (changedFiles != null) {
+      return accessInfo.createLocallyModifiedInfo(changedFiles);
+    }
+
+    return fallback.containsModifications(fileSet);
+  }
+
+  /**
+   * Finds the modified files by comparing the working tree with the Git index.
+   *
+   * @param basedir the directory to check.
+   * @return the modified files or <code>null</code> if the modifications
+   *         cannot be determined without running Git.
+   */
+  private List<ScmFile> findModifications(final File basedir) {
+    try {
+      final GitRepository repository = GitRepository.find(basedir);
+      if (repository != null) {
+        return new GitModificationChecker(repository,
+            accessInfo.getExecutor()).findModifications(basedir,
+                accessInfo.createModificationMatcher());
+      }
+    } catch (final IOException e) {
+      if (LOG.isDebugEnabled()) {
+        LOG.debug("  Cannot check modifications with the Git index, using"
+                  + " fallback: " + e.getMessage());
+      }
+    }
+    return null;
+  }
+
+  // --- object basics --------------------------------------------------------
+
+}
@@ -0,0 +1,316 @@
+/*
+ * Copyright 2006-2025 smartics, Kronseder & Reiner GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package de.smartics.maven.plugin.buildmetadata.scm.git;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Finds the submodules of a Git working tree and reads the commit each
+ * submodule has checked out. The submodules are the gitlink entries of the
+ * index; the <code>.git</code> file of each submodule points to its Git
+ * directory. Nested submodules are included. The submodules are inspected in
+ * parallel by the executor passed in, usually the one shared by all modules of
+ * the build.
+ *
+ * @since 1.7.2
+ */
+public final class GitSubmoduleScanner {
+  // ********************************* Fields *********************************
+
+  // --- constants ------------------------------------------------------------
+
+  /**
+   * Reference to the logger for this class.
+   */
+  private static final Log LOG = LogFactory.getLog(GitSubmoduleScanner.class);
+
+  // --- members --------------------------------------------------------------
+
+  /**
+   * The repository whose submodules are scanned.
+   */
+  private final GitRepository repository;
+
+  /**
+   * The executor to inspect the submodules in parallel. If <code>null</code>,
+   * the submodules are inspected by the calling thread.
+   */
+  private final Executor executor;
+
+  // ****************************** Initializer *******************************
+
+  // ****************************** Constructors ******************************
+
+  /**
+   * Constructor to inspect the submodules by the calling thread.
+   *
+   * @param repository the repository whose submodules are scanned.
+   */
+  public GitSubmoduleScanner(final GitRepository repository) {
+    this(repository, null);
+  }
+
+  /**
+   * Default constructor.
+   *
+   * @param repository the repository whose submodules are scanned.
+   * @param executor the executor to inspect the submodules in parallel. If
+   *        <code>null</code>, the submodules are inspected by the calling
+   *        thread.
+   */
+  public GitSubmoduleScanner(final GitRepository repository,
+      final Executor executor) {
+    this.repository = repository;
+    this.executor = executor;
+  }
+
+  // ****************************** Inner Classes *****************************
+
+  /**
+   * The state of a submodule.
+   */
+  public static final class Submodule {
+    /**
+     * The path of the submodule relative to the root of the scanned working
+     * tree.
+     */
+    private final String path;
+
+    /**
+     * The commit recorded for the submodule in the index of the parent.
+     */
+    private final String recordedId;
+
+    /**
+     * The commit checked out in the submodule. Is <code>null</code> if the
+     * submodule has not been initialized.
+     */
+    private final String id;
+
+    /**
+     * The committer date of the checked out commit. Is <code>null</code> if
+     * the submodule has not been initialized.
+     */
+    private final Date date;
+
+    /**
+     * The flag signals that the submodule has another commit checked out than
+     * recorded or contains modified files. Is <code>null</code> if
+     * modifications have not been checked.
+     */
+    private final Boolean locallyModified;
+
+    private Submodule(final String path, final String recordedId,
+        final String id, final Date date, final Boolean locallyModified) {
+      this.path = path;
+      this.recordedId = recordedId;
+      this.id = id;
+      this.date = date;
+      this.locallyModified = locallyModified;
+    }
+
+    /**
+     * Returns the path of the submodule relative to the root of the scanned
+     * working tree.
+     *
+     * @return the path of the submodule.
+     */
+    public String getPath() {
+      return path;
+    }
+
+    /**
+     * Returns the commit recorded for the submodule in the index of the
+     * parent.
+     *
+     * @return the commit recorded for the submodule.
+     */
+    public String getRecordedId() {
+      return recordedId;
+    }
+
+    /**
+     * Returns the commit checked out in the submodule.
+     *
+     * @return the commit checked out in the submodule. Is <code>null</code>
+     *         if the submodule has not been initialized.
+     */
+    public String getId() {
+      return id;
+    }
+
+    /**
+     * Returns the committer date of the checked out commit.
+     *
+     * @return the committer date of the checked out commit. Is
+     *         <code>null</code> if the submodule has not been initialized.
+     */
+    public Date getDate() {
+      return date;
+    }
+
+    /**
+     * Checks if the submodule has another commit checked out than recorded or
+     * contains modified files.
+     *
+     * @return <code>true</code> if the submodule is modified,
+     *         <code>false</code> if not, <code>null</code> if modifications
+     *         have not been checked.
+     */
+    public Boolean getLocallyModified() {
+      return locallyModified;
+    }
+
+    @Override
+    public String toString() {
+      return path + '@' + (id != null ? id : recordedId);
+    }
+  }
+
+  // ********************************* Methods ********************************
+
+  // --- init -----------------------------------------------------------------
+
+  // --- get&set --------------------------------------------------------------
+
+  // --- business -------------------------------------------------------------
+
+  /**
+   * Scans the working tree for submodules.
+   *
+   * @param checkModifications the flag to check the submodules for
+   *        modifications.
+   * @return the submodules in the order of the index, each followed by its
+   *         nested submodules. The list is empty if the working tree has no
+   *         submodules.
+   * @throws IOException if the index or a submodule cannot be read.
+   */
+  public List<Submodule> scan(final boolean checkModifications)
+      throws IOException {
+    final List<GitIndex.Entry> gitlinks = findGitlinks(repository);
+    if (gitlinks.isEmpty()) {
+      return Collections.emptyList();
+    }
+
+    final List<Future<List<Submodule>>> futures =
+        new ArrayList<Future<List<Submodule>>>(gitlinks.size());
+    try {
+      for (final GitIndex.Entry gitlink : gitlinks) {
+        final FutureTask<List<Submodule>> task =
+            new FutureTask<List<Submodule>>(new Callable<List<Submodule>>() {
+              public List<Submodule> call() throws IOException {
+                final List<Submodule> submodules = new ArrayList<Submodule>();
+                inspect(repository, "", gitlink, checkModifications,
+                    submodules);
+                return submodules;
+              }
+            });
+        futures.add(task);
+        if (executor != null) {
+          executor.execute(task);
+        } else {
+          task.run();
+        }
+      }
+
+      final List<Submodule> submodules = new ArrayList<Submodule>();
+      for (final Future<List<Submodule>> future : futures) {
+        submodules.addAll(future.get());
+      }
+      if (LOG.isDebugEnabled()) {
+        LOG.debug("  Found submodules in " + repository + ": " + submodules);
+      }
+      return submodules;
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException(
+          "Interrupted while scanning submodules of " + repository + '.', e);
+    } catch (final ExecutionException e) {
+      final Throwable cause = e.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      }
+      throw new IOException("Cannot scan submodules of " + repository + '.',
+          cause);
+    } finally {
+      for (final Future<List<Submodule>> future : futures) {
+        future.cancel(true);
+      }
+    }
+  }
+
+  private static List<GitIndex.Entry> findGitlinks(
+      final GitRepository repository) throws IOException {
+    final GitIndex index = GitIndex.read(repository);
+    if (index == null) {
+      return Collections.emptyList();
+    }
+
+    final List<GitIndex.Entry> gitlinks = new ArrayList<GitIndex.Entry>();
+    for (final GitIndex.Entry entry : index.getEntries()) {
+      if (entry.getStage() == 0
+          && entry.getType() == GitIndex.Entry.TYPE_GITLINK) {
+        gitlinks.add(entry);
+      }
+    }
+    return gitlinks;
+  }
+
+  private void inspect(final GitRepository parent, final String prefix,
+      final GitIndex.Entry gitlink, final boolean checkModifications,
+      final List<Submodule> submodules) throws IOException {
+    final String path = prefix + gitlink.getPath();
+    final String recordedId = gitlink.getObjectId();
+    final File directory = new File(parent.getWorkTree(), gitlink.getPath());
+    final GitRepository submodule = GitRepository.find(directory);
+    if (submodule == null
+        || !submodule.getWorkTree().equals(directory.getAbsoluteFile())) {
+      submodules.add(new Submodule(path, recordedId, null, null, null));
+      return;
+    }
+
+    final String id = submodule.resolveCommit("HEAD");
+    final Date date = id != null ? submodule.readCommitDate(id) : null;
+    Boolean locallyModified = null;
+    if (checkModifications) {
+      locallyModified = Boolean.valueOf(!recordedId.equals(id)
+          || !new GitModificationChecker(submodule, executor)
+              .findModifications(directory).isEmpty());
+    }
+    submodules
+        .add(new Submodule(path, recordedId, id, date, locallyModified));
+
+    for (final GitIndex.Entry nested : findGitlinks(submodule)) {
+      inspect(submodule, path + '/', nested, checkModifications, submodules);
+    }
+  }
+
+  // --- object basics --------------------------------------------------------
+
+}
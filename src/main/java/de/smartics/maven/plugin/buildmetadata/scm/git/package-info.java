@@ -0,0 +1,25 @@
+/*
+ * Copyright 2006-2025 smartics, Kronseder & Reiner GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+/**
+ * Provides access to Git working copies by reading the Git directory
+ * directly, without launching a Git process. If the Git binary has to be
+ * used, a session shares long-lived Git processes with all modules of a
+ * build.
+ *
+ * @since 1.7.2
+ */
+package de.smartics.maven.plugin.buildmetadata.scm.git;
+
@@ -0,0 +1,293 @@
+/*
+ * Copyright 2006-2025 smartics, Kronseder & Reiner GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package de.smartics.maven.plugin.buildmetadata.scm.hg;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The dirstate of a Mercurial working copy in format version 1. It stores the
+ * parents of the working copy and the state of each tracked file.
+ */
+public final class HgDirstate {
+  // ********************************* Fields *********************************
+
+  // --- constants ------------------------------------------------------------
+
+  /**
+   * The size of the fixed part of an entry in bytes.
+   */
+  private static final int ENTRY_HEADER_SIZE = 17;
+
+  // --- members --------------------------------------------------------------
+
+  /**
+   * The first parent of the working copy. Is <code>null</code> if the working
+   * copy has no parent, e.g. in an empty repository.
+   */
+  private final byte[] parent;
+
+  /**
+   * The entries of the tracked files.
+   */
+  private final List<Entry> entries;
+
+  // ****************************** Initializer *******************************
+
+  // ****************************** Constructors ******************************
+
+  private HgDirstate(final byte[] parent, final List<Entry> entries) {
+    this.parent = parent;
+    this.entries = entries;
+  }
+
+  // ****************************** Inner Classes *****************************
+
+  /**
+   * The state of a tracked file.
+   */
+  public static final class Entry {
+    /**
+     * The state of a file that is unchanged, unless its stat information
+     * tells otherwise.
+     */
+    public static final char STATE_NORMAL = 'n';
+
+    /**
+     * The state of a file that has been added.
+     */
+    public static final char STATE_ADDED = 'a';
+
+    /**
+     * The state of a file that has been removed.
+     */
+    public static final char STATE_REMOVED = 'r';
+
+    /**
+     * The state of a file that has been merged.
+     */
+    public static final char STATE_MERGED = 'm';
+
+    /**
+     * The size stored for files taken from the second parent of a merge.
+     */
+    public static final int SIZE_FROM_OTHER_PARENT = -2;
+
+    /**
+     * The state of the file.
+     */
+    private final char state;
+
+    /**
+     * The mode of the file when it was last checked.
+     */
+    private final int mode;
+
+    /**
+     * The size of the file when it was last checked.
+     */
+    private final int size;
+
+    /**
+     * The modification time in seconds when the file was last checked. Is
+     * <code>-1</code> if the content has to be compared.
+     */
+    private final int mtime;
+
+    /**
+     * The path of the file relative to the root of the working copy.
+     */
+    private final String path;
+
+    /**
+     * The flag signals that the file has been copied or renamed.
+     */
+    private final boolean copy;
+
+    private Entry(final char state, final int mode, final int size,
+        final int mtime, final String path, final boolean copy) {
+      this.state = state;
+      this.mode = mode;
+      this.size = size;
+      this.mtime = mtime;
+      this.path = path;
+      this.copy = copy;
+    }
+
+    /**
+     * Returns the state of the file.
+     *
+     * @return the state of the file.
+     */
+    public char getState() {
+      return state;
+    }
+
+    /**
+     * Returns the mode of the file when it was last checked.
+     *
+     * @return the mode of the file.
+     */
+    public int getMode() {
+      return mode;
+    }
+
+    /**
+     * Returns the size of the file when it was last checked.
+     *
+     * @return the size of the file, negative if unknown.
+     */
+    public int getSize() {
+      return size;
+    }
+
+    /**
+     * Returns the modification time in seconds when the file was last
+     * checked.
+     *
+     * @return the modification time, <code>-1</code> if the content has to be
+     *         compared.
+     */
+    public int getMtime() {
+      return mtime;
+    }
+
+    /**
+     * Returns the path of the file relative to the root of the working copy.
+     *
+     * @return the path of the file.
+     */
+    public String getPath() {
+      return path;
+    }
+
+    /**
+     * Checks if the file has been copied or renamed.
+     *
+     * @return <code>true</code> if the file has been copied or renamed,
+     *         <code>false</code> otherwise.
+     */
+    public boolean isCopy() {
+      return copy;
+    }
+
+    @Override
+    public String toString() {
+      return state + " " + path;
+    }
+  }
+
+  // ********************************* Methods ********************************
+
+  // --- init -----------------------------------------------------------------
+
+  /**
+   * Reads the dirstate from the given file.
+   *
+   * @param file the dirstate file.
+   * @return the dirstate. If the file does not exist, the dirstate has no
+   *         parent and no entries.
+   * @throws IOException if the dirstate cannot be read.
+   */
+  static HgDirstate read(final File file) throws IOException {
+    if (!file.isFile()) {
+      return new HgDirstate(null, Collections.<Entry> emptyList());
+    }
+    return parse(HgRepository.readFully(file));
+  }
+
+  /**
+   * Parses the content of a dirstate file.
+   *
+   * @param content the content of the dirstate file.
+   * @return the dirstate.
+   * @throws IOException if the content is corrupt.
+   */
+  static HgDirstate parse(final byte[] content) throws IOException {
+    final int parents = 2 * Revlog.NODE_SIZE;
+    if (content.length < parents) {
+      throw new IOException("Corrupt Mercurial dirstate.");
+    }
+    final byte[] parent = Arrays.copyOfRange(content, 0, Revlog.NODE_SIZE);
+
+    final List<Entry> entries = new ArrayList<Entry>();
+    int position = parents;
+    while (position < content.length) {
+      if (position + ENTRY_HEADER_SIZE > content.length) {
+        throw new IOException("Corrupt Mercurial dirstate.");
+      }
+      final char state = (char) content[position];
+      final int mode = Revlog.readInt(content, position + 1);
+      final int size = Revlog.readInt(content, position + 5);
+      final int mtime = Revlog.readInt(content, position + 9);
+      final int length = Revlog.readInt(content, position + 13);
+      position += ENTRY_HEADER_SIZE;
+      if (length < 0 || position + length > content.length) {
+        throw new IOException("Corrupt Mercurial dirstate.");
+      }
+      int end = position;
+      while (end < position + length && content[end] != 0) {
+        end++;
+      }
+      final String path =
+          new String(content, position, end - position, HgRepository.UTF8);
+      entries.add(new Entry(state, mode, size, mtime, path,
+          end < position + length));
+      position += length;
+    }
+    return new HgDirstate(isNull(parent) ? null : parent,
+        Collections.unmodifiableList(entries));
+  }
+
+  private static boolean isNull(final byte[] node) {
+    for (final byte b : node) {
+      if (b != 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  // --- get&set --------------------------------------------------------------
+
+  /**
+   * Returns the first parent of the working copy.
+   *
+   * @return the node identifier of the first parent. Is <code>null</code> if
+   *         the working copy has no parent, e.g. in an empty repository.
+   */
+  public byte[] getParent() {
+    return parent != null ? parent.clone() : null;
+  }
+
+  /**
+   * Returns the entries of the tracked files.
+   *
+   * @return the entries of the tracked files.
+   */
+  public List<Entry> getEntries() {
+    return entries;
+  }
+
+  // --- business -------------------------------------------------------------
+
+  // --- object basics --------------------------------------------------------
+
+}
@@ -0,0 +1,230 @@
+/*
+ * Copyright 2006-2025 smartics, Kronseder & Reiner GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package de.smartics.maven.plugin.buildmetadata.scm.hg;
+
+import de.smartics.maven.plugin.buildmetadata.scm.GlobMatcher;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.maven.scm.ScmFile;
+import org.apache.maven.scm.ScmFileStatus;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.nio.file.attribute.PosixFilePermission;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Detects modified files of a Mercurial working copy by comparing the working
+ * copy with the stat information cached in the dirstate. Files whose stat
+ * information is not conclusive are compared with the content of the revision
+ * checked out. Untracked files are not reported.
+ */
+public final class HgModificationChecker {
+  // ********************************* Fields *********************************
+
+  // --- constants ------------------------------------------------------------
+
+  /**
+   * Reference to the logger for this class.
+   */
+  private static final Log LOG =
+      LogFactory.getLog(HgModificationChecker.class);
+
+  /**
+   * The mask of the executable bit of the owner.
+   */
+  private static final int MODE_EXECUTABLE = 0100;
+
+  // --- members --------------------------------------------------------------
+
+  /**
+   * The repository of the working copy to check.
+   */
+  private final HgRepository repository;
+
+  /**
+   * The manifest of the parent of the working copy, lazily loaded if the
+   * content of a file has to be compared.
+   */
+  private Map<String, String> manifest;
+
+  // ****************************** Initializer *******************************
+
+  // ****************************** Constructors ******************************
+
+  /**
+   * Default constructor.
+   *
+   * @param repository the repository of the working copy to check.
+   */
+  public HgModificationChecker(final HgRepository repository) {
+    this.repository = repository;
+  }
+
+  // ****************************** Inner Classes *****************************
+
+  // ********************************* Methods ********************************
+
+  // --- init -----------------------------------------------------------------
+
+  // --- get&set --------------------------------------------------------------
+
+  // --- business -------------------------------------------------------------
+
+  /**
+   * Finds the modified files within the given directory that match the given
+   * patterns.
+   *
+   * @param directory the directory within the working copy to check.
+   * @param matcher the matcher for the paths relative to the directory.
+   * @return the modified files with their paths relative to the directory.
+   * @throws IOException if the modifications cannot be determined without
+   *         running <code>hg</code>.
+   */
+  public List<ScmFile> findModifications(final File directory,
+      final GlobMatcher matcher) throws IOException {
+    final HgDirstate dirstate = repository.readDirstate();
+    final byte[] parent = dirstate.getParent();
+    final String prefix = repository.getRelativePath(directory);
+
+    final List<ScmFile> files = new ArrayList<ScmFile>();
+    for (final HgDirstate.Entry entry : dirstate.getEntries()) {
+      final String path = entry.getPath();
+      if (!path.startsWith(prefix)
+          || !matcher.matches(path.substring(prefix.length()))) {
+        continue;
+      }
+      final ScmFileStatus status = checkEntry(parent, entry);
+      if (status != null) {
+        files.add(new ScmFile(path.substring(prefix.length()), status));
+      }
+    }
+    if (LOG.isDebugEnabled()) {
+      LOG.debug("  Checked " + dirstate.getEntries().size() + " files of "
+                + repository + " in '" + prefix + "', found " + files.size()
+                + " modifications.");
+    }
+    return files;
+  }
+
+  private ScmFileStatus checkEntry(final byte[] parent,
+      final HgDirstate.Entry entry) throws IOException {
+    switch (entry.getState()) {
+      case HgDirstate.Entry.STATE_ADDED:
+        return ScmFileStatus.ADDED;
+      case HgDirstate.Entry.STATE_REMOVED:
+        return ScmFileStatus.DELETED;
+      case HgDirstate.Entry.STATE_MERGED:
+        return ScmFileStatus.MODIFIED;
+      case HgDirstate.Entry.STATE_NORMAL:
+        return checkNormalEntry(parent, entry);
+      default:
+        throw new IOException("Unknown dirstate '" + entry.getState()
+                              + "' of '" + entry.getPath() + "'.");
+    }
+  }
+
+  private ScmFileStatus checkNormalEntry(final byte[] parent,
+      final HgDirstate.Entry entry) throws IOException {
+    final Path file = new File(repository.getRoot(), entry.getPath()).toPath();
+    final BasicFileAttributes attributes;
+    try {
+      attributes = Files.readAttributes(file, BasicFileAttributes.class,
+          LinkOption.NOFOLLOW_LINKS);
+    } catch (final IOException e) {
+      return ScmFileStatus.DELETED;
+    }
+    if (attributes.isDirectory()) {
+      return ScmFileStatus.DELETED;
+    }
+
+    final int size = entry.getSize();
+    if (size == HgDirstate.Entry.SIZE_FROM_OTHER_PARENT || entry.isCopy()) {
+      return ScmFileStatus.MODIFIED;
+    }
+    if (size >= 0 && ((attributes.size() & 0x7fffffffL) != size
+                      || isExecutableChanged(file, entry))) {
+      return ScmFileStatus.MODIFIED;
+    }
+    final long mtime = attributes.lastModifiedTime().toMillis() / 1000L;
+    if (entry.getMtime() != -1 && (mtime & 0x7fffffffL) == entry.getMtime()) {
+      return null;
+    }
+    return compareContent(parent, entry, file, attributes.isSymbolicLink());
+  }
+
+  private static boolean isExecutableChanged(final Path file,
+      final HgDirstate.Entry entry) throws IOException {
+    if (!Files.getFileStore(file).supportsFileAttributeView("posix")) {
+      return false;
+    }
+    final PosixFileAttributes attributes = Files.readAttributes(file,
+        PosixFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+    if (attributes.isSymbolicLink()) {
+      return false;
+    }
+    final boolean executable =
+        attributes.permissions().contains(PosixFilePermission.OWNER_EXECUTE);
+    return executable != ((entry.getMode() & MODE_EXECUTABLE) != 0);
+  }
+
+  private ScmFileStatus compareContent(final byte[] parent,
+      final HgDirstate.Entry entry, final Path file, final boolean symbolicLink)
+      throws IOException {
+    if (parent == null) {
+      return ScmFileStatus.MODIFIED;
+    }
+    final String node = getManifest(parent).get(entry.getPath());
+    if (node == null) {
+      return ScmFileStatus.MODIFIED;
+    }
+    if (symbolicLink != node.endsWith("l")) {
+      return ScmFileStatus.MODIFIED;
+    }
+
+    final byte[] expected = repository.readFile(entry.getPath(), node);
+    final byte[] actual = symbolicLink
+        ? Files.readSymbolicLink(file).toString().getBytes(HgRepository.UTF8)
+        : Files.readAllBytes(file);
+    return Arrays.equals(expected, actual) ? null : ScmFileStatus.MODIFIED;
+  }
+
+  private Map<String, String> getManifest(final byte[] parent)
+      throws IOException {
+    if (manifest == null) {
+      final HgRepository.Changeset changeset =
+          repository.readChangeset(parent);
+      if (changeset == null) {
+        throw new IOException("Parent " + HgRepository.toHex(parent)
+                              + " of the working copy not found.");
+      }
+      manifest = repository.readManifest(changeset.getManifest());
+    }
+    return manifest;
+  }
+
+  // --- object basics --------------------------------------------------------
+
+}
@@ -0,0 +1,538 @@
+/*
+ * Copyright 2006-2025 smartics, Kronseder & Reiner GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package de.smartics.maven.plugin.buildmetadata.scm.hg;
+
+import org.codehaus.plexus.util.IOUtil;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reads the metadata of a Mercurial working copy from the <code>.hg</code>
+ * directory. No <code>hg</code> process is launched.
+ * <p>
+ * The reader supports repositories with the <code>store</code>,
+ * <code>fncache</code>, <code>dotencode</code>, <code>generaldelta</code> and
+ * <code>share</code> requirements. Repositories with requirements that change
+ * the format of the dirstate or the revlogs (e.g. <code>dirstate-v2</code> or
+ * <code>revlog-compression-zstd</code>) are rejected.
+ * </p>
+ */
+public final class HgRepository {
+  // ********************************* Fields *********************************
+
+  // --- constants ------------------------------------------------------------
+
+  /**
+   * The encoding of Mercurial metadata.
+   */
+  static final Charset UTF8 = Charset.forName("UTF-8");
+
+  /**
+   * The requirements of repositories this reader is able to read.
+   */
+  private static final Set<String> SUPPORTED_REQUIREMENTS =
+      Collections.unmodifiableSet(new HashSet<String>(Arrays.asList("revlogv1",
+          "store", "fncache", "dotencode", "generaldelta", "sparserevlog",
+          "shared", "relshared", "share-safe", "persistent-nodemap",
+          "bookmarksinstore", "internal-phase")));
+
+  /**
+   * The maximum length of an encoded store path before it is hashed.
+   */
+  private static final int MAX_STORE_PATH_LENGTH = 120;
+
+  /**
+   * The characters that are encoded in store paths in addition to control
+   * characters, the tilde and non-ASCII characters.
+   */
+  private static final String ENCODED_CHARACTERS = "\\:*?\"<>|";
+
+  // --- members --------------------------------------------------------------
+
+  /**
+   * The root directory of the working copy.
+   */
+  private final File root;
+
+  /**
+   * The <code>.hg</code> directory of the working copy.
+   */
+  private final File hgDir;
+
+  /**
+   * The directory containing the revlogs.
+   */
+  private final File storeDir;
+
+  /**
+   * The requirements of the repository.
+   */
+  private final Set<String> requirements;
+
+  /**
+   * The changelog, lazily loaded.
+   */
+  private Revlog changelog;
+
+  // ****************************** Initializer *******************************
+
+  // ****************************** Constructors ******************************
+
+  private HgRepository(final File root, final File hgDir, final File storeDir,
+      final Set<String> requirements) {
+    this.root = root;
+    this.hgDir = hgDir;
+    this.storeDir = storeDir;
+    this.requirements = requirements;
+  }
+
+  // ****************************** Inner Classes *****************************
+
+  /**
+   * A changeset read from the changelog.
+   */
+  public static final class Changeset {
+    /**
+     * The node identifier of the changeset.
+     */
+    private final byte[] node;
+
+    /**
+     * The node identifier of the manifest in hexadecimal form.
+     */
+    private final String manifest;
+
+    /**
+     * The date the changeset has been committed.
+     */
+    private final Date date;
+
+    private Changeset(final byte[] node, final String manifest,
+        final Date date) {
+      this.node = node;
+      this.manifest = manifest;
+      this.date = date;
+    }
+
+    /**
+     * Returns the node identifier in hexadecimal form.
+     *
+     * @return the node identifier in hexadecimal form.
+     */
+    public String getId() {
+      return toHex(node);
+    }
+
+    /**
+     * Returns the short form of the node identifier, as displayed by
+     * <code>hg log</code>.
+     *
+     * @return the first twelve hexadecimal digits of the node identifier.
+     */
+    public String getShortId() {
+      return getId().substring(0, 12);
+    }
+
+    /**
+     * Returns the node identifier of the manifest in hexadecimal form.
+     *
+     * @return the node identifier of the manifest.
+     */
+    public String getManifest() {
+      return manifest;
+    }
+
+    /**
+     * Returns the date the changeset has been committed.
+     *
+     * @return the date the changeset has been committed.
+     */
+    public Date getDate() {
+      return date;
+    }
+  }
+
+  // ********************************* Methods ********************************
+
+  // --- init -----------------------------------------------------------------
+
+  /**
+   * Finds the repository the given directory belongs to. The directory and its
+   * parents are searched for a <code>.hg</code> directory.
+   *
+   * @param directory the directory within the working copy.
+   * @return the repository or <code>null</code> if the directory is not part
+   *         of a Mercurial working copy.
+   * @throws IOException if the repository has an unsupported format.
+   */
+  public static HgRepository find(final File directory) throws IOException {
+    File current = directory.getAbsoluteFile();
+    while (current != null) {
+      final File hgDir = new File(current, ".hg");
+      if (hgDir.isDirectory()) {
+        return open(current, hgDir);
+      }
+      current = current.getParentFile();
+    }
+    return null;
+  }
+
+  private static HgRepository open(final File root, final File hgDir)
+      throws IOException {
+    File sharedDir = hgDir;
+    final File sharedPath = new File(hgDir, "sharedpath");
+    if (sharedPath.isFile()) {
+      final String path = new String(readFully(sharedPath), UTF8).trim();
+      final File file = new File(path);
+      sharedDir =
+          (file.isAbsolute() ? file : new File(hgDir, path)).getCanonicalFile();
+    }
+
+    final Set<String> requirements = new HashSet<String>();
+    readRequirements(new File(hgDir, "requires"), requirements);
+    if (requirements.contains("share-safe")) {
+      readRequirements(new File(sharedDir, "requires"), requirements);
+    }
+    for (final String requirement : requirements) {
+      if (!SUPPORTED_REQUIREMENTS.contains(requirement)) {
+        throw new IOException("Unsupported Mercurial requirement '"
+                              + requirement + "' in " + hgDir + '.');
+      }
+    }
+
+    final File storeDir = requirements.contains("store")
+        ? new File(sharedDir, "store") : sharedDir;
+    return new HgRepository(root, hgDir, storeDir, requirements);
+  }
+
+  private static void readRequirements(final File file,
+      final Set<String> requirements) throws IOException {
+    if (file.isFile()) {
+      for (final String line : new String(readFully(file), UTF8)
+          .split("\n")) {
+        final String requirement = line.trim();
+        if (requirement.length() > 0) {
+          requirements.add(requirement.toLowerCase(Locale.ENGLISH));
+        }
+      }
+    }
+  }
+
+  // --- get&set --------------------------------------------------------------
+
+  /**
+   * Returns the root directory of the working copy.
+   *
+   * @return the root directory of the working copy.
+   */
+  public File getRoot() {
+    return root;
+  }
+
+  /**
+   * Returns the path of the given directory relative to the root of the
+   * working copy.
+   *
+   * @param directory the directory within the working copy.
+   * @return the relative path with a trailing slash, or the empty string for
+   *         the root directory.
+   * @throws IOException if the directory is not within the working copy.
+   */
+  public String getRelativePath(final File directory) throws IOException {
+    final String rootPath = root.getCanonicalPath();
+    final String path = directory.getCanonicalPath();
+    if (path.equals(rootPath)) {
+      return "";
+    }
+    if (!path.startsWith(rootPath + File.separatorChar)) {
+      throw new IOException(
+          "Directory " + directory + " is not within " + root + '.');
+    }
+    return path.substring(rootPath.length() + 1).replace(File.separatorChar,
+        '/') + '/';
+  }
+
+  // --- business -------------------------------------------------------------
+
+  /**
+   * Reads the dirstate of the working copy.
+   *
+   * @return the dirstate.
+   * @throws IOException if the dirstate cannot be read.
+   */
+  public HgDirstate readDirstate() throws IOException {
+    return HgDirstate.read(new File(hgDir, "dirstate"));
+  }
+
+  /**
+   * Reads the changeset with the given node identifier.
+   *
+   * @param node the node identifier.
+   * @return the changeset or <code>null</code> if the node is not part of the
+   *         changelog.
+   * @throws IOException if the changelog cannot be read.
+   */
+  public Changeset readChangeset(final byte[] node) throws IOException {
+    final Revlog log = getChangelog();
+    final int revision = log != null ? log.findRevision(node) : -1;
+    if (revision < 0) {
+      return null;
+    }
+
+    final String text = new String(log.readText(revision), UTF8);
+    final String[] lines = text.split("\n", 4);
+    if (lines.length < 3) {
+      throw new IOException("Corrupt changeset " + toHex(node) + '.');
+    }
+    final String[] dateTokens = lines[2].split(" ");
+    try {
+      final double seconds = Double.parseDouble(dateTokens[0]);
+      return new Changeset(node, lines[0],
+          new Date((long) (seconds * 1000.0)));
+    } catch (final NumberFormatException e) {
+      throw new IOException(
+          "Cannot parse date of changeset " + toHex(node) + '.', e);
+    }
+  }
+
+  private synchronized Revlog getChangelog() throws IOException {
+    if (changelog == null) {
+      changelog = Revlog.read(new File(storeDir, "00changelog.i"));
+    }
+    return changelog;
+  }
+
+  /**
+   * Reads the manifest with the given node identifier.
+   *
+   * @param manifest the node identifier of the manifest in hexadecimal form.
+   * @return the file nodes in hexadecimal form, followed by their flags
+   *         (<code>l</code> for symbolic links, <code>x</code> for executable
+   *         files), keyed by the paths of the files.
+   * @throws IOException if the manifest cannot be read.
+   */
+  public Map<String, String> readManifest(final String manifest)
+      throws IOException {
+    final Revlog log = Revlog.read(new File(storeDir, "00manifest.i"));
+    final int revision = log != null ? log.findRevision(fromHex(manifest)) : -1;
+    if (revision < 0) {
+      throw new IOException("Manifest " + manifest + " not found.");
+    }
+
+    final byte[] text = log.readText(revision);
+    final Map<String, String> files = new HashMap<String, String>();
+    int start = 0;
+    while (start < text.length) {
+      int nul = start;
+      while (nul < text.length && text[nul] != 0) {
+        nul++;
+      }
+      int end = nul;
+      while (end < text.length && text[end] != '\n') {
+        end++;
+      }
+      if (nul >= end) {
+        throw new IOException("Corrupt manifest " + manifest + '.');
+      }
+      files.put(new String(text, start, nul - start, UTF8),
+          new String(text, nul + 1, end - nul - 1, UTF8));
+      start = end + 1;
+    }
+    return files;
+  }
+
+  /**
+   * Reads the content of a file revision.
+   *
+   * @param path the path of the file relative to the root of the working
+   *        copy.
+   * @param node the node identifier of the file revision in hexadecimal form.
+   * @return the content of the file revision.
+   * @throws IOException if the file revision cannot be read.
+   */
+  public byte[] readFile(final String path, final String node)
+      throws IOException {
+    final Revlog log =
+        Revlog.read(new File(storeDir, encodeStorePath("data/" + path + ".i")));
+    final int revision = log != null ? log.findRevision(fromHex(node)) : -1;
+    if (revision < 0) {
+      throw new IOException(
+          "Revision " + node + " of '" + path + "' not found.");
+    }
+
+    final byte[] text = log.readText(revision);
+    if (text.length >= 2 && text[0] == 1 && text[1] == '\n') {
+      for (int i = 2; i + 1 < text.length; i++) {
+        if (text[i] == 1 && text[i + 1] == '\n') {
+          return Arrays.copyOfRange(text, i + 2, text.length);
+        }
+      }
+    }
+    return text;
+  }
+
+  /**
+   * Encodes the path of a revlog within the store.
+   *
+   * @param path the path of the revlog.
+   * @return the encoded path relative to the store directory.
+   * @throws IOException if the path is encoded by a hash, which is not
+   *         supported.
+   */
+  String encodeStorePath(final String path) throws IOException {
+    if (!requirements.contains("store")) {
+      return path;
+    }
+
+    final String encoded = encodeFileName(encodeDirectories(path));
+    if (!requirements.contains("fncache")) {
+      return encoded;
+    }
+
+    final String[] components = encoded.split("/");
+    final boolean dotencode = requirements.contains("dotencode");
+    final StringBuilder buffer = new StringBuilder(encoded.length() + 8);
+    for (final String component : components) {
+      if (buffer.length() > 0) {
+        buffer.append('/');
+      }
+      buffer.append(encodeReservedNames(component, dotencode));
+    }
+    if (buffer.length() > MAX_STORE_PATH_LENGTH) {
+      throw new IOException(
+          "Hashed store path of '" + path + "' is not supported.");
+    }
+    return buffer.toString();
+  }
+
+  private static String encodeDirectories(final String path) {
+    return path.replace(".hg/", ".hg.hg/").replace(".i/", ".i.hg/")
+        .replace(".d/", ".d.hg/");
+  }
+
+  private static String encodeFileName(final String path) {
+    final byte[] bytes = path.getBytes(UTF8);
+    final StringBuilder buffer = new StringBuilder(bytes.length + 8);
+    for (final byte b : bytes) {
+      final int c = b & 0xff;
+      if (c == '_') {
+        buffer.append("__");
+      } else if (c >= 'A' && c <= 'Z') {
+        buffer.append('_').append((char) (c + 32));
+      } else if (c < 32 || c >= 126 || ENCODED_CHARACTERS.indexOf(c) >= 0) {
+        appendEscaped(buffer, c);
+      } else {
+        buffer.append((char) c);
+      }
+    }
+    return buffer.toString();
+  }
+
+  private static String encodeReservedNames(final String component,
+      final boolean dotencode) {
+    if (component.length() == 0) {
+      return component;
+    }
+    final StringBuilder buffer = new StringBuilder(component);
+    final char first = component.charAt(0);
+    if (dotencode && (first == '.' || first == ' ')) {
+      buffer.replace(0, 1, escape(first));
+    } else {
+      int dot = component.indexOf('.');
+      if (dot == -1) {
+        dot = component.length();
+      }
+      final String prefix =
+          component.substring(0, Math.min(3, component.length()));
+      if ((dot == 3 && ("aux".equals(prefix) || "con".equals(prefix)
+                        || "prn".equals(prefix) || "nul".equals(prefix)))
+          || (dot == 4 && component.charAt(3) >= '1'
+              && component.charAt(3) <= '9'
+              && ("com".equals(prefix) || "lpt".equals(prefix)))) {
+        buffer.replace(2, 3, escape(component.charAt(2)));
+      }
+    }
+    final char last = buffer.charAt(buffer.length() - 1);
+    if (last == '.' || last == ' ') {
+      buffer.replace(buffer.length() - 1, buffer.length(), escape(last));
+    }
+    return buffer.toString();
+  }
+
+  private static String escape(final int c) {
+    final StringBuilder buffer = new StringBuilder(3);
+    appendEscaped(buffer, c);
+    return buffer.toString();
+  }
+
+  private static void appendEscaped(final StringBuilder buffer, final int c) {
+    buffer.append('~').append(Character.forDigit((c >> 4) & 0x0f, 16))
+        .append(Character.forDigit(c & 0x0f, 16));
+  }
+
+  static String toHex(final byte[] id) {
+    final StringBuilder buffer = new StringBuilder(id.length * 2);
+    for (final byte b : id) {
+      buffer.append(Character.forDigit((b >> 4) & 0x0f, 16))
+          .append(Character.forDigit(b & 0x0f, 16));
+    }
+    return buffer.toString();
+  }
+
+  static byte[] fromHex(final String hex) throws IOException {
+    if (hex.length() < Revlog.NODE_SIZE * 2) {
+      throw new IOException("Invalid node identifier '" + hex + "'.");
+    }
+    final byte[] id = new byte[Revlog.NODE_SIZE];
+    for (int i = 0; i < id.length; i++) {
+      final int high = Character.digit(hex.charAt(2 * i), 16);
+      final int low = Character.digit(hex.charAt(2 * i + 1), 16);
+      if (high < 0 || low < 0) {
+        throw new IOException("Invalid node identifier '" + hex + "'.");
+      }
+      id[i] = (byte) ((high << 4) | low);
+    }
+    return id;
+  }
+
+  static byte[] readFully(final File file) throws IOException {
+    final InputStream in = new FileInputStream(file);
+    try {
+      return IOUtil.toByteArray(in);
+    } finally {
+      in.close();
+    }
+  }
+
+  // --- object basics --------------------------------------------------------
+
+  @Override
+  public String toString() {
+    return "Mercurial repository " + root;
+  }
+}
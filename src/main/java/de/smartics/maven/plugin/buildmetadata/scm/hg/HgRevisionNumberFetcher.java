@@ -0,0 +1,184 @@
+/*
+ * Copyright 2006-2025 smartics, Kronseder & Reiner GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package de.smartics.maven.plugin.buildmetadata.scm.hg;
+
+import de.smartics.maven.plugin.buildmetadata.scm.LocallyModifiedInfo;
+import de.smartics.maven.plugin.buildmetadata.scm.Revision;
+import de.smartics.maven.plugin.buildmetadata.scm.RevisionNumberFetcher;
+import de.smartics.maven.plugin.buildmetadata.scm.ScmException;
+import de.smartics.maven.plugin.buildmetadata.scm.ScmMetrics;
+import de.smartics.maven.plugin.buildmetadata.scm.maven.ScmAccessInfo;
+import de.smartics.maven.plugin.buildmetadata.scm.maven.StringRevision;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.maven.scm.ScmFile;
+import org.apache.maven.scm.ScmFileSet;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Fetches the revision of a Mercurial working copy by reading the
+ * <code>.hg</code> directory and checks for modifications by comparing the
+ * working copy with the dirstate. No <code>hg</code> process is launched.
+ * <p>
+ * The revision is the parent of the working copy, identified by the short
+ * form of its node identifier as reported by <code>hg log</code>. If the
+ * <code>.hg</code> directory cannot be read, the request is delegated to the
+ * fallback fetcher.
+ * </p>
+ */
+public final class HgRevisionNumberFetcher implements RevisionNumberFetcher {
+  // ********************************* Fields *********************************
+
+  // --- constants ------------------------------------------------------------
+
+  /**
+   * Reference to the logger for this class.
+   */
+  private static final Log LOG =
+      LogFactory.getLog(HgRevisionNumberFetcher.class);
+
+  // --- members --------------------------------------------------------------
+
+  /**
+   * The information to access the working copy.
+   */
+  private final ScmAccessInfo accessInfo;
+
+  /**
+   * The fetcher to delegate to if the <code>.hg</code> directory cannot be
+   * read.
+   */
+  private final RevisionNumberFetcher fallback;
+
+  // ****************************** Initializer *******************************
+
+  // ****************************** Constructors ******************************
+
+  /**
+   * Default constructor.
+   *
+   * @param accessInfo the information to access the working copy.
+   * @param fallback the fetcher to delegate to if the <code>.hg</code>
+   *        directory cannot be read.
+   */
+  public HgRevisionNumberFetcher(final ScmAccessInfo accessInfo,
+      final RevisionNumberFetcher fallback) {
+    this.accessInfo = accessInfo;
+    this.fallback = fallback;
+  }
+
+  // ****************************** Inner Classes *****************************
+
+  // ********************************* Methods ********************************
+
+  // --- init -----------------------------------------------------------------
+
+  // --- get&set --------------------------------------------------------------
+
+  // --- business -------------------------------------------------------------
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * Reads the parent of the working copy from the dirstate and its date from
+   * the changelog.
+   * </p>
+   */
+  @Override
+  public Revision fetchLatestRevisionNumber() throws ScmException {
+    final File rootDirectory = accessInfo.getRootDirectory();
+    try {
+      final HgRepository repository = HgRepository.find(rootDirectory);
+      if (repository != null) {
+        final byte[] parent = repository.readDirstate().getParent();
+        if (parent == null) {
+          LOG.debug("  No parent found for working copy " + repository + '.');
+          return null;
+        }
+        final HgRepository.Changeset changeset =
+            repository.readChangeset(parent);
+        if (changeset != null) {
+          if (LOG.isDebugEnabled()) {
+            LOG.debug("  Read revision " + changeset.getId() + " from "
+                      + repository + '.');
+          }
+          return new StringRevision(changeset.getShortId(),
+              changeset.getDate());
+        }
+      }
+    } catch (final IOException e) {
+      if (LOG.isDebugEnabled()) {
+        LOG.debug("  Cannot read revision from " + rootDirectory
+                  + ", using fallback: " + e.getMessage());
+      }
+    }
+
+    return fallback.fetchLatestRevisionNumber();
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * Compares the working copy with the stat information cached in the
+   * dirstate. If the dirstate cannot be read, the request is delegated to the
+   * fallback fetcher.
+   * </p>
+   */
+  @Override
+  public LocallyModifiedInfo containsModifications(final ScmFileSet fileSet)
+      throws ScmException {
+    final ScmMetrics metrics = accessInfo.getMetrics();
+    final long start = metrics.start();
+    final List<ScmFile> changedFiles = findModifications(fileSet.getBasedir());
+    metrics.stop("hgDirstate", start);
+    if (changedFiles != null) {
+      return accessInfo.createLocallyModifiedInfo(changedFiles);
+    }
+
+    return fallback.containsModifications(fileSet);
+  }
+
+  /**
+   * Finds the modified files by comparing the working copy with the Mercurial
+   * dirstate.
+   *
+   * @param basedir the directory to check.
+   * @return the modified files or <code>null</code> if the modifications
+   *         cannot be determined without running Mercurial.
+   */
+  private List<ScmFile> findModifications(final File basedir) {
+    try {
+      final HgRepository repository = HgRepository.find(basedir);
+      if (repository != null) {
+        return new HgModificationChecker(repository).findModifications(
+            basedir, accessInfo.createModificationMatcher());
+      }
+    } catch (final IOException e) {
+      if (LOG.isDebugEnabled()) {
+        LOG.debug("  Cannot check modifications with the Mercurial dirstate,"
+                  + " using fallback: " + e.getMessage());
+      }
+    }
+    return null;
+  }
+
+  // --- object basics --------------------------------------------------------
+
+}
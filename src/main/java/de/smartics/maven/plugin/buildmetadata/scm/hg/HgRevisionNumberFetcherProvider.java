@@ -0,0 +1,82 @@
+/*
+ * Copyright 2006-2025 smartics, Kronseder & Reiner GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package de.smartics.maven.plugin.buildmetadata.scm.hg;
+
+import de.smartics.maven.plugin.buildmetadata.scm.RevisionNumberFetcher;
+import de.smartics.maven.plugin.buildmetadata.scm.RevisionNumberFetcherProvider;
+import de.smartics.maven.plugin.buildmetadata.scm.maven.ScmAccessInfo;
+import de.smartics.maven.plugin.buildmetadata.scm.maven.ScmConnectionInfo;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Provides the {@link HgRevisionNumberFetcher} if native SCM access is
+ * enabled and the revision of the working copy is requested.
+ */
+public final class HgRevisionNumberFetcherProvider
+    implements RevisionNumberFetcherProvider {
+  // ********************************* Fields *********************************
+
+  // --- constants ------------------------------------------------------------
+
+  /**
+   * The capabilities of the fetcher.
+   */
+  private static final Set<Capability> CAPABILITIES =
+      Collections.unmodifiableSet(EnumSet.of(Capability.REVISION,
+          Capability.MODIFICATIONS));
+
+  // --- members --------------------------------------------------------------
+
+  // ****************************** Initializer *******************************
+
+  // ****************************** Constructors ******************************
+
+  // ****************************** Inner Classes *****************************
+
+  // ********************************* Methods ********************************
+
+  // --- init -----------------------------------------------------------------
+
+  // --- get&set --------------------------------------------------------------
+
+  @Override
+  public String getScmType() {
+    return "hg";
+  }
+
+  @Override
+  public Set<Capability> getCapabilities() {
+    return CAPABILITIES;
+  }
+
+  // --- business -------------------------------------------------------------
+
+  @Override
+  public RevisionNumberFetcher create(final ScmConnectionInfo connectionInfo,
+      final ScmAccessInfo accessInfo, final RevisionNumberFetcher fallback) {
+    if (!accessInfo.isNativeScmAccess()
+        || connectionInfo.getRemoteVersion() != null) {
+      return null;
+    }
+    return new HgRevisionNumberFetcher(accessInfo, fallback);
+  }
+
+  // --- object basics --------------------------------------------------------
+
+}
@@ -0,0 +1,348 @@
+/*
+ * Copyright 2006-2025 smartics, Kronseder & Reiner GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package de.smartics.maven.plugin.buildmetadata.scm.hg;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Reads revisions from a Mercurial revlog of version 1. The index is read
+ * completely, the data is read on demand. Inline revlogs, general delta and
+ * zlib compressed chunks are supported.
+ */
+final class Revlog {
+  // ********************************* Fields *********************************
+
+  // --- constants ------------------------------------------------------------
+
+  /**
+   * The size of an index entry in bytes.
+   */
+  private static final int ENTRY_SIZE = 64;
+
+  /**
+   * The length of a node identifier in bytes.
+   */
+  static final int NODE_SIZE = 20;
+
+  /**
+   * The revlog format version supported.
+   */
+  private static final int REVLOG_V1 = 1;
+
+  /**
+   * The flag signals that the data is stored within the index file.
+   */
+  private static final int FLAG_INLINE_DATA = 1 << 16;
+
+  /**
+   * The flag signals that deltas are stored against arbitrary revisions.
+   */
+  private static final int FLAG_GENERALDELTA = 1 << 17;
+
+  // --- members --------------------------------------------------------------
+
+  /**
+   * The file containing the data of a revlog that is not inline.
+   */
+  private final File dataFile;
+
+  /**
+   * The content of the index file.
+   */
+  private final byte[] index;
+
+  /**
+   * The flag signals that the data is stored within the index file.
+   */
+  private final boolean inline;
+
+  /**
+   * The flag signals that deltas are stored against arbitrary revisions.
+   */
+  private final boolean generalDelta;
+
+  /**
+   * The positions of the entries within the index file, indexed by revision.
+   */
+  private final int[] positions;
+
+  // ****************************** Initializer *******************************
+
+  // ****************************** Constructors ******************************
+
+  private Revlog(final File dataFile, final byte[] index, final int flags)
+      throws IOException {
+    this.dataFile = dataFile;
+    this.index = index;
+    this.inline = (flags & FLAG_INLINE_DATA) != 0;
+    this.generalDelta = (flags & FLAG_GENERALDELTA) != 0;
+    this.positions = calculatePositions();
+  }
+
+  // ****************************** Inner Classes *****************************
+
+  // ********************************* Methods ********************************
+
+  // --- init -----------------------------------------------------------------
+
+  /**
+   * Reads the revlog with the given index file.
+   *
+   * @param indexFile the index file with the extension <code>.i</code>.
+   * @return the revlog or <code>null</code> if the index file does not exist.
+   * @throws IOException if the revlog cannot be read or has an unsupported
+   *         format.
+   */
+  static Revlog read(final File indexFile) throws IOException {
+    if (!indexFile.isFile()) {
+      return null;
+    }
+    final byte[] index = HgRepository.readFully(indexFile);
+    final String name = indexFile.getName();
+    final File dataFile = new File(indexFile.getParentFile(),
+        name.substring(0, name.length() - 2) + ".d");
+    if (index.length == 0) {
+      return new Revlog(dataFile, index, 0);
+    }
+    if (index.length < 4) {
+      throw new IOException("Corrupt revlog " + indexFile + '.');
+    }
+    final int header = readInt(index, 0);
+    if ((header & 0xffff) != REVLOG_V1) {
+      throw new IOException("Unsupported revlog version "
+                            + (header & 0xffff) + " of " + indexFile + '.');
+    }
+    return new Revlog(dataFile, index, header);
+  }
+
+  private int[] calculatePositions() throws IOException {
+    final List<Integer> list = new ArrayList<Integer>();
+    int position = 0;
+    while (position < index.length) {
+      if (position + ENTRY_SIZE > index.length) {
+        throw new IOException("Corrupt revlog index " + dataFile + '.');
+      }
+      list.add(Integer.valueOf(position));
+      position += ENTRY_SIZE;
+      if (inline) {
+        position += readInt(index, position - ENTRY_SIZE + 8);
+      }
+    }
+    final int[] result = new int[list.size()];
+    for (int i = 0; i < result.length; i++) {
+      result[i] = list.get(i).intValue();
+    }
+    return result;
+  }
+
+  // --- get&set --------------------------------------------------------------
+
+  /**
+   * Returns the number of revisions.
+   *
+   * @return the number of revisions.
+   */
+  int getRevisionCount() {
+    return positions.length;
+  }
+
+  /**
+   * Returns the node identifier of the given revision.
+   *
+   * @param revision the revision number.
+   * @return the node identifier.
+   */
+  byte[] getNode(final int revision) {
+    final int start = positions[revision] + 32;
+    return Arrays.copyOfRange(index, start, start + NODE_SIZE);
+  }
+
+  // --- business -------------------------------------------------------------
+
+  /**
+   * Finds the revision number of the given node. The revlog is searched from
+   * the latest revision since recent revisions are requested most often.
+   *
+   * @param node the node identifier.
+   * @return the revision number or <code>-1</code> if the node is unknown.
+   */
+  int findRevision(final byte[] node) {
+    for (int revision = positions.length - 1; revision >= 0; revision--) {
+      final int start = positions[revision] + 32;
+      boolean equal = true;
+      for (int i = 0; i < NODE_SIZE && equal; i++) {
+        equal = index[start + i] == node[i];
+      }
+      if (equal) {
+        return revision;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Reads the full text of the given revision by applying the chain of
+   * deltas.
+   *
+   * @param revision the revision number.
+   * @return the full text of the revision.
+   * @throws IOException if the text cannot be read.
+   */
+  byte[] readText(final int revision) throws IOException {
+    final List<Integer> chain = new ArrayList<Integer>();
+    int current = revision;
+    while (true) {
+      chain.add(Integer.valueOf(current));
+      final int base = readInt(index, positions[current] + 16);
+      if (base == current || base < 0) {
+        break;
+      }
+      current = generalDelta ? base : current - 1;
+      if (current < 0 || chain.size() > positions.length) {
+        throw new IOException("Corrupt delta chain in " + dataFile + '.');
+      }
+    }
+
+    byte[] text = readChunk(chain.get(chain.size() - 1).intValue());
+    for (int i = chain.size() - 2; i >= 0; i--) {
+      text = applyDelta(text, readChunk(chain.get(i).intValue()));
+    }
+    return text;
+  }
+
+  private byte[] readChunk(final int revision) throws IOException {
+    final int position = positions[revision];
+    final int length = readInt(index, position + 8);
+    final byte[] chunk;
+    if (inline) {
+      chunk = Arrays.copyOfRange(index, position + ENTRY_SIZE,
+          position + ENTRY_SIZE + length);
+    } else {
+      final long offset = revision == 0 ? 0L
+          : readLong(index, position) >>> 16;
+      chunk = new byte[length];
+      final RandomAccessFile file = new RandomAccessFile(dataFile, "r");
+      try {
+        file.seek(offset);
+        file.readFully(chunk);
+      } finally {
+        file.close();
+      }
+    }
+    return decompress(chunk);
+  }
+
+  private byte[] decompress(final byte[] chunk) throws IOException {
+    if (chunk.length == 0 || chunk[0] == 0) {
+      return chunk;
+    }
+    switch (chunk[0]) {
+      case 'u':
+        return Arrays.copyOfRange(chunk, 1, chunk.length);
+      case 'x':
+        return inflate(chunk);
+      default:
+        throw new IOException("Unsupported compression '" + (char) chunk[0]
+                              + "' in " + dataFile + '.');
+    }
+  }
+
+  private static byte[] inflate(final byte[] chunk) throws IOException {
+    final Inflater inflater = new Inflater();
+    try {
+      inflater.setInput(chunk);
+      final ByteArrayOutputStream out =
+          new ByteArrayOutputStream(chunk.length * 3);
+      final byte[] buffer = new byte[8192];
+      while (!inflater.finished()) {
+        final int count = inflater.inflate(buffer);
+        if (count == 0
+            && (inflater.needsInput() || inflater.needsDictionary())) {
+          throw new IOException("Truncated compressed revlog chunk.");
+        }
+        out.write(buffer, 0, count);
+      }
+      return out.toByteArray();
+    } catch (final DataFormatException e) {
+      throw new IOException("Corrupt compressed revlog chunk.", e);
+    } finally {
+      inflater.end();
+    }
+  }
+
+  /**
+   * Applies a binary delta to the given text. A delta is a sequence of hunks,
+   * each replacing the range from start to end of the text by new data.
+   *
+   * @param text the text to apply the delta to.
+   * @param delta the delta.
+   * @return the patched text.
+   * @throws IOException if the delta is corrupt.
+   */
+  static byte[] applyDelta(final byte[] text, final byte[] delta)
+      throws IOException {
+    final ByteArrayOutputStream out =
+        new ByteArrayOutputStream(text.length + delta.length);
+    int last = 0;
+    int position = 0;
+    while (position < delta.length) {
+      if (position + 12 > delta.length) {
+        throw new IOException("Corrupt revlog delta.");
+      }
+      final int start = readInt(delta, position);
+      final int end = readInt(delta, position + 4);
+      final int length = readInt(delta, position + 8);
+      position += 12;
+      if (start < last || end < start || end > text.length
+          || position + length > delta.length) {
+        throw new IOException("Corrupt revlog delta.");
+      }
+      out.write(text, last, start - last);
+      out.write(delta, position, length);
+      position += length;
+      last = end;
+    }
+    out.write(text, last, text.length - last);
+    return out.toByteArray();
+  }
+
+  static int readInt(final byte[] buffer, final int position) {
+    return ((buffer[position] & 0xff) << 24)
+           | ((buffer[position + 1] & 0xff) << 16)
+           | ((buffer[position + 2] & 0xff) << 8)
+           | (buffer[position + 3] & 0xff);
+  }
+
+  private static long readLong(final byte[] buffer, final int position) {
+    return ((long) readInt(buffer, position) << 32)
+           | (readInt(buffer, position + 4) & 0xffffffffL);
+  }
+
+  // --- object basics --------------------------------------------------------
+
+  @Override
+  public String toString() {
+    return "Revlog " + dataFile;
+  }
+}
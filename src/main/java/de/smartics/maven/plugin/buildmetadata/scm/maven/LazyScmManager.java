@@ -0,0 +1,175 @@
+/*
+ * Copyright 2006-2025 smartics, Kronseder & Reiner GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package de.smartics.maven.plugin.buildmetadata.scm.maven;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.maven.scm.log.ScmLogger;
+import org.apache.maven.scm.manager.AbstractScmManager;
+import org.apache.maven.scm.manager.NoSuchScmProviderException;
+import org.apache.maven.scm.manager.plexus.PlexusLogger;
+import org.apache.maven.scm.provider.ScmProvider;
+import org.codehaus.plexus.PlexusContainer;
+import org.codehaus.plexus.component.repository.exception.ComponentLookupException;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Manager to access the SCM that looks up the providers on demand. Only the
+ * provider of the type actually requested, usually the one named by the SCM
+ * connection of the project, is created and loaded. The default manager of
+ * Maven SCM creates all providers on the class path, as soon as the manager
+ * is created, even if no SCM information is to be fetched.
+ */
+public final class LazyScmManager extends AbstractScmManager {
+  // ********************************* Fields *********************************
+
+  // --- constants ------------------------------------------------------------
+
+  /**
+   * Reference to the logger for this class.
+   */
+  private static final Log LOG = LogFactory.getLog(LazyScmManager.class);
+
+  // --- members --------------------------------------------------------------
+
+  /**
+   * The container to look up the providers in.
+   */
+  private final PlexusContainer container;
+
+  /**
+   * The logger to pass to the providers, created on first use.
+   */
+  private ScmLogger scmLogger;
+
+  /**
+   * The types of the implementations configured for provider types.
+   */
+  private final Map<String, String> implementationTypes =
+      new HashMap<String, String>();
+
+  /**
+   * The types of the providers already looked up, whether the lookup was
+   * successful or not.
+   */
+  private final Set<String> resolvedTypes = new HashSet<String>();
+
+  /**
+   * The flag signals that the base class has attached the logger to the
+   * providers known at the first request. Providers looked up later have to
+   * be attached by this manager.
+   */
+  private boolean loggerAttached;
+
+  // ****************************** Initializer *******************************
+
+  // ****************************** Constructors ******************************
+
+  /**
+   * Default constructor. The container is not accessed before the first
+   * provider is requested.
+   *
+   * @param container the container to look up the providers in.
+   */
+  public LazyScmManager(final PlexusContainer container) {
+    this.container = container;
+  }
+
+  // ****************************** Inner Classes *****************************
+
+  // ********************************* Methods ********************************
+
+  // --- init -----------------------------------------------------------------
+
+  // --- get&set --------------------------------------------------------------
+
+  @Override
+  protected synchronized ScmLogger getScmLogger() {
+    if (scmLogger == null) {
+      scmLogger = new PlexusLogger(container.getLogger());
+    }
+    return scmLogger;
+  }
+
+  // --- business -------------------------------------------------------------
+
+  @Override
+  public synchronized void setScmProviderImplementation(
+      final String providerType, final String providerImplementation) {
+    super.setScmProviderImplementation(providerType, providerImplementation);
+    implementationTypes.put(providerType, providerImplementation);
+  }
+
+  /**
+   * Returns the provider for the given type. The provider is looked up in the
+   * container on the first request.
+   *
+   * @param providerType the type of the provider.
+   * @return the provider.
+   * @throws NoSuchScmProviderException if there is no provider for the type.
+   */
+  @Override
+  public synchronized ScmProvider getProviderByType(final String providerType)
+      throws NoSuchScmProviderException {
+    final String implementationType = getImplementationType(providerType);
+    if (resolvedTypes.add(implementationType)) {
+      final ScmProvider provider = lookupProvider(implementationType);
+      if (provider != null) {
+        if (loggerAttached) {
+          provider.addListener(getScmLogger());
+        }
+        setScmProvider(implementationType, provider);
+      }
+    }
+
+    loggerAttached = true;
+    return super.getProviderByType(providerType);
+  }
+
+  private String getImplementationType(final String providerType) {
+    final String implementationType = System
+        .getProperty("maven.scm.provider." + providerType + ".implementation");
+    if (implementationType != null) {
+      return implementationType;
+    }
+    final String configuredType = implementationTypes.get(providerType);
+    return configuredType != null ? configuredType : providerType;
+  }
+
+  private ScmProvider lookupProvider(final String type) {
+    if (!container.hasComponent(ScmProvider.ROLE, type)) {
+      return null;
+    }
+
+    try {
+      if (LOG.isDebugEnabled()) {
+        LOG.debug("Looking up SCM provider '" + type + "'.");
+      }
+      return (ScmProvider) container.lookup(ScmProvider.ROLE, type);
+    } catch (final ComponentLookupException e) {
+      LOG.warn("Cannot look up SCM provider '" + type + "': "
+               + e.getMessage());
+      return null;
+    }
+  }
+
+  // --- object basics --------------------------------------------------------
+
+}
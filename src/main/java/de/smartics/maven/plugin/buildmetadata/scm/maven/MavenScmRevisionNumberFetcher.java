@@ -19,6 +19,10 @@ import de.smartics.maven.plugin.buildmetadata.scm.LocallyModifiedInfo;
 import de.smartics.maven.plugin.buildmetadata.scm.Revision;
 import de.smartics.maven.plugin.buildmetadata.scm.RevisionNumberFetcher;
 import de.smartics.maven.plugin.buildmetadata.scm.ScmException;
+import de.smartics.maven.plugin.buildmetadata.scm.ScmMetrics;
+import de.smartics.maven.plugin.buildmetadata.scm.git.GitBatchSession;
+import de.smartics.maven.plugin.buildmetadata.scm.git.GitMergeBaseDiff;
+import de.smartics.maven.plugin.buildmetadata.scm.git.GitRepository;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -27,6 +31,7 @@ import org.apache.maven.scm.ChangeSet;
 import org.apache.maven.scm.ScmFile;
 import org.apache.maven.scm.ScmFileSet;
 import org.apache.maven.scm.ScmResult;
+import org.apache.maven.scm.ScmRevision;
 import org.apache.maven.scm.ScmVersion;
 import org.apache.maven.scm.command.changelog.ChangeLogScmResult;
 import org.apache.maven.scm.command.changelog.ChangeLogSet;
@@ -35,15 +40,11 @@ import org.apache.maven.scm.command.status.StatusScmResult;
 import org.apache.maven.scm.manager.NoSuchScmProviderException;
 import org.apache.maven.scm.manager.ScmManager;
 import org.apache.maven.scm.provider.ScmProvider;
+import org.apache.maven.scm.provider.ScmUrlUtils;
 import org.apache.maven.scm.repository.ScmRepository;
-import org.codehaus.plexus.util.StringUtils;
 
-import java.util.Collection;
-import java.util.Comparator;
-import java.util.Iterator;
+import java.io.IOException;
 import java.util.List;
-import java.util.Set;
-import java.util.TreeSet;
 
 /**
  * Implementation on the Maven SCM implementation to fetch the latest revision
@@ -157,20 +158,125 @@ public final class MavenScmRevisionNumberFetcher
       final Revision revision =
           scmAccessInfo.fetchRemoteGitVersion(repository, remoteVersion);
       return revision;
-    } else {
-      final ScmProvider provider = createScmProvider(repository);
-      final ChangeLogScmResult result =
-          scmAccessInfo.fetchChangeLog(repository, provider);
+    }
 
-      if (result != null) {
-        final ChangeLogSet changeLogSet = result.getChangeLog();
-        final Revision revision = findEndVersion(changeLogSet);
-        if (LOG.isDebugEnabled()) {
-          LOG.debug("  Found revision '" + revision + "'.");
-        }
+    if (isGitBatchSessionSupported()) {
+      final Revision revision = fetchGitBatchRevision();
+      if (revision != null) {
         return revision;
-      } else if (LOG.isDebugEnabled()) {
-        LOG.debug("  No revision information found.");
+      }
+    }
+
+    final GitRepository shallowClone = findShallowGitClone();
+    if (shallowClone != null) {
+      return fetchShallowCloneRevision(repository, shallowClone);
+    }
+
+    final ScmProvider provider = createScmProvider(repository);
+    final ChangeLogScmResult result =
+        scmAccessInfo.fetchChangeLog(repository, provider);
+
+    if (result != null) {
+      final ChangeLogSet changeLogSet = result.getChangeLog();
+      final Revision revision = findEndVersion(changeLogSet);
+      if (LOG.isDebugEnabled()) {
+        LOG.debug("  Found revision '" + revision + "'.");
+      }
+      return revision;
+    } else if (LOG.isDebugEnabled()) {
+      LOG.debug("  No revision information found.");
+    }
+    return null;
+  }
+
+  /**
+   * Checks if the Git processes shared by the session can be used. This is the
+   * case for Git working copies without a remote version.
+   *
+   * @return <code>true</code> if the shared Git processes can be used,
+   *         <code>false</code> otherwise.
+   */
+  private boolean isGitBatchSessionSupported() {
+    return scmAccessInfo.getGitBatchSession() != null
+           && scmConnectionInfo.getRemoteVersion() == null && "git".equals(
+               ScmUrlUtils.getProvider(scmConnectionInfo.getConnectionUrl()));
+  }
+
+  /**
+   * Finds the repository of the working copy if it is a shallow Git clone. The
+   * change log of a shallow clone is truncated, so the query of a range of
+   * days is likely to find no change sets at all.
+   *
+   * @return the repository if the working copy is a shallow Git clone,
+   *         <code>null</code> otherwise.
+   */
+  private GitRepository findShallowGitClone() {
+    if (scmConnectionInfo.getRemoteVersion() != null || !"git".equals(
+        ScmUrlUtils.getProvider(scmConnectionInfo.getConnectionUrl()))) {
+      return null;
+    }
+    try {
+      final GitRepository repository =
+          GitRepository.find(scmAccessInfo.getRootDirectory());
+      return repository != null && repository.isShallow() ? repository : null;
+    } catch (final IOException e) {
+      if (LOG.isDebugEnabled()) {
+        LOG.debug("  Cannot check for shallow clone: " + e.getMessage());
+      }
+      return null;
+    }
+  }
+
+  /**
+   * Reads the revision of <code>HEAD</code> of a shallow clone from the
+   * repository. Only if the repository cannot be read, <code>git log</code>
+   * is launched.
+   *
+   * @param scmRepository the repository to launch Git with.
+   * @param repository the shallow clone to read the revision from.
+   * @return the revision of <code>HEAD</code> or <code>null</code> if there is
+   *         no commit.
+   * @throws ScmException if the revision cannot be fetched.
+   */
+  private Revision fetchShallowCloneRevision(final ScmRepository scmRepository,
+      final GitRepository repository) throws ScmException {
+    try {
+      final String id = repository.resolveCommit("HEAD");
+      final Revision revision =
+          id != null ? new StringRevision(id, repository.readCommitDate(id))
+              : null;
+      if (LOG.isDebugEnabled()) {
+        LOG.debug("  Read revision '" + revision + "' of shallow clone "
+                  + repository + '.');
+      }
+      return revision;
+    } catch (final IOException e) {
+      if (LOG.isDebugEnabled()) {
+        LOG.debug("  Cannot read revision of shallow clone " + repository
+                  + ", using git log: " + e.getMessage());
+      }
+    }
+
+    final Revision revision = scmAccessInfo
+        .fetchRemoteGitVersion(scmRepository, new ScmRevision("HEAD"));
+    if (LOG.isDebugEnabled()) {
+      LOG.debug("  Found revision '" + revision + "' of shallow clone.");
+    }
+    return revision;
+  }
+
+  private Revision fetchGitBatchRevision() {
+    final GitBatchSession session = scmAccessInfo.getGitBatchSession();
+    try {
+      final Revision revision = session.resolveRevision("HEAD");
+      if (LOG.isDebugEnabled()) {
+        LOG.debug("  Found revision '" + revision + "' with " + session + '.');
+      }
+      return revision;
+    } catch (final IOException e) {
+      if (LOG.isDebugEnabled()) {
+        LOG.debug("  Cannot resolve revision with " + session
+                  + ", using SCM change log: " + e.getMessage());
       }
       return null;
     }
@@ -184,6 +290,25 @@ public final class MavenScmRevisionNumberFetcher
           + this.scmConnectionInfo + "\n    " + this.scmAccessInfo);
     }
 
+    final ScmMetrics metrics = scmAccessInfo.getMetrics();
+    if (isGitBatchSessionSupported()) {
+      final long start = metrics.start();
+      final List<ScmFile> changedFiles = findGitBatchModifications(fileSet);
+      metrics.stop("gitBatchStatus", start);
+      if (changedFiles != null) {
+        return createLocallyModifiedInfo(changedFiles);
+      }
+    }
+
+    if (isGitMergeBaseDiffSupported()) {
+      final long start = metrics.start();
+      final List<ScmFile> changedFiles = findGitMergeBaseChanges(fileSet);
+      metrics.stop("mergeBaseDiff", start);
+      if (changedFiles != null) {
+        return createLocallyModifiedInfo(changedFiles);
+      }
+    }
+
     try {
       final ScmRepository repository =
           scmConnectionInfo.createRepository(scmManager);
@@ -205,18 +330,78 @@ public final class MavenScmRevisionNumberFetcher
     }
   }
 
+  private boolean isGitMergeBaseDiffSupported() {
+    return scmAccessInfo.isCompareWithMergeBase()
+           && scmConnectionInfo.getRemoteVersion() != null && "git".equals(
+               ScmUrlUtils.getProvider(scmConnectionInfo.getConnectionUrl()));
+  }
+
+  /**
+   * Finds the files changed in comparison to the merge base of the remote
+   * version and <code>HEAD</code>.
+   *
+   * @param fileSet the files to check.
+   * @return the changed files or <code>null</code> if the comparison failed.
+   */
+  private List<ScmFile> findGitMergeBaseChanges(final ScmFileSet fileSet) {
+    final String remoteVersion =
+        scmConnectionInfo.getRemoteVersion().getName();
+    try {
+      return new GitMergeBaseDiff(fileSet.getBasedir())
+          .findChangedFiles(remoteVersion);
+    } catch (final IOException e) {
+      if (LOG.isDebugEnabled()) {
+        LOG.debug("  Cannot compare with merge base of '" + remoteVersion
+                  + "', using SCM diff: " + e.getMessage());
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Finds the modified files by the status of the working tree read once for
+   * all modules by the Git processes shared by the session.
+   *
+   * @param fileSet the files to check.
+   * @return the modified files or <code>null</code> if the status cannot be
+   *         read.
+   */
+  private List<ScmFile> findGitBatchModifications(final ScmFileSet fileSet) {
+    final GitBatchSession session = scmAccessInfo.getGitBatchSession();
+    try {
+      return session.findModifications(fileSet.getBasedir());
+    } catch (final IOException e) {
+      if (LOG.isDebugEnabled()) {
+        LOG.debug("  Cannot read status with " + session
+                  + ", using SCM status: " + e.getMessage());
+      }
+    }
+    return null;
+  }
+
   private ScmResultWrapper execute(final ScmFileSet fileSet,
       final ScmRepository repository, final ScmProvider provider)
           throws org.apache.maven.scm.ScmException {
     final ScmVersion remoteVersion = scmConnectionInfo.getRemoteVersion();
+    final ScmMetrics metrics = scmAccessInfo.getMetrics();
+    final long start = metrics.start();
     final ScmResultWrapper result;
+    final ScmResult scmResult;
     if (remoteVersion != null) {
       final ScmVersion localVersion = null;
-      result = createScmDiffResultWrapper(
-          provider.diff(repository, fileSet, remoteVersion, localVersion));
+      final DiffScmResult diff =
+          provider.diff(repository, fileSet, remoteVersion, localVersion);
+      metrics.stop("diff", start);
+      scmResult = diff;
+      result = createScmDiffResultWrapper(diff);
     } else {
-      result =
-          createScmStatusResultWrapper(provider.status(repository, fileSet));
+      final StatusScmResult status = provider.status(repository, fileSet);
+      metrics.stop("status", start);
+      scmResult = status;
+      result = createScmStatusResultWrapper(status);
+    }
+    if (scmResult != null) {
+      metrics.addOutput(scmResult.getCommandOutput());
     }
     return result;
   }
@@ -240,59 +425,13 @@ public final class MavenScmRevisionNumberFetcher
   }
 
   private LocallyModifiedInfo createLocallyModifiedInfo(
-      final ScmResultWrapper result) {
-    final List<ScmFile> changedFiles = filter(result.getChangedFiles());
-    final boolean locallyModified = !changedFiles.isEmpty();
-    if (LOG.isDebugEnabled()) {
-      LOG.debug("  Modifications have" + (locallyModified ? "" : " not")
-          + " been found.");
-    }
-    return new LocallyModifiedInfo(locallyModified,
-        locallyModified ? toString(createSortedFiles(changedFiles)) : null);
-  }
-
-  private static Set<ScmFile> createSortedFiles(
-      final List<ScmFile> changedFiles) {
-    final Set<ScmFile> set = new TreeSet<ScmFile>(new Comparator<ScmFile>() {
-      public int compare(final ScmFile o1, final ScmFile o2) {
-        return o2.compareTo(o1);
-      }
-    });
-
-    set.addAll(changedFiles);
-
-    return set;
-  }
-
-  private List<ScmFile> filter(final List<ScmFile> files) {
-    if (this.scmAccessInfo.isIgnoreDotFilesInBaseDir()) {
-      filterDotFiles(files);
-    }
-    return files;
+      final ScmResultWrapper result) throws ScmException {
+    return createLocallyModifiedInfo(result.getChangedFiles());
   }
 
-  private void filterDotFiles(final List<ScmFile> files) {
-    for (final Iterator<ScmFile> i = files.iterator(); i.hasNext();) {
-      final ScmFile file = i.next();
-      final String path = file.getPath();
-      if (path.length() > 0 && path.charAt(0) == '.') {
-        i.remove();
-      }
-    }
-  }
-
-  /**
-   * Renders the files to a blank separated list of file names.
-   *
-   * @param items the file items.
-   * @return the string representation of the files.
-   */
-  private String toString(final Collection<?> items) {
-    final StringBuilder buffer = new StringBuilder(512);
-    for (final Object item : items) {
-      buffer.append(item).append(' ');
-    }
-    return StringUtils.chomp(buffer.toString());
+  private LocallyModifiedInfo createLocallyModifiedInfo(
+      final List<ScmFile> files) throws ScmException {
+    return scmAccessInfo.createLocallyModifiedInfo(files);
   }
 
   /**
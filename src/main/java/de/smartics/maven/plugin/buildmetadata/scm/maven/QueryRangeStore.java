@@ -0,0 +1,154 @@
+/*
+ * Copyright 2006-2025 smartics, Kronseder & Reiner GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package de.smartics.maven.plugin.buildmetadata.scm.maven;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Properties;
+
+/**
+ * Stores the range in days of the last successful change log query. The next
+ * build starts its query with this range, so no queries with too small ranges
+ * are sent to the SCM server.
+ * <p>
+ * Problems reading or writing the file are logged and otherwise ignored.
+ * </p>
+ */
+final class QueryRangeStore {
+  // ********************************* Fields *********************************
+
+  // --- constants ------------------------------------------------------------
+
+  /**
+   * Reference to the logger for this class.
+   */
+  private static final Log LOG = LogFactory.getLog(QueryRangeStore.class);
+
+  // --- members --------------------------------------------------------------
+
+  /**
+   * The file to store the range in. May be <code>null</code> if the range is
+   * not to be stored.
+   */
+  private final File file;
+
+  /**
+   * The key to the range within the file.
+   */
+  private final String key;
+
+  // ****************************** Initializer *******************************
+
+  // ****************************** Constructors ******************************
+
+  /**
+   * Default constructor.
+   *
+   * @param file the file to store the range in. May be <code>null</code> if
+   *        the range is not to be stored.
+   * @param key the key to the range within the file.
+   */
+  QueryRangeStore(final File file, final String key) {
+    this.file = file;
+    this.key = key;
+  }
+
+  // ****************************** Inner Classes *****************************
+
+  // ********************************* Methods ********************************
+
+  // --- init -----------------------------------------------------------------
+
+  // --- get&set --------------------------------------------------------------
+
+  // --- business -------------------------------------------------------------
+
+  /**
+   * Loads the range of the last successful query.
+   *
+   * @return the range in days or <code>0</code> if no range has been stored.
+   */
+  int load() {
+    if (file == null || !file.isFile()) {
+      return 0;
+    }
+
+    try {
+      final String value = read().getProperty(key);
+      return value != null ? Integer.parseInt(value.trim()) : 0;
+    } catch (final IOException e) {
+      LOG.debug("Cannot read query range from " + file + ": " + e.getMessage());
+    } catch (final NumberFormatException e) {
+      LOG.debug("Invalid query range in " + file + ": " + e.getMessage());
+    }
+    return 0;
+  }
+
+  /**
+   * Stores the range of the last successful query.
+   *
+   * @param rangeInDays the range in days.
+   */
+  void store(final int rangeInDays) {
+    if (file == null) {
+      return;
+    }
+
+    try {
+      final Properties properties =
+          file.isFile() ? read() : new Properties();
+      if (String.valueOf(rangeInDays).equals(properties.getProperty(key))) {
+        return;
+      }
+      properties.setProperty(key, String.valueOf(rangeInDays));
+      final File directory = file.getParentFile();
+      if (directory != null && !directory.isDirectory()
+          && !directory.mkdirs()) {
+        throw new IOException("Cannot create directory " + directory);
+      }
+      final OutputStream out = new FileOutputStream(file);
+      try {
+        properties.store(out, "Range of the last successful SCM query");
+      } finally {
+        IOUtils.closeQuietly(out);
+      }
+    } catch (final IOException e) {
+      LOG.debug("Cannot store query range to " + file + ": " + e.getMessage());
+    }
+  }
+
+  private Properties read() throws IOException {
+    final Properties properties = new Properties();
+    final InputStream in = new FileInputStream(file);
+    try {
+      properties.load(in);
+    } finally {
+      IOUtils.closeQuietly(in);
+    }
+    return properties;
+  }
+
+  // --- object basics --------------------------------------------------------
+
+}
@@ -15,13 +15,24 @@
  */
 package de.smartics.maven.plugin.buildmetadata.scm.maven;
 
+import de.smartics.maven.plugin.buildmetadata.scm.GlobMatcher;
+import de.smartics.maven.plugin.buildmetadata.scm.LocallyModifiedCollector;
+import de.smartics.maven.plugin.buildmetadata.scm.LocallyModifiedInfo;
 import de.smartics.maven.plugin.buildmetadata.scm.Revision;
 import de.smartics.maven.plugin.buildmetadata.scm.ScmException;
+import de.smartics.maven.plugin.buildmetadata.scm.ScmMetrics;
+import de.smartics.maven.plugin.buildmetadata.scm.git.GitBatchSession;
 
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.maven.scm.ChangeSet;
 import org.apache.maven.scm.ScmBranch;
+import org.apache.maven.scm.ScmFile;
 import org.apache.maven.scm.ScmFileSet;
 import org.apache.maven.scm.ScmVersion;
+import org.apache.maven.scm.command.changelog.ChangeLogScmRequest;
 import org.apache.maven.scm.command.changelog.ChangeLogScmResult;
 import org.apache.maven.scm.command.changelog.ChangeLogSet;
 import org.apache.maven.scm.provider.ScmProvider;
@@ -30,10 +41,21 @@ import org.apache.maven.scm.repository.ScmRepository;
 import org.codehaus.plexus.util.StringUtils;
 import org.codehaus.plexus.util.cli.Commandline;
 
+import java.io.BufferedWriter;
 import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
 import java.io.Serializable;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
 
 /**
  * Provides access information to retrieve revision information from the SCM.
@@ -51,6 +73,11 @@ public final class ScmAccessInfo implements Serializable {
    */
   private static final long serialVersionUID = 1L;
 
+  /**
+   * Reference to the logger for this class.
+   */
+  private static final Log LOG = LogFactory.getLog(ScmAccessInfo.class);
+
   /**
    * The number of retries to fetch the change log if the first attempt failed
    * to return a non empty set.
@@ -60,6 +87,28 @@ public final class ScmAccessInfo implements Serializable {
    */
   public static final int DEFAULT_RETRY_COUNT = 5;
 
+  /**
+   * The maximum range in days of a change log query.
+   * <p>
+   * The value of this constant is {@value}.
+   * </p>
+   */
+  private static final int MAX_QUERY_RANGE_IN_DAYS = 36500;
+
+  /**
+   * The number of milliseconds of a day.
+   * <p>
+   * The value of this constant is {@value}.
+   * </p>
+   */
+  private static final long MILLIS_PER_DAY = 24L * 60L * 60L * 1000L;
+
+  /**
+   * The SCM providers that support limiting the number of change log entries.
+   */
+  private static final Set<String> LIMIT_SUPPORTING_PROVIDERS =
+      new HashSet<String>(Arrays.asList("git", "svn"));
+
   // --- members --------------------------------------------------------------
 
   /**
@@ -74,13 +123,126 @@ public final class ScmAccessInfo implements Serializable {
 
   /**
    * The range of the query in days to fetch change log entries from the SCM. If
-   * no change logs have been found, the range is incremented up to
-   * {@value #DEFAULT_RETRY_COUNT} times. If no change log has been found after
-   * these {@value #DEFAULT_RETRY_COUNT} additional queries, the revision number
-   * will not be set with a valid value.
+   * no change logs have been found, the range is doubled up to
+   * {@value #DEFAULT_RETRY_COUNT} times. If the SCM supports limiting the number
+   * of change log entries, the latest entry is queried instead after the first
+   * query returned no entries. If no change log has been found after these
+   * additional queries, the revision number will not be set with a valid
+   * value.
    */
   private int queryRangeInDays;
 
+  /**
+   * The file to store the range of the last successful change log query in.
+   * The next query starts with this range. May be <code>null</code> if the
+   * range is not to be stored.
+   */
+  private File queryRangeFile;
+
+  /**
+   * The file to store the state of the working copy in. If the fingerprint of
+   * the working copy has not changed, the stored state is used without
+   * querying the SCM. May be <code>null</code> if the state is not to be
+   * stored.
+   */
+  private File stateCacheFile;
+
+  /**
+   * The build directory of the module. Its content is not part of the
+   * fingerprint of the working copy. May be <code>null</code>.
+   */
+  private File buildDirectory;
+
+  /**
+   * The patterns of the files to check for modifications, relative to the
+   * root directory. If empty, all files are checked.
+   */
+  private List<String> modificationIncludes = new ArrayList<String>();
+
+  /**
+   * The patterns of the files not to check for modifications, relative to the
+   * root directory.
+   */
+  private List<String> modificationExcludes = new ArrayList<String>();
+
+  /**
+   * The rules of the files to ignore in the check for modifications in the
+   * syntax of <code>.gitignore</code> files, relative to the root directory.
+   */
+  private List<String> modificationIgnores = new ArrayList<String>();
+
+  /**
+   * The file with further rules of the files to ignore in the check for
+   * modifications. May be <code>null</code>.
+   */
+  private File modificationIgnoreFile;
+
+  /**
+   * The matcher for the paths of modified files, compiled on first use.
+   */
+  private transient GlobMatcher modificationMatcher;
+
+  /**
+   * The maximum number of locally modified files to list in the build
+   * properties. A negative value lists all files.
+   */
+  private int maxLocallyModifiedFiles = -1;
+
+  /**
+   * The file to write the complete list of locally modified files to. May be
+   * <code>null</code> if the list is not to be written.
+   */
+  private File locallyModifiedFilesFile;
+
+  /**
+   * The time in milliseconds the SCM information has to be fetched in. If the
+   * time is exceeded, the SCM queries are cancelled. A value of zero or less
+   * waits without limit.
+   */
+  private long timeBudget;
+
+  /**
+   * The session sharing Git processes with all modules of the build. May be
+   * <code>null</code> if each query launches its own process.
+   */
+  private transient GitBatchSession gitBatchSession;
+
+  /**
+   * The executor to check the working copy in parallel, shared with all modules
+   * of the build. May be <code>null</code> if the working copy is checked by
+   * the calling thread.
+   */
+  private transient Executor executor;
+
+  /**
+   * The flag to add the revisions of the Git submodules to the build
+   * properties.
+   */
+  private boolean addSubmoduleInfo;
+
+  /**
+   * The flag to compare the working tree with the merge base of the remote
+   * version and <code>HEAD</code> by the names of the changed files only.
+   */
+  private boolean compareWithMergeBase;
+
+  /**
+   * The flag to add the metrics of the calls to the SCM to the build
+   * properties.
+   */
+  private boolean addMetrics;
+
+  /**
+   * The file to write the metrics of the calls to the SCM to. May be
+   * <code>null</code> if the metrics are not to be written to a file.
+   */
+  private File metricsFile;
+
+  /**
+   * The metrics of the calls to the SCM, created on first use.
+   */
+  private transient ScmMetrics metrics;
+
   /**
    * The flag to fail if local modifications have been found. The value is
    * <code>true</code> if the build should fail if there are modifications (any
@@ -98,6 +260,26 @@ public final class ScmAccessInfo implements Serializable {
    */
   private boolean ignoreDotFilesInBaseDir;
 
+  /**
+   * The flag to read the SCM information directly from the metadata of the
+   * working copy instead of launching the SCM client. Supported for Git and
+   * Mercurial and, for the revision only, for Subversion. If the metadata
+   * cannot be read, the SCM client is used as a fallback.
+   */
+  private boolean nativeScmAccess;
+
+  /**
+   * The flag to fetch the revision and to check for modifications
+   * concurrently.
+   */
+  private boolean concurrentQueries;
+
+  /**
+   * The time in milliseconds to wait for the result of each concurrent query.
+   * A value of zero or less waits without limit.
+   */
+  private long queryTimeout;
+
   // ****************************** Initializer *******************************
 
   // ****************************** Constructors ******************************
@@ -154,10 +336,10 @@ public final class ScmAccessInfo implements Serializable {
 
   /**
    * Returns the range of the query in days to fetch change log entries from the
-   * SCM. If no change logs have been found, the range is incremented up to
-   * {@value #DEFAULT_RETRY_COUNT} times. If no change log has been found after
-   * these {@value #DEFAULT_RETRY_COUNT} additional queries, the revision number
-   * will not be set with a valid value.
+   * SCM. If no change logs have been found, the range is doubled up to
+   * {@value #DEFAULT_RETRY_COUNT} times or, if the SCM supports it, the latest
+   * entry is queried. If no change log has been found after these additional
+   * queries, the revision number will not be set with a valid value.
    *
    * @return the range of the query in days to fetch change log entries from the
    *         SCM.
@@ -168,10 +350,10 @@ public final class ScmAccessInfo implements Serializable {
 
   /**
    * Sets the range of the query in days to fetch change log entries from the
-   * SCM. If no change logs have been found, the range is incremented up to
-   * {@value #DEFAULT_RETRY_COUNT} times. If no change log has been found after
-   * these {@value #DEFAULT_RETRY_COUNT} additional queries, the revision number
-   * will not be set with a valid value.
+   * SCM. If no change logs have been found, the range is doubled up to
+   * {@value #DEFAULT_RETRY_COUNT} times or, if the SCM supports it, the latest
+   * entry is queried. If no change log has been found after these additional
+   * queries, the revision number will not be set with a valid value.
    *
    * @param queryRangeInDays the range of the query in days to fetch change log
    *        entries from the SCM.
@@ -180,6 +362,365 @@ public final class ScmAccessInfo implements Serializable {
     this.queryRangeInDays = queryRangeInDays;
   }
 
+  /**
+   * Returns the file to store the range of the last successful change log query
+   * in. The next query starts with this range.
+   *
+   * @return the file to store the range of the last successful change log
+   *         query in. May be <code>null</code> if the range is not to be
+   *         stored.
+   */
+  public File getQueryRangeFile() {
+    return queryRangeFile;
+  }
+
+  /**
+   * Sets the file to store the range of the last successful change log query
+   * in. The next query starts with this range.
+   *
+   * @param queryRangeFile the file to store the range of the last successful
+   *        change log query in. May be <code>null</code> if the range is not to
+   *        be stored.
+   */
+  public void setQueryRangeFile(final File queryRangeFile) {
+    this.queryRangeFile = queryRangeFile;
+  }
+
+  /**
+   * Returns the file to store the state of the working copy in.
+   *
+   * @return the file to store the state of the working copy in. May be
+   *         <code>null</code> if the state is not to be stored.
+   */
+  public File getStateCacheFile() {
+    return stateCacheFile;
+  }
+
+  /**
+   * Sets the file to store the state of the working copy in.
+   *
+   * @param stateCacheFile the file to store the state of the working copy in.
+   *        May be <code>null</code> if the state is not to be stored.
+   */
+  public void setStateCacheFile(final File stateCacheFile) {
+    this.stateCacheFile = stateCacheFile;
+  }
+
+  /**
+   * Returns the build directory of the module.
+   *
+   * @return the build directory of the module. May be <code>null</code>.
+   */
+  public File getBuildDirectory() {
+    return buildDirectory;
+  }
+
+  /**
+   * Sets the build directory of the module.
+   *
+   * @param buildDirectory the build directory of the module.
+   */
+  public void setBuildDirectory(final File buildDirectory) {
+    this.buildDirectory = buildDirectory;
+  }
+
+  /**
+   * Returns the patterns of the files to check for modifications, relative to
+   * the root directory.
+   *
+   * @return the patterns of the files to check for modifications. If empty,
+   *         all files are checked.
+   */
+  public List<String> getModificationIncludes() {
+    return modificationIncludes;
+  }
+
+  /**
+   * Sets the patterns of the files to check for modifications, relative to
+   * the root directory.
+   *
+   * @param modificationIncludes the patterns of the files to check for
+   *        modifications. If <code>null</code> or empty, all files are
+   *        checked.
+   */
+  public void setModificationIncludes(final List<String> modificationIncludes) {
+    this.modificationIncludes = copy(modificationIncludes);
+  }
+
+  /**
+   * Returns the patterns of the files not to check for modifications,
+   * relative to the root directory.
+   *
+   * @return the patterns of the files not to check for modifications.
+   */
+  public List<String> getModificationExcludes() {
+    return modificationExcludes;
+  }
+
+  /**
+   * Sets the patterns of the files not to check for modifications, relative
+   * to the root directory.
+   *
+   * @param modificationExcludes the patterns of the files not to check for
+   *        modifications. May be <code>null</code>.
+   */
+  public void setModificationExcludes(final List<String> modificationExcludes) {
+    this.modificationExcludes = copy(modificationExcludes);
+  }
+
+  /**
+   * Returns the rules of the files to ignore in the check for modifications
+   * in the syntax of <code>.gitignore</code> files, relative to the root
+   * directory.
+   *
+   * @return the rules of the files to ignore.
+   */
+  public List<String> getModificationIgnores() {
+    return modificationIgnores;
+  }
+
+  /**
+   * Sets the rules of the files to ignore in the check for modifications in
+   * the syntax of <code>.gitignore</code> files, relative to the root
+   * directory.
+   *
+   * @param modificationIgnores the rules of the files to ignore. May be
+   *        <code>null</code>.
+   */
+  public void setModificationIgnores(final List<String> modificationIgnores) {
+    this.modificationIgnores = copy(modificationIgnores);
+  }
+
+  /**
+   * Returns the file with further rules of the files to ignore in the check
+   * for modifications.
+   *
+   * @return the file with further rules of the files to ignore. May be
+   *         <code>null</code>.
+   */
+  public File getModificationIgnoreFile() {
+    return modificationIgnoreFile;
+  }
+
+  /**
+   * Sets the file with further rules of the files to ignore in the check for
+   * modifications.
+   *
+   * @param modificationIgnoreFile the file with further rules of the files to
+   *        ignore. May be <code>null</code>.
+   */
+  public void setModificationIgnoreFile(final File modificationIgnoreFile) {
+    this.modificationIgnoreFile = modificationIgnoreFile;
+  }
+
+  /**
+   * Returns the maximum number of locally modified files to list in the build
+   * properties.
+   *
+   * @return the maximum number of locally modified files to list. A negative
+   *         value lists all files.
+   */
+  public int getMaxLocallyModifiedFiles() {
+    return maxLocallyModifiedFiles;
+  }
+
+  /**
+   * Sets the maximum number of locally modified files to list in the build
+   * properties.
+   *
+   * @param maxLocallyModifiedFiles the maximum number of locally modified
+   *        files to list. A negative value lists all files.
+   */
+  public void setMaxLocallyModifiedFiles(final int maxLocallyModifiedFiles) {
+    this.maxLocallyModifiedFiles = maxLocallyModifiedFiles;
+  }
+
+  /**
+   * Returns the file to write the complete list of locally modified files to.
+   *
+   * @return the file to write the complete list of locally modified files to.
+   *         May be <code>null</code> if the list is not to be written.
+   */
+  public File getLocallyModifiedFilesFile() {
+    return locallyModifiedFilesFile;
+  }
+
+  /**
+   * Sets the file to write the complete list of locally modified files to.
+   *
+   * @param locallyModifiedFilesFile the file to write the complete list of
+   *        locally modified files to. May be <code>null</code> if the list is
+   *        not to be written.
+   */
+  public void setLocallyModifiedFilesFile(final File locallyModifiedFilesFile) {
+    this.locallyModifiedFilesFile = locallyModifiedFilesFile;
+  }
+
+  /**
+   * Returns the time in milliseconds the SCM information has to be fetched
+   * in. If the time is exceeded, the SCM queries are cancelled.
+   *
+   * @return the time in milliseconds the SCM information has to be fetched
+   *         in. A value of zero or less waits without limit.
+   */
+  public long getTimeBudget() {
+    return timeBudget;
+  }
+
+  /**
+   * Sets the time in milliseconds the SCM information has to be fetched in.
+   * If the time is exceeded, the SCM queries are cancelled.
+   *
+   * @param timeBudget the time in milliseconds the SCM information has to be
+   *        fetched in. A value of zero or less waits without limit.
+   */
+  public void setTimeBudget(final long timeBudget) {
+    this.timeBudget = timeBudget;
+  }
+
+  /**
+   * Returns the session sharing Git processes with all modules of the build.
+   *
+   * @return the session sharing Git processes. May be <code>null</code> if
+   *         each query launches its own process.
+   */
+  public GitBatchSession getGitBatchSession() {
+    return gitBatchSession;
+  }
+
+  /**
+   * Sets the session sharing Git processes with all modules of the build.
+   *
+   * @param gitBatchSession the session sharing Git processes. May be
+   *        <code>null</code> if each query launches its own process.
+   */
+  public void setGitBatchSession(final GitBatchSession gitBatchSession) {
+    this.gitBatchSession = gitBatchSession;
+  }
+
+  /**
+   * Returns the executor to check the working copy in parallel.
+   *
+   * @return the executor to check the working copy in parallel. May be
+   *         <code>null</code> if the working copy is checked by the calling
+   *         thread.
+   */
+  public Executor getExecutor() {
+    return executor;
+  }
+
+  /**
+   * Sets the executor to check the working copy in parallel.
+   *
+   * @param executor the executor to check the working copy in parallel. May
+   *        be <code>null</code> if the working copy is checked by the calling
+   *        thread.
+   */
+  public void setExecutor(final Executor executor) {
+    this.executor = executor;
+  }
+
+  /**
+   * Returns the flag to add the revisions of the Git submodules to the build
+   * properties.
+   *
+   * @return the flag to add the revisions of the Git submodules.
+   */
+  public boolean isAddSubmoduleInfo() {
+    return addSubmoduleInfo;
+  }
+
+  /**
+   * Sets the flag to add the revisions of the Git submodules to the build
+   * properties.
+   *
+   * @param addSubmoduleInfo the flag to add the revisions of the Git
+   *        submodules.
+   */
+  public void setAddSubmoduleInfo(final boolean addSubmoduleInfo) {
+    this.addSubmoduleInfo = addSubmoduleInfo;
+  }
+
+  /**
+   * Returns the flag to compare the working tree with the merge base of the
+   * remote version and <code>HEAD</code> by the names of the changed files
+   * only.
+   *
+   * @return the flag to compare with the merge base.
+   */
+  public boolean isCompareWithMergeBase() {
+    return compareWithMergeBase;
+  }
+
+  /**
+   * Sets the flag to compare the working tree with the merge base of the
+   * remote version and <code>HEAD</code> by the names of the changed files
+   * only.
+   *
+   * @param compareWithMergeBase the flag to compare with the merge base.
+   */
+  public void setCompareWithMergeBase(final boolean compareWithMergeBase) {
+    this.compareWithMergeBase = compareWithMergeBase;
+  }
+
+  /**
+   * Returns the flag to add the metrics of the calls to the SCM to the build
+   * properties.
+   *
+   * @return the flag to add the metrics of the calls to the SCM.
+   */
+  public boolean isAddMetrics() {
+    return addMetrics;
+  }
+
+  /**
+   * Sets the flag to add the metrics of the calls to the SCM to the build
+   * properties.
+   *
+   * @param addMetrics the flag to add the metrics of the calls to the SCM.
+   */
+  public void setAddMetrics(final boolean addMetrics) {
+    this.addMetrics = addMetrics;
+  }
+
+  /**
+   * Returns the file to write the metrics of the calls to the SCM to.
+   *
+   * @return the file to write the metrics to. May be <code>null</code> if the
+   *         metrics are not to be written to a file.
+   */
+  public File getMetricsFile() {
+    return metricsFile;
+  }
+
+  /**
+   * Sets the file to write the metrics of the calls to the SCM to.
+   *
+   * @param metricsFile the file to write the metrics to. May be
+   *        <code>null</code> if the metrics are not to be written to a file.
+   */
+  public void setMetricsFile(final File metricsFile) {
+    this.metricsFile = metricsFile;
+  }
+
+  /**
+   * Returns the metrics of the calls to the SCM. The metrics are recorded
+   * whether or not they are published.
+   *
+   * @return the metrics of the calls to the SCM.
+   */
+  public synchronized ScmMetrics getMetrics() {
+    if (metrics == null) {
+      metrics = new ScmMetrics();
+    }
+    return metrics;
+  }
+
+  private static List<String> copy(final List<String> list) {
+    return list != null ? new ArrayList<String>(list)
+        : new ArrayList<String>();
+  }
+
   /**
    * Returns the flag to fail if local modifications have been found. The value
    * is <code>true</code> if the build should fail if there are modifications
@@ -235,10 +776,89 @@ public final class ScmAccessInfo implements Serializable {
     this.ignoreDotFilesInBaseDir = ignoreDotFilesInBaseDir;
   }
 
+  /**
+   * Returns the flag to read the SCM information directly from the metadata of
+   * the working copy instead of launching the SCM client. Supported for Git
+   * and Mercurial and, for the revision only, for Subversion. If the metadata
+   * cannot be read, the SCM client is used as a fallback.
+   *
+   * @return the flag to read the SCM information directly from the metadata of
+   *         the working copy.
+   */
+  public boolean isNativeScmAccess() {
+    return nativeScmAccess;
+  }
+
+  /**
+   * Sets the flag to read the SCM information directly from the metadata of
+   * the working copy instead of launching the SCM client. Supported for Git
+   * and Mercurial and, for the revision only, for Subversion. If the metadata
+   * cannot be read, the SCM client is used as a fallback.
+   *
+   * @param nativeScmAccess the flag to read the SCM information directly from
+   *        the metadata of the working copy.
+   */
+  public void setNativeScmAccess(final boolean nativeScmAccess) {
+    this.nativeScmAccess = nativeScmAccess;
+  }
+
+  /**
+   * Returns the flag to fetch the revision and to check for modifications
+   * concurrently.
+   *
+   * @return the flag to fetch the revision and to check for modifications
+   *         concurrently.
+   */
+  public boolean isConcurrentQueries() {
+    return concurrentQueries;
+  }
+
+  /**
+   * Sets the flag to fetch the revision and to check for modifications
+   * concurrently.
+   *
+   * @param concurrentQueries the flag to fetch the revision and to check for
+   *        modifications concurrently.
+   */
+  public void setConcurrentQueries(final boolean concurrentQueries) {
+    this.concurrentQueries = concurrentQueries;
+  }
+
+  /**
+   * Returns the time in milliseconds to wait for the result of each concurrent
+   * query. A value of zero or less waits without limit.
+   *
+   * @return the time in milliseconds to wait for the result of each concurrent
+   *         query.
+   */
+  public long getQueryTimeout() {
+    return queryTimeout;
+  }
+
+  /**
+   * Sets the time in milliseconds to wait for the result of each concurrent
+   * query. A value of zero or less waits without limit.
+   *
+   * @param queryTimeout the time in milliseconds to wait for the result of each
+   *        concurrent query.
+   */
+  public void setQueryTimeout(final long queryTimeout) {
+    this.queryTimeout = queryTimeout;
+  }
+
   // --- business -------------------------------------------------------------
 
   /**
    * Returns the result of the change log query.
+   * <p>
+   * The query starts with the range of the last successful query or with
+   * {@link #getQueryRangeInDays()} if no range has been stored. If no entries
+   * are found and the SCM supports limiting the number of entries, the latest
+   * entry is queried. Otherwise the range is doubled up to
+   * {@value #DEFAULT_RETRY_COUNT} times. The smallest range that contains the
+   * latest entry is stored for the next query. Each query and each repeated
+   * query is recorded in the {@link #getMetrics() metrics}.
+   * </p>
    *
    * @param repository the repository to fetch the change log information from.
    * @param provider the provider to use to access the repository.
@@ -248,16 +868,51 @@ public final class ScmAccessInfo implements Serializable {
    */
   public ChangeLogScmResult fetchChangeLog(final ScmRepository repository,
       final ScmProvider provider) throws ScmException {
+    final String providerType = repository.getProvider();
+    final QueryRangeStore store =
+        new QueryRangeStore(queryRangeFile, "queryRangeInDays." + providerType);
+    final boolean limitSupported =
+        LIMIT_SUPPORTING_PROVIDERS.contains(providerType);
     try {
       ChangeLogScmResult result = null;
-      int currentRange = queryRangeInDays;
-      for (int i = 0; i <= DEFAULT_RETRY_COUNT; i++) {
+      final int storedRange = store.load();
+      int currentRange = storedRange > 0 ? storedRange : queryRangeInDays;
+      final int retryCount = limitSupported ? 0 : DEFAULT_RETRY_COUNT;
+      final ScmMetrics metrics = getMetrics();
+      for (int i = 0; i <= retryCount; i++) {
+        if (i > 0) {
+          metrics.addRetries(1);
+        }
+        final long start = metrics.start();
         result = provider.changeLog(repository, createFileSet(), null, null,
             currentRange, (ScmBranch) null, dateFormat);
+        metrics.stop(ScmMetrics.CHANGE_LOG, start);
+        addOutput(metrics, result);
         if (!isEmpty(result)) {
+          if (result != null) {
+            store.store(calculateRange(result, currentRange));
+          }
           return result;
         }
-        currentRange += queryRangeInDays;
+        currentRange = Math.min(currentRange * 2, MAX_QUERY_RANGE_IN_DAYS);
+      }
+
+      if (limitSupported) {
+        final ChangeLogScmRequest request =
+            new ChangeLogScmRequest(repository, createFileSet());
+        request.setDatePattern(dateFormat);
+        request.setLimit(1);
+        metrics.addRetries(1);
+        final long start = metrics.start();
+        final ChangeLogScmResult latest = provider.changeLog(request);
+        metrics.stop(ScmMetrics.CHANGE_LOG, start);
+        addOutput(metrics, latest);
+        if (!isEmpty(latest)) {
+          if (latest != null) {
+            store.store(calculateRange(latest, currentRange));
+          }
+          return latest;
+        }
       }
       return result;
     } catch (final org.apache.maven.scm.ScmException e) {
@@ -265,6 +920,46 @@ public final class ScmAccessInfo implements Serializable {
     }
   }
 
+  private static void addOutput(final ScmMetrics metrics,
+      final ChangeLogScmResult result) {
+    if (result != null) {
+      metrics.addOutput(result.getCommandOutput());
+    }
+  }
+
+  /**
+   * Calculates the smallest range in days that contains the latest change log
+   * entry of the result.
+   *
+   * @param result the result of a change log query.
+   * @param defaultRange the range to return if the entries provide no dates.
+   * @return the smallest range that contains the latest entry, but not less
+   *         than {@link #getQueryRangeInDays()}.
+   */
+  private int calculateRange(final ChangeLogScmResult result,
+      final int defaultRange) {
+    final ChangeLogSet changeLogSet = result.getChangeLog();
+    final List<ChangeSet> changeSets =
+        changeLogSet != null ? changeLogSet.getChangeSets() : null;
+    Date latest = null;
+    if (changeSets != null) {
+      for (final ChangeSet changeSet : changeSets) {
+        final Date date = changeSet.getDate();
+        if (date != null && (latest == null || date.after(latest))) {
+          latest = date;
+        }
+      }
+    }
+    if (latest == null) {
+      return defaultRange;
+    }
+
+    final long age = System.currentTimeMillis() - latest.getTime();
+    final long days = Math.max(0L, age) / MILLIS_PER_DAY + 1L;
+    return (int) Math.max(queryRangeInDays,
+        Math.min(days, MAX_QUERY_RANGE_IN_DAYS));
+  }
+
   /**
    * Fetches the version from the remote Git repository. The implementation uses
    * the Git Command Line Utils.
@@ -276,12 +971,29 @@ public final class ScmAccessInfo implements Serializable {
    */
   public Revision fetchRemoteGitVersion(final ScmRepository repository,
       final ScmVersion remoteVersion) throws ScmException {
+    if (gitBatchSession != null) {
+      try {
+        final Revision revision =
+            gitBatchSession.resolveRevision(remoteVersion.getName());
+        if (revision != null) {
+          return revision;
+        }
+      } catch (final IOException e) {
+        if (LOG.isDebugEnabled()) {
+          LOG.debug("  Cannot resolve remote version with " + gitBatchSession
+                    + ", launching Git: " + e.getMessage());
+        }
+      }
+    }
+
     try {
       final Commandline cl =
           GitCommandLineUtils.getBaseGitCommandLine(rootDirectory, "log");
       cl.createArg().setLine("-n 1");
       cl.createArg().setLine("--pretty=format:\"%H %ct\"");
       cl.createArg().setLine(remoteVersion.getName());
+      final ScmMetrics metrics = getMetrics();
+      final long start = metrics.start();
       final Process process = cl.execute();
       try {
         process.waitFor();
@@ -291,11 +1003,16 @@ public final class ScmAccessInfo implements Serializable {
               + exitValue + "): " + IOUtils.toString(process.getErrorStream()));
         }
         final String result = IOUtils.toString(process.getInputStream());
+        metrics.stop("remoteGitLog", start);
+        metrics.addOutput(result);
         final Revision revision = createRevision(result);
         return revision;
       } finally {
         process.destroy();
       }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ScmException("Interrupted while fetching remote version.", e);
     } catch (final Exception e) {
       throw new ScmException("Cannot fetch remote version from repository.", e);
     }
@@ -355,6 +1072,117 @@ public final class ScmAccessInfo implements Serializable {
     return new ScmFileSet(rootDirectory);
   }
 
+  /**
+   * Creates the matcher for the paths of modified files. Files not matched are
+   * not considered modifications. Files and directories starting with a dot
+   * are ignored, if {@link #isIgnoreDotFilesInBaseDir()} is set. The rules of
+   * the {@link #getModificationIgnoreFile() ignore file} are applied before
+   * the {@link #getModificationIgnores() configured rules}.
+   * <p>
+   * The matcher is compiled on first use and shared by subsequent calls.
+   * </p>
+   *
+   * @return the matcher for the paths of modified files relative to the root
+   *         directory.
+   */
+  public synchronized GlobMatcher createModificationMatcher() {
+    if (modificationMatcher == null) {
+      final List<String> ignores = new ArrayList<String>();
+      if (ignoreDotFilesInBaseDir) {
+        ignores.add("/.*");
+      }
+      ignores.addAll(readModificationIgnoreFile());
+      ignores.addAll(modificationIgnores);
+      modificationMatcher = GlobMatcher.compile(modificationIncludes,
+          modificationExcludes, ignores.isEmpty() ? null : ignores);
+    }
+    return modificationMatcher;
+  }
+
+  private List<String> readModificationIgnoreFile() {
+    if (modificationIgnoreFile == null || !modificationIgnoreFile.isFile()) {
+      return Collections.emptyList();
+    }
+    try {
+      return FileUtils.readLines(modificationIgnoreFile, "UTF-8");
+    } catch (final IOException e) {
+      LOG.warn("Cannot read ignore rules from " + modificationIgnoreFile
+               + ": " + e.getMessage());
+      return Collections.emptyList();
+    }
+  }
+
+  /**
+   * Creates the information about the given files. Only the files matching the
+   * {@link #createModificationMatcher() modification matcher} are considered.
+   * The files are streamed to a collector that lists a bounded number of files
+   * in the build properties and writes all files to the configured
+   * {@link #getLocallyModifiedFilesFile() details file}.
+   *
+   * @param files the files reported by the SCM.
+   * @return the information about the locally modified files.
+   * @throws ScmException if the details file cannot be written.
+   */
+  public LocallyModifiedInfo createLocallyModifiedInfo(
+      final List<ScmFile> files) throws ScmException {
+    getMetrics().addChangedFiles(files.size());
+    final GlobMatcher matcher = createModificationMatcher();
+    final File detailsFile = locallyModifiedFilesFile;
+    Writer details = null;
+    try {
+      if (detailsFile != null) {
+        details = openDetailsFile(detailsFile);
+      }
+      final LocallyModifiedCollector collector =
+          new LocallyModifiedCollector(maxLocallyModifiedFiles, details);
+      for (final ScmFile file : files) {
+        if (matcher.matches(file.getPath())) {
+          collector.add(file);
+        }
+      }
+      if (details != null) {
+        details.close();
+      }
+
+      final LocallyModifiedInfo info = collector.createInfo();
+      if (LOG.isDebugEnabled()) {
+        LOG.debug("  Modifications have"
+                  + (info.isLocallyModified() ? "" : " not") + " been found ("
+                  + collector.getFileCount() + " files).");
+      }
+      return info;
+    } catch (final IOException e) {
+      throw new ScmException(
+          "Cannot write locally modified files to " + detailsFile + '.', e);
+    } finally {
+      IOUtils.closeQuietly(details);
+    }
+  }
+
+  private static Writer openDetailsFile(final File file) throws IOException {
+    final File directory = file.getParentFile();
+    if (directory != null && !directory.isDirectory() && !directory.mkdirs()) {
+      throw new IOException("Cannot create directory " + directory + '.');
+    }
+    return new BufferedWriter(
+        new OutputStreamWriter(new FileOutputStream(file), "UTF-8"));
+  }
+
+  /**
+   * Creates the file set to check for modifications. The file set is
+   * restricted to the configured include and exclude patterns.
+   *
+   * @return the file set to check for modifications.
+   * @throws IOException if the file set cannot be created.
+   */
+  public ScmFileSet createModificationFileSet() throws IOException {
+    final String includes = modificationIncludes.isEmpty() ? "**/*"
+        : StringUtils.join(modificationIncludes.iterator(), ",");
+    final String excludes = modificationExcludes.isEmpty() ? null
+        : StringUtils.join(modificationExcludes.iterator(), ",");
+    return new ScmFileSet(rootDirectory, includes, excludes);
+  }
+
   /**
    * Checks whether the SCM configuration calls for a failure due to changed
    * files.
@@ -384,10 +1212,40 @@ public final class ScmAccessInfo implements Serializable {
     appendIfExists(buffer, "dateFormat", dateFormat);
     appendIfExists(buffer, "queryRangeInDays",
         String.valueOf(queryRangeInDays));
+    if (queryRangeFile != null) {
+      appendIfExists(buffer, "queryRangeFile", queryRangeFile.getPath());
+    }
+    if (stateCacheFile != null) {
+      appendIfExists(buffer, "stateCacheFile", stateCacheFile.getPath());
+    }
+    if (!modificationIncludes.isEmpty()) {
+      appendIfExists(buffer, "modificationIncludes",
+          modificationIncludes.toString());
+    }
+    if (!modificationExcludes.isEmpty()) {
+      appendIfExists(buffer, "modificationExcludes",
+          modificationExcludes.toString());
+    }
+    if (!modificationIgnores.isEmpty()) {
+      appendIfExists(buffer, "modificationIgnores",
+          modificationIgnores.toString());
+    }
+    if (modificationIgnoreFile != null) {
+      appendIfExists(buffer, "modificationIgnoreFile",
+          modificationIgnoreFile.getPath());
+    }
     appendIfExists(buffer, "failOnLocalModifications",
         String.valueOf(failOnLocalModifications));
     appendIfExists(buffer, "ignoreDotFilesInBaseDir",
         String.valueOf(ignoreDotFilesInBaseDir));
+    appendIfExists(buffer, "nativeScmAccess", String.valueOf(nativeScmAccess));
+    appendIfExists(buffer, "concurrentQueries",
+        String.valueOf(concurrentQueries));
+    appendIfExists(buffer, "queryTimeout", String.valueOf(queryTimeout));
+    appendIfExists(buffer, "addMetrics", String.valueOf(addMetrics));
+    if (metricsFile != null) {
+      appendIfExists(buffer, "metricsFile", metricsFile.getPath());
+    }
 
     return buffer.toString();
   }
@@ -0,0 +1,262 @@
+/*
+ * Copyright 2006-2025 smartics, Kronseder & Reiner GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package de.smartics.maven.plugin.buildmetadata.scm.svn;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.codehaus.plexus.util.cli.CommandLineException;
+import org.codehaus.plexus.util.cli.CommandLineUtils;
+import org.codehaus.plexus.util.cli.Commandline;
+import org.codehaus.plexus.util.cli.StreamPumper;
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Date;
+
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParserFactory;
+
+/**
+ * The last change of a Subversion working copy as reported by
+ * <code>svn info</code>. The information is read from the working copy
+ * database only, so no connection to the repository server is required.
+ * <p>
+ * Since the last changed revision of a directory does not reflect changes to
+ * the files it contains, the working copy is queried recursively and the
+ * youngest change of all entries is selected.
+ * </p>
+ */
+public final class SvnInfo {
+  // ********************************* Fields *********************************
+
+  // --- constants ------------------------------------------------------------
+
+  /**
+   * Reference to the logger for this class.
+   */
+  private static final Log LOG = LogFactory.getLog(SvnInfo.class);
+
+  // --- members --------------------------------------------------------------
+
+  /**
+   * The youngest revision any entry of the working copy has been changed in.
+   */
+  private final long lastChangedRevision;
+
+  /**
+   * The date of the last changed revision.
+   */
+  private final Date lastChangedDate;
+
+  // ****************************** Initializer *******************************
+
+  // ****************************** Constructors ******************************
+
+  private SvnInfo(final long lastChangedRevision, final Date lastChangedDate) {
+    this.lastChangedRevision = lastChangedRevision;
+    this.lastChangedDate = lastChangedDate;
+  }
+
+  // ****************************** Inner Classes *****************************
+
+  /**
+   * Selects the youngest commit of all entries reported.
+   */
+  private static final class InfoHandler extends DefaultHandler {
+    /**
+     * The youngest revision found so far.
+     */
+    private long revision = -1L;
+
+    /**
+     * The date of the youngest revision found so far.
+     */
+    private String date;
+
+    /**
+     * The revision of the commit element currently parsed, <code>-1</code>
+     * if the parser is not within a commit element.
+     */
+    private long commitRevision = -1L;
+
+    /**
+     * Collects the text of the date element of the current commit.
+     */
+    private StringBuilder dateBuffer;
+
+    @Override
+    public void startElement(final String uri, final String localName,
+        final String qName, final Attributes attributes) throws SAXException {
+      if ("commit".equals(qName)) {
+        commitRevision = parseRevision(attributes.getValue("revision"));
+      } else if ("date".equals(qName) && commitRevision > revision) {
+        dateBuffer = new StringBuilder(32);
+      }
+    }
+
+    @Override
+    public void characters(final char[] ch, final int start,
+        final int length) {
+      if (dateBuffer != null) {
+        dateBuffer.append(ch, start, length);
+      }
+    }
+
+    @Override
+    public void endElement(final String uri, final String localName,
+        final String qName) {
+      if ("date".equals(qName) && dateBuffer != null) {
+        revision = commitRevision;
+        date = dateBuffer.toString().trim();
+        dateBuffer = null;
+      } else if ("commit".equals(qName)) {
+        commitRevision = -1L;
+      }
+    }
+
+    private static long parseRevision(final String value)
+        throws SAXException {
+      try {
+        return value != null ? Long.parseLong(value.trim()) : -1L;
+      } catch (final NumberFormatException e) {
+        throw new SAXException("Invalid revision '" + value + "'.", e);
+      }
+    }
+  }
+
+  // ********************************* Methods ********************************
+
+  // --- init -----------------------------------------------------------------
+
+  /**
+   * Runs <code>svn info</code> on the given directory of a working copy.
+   *
+   * @param directory the directory within the working copy.
+   * @return the information about the last change or <code>null</code> if no
+   *         committed entry has been found.
+   * @throws IOException if <code>svn</code> cannot be run or its output cannot
+   *         be parsed.
+   */
+  public static SvnInfo read(final File directory) throws IOException {
+    final Commandline cl = new Commandline();
+    cl.setExecutable("svn");
+    cl.setWorkingDirectory(directory.getAbsolutePath());
+    cl.createArg().setValue("info");
+    cl.createArg().setValue("--xml");
+    cl.createArg().setValue("--non-interactive");
+    cl.createArg().setValue("--depth");
+    cl.createArg().setValue("infinity");
+    cl.createArg().setValue(".");
+
+    final Process process;
+    try {
+      process = cl.execute();
+    } catch (final CommandLineException e) {
+      throw new IOException("Cannot run " + cl + '.', e);
+    }
+    final CommandLineUtils.StringStreamConsumer errors =
+        new CommandLineUtils.StringStreamConsumer();
+    final StreamPumper errorPumper =
+        new StreamPumper(process.getErrorStream(), errors);
+    errorPumper.start();
+    try {
+      process.getOutputStream().close();
+      final SvnInfo info = parse(process.getInputStream());
+      final int exitValue = process.waitFor();
+      errorPumper.join();
+      if (exitValue != 0) {
+        throw new IOException("Command " + cl + " failed (" + exitValue
+            + "): " + errors.getOutput());
+      }
+      if (LOG.isDebugEnabled()) {
+        LOG.debug("  Read " + info + " of " + directory + '.');
+      }
+      return info;
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while running " + cl + '.', e);
+    } finally {
+      process.destroy();
+    }
+  }
+
+  /**
+   * Parses the XML output of <code>svn info</code>.
+   *
+   * @param input the output to parse.
+   * @return the information about the last change or <code>null</code> if no
+   *         committed entry has been found.
+   * @throws IOException if the output cannot be read or parsed.
+   */
+  static SvnInfo parse(final InputStream input) throws IOException {
+    final InfoHandler handler = new InfoHandler();
+    try {
+      SAXParserFactory.newInstance().newSAXParser().parse(input, handler);
+    } catch (final ParserConfigurationException e) {
+      throw new IOException("Cannot create parser for svn info.", e);
+    } catch (final SAXException e) {
+      throw new IOException("Cannot parse svn info: " + e.getMessage(), e);
+    }
+
+    if (handler.revision < 0L) {
+      return null;
+    }
+    try {
+      return new SvnInfo(handler.revision,
+          new Date(Instant.parse(handler.date).toEpochMilli()));
+    } catch (final DateTimeParseException e) {
+      throw new IOException("Cannot parse date '" + handler.date
+                            + "' of revision " + handler.revision + '.', e);
+    }
+  }
+
+  // --- get&set --------------------------------------------------------------
+
+  /**
+   * Returns the youngest revision any entry of the working copy has been
+   * changed in.
+   *
+   * @return the last changed revision.
+   */
+  public long getLastChangedRevision() {
+    return lastChangedRevision;
+  }
+
+  /**
+   * Returns the date of the last changed revision.
+   *
+   * @return the date of the last changed revision.
+   */
+  public Date getLastChangedDate() {
+    return lastChangedDate;
+  }
+
+  // --- business -------------------------------------------------------------
+
+  // --- object basics --------------------------------------------------------
+
+  @Override
+  public String toString() {
+    return "last changed revision " + lastChangedRevision + " at "
+           + lastChangedDate;
+  }
+}
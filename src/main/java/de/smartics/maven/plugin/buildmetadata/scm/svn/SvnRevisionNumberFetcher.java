@@ -0,0 +1,133 @@
+/*
+ * Copyright 2006-2025 smartics, Kronseder & Reiner GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package de.smartics.maven.plugin.buildmetadata.scm.svn;
+
+import de.smartics.maven.plugin.buildmetadata.scm.LocallyModifiedInfo;
+import de.smartics.maven.plugin.buildmetadata.scm.Revision;
+import de.smartics.maven.plugin.buildmetadata.scm.RevisionNumberFetcher;
+import de.smartics.maven.plugin.buildmetadata.scm.ScmException;
+import de.smartics.maven.plugin.buildmetadata.scm.maven.StringRevision;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.maven.scm.ScmFileSet;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Fetches the revision of a Subversion working copy with a single local
+ * <code>svn info</code> call instead of querying the change log from the
+ * repository server.
+ * <p>
+ * The revision is the last changed revision of the working copy. If
+ * <code>svn info</code> fails, the request is delegated to the fallback
+ * fetcher. The check for modifications is always delegated, since the status
+ * of the fallback is determined locally, too.
+ * </p>
+ */
+public final class SvnRevisionNumberFetcher implements RevisionNumberFetcher {
+  // ********************************* Fields *********************************
+
+  // --- constants ------------------------------------------------------------
+
+  /**
+   * Reference to the logger for this class.
+   */
+  private static final Log LOG =
+      LogFactory.getLog(SvnRevisionNumberFetcher.class);
+
+  // --- members --------------------------------------------------------------
+
+  /**
+   * The directory within the working copy.
+   */
+  private final File rootDirectory;
+
+  /**
+   * The fetcher to delegate to if <code>svn info</code> fails and to check
+   * for modifications.
+   */
+  private final RevisionNumberFetcher fallback;
+
+  // ****************************** Initializer *******************************
+
+  // ****************************** Constructors ******************************
+
+  /**
+   * Default constructor.
+   *
+   * @param rootDirectory the directory within the working copy.
+   * @param fallback the fetcher to delegate to if <code>svn info</code> fails
+   *        and to check for modifications.
+   */
+  public SvnRevisionNumberFetcher(final File rootDirectory,
+      final RevisionNumberFetcher fallback) {
+    this.rootDirectory = rootDirectory;
+    this.fallback = fallback;
+  }
+
+  // ****************************** Inner Classes *****************************
+
+  // ********************************* Methods ********************************
+
+  // --- init -----------------------------------------------------------------
+
+  // --- get&set --------------------------------------------------------------
+
+  // --- business -------------------------------------------------------------
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * Reads the last changed revision and its date from the working copy.
+   * </p>
+   */
+  @Override
+  public Revision fetchLatestRevisionNumber() throws ScmException {
+    try {
+      final SvnInfo info = SvnInfo.read(rootDirectory);
+      if (info == null) {
+        LOG.debug("  No committed entry found in " + rootDirectory + '.');
+        return null;
+      }
+      return new StringRevision(String.valueOf(info.getLastChangedRevision()),
+          info.getLastChangedDate());
+    } catch (final IOException e) {
+      if (LOG.isDebugEnabled()) {
+        LOG.debug("  Cannot read revision from " + rootDirectory
+                  + ", using fallback: " + e.getMessage());
+      }
+    }
+
+    return fallback.fetchLatestRevisionNumber();
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * Delegates to the fallback fetcher.
+   * </p>
+   */
+  @Override
+  public LocallyModifiedInfo containsModifications(final ScmFileSet fileSet)
+      throws ScmException {
+    return fallback.containsModifications(fileSet);
+  }
+
+  // --- object basics --------------------------------------------------------
+
+}
@@ -15,14 +15,33 @@
  */
 package de.smartics.maven.plugin.buildmetadata.util;
 
+import org.sonatype.plexus.components.cipher.DefaultPlexusCipher;
+import org.sonatype.plexus.components.cipher.PlexusCipher;
+import org.sonatype.plexus.components.cipher.PlexusCipherException;
 import org.sonatype.plexus.components.sec.dispatcher.DefaultSecDispatcher;
+import org.sonatype.plexus.components.sec.dispatcher.PasswordDecryptor;
 import org.sonatype.plexus.components.sec.dispatcher.SecDispatcher;
 import org.sonatype.plexus.components.sec.dispatcher.SecDispatcherException;
+import org.sonatype.plexus.components.sec.dispatcher.SecUtil;
+import org.sonatype.plexus.components.sec.dispatcher.model.SettingsSecurity;
 
 import java.io.File;
+import java.lang.reflect.Field;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Helper to decrypt passwords from the settings.
+ * <p>
+ * The master password is read from the configured
+ * <code>settings-security.xml</code> without altering the system properties,
+ * so that modules built in parallel do not interfere with each other.
+ * Encrypted values that name a specific decryptor are decrypted by the
+ * decryptor registered with the security dispatcher of Maven, configured by the
+ * same <code>settings-security.xml</code>. If the decryptors of the dispatcher
+ * cannot be accessed, the value is passed to the dispatcher, which reads its
+ * configuration from the default location.
+ * </p>
  */
 public final class SettingsDecrypter {
   // ********************************* Fields *********************************
@@ -41,6 +60,22 @@ public final class SettingsDecrypter {
    */
   private final String settingsSecurityLocation;
 
+  /**
+   * The cipher to decrypt the master password and the values, created on
+   * first use.
+   */
+  private PlexusCipher cipher;
+
+  /**
+   * The content of the <code>settings-security.xml</code>, read on first use.
+   */
+  private SettingsSecurity settingsSecurity;
+
+  /**
+   * The decrypted master password, read on first use.
+   */
+  private String masterPassword;
+
   // ****************************** Initializer *******************************
 
   // ****************************** Constructors ******************************
@@ -71,8 +106,6 @@ public final class SettingsDecrypter {
       return null;
     }
 
-    System.setProperty(DefaultSecDispatcher.SYSTEM_PROPERTY_SEC_LOCATION,
-        settingsSecurityLocation);
     return settingsSecurityLocation;
   }
 
@@ -88,11 +121,136 @@ public final class SettingsDecrypter {
    * @return the decrypted value or the unchanged {@code encrypted}.
    * @throws SecDispatcherException if the decryption failed.
    */
-  public String decrypt(final String encrypted) throws SecDispatcherException {
-    if (settingsSecurityLocation != null) {
+  public synchronized String decrypt(final String encrypted)
+      throws SecDispatcherException {
+    if (settingsSecurityLocation == null) {
+      return encrypted;
+    }
+
+    try {
+      final PlexusCipher cipher = getCipher();
+      if (!cipher.isEncryptedString(encrypted)) {
+        return encrypted;
+      }
+      final String bare = cipher.unDecorate(encrypted);
+      if (bare.startsWith("[")) {
+        return decryptWithDecryptor(encrypted, bare);
+      }
+      return cipher.decryptDecorated(encrypted, getMasterPassword());
+    } catch (final PlexusCipherException e) {
+      throw new SecDispatcherException(e.getMessage(), e);
+    }
+  }
+
+  /**
+   * Decrypts a value that names its decryptor like
+   * <code>{[type=name,key=value]password}</code>. The decryptor is configured
+   * by the configuration of the same name in the
+   * <code>settings-security.xml</code> read by this instance.
+   *
+   * @param encrypted the decorated value to decrypt.
+   * @param bare the value without decoration.
+   * @return the decrypted value.
+   * @throws SecDispatcherException if the decryption failed.
+   */
+  private String decryptWithDecryptor(final String encrypted,
+      final String bare) throws SecDispatcherException {
+    final int end = bare.indexOf(']');
+    final Map<String, String> attributes = parseAttributes(bare, end);
+    final String type = attributes.get(DefaultSecDispatcher.TYPE_ATTR);
+    final PasswordDecryptor decryptor = findDecryptor(type);
+    if (decryptor == null) {
       return securityDispatcher.decrypt(encrypted);
     }
-    return encrypted;
+
+    final SettingsSecurity security = getSettingsSecurity();
+    final Map<?, ?> configuration =
+        security != null ? SecUtil.getConfig(security, type) : null;
+    return decryptor.decrypt(bare.substring(end + 1), attributes,
+        configuration);
+  }
+
+  private static Map<String, String> parseAttributes(final String bare,
+      final int end) throws SecDispatcherException {
+    if (end == -1) {
+      throw new SecDispatcherException(
+          "Missing end of attributes in encrypted value.");
+    }
+
+    final Map<String, String> attributes = new HashMap<String, String>();
+    for (final String attribute : bare.substring(1, end).split(",")) {
+      final int separator = attribute.indexOf('=');
+      if (separator != -1) {
+        attributes.put(attribute.substring(0, separator).trim(),
+            attribute.substring(separator + 1).trim());
+      }
+    }
+    return attributes;
+  }
+
+  /**
+   * Finds the decryptor registered with the security dispatcher for the given
+   * type. The decryptors are not part of the API of the dispatcher, so they
+   * are accessed by reflection.
+   *
+   * @param type the type of the decryptor.
+   * @return the decryptor or <code>null</code> if it cannot be accessed.
+   */
+  private PasswordDecryptor findDecryptor(final String type) {
+    if (type == null || securityDispatcher == null) {
+      return null;
+    }
+
+    for (Class<?> current = securityDispatcher.getClass(); current != null;
+        current = current.getSuperclass()) {
+      try {
+        final Field field = current.getDeclaredField("_decryptors");
+        field.setAccessible(true);
+        final Object decryptors = field.get(securityDispatcher);
+        if (decryptors instanceof Map) {
+          final Object decryptor = ((Map<?, ?>) decryptors).get(type);
+          if (decryptor instanceof PasswordDecryptor) {
+            return (PasswordDecryptor) decryptor;
+          }
+        }
+        return null;
+      } catch (final NoSuchFieldException e) {
+        continue;
+      } catch (final Exception e) {
+        return null;
+      }
+    }
+    return null;
+  }
+
+  private PlexusCipher getCipher() throws PlexusCipherException {
+    if (cipher == null) {
+      cipher = new DefaultPlexusCipher();
+    }
+    return cipher;
+  }
+
+  private String getMasterPassword()
+      throws SecDispatcherException, PlexusCipherException {
+    if (masterPassword == null) {
+      final SettingsSecurity security = getSettingsSecurity();
+      final String master = security != null ? security.getMaster() : null;
+      if (master == null) {
+        throw new SecDispatcherException("Master password is not set in "
+            + settingsSecurityLocation + '.');
+      }
+      masterPassword = getCipher().decryptDecorated(master,
+          DefaultSecDispatcher.SYSTEM_PROPERTY_SEC_LOCATION);
+    }
+    return masterPassword;
+  }
+
+  private SettingsSecurity getSettingsSecurity()
+      throws SecDispatcherException {
+    if (settingsSecurity == null) {
+      settingsSecurity = SecUtil.read(settingsSecurityLocation, true);
+    }
+    return settingsSecurity;
   }
 
   // --- object basics --------------------------------------------------------
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2006-2025 smartics, Kronseder & Reiner GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package de.smartics.maven.plugin.buildmetadata;
+
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import de.smartics.maven.plugin.buildmetadata.common.ScmInfo;
+import de.smartics.maven.plugin.buildmetadata.common.SessionExecutor;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.Callable;
+
+/**
+ * Tests fetching the SCM information in the background by
+ * {@link BuildMetaDataMojo}.
+ */
+public class BuildMetaDataMojoScmPrefetchTest {
+  // ********************************* Fields *********************************
+
+  // --- constants ------------------------------------------------------------
+
+  // --- members --------------------------------------------------------------
+
+  private SessionExecutor executor;
+
+  // ****************************** Inner Classes *****************************
+
+  // ********************************* Methods ********************************
+
+  // --- prepare --------------------------------------------------------------
+
+  @Before
+  public void setUp() {
+    executor = new SessionExecutor(2);
+  }
+
+  @After
+  public void tearDown() {
+    executor.close();
+  }
+
+  // --- helper ---------------------------------------------------------------
+
+  private static Callable<ScmInfo> createFailingProvider(
+      final Exception failure) {
+    return new Callable<ScmInfo>() {
+      public ScmInfo call() throws Exception {
+        throw failure;
+      }
+    };
+  }
+
+  private ScmInfo prefetch(final Callable<ScmInfo> provider)
+      throws MojoExecutionException, MojoFailureException {
+    return BuildMetaDataMojo.joinScmMetaData(
+        BuildMetaDataMojo.startScmMetaData(executor, provider));
+  }
+
+  // --- tests ----------------------------------------------------------------
+
+  @Test
+  public void providesResultOfBackgroundTask() throws Exception {
+    final ScmInfo scmInfo = new ScmInfo.Builder().build();
+
+    final ScmInfo result = prefetch(new Callable<ScmInfo>() {
+      public ScmInfo call() {
+        return scmInfo;
+      }
+    });
+
+    assertSame(scmInfo, result);
+  }
+
+  @Test
+  public void propagatesMojoFailureException() throws Exception {
+    final MojoFailureException failure =
+        new MojoFailureException("No revision.");
+    try {
+      prefetch(createFailingProvider(failure));
+      fail("Expected MojoFailureException.");
+    } catch (final MojoFailureException e) {
+      assertSame(failure, e);
+    }
+  }
+
+  @Test
+  public void propagatesMojoFailureExceptionWithoutPrefetch()
+      throws Exception {
+    final MojoFailureException failure =
+        new MojoFailureException("No revision.");
+    try {
+      BuildMetaDataMojo.joinScmMetaData(BuildMetaDataMojo
+          .startScmMetaData(null, createFailingProvider(failure)));
+      fail("Expected MojoFailureException.");
+    } catch (final MojoFailureException e) {
+      assertSame(failure, e);
+    }
+  }
+
+  @Test
+  public void propagatesRuntimeException() throws Exception {
+    final IllegalStateException failure =
+        new IllegalStateException("Cannot fetch SCM revision information.");
+    try {
+      prefetch(createFailingProvider(failure));
+      fail("Expected IllegalStateException.");
+    } catch (final IllegalStateException e) {
+      assertSame(failure, e);
+    }
+  }
+
+  @Test
+  public void wrapsCheckedException() throws Exception {
+    final IOException failure = new IOException("Cannot read.");
+    try {
+      prefetch(createFailingProvider(failure));
+      fail("Expected MojoExecutionException.");
+    } catch (final MojoExecutionException e) {
+      assertSame(failure, e.getCause());
+    }
+  }
+
+  @Test
+  public void runsInCallerAfterExecutorIsClosed() throws Exception {
+    executor.close();
+    final Thread[] runner = new Thread[1];
+
+    prefetch(new Callable<ScmInfo>() {
+      public ScmInfo call() {
+        runner[0] = Thread.currentThread();
+        return null;
+      }
+    });
+
+    assertSame(Thread.currentThread(), runner[0]);
+  }
+}
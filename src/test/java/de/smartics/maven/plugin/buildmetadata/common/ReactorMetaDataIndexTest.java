@@ -0,0 +1,119 @@
+/*
+ * Copyright 2006-2025 smartics, Kronseder & Reiner GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package de.smartics.maven.plugin.buildmetadata.common;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import de.smartics.maven.plugin.buildmetadata.io.ReactorIndexFileHelper;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.Properties;
+
+/**
+ * Tests {@link ReactorMetaDataIndex}.
+ */
+public class ReactorMetaDataIndexTest {
+  // ********************************* Fields *********************************
+
+  // --- constants ------------------------------------------------------------
+
+  // --- members --------------------------------------------------------------
+
+  @Rule
+  public final TemporaryFolder folder = new TemporaryFolder();
+
+  private File indexFile;
+
+  // ****************************** Inner Classes *****************************
+
+  // ********************************* Methods ********************************
+
+  // --- prepare --------------------------------------------------------------
+
+  @Before
+  public void setUp() {
+    indexFile = new File(folder.getRoot(), "index.properties");
+  }
+
+  // --- helper ---------------------------------------------------------------
+
+  private static Properties createModule(final String artifactId) {
+    final Properties properties = new Properties();
+    properties.setProperty("build.artifactId", artifactId);
+    return properties;
+  }
+
+  // --- tests ----------------------------------------------------------------
+
+  @Test
+  public void writesWhenAllModulesReported() throws Exception {
+    final ReactorMetaDataIndex uut = new ReactorMetaDataIndex(indexFile, 3);
+
+    uut.add("g:a", createModule("a"));
+    uut.skip("g:b");
+    assertFalse(indexFile.exists());
+
+    uut.add("g:c", createModule("c"));
+    assertTrue(uut.isWritten());
+    assertEquals("c", new ReactorIndexFileHelper(indexFile).readModule("g:c")
+        .getProperty("build.artifactId"));
+    uut.close();
+  }
+
+  @Test
+  public void repeatedReportCountsOnce() throws Exception {
+    final ReactorMetaDataIndex uut = new ReactorMetaDataIndex(indexFile, 2);
+
+    uut.add("g:a", createModule("a"));
+    uut.add("g:a", createModule("a"));
+
+    assertFalse(uut.isWritten());
+    uut.close();
+  }
+
+  @Test
+  public void skipAfterAddKeepsBuildMetaData() throws Exception {
+    final ReactorMetaDataIndex uut = new ReactorMetaDataIndex(indexFile, 2);
+
+    uut.add("g:a", createModule("a"));
+    uut.skip("g:a");
+    assertFalse(uut.isWritten());
+
+    uut.skip("g:b");
+    assertTrue(uut.isWritten());
+    assertEquals("a", new ReactorIndexFileHelper(indexFile).readModule("g:a")
+        .getProperty("build.artifactId"));
+    uut.close();
+  }
+
+  @Test
+  public void writesPendingModulesOnClose() throws Exception {
+    final ReactorMetaDataIndex uut = new ReactorMetaDataIndex(indexFile, 2);
+    uut.add("g:a", createModule("a"));
+
+    uut.close();
+
+    assertTrue(uut.isWritten());
+    assertTrue(indexFile.isFile());
+  }
+}
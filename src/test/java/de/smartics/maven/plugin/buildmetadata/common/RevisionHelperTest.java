@@ -0,0 +1,283 @@
+/*
+ * Copyright 2006-2025 smartics, Kronseder & Reiner GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package de.smartics.maven.plugin.buildmetadata.common;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import de.smartics.maven.plugin.buildmetadata.scm.LocallyModifiedInfo;
+import de.smartics.maven.plugin.buildmetadata.scm.Revision;
+import de.smartics.maven.plugin.buildmetadata.scm.RevisionNumberFetcher;
+import de.smartics.maven.plugin.buildmetadata.scm.RevisionNumberFetcherFactory;
+import de.smartics.maven.plugin.buildmetadata.scm.RevisionNumberFetcherProvider;
+import de.smartics.maven.plugin.buildmetadata.scm.ScmException;
+import de.smartics.maven.plugin.buildmetadata.scm.WorkingCopyState;
+import de.smartics.maven.plugin.buildmetadata.scm.WorkingCopyStateStore;
+import de.smartics.maven.plugin.buildmetadata.scm.maven.ScmAccessInfo;
+import de.smartics.maven.plugin.buildmetadata.scm.maven.ScmConnectionInfo;
+import de.smartics.maven.plugin.buildmetadata.scm.maven.StringRevision;
+
+import org.apache.maven.scm.ScmFileSet;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests {@link RevisionHelper}.
+ */
+public class RevisionHelperTest {
+  // ********************************* Fields *********************************
+
+  // --- constants ------------------------------------------------------------
+
+  private static final String CONNECTION_URL = "scm:stub:test";
+
+  private static final long BUDGET = 200L;
+
+  // --- members --------------------------------------------------------------
+
+  @Rule
+  public final TemporaryFolder folder = new TemporaryFolder();
+
+  private final CountDownLatch release = new CountDownLatch(1);
+
+  private final AtomicInteger revisionRequests = new AtomicInteger();
+
+  private volatile boolean blockRevision = true;
+
+  private volatile boolean blockModifications = true;
+
+  private final SessionCache sessionCache = SessionCache.forSession(null);
+
+  private SessionExecutor executor;
+
+  private File rootDirectory;
+
+  // ****************************** Inner Classes *****************************
+
+  /**
+   * Blocks each request, if requested, until the test releases it.
+   */
+  private final class BlockingFetcher implements RevisionNumberFetcher {
+    public Revision fetchLatestRevisionNumber() throws ScmException {
+      revisionRequests.incrementAndGet();
+      await(blockRevision);
+      return new StringRevision("fetched", new Date(0L));
+    }
+
+    public LocallyModifiedInfo containsModifications(
+        final ScmFileSet fileSet) throws ScmException {
+      await(blockModifications);
+      return new LocallyModifiedInfo(false, null);
+    }
+
+    private void await(final boolean block) {
+      if (!block) {
+        return;
+      }
+      try {
+        release.await();
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new ScmException("Interrupted.", e);
+      }
+    }
+  }
+
+  /**
+   * Provides the blocking fetcher for the stub SCM.
+   */
+  private final class BlockingProvider
+      implements RevisionNumberFetcherProvider {
+    public String getScmType() {
+      return "stub";
+    }
+
+    public Set<Capability> getCapabilities() {
+      return EnumSet.of(Capability.REVISION, Capability.MODIFICATIONS);
+    }
+
+    public RevisionNumberFetcher create(
+        final ScmConnectionInfo connectionInfo,
+        final ScmAccessInfo accessInfo, final RevisionNumberFetcher fallback) {
+      return new BlockingFetcher();
+    }
+  }
+
+  // ********************************* Methods ********************************
+
+  // --- prepare --------------------------------------------------------------
+
+  @Before
+  public void setUp() throws Exception {
+    executor = new SessionExecutor(4);
+    rootDirectory = folder.newFolder("work");
+    new File(rootDirectory, "pom.xml").createNewFile();
+  }
+
+  @After
+  public void tearDown() {
+    release.countDown();
+    executor.close();
+  }
+
+  // --- helper ---------------------------------------------------------------
+
+  private RevisionHelper createHelper(final File stateCacheFile) {
+    final ScmAccessInfo accessInfo = new ScmAccessInfo();
+    accessInfo.setTimeBudget(BUDGET);
+    accessInfo.setStateCacheFile(stateCacheFile);
+    return createHelperFor(accessInfo, sessionCache);
+  }
+
+  private RevisionHelper createConcurrentHelper() {
+    final ScmAccessInfo accessInfo = new ScmAccessInfo();
+    accessInfo.setConcurrentQueries(true);
+    accessInfo.setQueryTimeout(BUDGET);
+    return createHelperFor(accessInfo, sessionCache);
+  }
+
+  private RevisionHelper createStoringHelper(final File stateCacheFile,
+      final boolean compareWithMergeBase) {
+    final ScmAccessInfo accessInfo = new ScmAccessInfo();
+    accessInfo.setStateCacheFile(stateCacheFile);
+    accessInfo.setCompareWithMergeBase(compareWithMergeBase);
+    return createHelperFor(accessInfo, null);
+  }
+
+  private RevisionHelper createHelperFor(final ScmAccessInfo accessInfo,
+      final SessionCache sessionCache) {
+    final ScmConnectionInfo connectionInfo = new ScmConnectionInfo();
+    connectionInfo.setScmConnectionUrl(CONNECTION_URL);
+    accessInfo.setRootDirectory(rootDirectory);
+    final RevisionNumberFetcherFactory factory =
+        new RevisionNumberFetcherFactory(
+            Collections.<RevisionNumberFetcherProvider> singletonList(
+                new BlockingProvider()));
+    return new RevisionHelper(null, connectionInfo, accessInfo,
+        "yyyy-MM-dd", sessionCache, executor, factory);
+  }
+
+  private static Properties provide(final RevisionHelper helper) {
+    return provide(helper, false);
+  }
+
+  private static Properties provide(final RevisionHelper helper,
+      final boolean validateCheckout) {
+    final Properties properties = new Properties();
+    final ScmControl control =
+        new ScmControl(false, false, false, true, validateCheckout, false);
+    helper.provideScmBuildInfo(properties, control);
+    return properties;
+  }
+
+  // --- tests ----------------------------------------------------------------
+
+  @Test
+  public void exceededBudgetReportsUnknownRevision() {
+    final long start = System.currentTimeMillis();
+
+    final Properties properties = provide(createHelper(null));
+
+    assertTrue(System.currentTimeMillis() - start < 10 * BUDGET);
+    assertEquals("unknown",
+        properties.getProperty(Constant.PROP_NAME_SCM_REVISION_ID));
+    assertEquals(CONNECTION_URL,
+        properties.getProperty(Constant.PROP_NAME_SCM_URL));
+  }
+
+  @Test
+  public void exceededBudgetFallsBackToStoredRevision() throws Exception {
+    final File stateCacheFile = new File(folder.getRoot(), "state.properties");
+    new WorkingCopyStateStore(stateCacheFile).store("previous",
+        new WorkingCopyState(new StringRevision("stored", new Date(0L)), null,
+            null));
+
+    final Properties properties = provide(createHelper(stateCacheFile));
+
+    assertEquals("stored",
+        properties.getProperty(Constant.PROP_NAME_SCM_REVISION_ID));
+    assertEquals(1, revisionRequests.get());
+  }
+
+  @Test
+  public void exceededBudgetSkipsRemainingModules() {
+    provide(createHelper(null));
+    final long start = System.currentTimeMillis();
+
+    final Properties properties = provide(createHelper(null));
+
+    assertTrue(System.currentTimeMillis() - start < BUDGET);
+    assertEquals("unknown",
+        properties.getProperty(Constant.PROP_NAME_SCM_REVISION_ID));
+    assertEquals(1, revisionRequests.get());
+  }
+
+  @Test
+  public void concurrentRevisionTimeoutIsTreatedAsMissing() {
+    blockModifications = false;
+    final long start = System.currentTimeMillis();
+
+    final Properties properties = provide(createConcurrentHelper(), true);
+
+    assertTrue(System.currentTimeMillis() - start < 10 * BUDGET);
+    assertNull(properties.getProperty(Constant.PROP_NAME_SCM_REVISION_ID));
+    assertNull(properties.getProperty(Constant.PROP_NAME_SCM_LOCALLY_MODIFIED));
+  }
+
+  @Test
+  public void concurrentModificationTimeoutIsTreatedAsFailedCheck() {
+    blockRevision = false;
+    final long start = System.currentTimeMillis();
+
+    final Properties properties = provide(createConcurrentHelper(), true);
+
+    assertTrue(System.currentTimeMillis() - start < 10 * BUDGET);
+    assertEquals("fetched",
+        properties.getProperty(Constant.PROP_NAME_SCM_REVISION_ID));
+    assertEquals("unknown",
+        properties.getProperty(Constant.PROP_NAME_SCM_LOCALLY_MODIFIED));
+  }
+
+  @Test
+  public void mergeBaseModeIsPartOfStoredStateFingerprint() throws Exception {
+    blockRevision = false;
+    blockModifications = false;
+    final File metadata = new File(rootDirectory, ".svn/wc.db");
+    metadata.getParentFile().mkdirs();
+    metadata.createNewFile();
+    final File stateCacheFile = new File(folder.getRoot(), "state.properties");
+
+    provide(createStoringHelper(stateCacheFile, false), true);
+    provide(createStoringHelper(stateCacheFile, false), true);
+    assertEquals(1, revisionRequests.get());
+
+    provide(createStoringHelper(stateCacheFile, true), true);
+    assertEquals(2, revisionRequests.get());
+  }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2006-2025 smartics, Kronseder & Reiner GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package de.smartics.maven.plugin.buildmetadata.common;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.apache.maven.execution.MavenSession;
+import org.junit.Test;
+
+import java.util.Date;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests {@link SessionCache}.
+ */
+public class SessionCacheTest {
+  // ********************************* Fields *********************************
+
+  // --- constants ------------------------------------------------------------
+
+  // --- members --------------------------------------------------------------
+
+  // ****************************** Inner Classes *****************************
+
+  // ********************************* Methods ********************************
+
+  // --- prepare --------------------------------------------------------------
+
+  // --- helper ---------------------------------------------------------------
+
+  private static MavenSession createSession(final Date startTime) {
+    return new MavenSession(null, null, null, null, null, null, null, null,
+        startTime);
+  }
+
+  private static Callable<String> createCountingLoader(
+      final AtomicInteger counter) {
+    return new Callable<String>() {
+      public String call() {
+        return "value-" + counter.incrementAndGet();
+      }
+    };
+  }
+
+  // --- tests ----------------------------------------------------------------
+
+  @Test
+  public void sameSessionSharesCache() {
+    final Date startTime = new Date();
+    final SessionCache first = SessionCache.forSession(createSession(startTime));
+    final SessionCache second =
+        SessionCache.forSession(createSession(new Date(startTime.getTime())));
+
+    assertSame(first, second);
+  }
+
+  @Test
+  public void noSessionProvidesPrivateCache() {
+    final SessionCache first = SessionCache.forSession(null);
+    final SessionCache second = SessionCache.forSession(null);
+
+    assertNotSame(first, second);
+    assertNull(first.getSessionId());
+  }
+
+  @Test
+  public void valueIsLoadedOnlyOnce() {
+    final SessionCache uut = SessionCache.forSession(null);
+    final AtomicInteger counter = new AtomicInteger();
+
+    final String first = uut.get("key", createCountingLoader(counter));
+    final String second = uut.get("key", createCountingLoader(counter));
+
+    assertEquals("value-1", first);
+    assertEquals("value-1", second);
+    assertEquals(1, counter.get());
+  }
+
+  @Test
+  public void failureIsReportedToEachCaller() {
+    final SessionCache uut = SessionCache.forSession(null);
+    final Callable<String> loader = new Callable<String>() {
+      public String call() {
+        throw new IllegalArgumentException("test");
+      }
+    };
+
+    for (int i = 0; i < 2; i++) {
+      try {
+        uut.get("key", loader);
+        fail("Expected the failure of the loader.");
+      } catch (final IllegalArgumentException e) {
+        assertEquals("test", e.getMessage());
+      }
+    }
+  }
+
+  @Test
+  public void putValueIsServedWithoutLoading() {
+    final SessionCache uut = SessionCache.forSession(null);
+    final AtomicInteger counter = new AtomicInteger();
+
+    uut.put("key", "stored");
+
+    assertTrue(uut.contains("key"));
+    assertEquals("stored", uut.get("key", createCountingLoader(counter)));
+    assertEquals(0, counter.get());
+  }
+
+  @Test
+  public void putReplacesLoadedValue() {
+    final SessionCache uut = SessionCache.forSession(null);
+    uut.get("key", createCountingLoader(new AtomicInteger()));
+
+    uut.put("key", "stored");
+
+    assertEquals("stored",
+        uut.get("key", createCountingLoader(new AtomicInteger())));
+  }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2006-2025 smartics, Kronseder & Reiner GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package de.smartics.maven.plugin.buildmetadata.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import de.smartics.maven.plugin.buildmetadata.common.Constant;
+
+import org.apache.maven.artifact.versioning.ArtifactVersion;
+import org.apache.maven.artifact.versioning.DefaultArtifactVersion;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.execution.RuntimeInformation;
+import org.apache.maven.model.Model;
+import org.apache.maven.project.MavenProject;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Properties;
+
+/**
+ * Tests {@link MavenMetaDataProvider}.
+ */
+public class MavenMetaDataProviderTest {
+  // ********************************* Fields *********************************
+
+  // --- constants ------------------------------------------------------------
+
+  // --- members --------------------------------------------------------------
+
+  private MavenMetaDataProvider uut;
+
+  // ****************************** Inner Classes *****************************
+
+  // ********************************* Methods ********************************
+
+  // --- prepare --------------------------------------------------------------
+
+  @Before
+  public void setUp() {
+    final Model model = new Model();
+    model.setUrl("https://example.org/project");
+    final MavenProject project = new MavenProject(model);
+    final MavenSession session = new MavenSession(null, null, null, null,
+        null, Arrays.asList("install"), null, new Properties(), new Date());
+    final RuntimeInformation runtime = new RuntimeInformation() {
+      public ArtifactVersion getApplicationVersion() {
+        return new DefaultArtifactVersion("3.9.6");
+      }
+    };
+    final MavenMetaDataSelection selection = new MavenMetaDataSelection();
+    selection.setAddMavenExecutionInfo(true);
+    selection.setAddProjectInfo(true);
+
+    uut = new MavenMetaDataProvider(project, session, runtime, selection);
+  }
+
+  // --- helper ---------------------------------------------------------------
+
+  // --- tests ----------------------------------------------------------------
+
+  @Test
+  public void reactorMetaDataContainsNoProjectInfo() {
+    final Properties properties = new Properties();
+
+    uut.provideReactorMetaData(properties);
+
+    assertEquals("3.9.6",
+        properties.getProperty(Constant.PROP_NAME_MAVEN_VERSION));
+    assertEquals("install",
+        properties.getProperty(Constant.PROP_NAME_MAVEN_GOALS));
+    assertNull(properties.getProperty(Constant.PROP_NAME_PROJECT_HOMEPAGE));
+  }
+
+  @Test
+  public void moduleMetaDataContainsNoSessionInfo() {
+    final Properties properties = new Properties();
+
+    uut.provideModuleMetaData(properties);
+
+    assertEquals("https://example.org/project",
+        properties.getProperty(Constant.PROP_NAME_PROJECT_HOMEPAGE));
+    assertNull(properties.getProperty(Constant.PROP_NAME_MAVEN_VERSION));
+    assertNull(properties.getProperty(Constant.PROP_NAME_MAVEN_GOALS));
+  }
+
+  @Test
+  public void buildMetaDataCombinesReactorAndModule() {
+    final Properties properties = new Properties();
+
+    uut.provideBuildMetaData(properties);
+
+    assertEquals("3.9.6",
+        properties.getProperty(Constant.PROP_NAME_MAVEN_VERSION));
+    assertEquals("https://example.org/project",
+        properties.getProperty(Constant.PROP_NAME_PROJECT_HOMEPAGE));
+  }
+}
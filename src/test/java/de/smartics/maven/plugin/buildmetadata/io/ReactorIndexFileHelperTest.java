@@ -0,0 +1,139 @@
+/*
+ * Copyright 2006-2025 smartics, Kronseder & Reiner GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package de.smartics.maven.plugin.buildmetadata.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * Tests {@link ReactorIndexFileHelper}.
+ */
+public class ReactorIndexFileHelperTest {
+  // ********************************* Fields *********************************
+
+  // --- constants ------------------------------------------------------------
+
+  private static final String MODULE_A = "de.smartics.test:module-a";
+
+  private static final String MODULE_B = "de.smartics.test:module-b";
+
+  // --- members --------------------------------------------------------------
+
+  @Rule
+  public final TemporaryFolder folder = new TemporaryFolder();
+
+  private File indexFile;
+
+  private ReactorIndexFileHelper uut;
+
+  // ****************************** Inner Classes *****************************
+
+  // ********************************* Methods ********************************
+
+  // --- prepare --------------------------------------------------------------
+
+  @Before
+  public void setUp() {
+    indexFile = new File(folder.getRoot(), "target/index.properties");
+    uut = new ReactorIndexFileHelper(indexFile);
+  }
+
+  // --- helper ---------------------------------------------------------------
+
+  private static Properties createModule(final String artifactId) {
+    final Properties properties = new Properties();
+    properties.setProperty("build.artifactId", artifactId);
+    properties.setProperty("build.host.name", "host");
+    properties.setProperty("build.date", "18.10.2026 10:00:00");
+    return properties;
+  }
+
+  private Map<String, Properties> createModules() {
+    final Map<String, Properties> modules = new TreeMap<String, Properties>();
+    modules.put(MODULE_A, createModule("module-a"));
+    final Properties b = createModule("module-b");
+    b.setProperty("build.scmRevision.url", "https://example.com/a b=c");
+    b.setProperty("build.user", "J\u00fcrgen");
+    modules.put(MODULE_B, b);
+    return modules;
+  }
+
+  private Properties loadAll() throws Exception {
+    final Properties properties = new Properties();
+    final InputStream in = new FileInputStream(indexFile);
+    try {
+      properties.load(in);
+    } finally {
+      in.close();
+    }
+    return properties;
+  }
+
+  // --- tests ----------------------------------------------------------------
+
+  @Test
+  public void readsSingleModule() throws Exception {
+    final Map<String, Properties> modules = createModules();
+    uut.write(modules);
+
+    assertEquals(modules.get(MODULE_A), uut.readModule(MODULE_A));
+    assertEquals(modules.get(MODULE_B), uut.readModule(MODULE_B));
+  }
+
+  @Test
+  public void storesSharedValuesOnce() throws Exception {
+    uut.write(createModules());
+
+    final Properties all = loadAll();
+    assertEquals("host", all.getProperty("shared.build.host.name"));
+    assertNull(all.getProperty("module." + MODULE_A + ".build.host.name"));
+    assertEquals("module-a",
+        all.getProperty("module." + MODULE_A + ".build.artifactId"));
+  }
+
+  @Test
+  public void returnsNullForUnknownModule() throws Exception {
+    uut.write(createModules());
+
+    assertNull(uut.readModule("de.smartics.test:unknown"));
+  }
+
+  @Test
+  public void replacesPreviousIndex() throws Exception {
+    uut.write(createModules());
+    final Map<String, Properties> modules = new TreeMap<String, Properties>();
+    modules.put(MODULE_A, createModule("module-a"));
+    uut.write(modules);
+
+    assertNull(uut.readModule(MODULE_B));
+    assertEquals(modules.get(MODULE_A), uut.readModule(MODULE_A));
+    assertFalse(new File(indexFile.getParentFile(), "index.properties.tmp")
+        .exists());
+  }
+}
@@ -0,0 +1,272 @@
+/*
+ * Copyright 2006-2025 smartics, Kronseder & Reiner GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package de.smartics.maven.plugin.buildmetadata.maven;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import org.apache.maven.execution.MavenSession;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Tests {@link BuildTimingListener}.
+ */
+public class BuildTimingListenerTest {
+  // ********************************* Fields *********************************
+
+  // --- constants ------------------------------------------------------------
+
+  // --- members --------------------------------------------------------------
+
+  private final List<String> delegated = new ArrayList<String>();
+
+  private BuildTimingRecorder recorder;
+
+  private int sessionEndCount;
+
+  private Listener uut;
+
+  // ****************************** Inner Classes *****************************
+
+  /**
+   * Mirrors the methods of the execution listener of Maven 3 used by the
+   * tests.
+   */
+  public interface Listener {
+    void mojoStarted(Event event);
+
+    void mojoSucceeded(Event event);
+
+    void projectStarted(Event event);
+
+    void projectSucceeded(Event event);
+
+    void sessionEnded(Event event);
+  }
+
+  /**
+   * Mirrors the accessors of the execution event of Maven 3.
+   */
+  public interface Event {
+    Object getSession();
+
+    Object getProject();
+
+    Object getMojoExecution();
+  }
+
+  /**
+   * Mirrors the project dependency graph of Maven 3.
+   */
+  public interface Graph {
+    List<Project> getSortedProjects();
+
+    List<Project> getUpstreamProjects(Project project, boolean transitive);
+  }
+
+  /**
+   * Mirrors the accessors of a session.
+   */
+  public static final class Session {
+    public Graph getProjectDependencyGraph() {
+      return new Graph() {
+        public List<Project> getSortedProjects() {
+          return Collections.singletonList(new Project());
+        }
+
+        public List<Project> getUpstreamProjects(final Project project,
+            final boolean transitive) {
+          return Collections.emptyList();
+        }
+      };
+    }
+  }
+
+  /**
+   * Mirrors the accessors of a project.
+   */
+  public static final class Project {
+    public String getGroupId() {
+      return "g";
+    }
+
+    public String getArtifactId() {
+      return "a";
+    }
+  }
+
+  /**
+   * Mirrors the accessors of a mojo execution.
+   */
+  public static final class Execution {
+    public String getArtifactId() {
+      return "maven-compiler-plugin";
+    }
+
+    public String getGoal() {
+      return "compile";
+    }
+
+    public String getExecutionId() {
+      return "default-compile";
+    }
+
+    public String getLifecyclePhase() {
+      return "compile";
+    }
+  }
+
+  // ********************************* Methods ********************************
+
+  // --- prepare --------------------------------------------------------------
+
+  @Before
+  public void setUp() {
+    recorder = new BuildTimingRecorder();
+    final Listener delegate = new Listener() {
+      public void mojoStarted(final Event event) {
+        delegated.add("mojoStarted");
+      }
+
+      public void mojoSucceeded(final Event event) {
+        delegated.add("mojoSucceeded");
+      }
+
+      public void projectStarted(final Event event) {
+        delegated.add("projectStarted");
+      }
+
+      public void projectSucceeded(final Event event) {
+        delegated.add("projectSucceeded");
+      }
+
+      public void sessionEnded(final Event event) {
+        delegated.add("sessionEnded");
+      }
+    };
+    final Runnable sessionEndAction = new Runnable() {
+      public void run() {
+        sessionEndCount++;
+      }
+    };
+    uut = (Listener) Proxy.newProxyInstance(
+        Listener.class.getClassLoader(), new Class<?>[] {Listener.class},
+        new BuildTimingListener(delegate, recorder, sessionEndAction));
+  }
+
+  // --- helper ---------------------------------------------------------------
+
+  private static Event createEvent() {
+    return new Event() {
+      public Object getSession() {
+        return new Session();
+      }
+
+      public Object getProject() {
+        return new Project();
+      }
+
+      public Object getMojoExecution() {
+        return new Execution();
+      }
+    };
+  }
+
+  // --- tests ----------------------------------------------------------------
+
+  @Test
+  public void recordsMojoExecution() {
+    final Event event = createEvent();
+
+    uut.mojoStarted(event);
+    uut.mojoSucceeded(event);
+
+    final Properties properties = new Properties();
+    recorder.addTo(properties);
+    assertEquals("1", properties.getProperty(BuildTimingRecorder.PREFIX
+        + "mojo.maven-compiler-plugin:compile.count"));
+    assertEquals("1", properties.getProperty(BuildTimingRecorder.PREFIX
+        + "phase.compile.count"));
+  }
+
+  @Test
+  public void recordsModulesAndCriticalPath() {
+    final Event event = createEvent();
+
+    uut.projectStarted(event);
+    uut.projectSucceeded(event);
+    uut.sessionEnded(event);
+
+    final Properties properties = new Properties();
+    recorder.addTo(properties);
+    assertEquals("g:a",
+        properties.getProperty(ReactorTimingAnalysis.PROP_NAME_CRITICAL_PATH));
+  }
+
+  @Test
+  public void passesEventsToDelegate() {
+    final Event event = createEvent();
+
+    uut.mojoStarted(event);
+    uut.mojoSucceeded(event);
+    uut.sessionEnded(event);
+
+    assertEquals(3, delegated.size());
+    assertEquals("sessionEnded", delegated.get(2));
+  }
+
+  @Test
+  public void runsSessionEndActionOnce() {
+    uut.sessionEnded(createEvent());
+    uut.sessionEnded(createEvent());
+
+    assertEquals(1, sessionEndCount);
+  }
+
+  @Test
+  public void runsSessionEndActionWithoutRecorder() {
+    final Listener listener = (Listener) Proxy.newProxyInstance(
+        Listener.class.getClassLoader(), new Class<?>[] {Listener.class},
+        new BuildTimingListener(null, null, new Runnable() {
+          public void run() {
+            sessionEndCount++;
+          }
+        }));
+    final Event event = createEvent();
+
+    listener.mojoStarted(event);
+    listener.mojoSucceeded(event);
+    listener.sessionEnded(event);
+
+    assertEquals(1, sessionEndCount);
+  }
+
+  @Test
+  public void cannotInstallOnMaven2() {
+    final MavenSession session = new MavenSession(null, null, null, null, null,
+        null, null, null, new Date());
+
+    assertFalse(BuildTimingListener.install(session, recorder, null));
+  }
+}
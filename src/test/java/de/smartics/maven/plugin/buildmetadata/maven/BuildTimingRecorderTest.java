@@ -0,0 +1,123 @@
+/*
+ * Copyright 2006-2025 smartics, Kronseder & Reiner GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package de.smartics.maven.plugin.buildmetadata.maven;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests {@link BuildTimingRecorder}.
+ */
+public class BuildTimingRecorderTest {
+  // ********************************* Fields *********************************
+
+  // --- constants ------------------------------------------------------------
+
+  private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+  // --- members --------------------------------------------------------------
+
+  private BuildTimingRecorder uut;
+
+  // ****************************** Inner Classes *****************************
+
+  // ********************************* Methods ********************************
+
+  // --- prepare --------------------------------------------------------------
+
+  @Before
+  public void setUp() {
+    uut = new BuildTimingRecorder();
+  }
+
+  // --- helper ---------------------------------------------------------------
+
+  private void run(final String module, final String mojo, final String phase,
+      final long start, final long end) {
+    uut.mojoStarted(module, mojo + "@default", start * MILLIS);
+    uut.mojoEnded(module, mojo + "@default", mojo, phase, end * MILLIS);
+  }
+
+  private Properties createProperties() {
+    final Properties properties = new Properties();
+    uut.addTo(properties);
+    return properties;
+  }
+
+  // --- tests ----------------------------------------------------------------
+
+  @Test
+  public void aggregatesPerPhaseAndMojo() {
+    run("g:a", "maven-compiler-plugin:compile", "compile", 0, 30);
+    run("g:b", "maven-compiler-plugin:compile", "compile", 10, 60);
+    run("g:a", "maven-jar-plugin:jar", "package", 30, 35);
+
+    final Properties properties = createProperties();
+    final String prefix = BuildTimingRecorder.PREFIX;
+    assertEquals("2", properties.getProperty(prefix + "phase.compile.count"));
+    assertEquals("80", properties.getProperty(prefix + "phase.compile.millis"));
+    assertEquals("5", properties.getProperty(prefix + "phase.package.millis"));
+    final String compiler = prefix + "mojo.maven-compiler-plugin:compile.";
+    assertEquals("2", properties.getProperty(compiler + "count"));
+    assertEquals("80", properties.getProperty(compiler + "millis"));
+    assertEquals("50", properties.getProperty(compiler + "maxMillis"));
+    assertEquals("85", properties.getProperty(prefix + "mojos.millis"));
+  }
+
+  @Test
+  public void recordsExecutionsWithoutPhase() {
+    run("g:a", "maven-help-plugin:effective-pom", null, 0, 1);
+
+    assertEquals("1", createProperties().getProperty(
+        BuildTimingRecorder.PREFIX + "phase.none.count"));
+  }
+
+  @Test
+  public void recordsModules() {
+    uut.moduleStarted("g:a", 100 * MILLIS);
+    uut.moduleEnded("g:a", 130 * MILLIS);
+    uut.moduleStarted("g:b", 110 * MILLIS);
+    uut.moduleEnded("g:b", 150 * MILLIS);
+    uut.moduleStarted("g:c", 120 * MILLIS);
+
+    final Properties properties = createProperties();
+    final String prefix = BuildTimingRecorder.PREFIX + "module.";
+    assertEquals("0", properties.getProperty(prefix + "g:a.startMillis"));
+    assertEquals("30", properties.getProperty(prefix + "g:a.millis"));
+    assertEquals("10", properties.getProperty(prefix + "g:b.startMillis"));
+    assertEquals("40", properties.getProperty(prefix + "g:b.millis"));
+    assertNull(properties.getProperty(prefix + "g:c.millis"));
+    assertEquals("50", properties
+        .getProperty(ReactorTimingAnalysis.PREFIX + "wallMillis"));
+  }
+
+  @Test
+  public void ignoresEndWithoutStart() {
+    uut.mojoEnded("g:a", "x:y@default", "x:y", "compile", 10 * MILLIS);
+
+    final Properties properties = createProperties();
+    assertNull(properties.getProperty(
+        BuildTimingRecorder.PREFIX + "phase.compile.count"));
+    assertEquals("0",
+        properties.getProperty(BuildTimingRecorder.PREFIX + "mojos.millis"));
+  }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2006-2025 smartics, Kronseder & Reiner GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package de.smartics.maven.plugin.buildmetadata.maven;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests {@link ReactorTimingAnalysis}.
+ */
+public class ReactorTimingAnalysisTest {
+  // ********************************* Fields *********************************
+
+  // --- constants ------------------------------------------------------------
+
+  private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+  // --- members --------------------------------------------------------------
+
+  private final Map<String, long[]> modules =
+      new LinkedHashMap<String, long[]>();
+
+  private final Map<String, List<String>> upstream =
+      new HashMap<String, List<String>>();
+
+  // ****************************** Inner Classes *****************************
+
+  // ********************************* Methods ********************************
+
+  // --- prepare --------------------------------------------------------------
+
+  /**
+   * Creates a diamond shaped reactor: <code>api</code> is required by
+   * <code>core</code> and <code>web</code>, both are required by
+   * <code>dist</code>. Built with two threads.
+   */
+  @Before
+  public void setUp() {
+    addModule("api", 0, 10);
+    addModule("core", 10, 50, "api");
+    addModule("web", 10, 30, "api");
+    addModule("dist", 50, 60, "core", "web");
+  }
+
+  // --- helper ---------------------------------------------------------------
+
+  private void addModule(final String id, final long start, final long end,
+      final String... upstreamIds) {
+    modules.put(id, new long[] {start * MILLIS, end * MILLIS});
+    upstream.put(id, Arrays.asList(upstreamIds));
+  }
+
+  private Properties createProperties(final ReactorTimingAnalysis uut) {
+    final Properties properties = new Properties();
+    uut.addTo(properties);
+    return properties;
+  }
+
+  // --- tests ----------------------------------------------------------------
+
+  @Test
+  public void calculatesCriticalPath() {
+    final ReactorTimingAnalysis uut =
+        new ReactorTimingAnalysis(modules, upstream);
+
+    assertEquals(Arrays.asList("api", "core", "dist"), uut.calcCriticalPath());
+  }
+
+  @Test
+  public void calculatesParallelism() {
+    final Properties properties =
+        createProperties(new ReactorTimingAnalysis(modules, upstream));
+
+    final String prefix = ReactorTimingAnalysis.PREFIX;
+    assertEquals("60", properties.getProperty(prefix + "wallMillis"));
+    assertEquals("80", properties.getProperty(prefix + "modulesMillis"));
+    assertEquals("60", properties.getProperty(prefix + "criticalPath.millis"));
+    assertEquals("1.33",
+        properties.getProperty(prefix + "parallelism.achieved"));
+    assertEquals("1.33",
+        properties.getProperty(prefix + "parallelism.theoretical"));
+    assertEquals("1.00",
+        properties.getProperty(prefix + "parallelism.efficiency"));
+  }
+
+  @Test
+  public void listsTopModules() {
+    final ReactorTimingAnalysis uut =
+        new ReactorTimingAnalysis(modules, upstream);
+
+    assertEquals(Arrays.asList("core", "web"), uut.calcTopModules(2));
+    assertEquals("core,web,api,dist", createProperties(uut)
+        .getProperty(ReactorTimingAnalysis.PROP_NAME_TOP_MODULES));
+  }
+
+  @Test
+  public void omitsCriticalPathWithoutDependencies() {
+    final Properties properties =
+        createProperties(new ReactorTimingAnalysis(modules, null));
+
+    assertNull(properties.getProperty(
+        ReactorTimingAnalysis.PROP_NAME_CRITICAL_PATH));
+    assertEquals("1.33", properties
+        .getProperty(ReactorTimingAnalysis.PREFIX + "parallelism.achieved"));
+  }
+
+  @Test
+  public void addsNothingWithoutModules() {
+    final Properties properties = createProperties(new ReactorTimingAnalysis(
+        Collections.<String, long[]> emptyMap(), upstream));
+
+    assertTrue(properties.isEmpty());
+  }
+}
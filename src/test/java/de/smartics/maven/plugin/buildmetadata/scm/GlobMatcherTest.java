@@ -0,0 +1,153 @@
+/*
+ * Copyright 2006-2025 smartics, Kronseder & Reiner GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package de.smartics.maven.plugin.buildmetadata.scm;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Tests {@link GlobMatcher}.
+ */
+public class GlobMatcherTest {
+  // ********************************* Fields *********************************
+
+  // --- constants ------------------------------------------------------------
+
+  // --- members --------------------------------------------------------------
+
+  // ****************************** Inner Classes *****************************
+
+  // ********************************* Methods ********************************
+
+  // --- prepare --------------------------------------------------------------
+
+  // --- helper ---------------------------------------------------------------
+
+  private static List<String> list(final String... patterns) {
+    return Arrays.asList(patterns);
+  }
+
+  // --- tests ----------------------------------------------------------------
+
+  @Test
+  public void noPatternsMatchEverything() {
+    final GlobMatcher uut = GlobMatcher.compile(null,
+        Collections.<String> emptyList());
+
+    assertSame(GlobMatcher.ALL, uut);
+    assertTrue(uut.matches("any/path.txt"));
+  }
+
+  @Test
+  public void doubleStarMatchesAnyDirectories() {
+    final GlobMatcher uut = GlobMatcher.compile(list("src/main/**"), null);
+
+    assertTrue(uut.matches("src/main/java/a/B.java"));
+    assertTrue(uut.matches("src/main"));
+    assertFalse(uut.matches("src/test/java/a/B.java"));
+    assertFalse(uut.matches("src/mainly.txt"));
+  }
+
+  @Test
+  public void leadingDoubleStarMatchesAnyDepth() {
+    final GlobMatcher uut = GlobMatcher.compile(list("**/*.java"), null);
+
+    assertTrue(uut.matches("B.java"));
+    assertTrue(uut.matches("a/b/B.java"));
+    assertFalse(uut.matches("a/b/B.javax"));
+  }
+
+  @Test
+  public void singleStarStaysWithinSegment() {
+    final GlobMatcher uut = GlobMatcher.compile(list("*.xml", "doc/?.txt"),
+        null);
+
+    assertTrue(uut.matches("pom.xml"));
+    assertFalse(uut.matches("src/pom.xml"));
+    assertTrue(uut.matches("doc/a.txt"));
+    assertFalse(uut.matches("doc/ab.txt"));
+  }
+
+  @Test
+  public void trailingSlashMatchesDirectoryContent() {
+    final GlobMatcher uut = GlobMatcher.compile(list("src/"), null);
+
+    assertTrue(uut.matches("src/site/index.html"));
+    assertFalse(uut.matches("pom.xml"));
+  }
+
+  @Test
+  public void trailingSlashAfterDoubleStarMatchesDirectoryContent() {
+    final GlobMatcher uut = GlobMatcher.compile(list("src/**/"), null);
+
+    assertTrue(uut.matches("src/a/b.java"));
+    assertTrue(uut.matches("src/b.java"));
+    assertFalse(uut.matches("pom.xml"));
+  }
+
+  @Test
+  public void doubleStarWithTrailingSlashMatchesEverything() {
+    final GlobMatcher uut = GlobMatcher.compile(list("**/"), null);
+
+    assertTrue(uut.matches("src/a/b.java"));
+    assertTrue(uut.matches("pom.xml"));
+  }
+
+  @Test
+  public void excludesWinOverIncludes() {
+    final GlobMatcher uut =
+        GlobMatcher.compile(list("src/**"), list(".*/**", "**/*.bak"));
+
+    assertTrue(uut.matches("src/a.txt"));
+    assertFalse(uut.matches("src/a.txt.bak"));
+    assertFalse(GlobMatcher.compile(null, list(".*/**")).matches(".git/x"));
+    assertFalse(GlobMatcher.compile(null, list(".*/**")).matches(".project"));
+    assertTrue(GlobMatcher.compile(null, list(".*/**")).matches("a/.project"));
+  }
+
+  @Test
+  public void specialCharactersAreLiterals() {
+    final GlobMatcher uut = GlobMatcher.compile(list("a+b/(c).txt"), null);
+
+    assertTrue(uut.matches("a+b/(c).txt"));
+    assertFalse(uut.matches("aab/(c)xtxt"));
+  }
+
+  @Test
+  public void backslashesAreNormalized() {
+    final GlobMatcher uut = GlobMatcher.compile(list("src\\main\\**"), null);
+
+    assertTrue(uut.matches("src\\main\\java\\A.java"));
+  }
+
+  @Test
+  public void ignoreRulesExcludePaths() {
+    final GlobMatcher uut =
+        GlobMatcher.compile(list("src/**"), null, list("*.bak", "!keep.bak"));
+
+    assertTrue(uut.matches("src/A.java"));
+    assertFalse(uut.matches("src/A.bak"));
+    assertTrue(uut.matches("src/keep.bak"));
+    assertFalse(uut.matches("pom.xml"));
+  }
+}
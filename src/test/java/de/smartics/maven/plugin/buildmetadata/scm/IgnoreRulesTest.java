@@ -0,0 +1,139 @@
+/*
+ * Copyright 2006-2025 smartics, Kronseder & Reiner GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package de.smartics.maven.plugin.buildmetadata.scm;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * Tests {@link IgnoreRules}.
+ */
+public class IgnoreRulesTest {
+  // ********************************* Fields *********************************
+
+  // --- constants ------------------------------------------------------------
+
+  // --- members --------------------------------------------------------------
+
+  // ****************************** Inner Classes *****************************
+
+  // ********************************* Methods ********************************
+
+  // --- prepare --------------------------------------------------------------
+
+  // --- helper ---------------------------------------------------------------
+
+  private static IgnoreRules compile(final String... lines) {
+    return IgnoreRules.compile(Arrays.asList(lines));
+  }
+
+  // --- tests ----------------------------------------------------------------
+
+  @Test
+  public void noRulesCompileToNull() {
+    assertNull(IgnoreRules.compile(null));
+    assertNull(IgnoreRules.compile(Collections.<String> emptyList()));
+    assertNull(compile("", "# comment", "   "));
+  }
+
+  @Test
+  public void ruleWithoutSlashMatchesNameOnAnyLevel() {
+    final IgnoreRules uut = compile("*.log");
+
+    assertTrue(uut.isIgnored("build.log"));
+    assertTrue(uut.isIgnored("sub/dir/build.log"));
+    assertTrue(uut.isIgnored("logs.log/file.txt"));
+    assertFalse(uut.isIgnored("build.log.txt"));
+  }
+
+  @Test
+  public void ruleWithSlashIsAnchored() {
+    final IgnoreRules uut = compile("/generated", "src/*.tmp");
+
+    assertTrue(uut.isIgnored("generated/A.java"));
+    assertFalse(uut.isIgnored("sub/generated/A.java"));
+    assertTrue(uut.isIgnored("src/a.tmp"));
+    assertFalse(uut.isIgnored("src/sub/a.tmp"));
+    assertFalse(uut.isIgnored("other/src/a.tmp"));
+  }
+
+  @Test
+  public void trailingSlashMatchesDirectoriesOnly() {
+    final IgnoreRules uut = compile("target/");
+
+    assertTrue(uut.isIgnored("target/classes/A.class"));
+    assertTrue(uut.isIgnored("module/target/A.jar"));
+    assertFalse(uut.isIgnored("target"));
+    assertFalse(uut.isIgnored("src/target"));
+  }
+
+  @Test
+  public void doubleAsterisksMatchAnyNumberOfDirectories() {
+    final IgnoreRules uut = compile("**/gen/**", "a/**/z.txt");
+
+    assertTrue(uut.isIgnored("gen/x.java"));
+    assertTrue(uut.isIgnored("src/gen/deep/x.java"));
+    assertTrue(uut.isIgnored("a/z.txt"));
+    assertTrue(uut.isIgnored("a/b/c/z.txt"));
+    assertFalse(uut.isIgnored("b/z.txt"));
+  }
+
+  @Test
+  public void lastMatchingRuleWins() {
+    final IgnoreRules uut = compile("*.txt", "!keep.txt", "keep.txt/");
+
+    assertTrue(uut.isIgnored("drop.txt"));
+    assertFalse(uut.isIgnored("dir/keep.txt"));
+    assertTrue(uut.isIgnored("keep.txt/inner"));
+  }
+
+  @Test
+  public void fileInIgnoredDirectoryCannotBeReincluded() {
+    final IgnoreRules uut = compile("build/", "!build/keep.txt");
+
+    assertTrue(uut.isIgnored("build/keep.txt"));
+  }
+
+  @Test
+  public void reincludedDirectoryIsChecked() {
+    final IgnoreRules uut = compile("/*", "!/src/", "src/*.bak");
+
+    assertTrue(uut.isIgnored("README.md"));
+    assertTrue(uut.isIgnored("doc/index.html"));
+    assertFalse(uut.isIgnored("src/A.java"));
+    assertTrue(uut.isIgnored("src/A.bak"));
+  }
+
+  @Test
+  public void supportsCharacterClassesAndEscapes() {
+    final IgnoreRules uut =
+        compile("file[0-9].txt", "[!a]b", "\\#hash", "\\!bang", "x[");
+
+    assertTrue(uut.isIgnored("file7.txt"));
+    assertFalse(uut.isIgnored("filex.txt"));
+    assertTrue(uut.isIgnored("cb"));
+    assertFalse(uut.isIgnored("ab"));
+    assertTrue(uut.isIgnored("#hash"));
+    assertTrue(uut.isIgnored("!bang"));
+    assertTrue(uut.isIgnored("x["));
+  }
+}
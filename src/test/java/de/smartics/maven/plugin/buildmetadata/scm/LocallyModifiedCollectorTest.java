@@ -0,0 +1,114 @@
+/*
+ * Copyright 2006-2025 smartics, Kronseder & Reiner GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package de.smartics.maven.plugin.buildmetadata.scm;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.maven.scm.ScmFile;
+import org.apache.maven.scm.ScmFileStatus;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+/**
+ * Tests {@link LocallyModifiedCollector}.
+ */
+public class LocallyModifiedCollectorTest {
+  // ********************************* Fields *********************************
+
+  // --- constants ------------------------------------------------------------
+
+  // --- members --------------------------------------------------------------
+
+  // ****************************** Inner Classes *****************************
+
+  // ********************************* Methods ********************************
+
+  // --- prepare --------------------------------------------------------------
+
+  // --- helper ---------------------------------------------------------------
+
+  private static LocallyModifiedInfo collect(final int maxFiles,
+      final String... paths) throws IOException {
+    final LocallyModifiedCollector uut =
+        new LocallyModifiedCollector(maxFiles, null);
+    for (final String path : paths) {
+      uut.add(new ScmFile(path, path.endsWith(".new") ? ScmFileStatus.ADDED
+          : ScmFileStatus.MODIFIED));
+    }
+    return uut.createInfo();
+  }
+
+  // --- tests ----------------------------------------------------------------
+
+  @Test
+  public void noFilesAreNoModification() throws IOException {
+    final LocallyModifiedInfo info = collect(10);
+
+    assertFalse(info.isLocallyModified());
+    assertNull(info.getFiles());
+    assertEquals(0, info.getFileCount());
+    assertNull(info.getDigest());
+  }
+
+  @Test
+  public void listIsBoundedButCountsAreComplete() throws IOException {
+    final LocallyModifiedInfo info = collect(2, "d.txt", "a.new", "c.txt",
+        "b.txt");
+
+    assertTrue(info.isLocallyModified());
+    assertEquals("[a.new:added] [b.txt:modified]", info.getFiles());
+    assertEquals(4, info.getFileCount());
+    assertEquals(Integer.valueOf(1), info.getStatusCounts().get("added"));
+    assertEquals(Integer.valueOf(3), info.getStatusCounts().get("modified"));
+  }
+
+  @Test
+  public void digestDoesNotDependOnOrderOrLimit() throws IOException {
+    final LocallyModifiedInfo first = collect(-1, "a.txt", "b.new", "c.txt");
+    final LocallyModifiedInfo second = collect(1, "c.txt", "a.txt", "b.new");
+    final LocallyModifiedInfo other = collect(-1, "a.txt", "b.txt", "c.txt");
+
+    assertEquals(40, first.getDigest().length());
+    assertEquals(first.getDigest(), second.getDigest());
+    assertFalse(first.getDigest().equals(other.getDigest()));
+  }
+
+  @Test
+  public void zeroLimitListsNoFiles() throws IOException {
+    final LocallyModifiedInfo info = collect(0, "a.txt");
+
+    assertTrue(info.isLocallyModified());
+    assertNull(info.getFiles());
+    assertEquals(1, info.getFileCount());
+  }
+
+  @Test
+  public void allFilesAreWrittenToDetails() throws IOException {
+    final StringWriter details = new StringWriter();
+    final LocallyModifiedCollector uut =
+        new LocallyModifiedCollector(1, details);
+
+    uut.add(new ScmFile("a.txt", ScmFileStatus.MODIFIED));
+    uut.add(new ScmFile("b\\c.txt", ScmFileStatus.DELETED));
+
+    assertEquals("modified\ta.txt\ndeleted\tb/c.txt\n", details.toString());
+  }
+}
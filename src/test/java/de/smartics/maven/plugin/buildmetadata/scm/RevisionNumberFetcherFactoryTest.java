@@ -0,0 +1,208 @@
+/*
+ * Copyright 2006-2025 smartics, Kronseder & Reiner GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package de.smartics.maven.plugin.buildmetadata.scm;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import de.smartics.maven.plugin.buildmetadata.scm.RevisionNumberFetcherProvider.Capability;
+import de.smartics.maven.plugin.buildmetadata.scm.git.GitRevisionNumberFetcherProvider;
+import de.smartics.maven.plugin.buildmetadata.scm.hg.HgRevisionNumberFetcherProvider;
+import de.smartics.maven.plugin.buildmetadata.scm.maven.ScmAccessInfo;
+import de.smartics.maven.plugin.buildmetadata.scm.maven.ScmConnectionInfo;
+import de.smartics.maven.plugin.buildmetadata.scm.maven.StringRevision;
+import de.smartics.maven.plugin.buildmetadata.scm.svn.SvnRevisionNumberFetcherProvider;
+
+import org.apache.maven.scm.ScmBranch;
+import org.apache.maven.scm.ScmFileSet;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Tests {@link RevisionNumberFetcherFactory}.
+ */
+public class RevisionNumberFetcherFactoryTest {
+  // ********************************* Fields *********************************
+
+  // --- constants ------------------------------------------------------------
+
+  // --- members --------------------------------------------------------------
+
+  private ScmConnectionInfo connectionInfo;
+
+  private ScmAccessInfo accessInfo;
+
+  private final RevisionNumberFetcher fallback = new StubFetcher("fallback");
+
+  // ****************************** Inner Classes *****************************
+
+  private static final class StubFetcher implements RevisionNumberFetcher {
+    private final String name;
+
+    private StubFetcher(final String name) {
+      this.name = name;
+    }
+
+    public Revision fetchLatestRevisionNumber() {
+      return new StringRevision(name, new Date(0L));
+    }
+
+    public LocallyModifiedInfo containsModifications(
+        final ScmFileSet fileSet) {
+      return new LocallyModifiedInfo(true, name);
+    }
+  }
+
+  private static final class StubProvider
+      implements RevisionNumberFetcherProvider {
+    private final String scmType;
+
+    private final Set<Capability> capabilities;
+
+    private StubProvider(final String scmType,
+        final Capability... capabilities) {
+      this.scmType = scmType;
+      this.capabilities = capabilities.length == 0
+          ? EnumSet.noneOf(Capability.class)
+          : EnumSet.copyOf(Arrays.asList(capabilities));
+    }
+
+    public String getScmType() {
+      return scmType;
+    }
+
+    public Set<Capability> getCapabilities() {
+      return capabilities;
+    }
+
+    public RevisionNumberFetcher create(
+        final ScmConnectionInfo connectionInfo,
+        final ScmAccessInfo accessInfo, final RevisionNumberFetcher fallback) {
+      return new StubFetcher(scmType + capabilities);
+    }
+  }
+
+  // ********************************* Methods ********************************
+
+  // --- prepare --------------------------------------------------------------
+
+  @Before
+  public void setUp() {
+    connectionInfo = new ScmConnectionInfo();
+    connectionInfo.setScmConnectionUrl("scm:git:https://example.com/x.git");
+    accessInfo = new ScmAccessInfo();
+  }
+
+  // --- helper ---------------------------------------------------------------
+
+  private RevisionNumberFetcher create(
+      final RevisionNumberFetcherProvider... providers) {
+    final List<RevisionNumberFetcherProvider> list = Arrays.asList(providers);
+    return new RevisionNumberFetcherFactory(list).create(connectionInfo,
+        accessInfo, fallback);
+  }
+
+  private static String revision(final RevisionNumberFetcher fetcher) {
+    return fetcher.fetchLatestRevisionNumber().getId();
+  }
+
+  private static String modifications(final RevisionNumberFetcher fetcher) {
+    return fetcher.containsModifications(null).getFiles();
+  }
+
+  // --- tests ----------------------------------------------------------------
+
+  @Test
+  public void noProviderUsesFallback() {
+    assertSame(fallback, create());
+  }
+
+  @Test
+  public void otherScmTypeUsesFallback() {
+    assertSame(fallback,
+        create(new StubProvider("svn", Capability.REVISION)));
+  }
+
+  @Test
+  public void selectsProviderPerCapability() {
+    final RevisionNumberFetcher uut =
+        create(new StubProvider("git", Capability.REVISION),
+            new StubProvider("git", Capability.MODIFICATIONS));
+
+    assertEquals("git[REVISION]", revision(uut));
+    assertEquals("git[MODIFICATIONS]", modifications(uut));
+  }
+
+  @Test
+  public void firstMatchingProviderWins() {
+    final RevisionNumberFetcher uut = create(
+        new StubProvider("git", Capability.REVISION, Capability.MODIFICATIONS),
+        new StubProvider("git", Capability.REVISION));
+
+    assertEquals("git[REVISION, MODIFICATIONS]", revision(uut));
+    assertEquals("git[REVISION, MODIFICATIONS]", modifications(uut));
+  }
+
+  @Test
+  public void remoteVersionRequiresRemoteCapability() {
+    connectionInfo.setRemoteVersion(new ScmBranch("main"));
+
+    final RevisionNumberFetcher uut = create(
+        new StubProvider("git", Capability.REVISION, Capability.MODIFICATIONS),
+        new StubProvider("git", Capability.REMOTE_REVISION));
+
+    assertEquals("git[REMOTE_REVISION]", revision(uut));
+    assertEquals("fallback", modifications(uut));
+  }
+
+  @Test
+  public void nativeProvidersAreRegistered() {
+    final List<RevisionNumberFetcherProvider> providers =
+        RevisionNumberFetcherFactory
+            .load(RevisionNumberFetcherFactory.class.getClassLoader());
+
+    assertEquals(3, providers.size());
+    assertTrue(providers.get(0) instanceof GitRevisionNumberFetcherProvider);
+    assertTrue(providers.get(1) instanceof HgRevisionNumberFetcherProvider);
+    assertTrue(providers.get(2) instanceof SvnRevisionNumberFetcherProvider);
+  }
+
+  @Test
+  public void nativeProvidersCheckModifications() {
+    assertTrue(new GitRevisionNumberFetcherProvider().getCapabilities()
+        .contains(Capability.MODIFICATIONS));
+    assertTrue(new HgRevisionNumberFetcherProvider().getCapabilities()
+        .contains(Capability.MODIFICATIONS));
+  }
+
+  @Test
+  public void gitProviderRequiresNativeAccess() {
+    final RevisionNumberFetcherProvider provider =
+        new GitRevisionNumberFetcherProvider();
+
+    assertSame(fallback, new RevisionNumberFetcherFactory(
+        Collections.singletonList(provider)).create(connectionInfo, accessInfo,
+            fallback));
+  }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2006-2025 smartics, Kronseder & Reiner GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package de.smartics.maven.plugin.buildmetadata.scm;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+/**
+ * Tests {@link ScmMetrics}.
+ */
+public class ScmMetricsTest {
+  // ********************************* Fields *********************************
+
+  // --- constants ------------------------------------------------------------
+
+  // --- members --------------------------------------------------------------
+
+  @Rule
+  public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  // ****************************** Inner Classes *****************************
+
+  // ********************************* Methods ********************************
+
+  // --- prepare --------------------------------------------------------------
+
+  // --- helper ---------------------------------------------------------------
+
+  private static Properties load(final File file) throws IOException {
+    final Properties properties = new Properties();
+    final InputStream in = new FileInputStream(file);
+    try {
+      properties.load(in);
+    } finally {
+      IOUtils.closeQuietly(in);
+    }
+    return properties;
+  }
+
+  // --- tests ----------------------------------------------------------------
+
+  @Test
+  public void emptyMetricsProvideCounters() {
+    final ScmMetrics uut = new ScmMetrics();
+    final Properties properties = new Properties();
+
+    uut.addTo(properties);
+
+    assertEquals("0", properties.getProperty("build.metrics.scm.changedFiles"));
+    assertEquals("0", properties.getProperty("build.metrics.scm.outputBytes"));
+    assertEquals("0",
+        properties.getProperty("build.metrics.scm.changeLog.retries"));
+    assertNull(properties.getProperty("build.metrics.scm.changeLog.calls"));
+  }
+
+  @Test
+  public void callsAreAccumulatedPerOperation() {
+    final ScmMetrics uut = new ScmMetrics();
+    uut.stop(ScmMetrics.CHANGE_LOG, uut.start());
+    uut.stop(ScmMetrics.CHANGE_LOG, uut.start());
+    uut.stop("status", uut.start());
+    uut.addRetries(1);
+    final Properties properties = new Properties();
+
+    uut.addTo(properties);
+
+    assertEquals("2",
+        properties.getProperty("build.metrics.scm.changeLog.calls"));
+    assertEquals("1", properties.getProperty("build.metrics.scm.status.calls"));
+    assertEquals("1",
+        properties.getProperty("build.metrics.scm.changeLog.retries"));
+  }
+
+  @Test
+  public void outputIsCountedInBytes() {
+    final ScmMetrics uut = new ScmMetrics();
+    uut.addOutput("M \u00e4.txt");
+    uut.addOutput(null);
+    uut.addChangedFiles(1);
+    final Properties properties = new Properties();
+
+    uut.addTo(properties);
+
+    assertEquals("8", properties.getProperty("build.metrics.scm.outputBytes"));
+    assertEquals("1", properties.getProperty("build.metrics.scm.changedFiles"));
+  }
+
+  @Test
+  public void metricsAreWrittenToFile() throws IOException {
+    final ScmMetrics uut = new ScmMetrics();
+    uut.stop("remoteGitLog", uut.start());
+    final File file = new File(tempFolder.getRoot(), "target/scm-metrics.txt");
+
+    uut.write(file);
+
+    final Properties properties = load(file);
+    assertEquals("1",
+        properties.getProperty("build.metrics.scm.remoteGitLog.calls"));
+    assertEquals("0", properties.getProperty("build.metrics.scm.changedFiles"));
+  }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2006-2025 smartics, Kronseder & Reiner GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package de.smartics.maven.plugin.buildmetadata.scm;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import de.smartics.maven.plugin.buildmetadata.scm.maven.StringRevision;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.Date;
+
+/**
+ * Tests {@link WorkingCopyStateStore}.
+ */
+public class WorkingCopyStateStoreTest {
+  // ********************************* Fields *********************************
+
+  // --- constants ------------------------------------------------------------
+
+  private static final String FINGERPRINT = "0123456789abcdef";
+
+  // --- members --------------------------------------------------------------
+
+  @Rule
+  public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private File file;
+
+  private WorkingCopyStateStore uut;
+
+  // ****************************** Inner Classes *****************************
+
+  // ********************************* Methods ********************************
+
+  // --- prepare --------------------------------------------------------------
+
+  @Before
+  public void setUp() {
+    file = new File(tempFolder.getRoot(), "target/scm-cache.properties");
+    uut = new WorkingCopyStateStore(file);
+  }
+
+  // --- helper ---------------------------------------------------------------
+
+  private static WorkingCopyState createState(
+      final LocallyModifiedInfo info, final Exception failure) {
+    return new WorkingCopyState(
+        new StringRevision("4711", new Date(1234567890000L)), info, failure);
+  }
+
+  // --- tests ----------------------------------------------------------------
+
+  @Test
+  public void loadsStoredStateForSameFingerprint() {
+    uut.store(FINGERPRINT,
+        createState(new LocallyModifiedInfo(true, "[a.txt:modified]"), null));
+
+    final WorkingCopyState state = uut.load(FINGERPRINT);
+
+    assertEquals("4711", state.getRevision().getId());
+    assertEquals(1234567890000L, state.getRevision().getDate().getTime());
+    assertTrue(state.getLocallyModifiedInfo().isLocallyModified());
+    assertEquals("[a.txt:modified]", state.getLocallyModifiedInfo().getFiles());
+    assertNull(state.getModificationFailure());
+  }
+
+  @Test
+  public void loadsStateWithoutModificationInfo() {
+    uut.store(FINGERPRINT, createState(null, null));
+
+    final WorkingCopyState state = uut.load(FINGERPRINT);
+
+    assertEquals("4711", state.getRevision().getId());
+    assertNull(state.getLocallyModifiedInfo());
+  }
+
+  @Test
+  public void ignoresStateForOtherFingerprint() {
+    uut.store(FINGERPRINT,
+        createState(new LocallyModifiedInfo(false, null), null));
+
+    assertNull(uut.load("fedcba9876543210"));
+  }
+
+  @Test
+  public void doesNotStoreFailedCheck() {
+    uut.store(FINGERPRINT, createState(null, new IllegalStateException()));
+
+    assertFalse(file.exists());
+    assertNull(uut.load(FINGERPRINT));
+  }
+
+  @Test
+  public void doesNotStoreTimedOutState() {
+    uut.store(FINGERPRINT, new WorkingCopyState(
+        new StringRevision("4711", new Date()), null, null, true));
+
+    assertFalse(file.exists());
+  }
+
+  @Test
+  public void loadsLatestStateForAnyFingerprint() {
+    uut.store(FINGERPRINT, createState(null, null));
+
+    final WorkingCopyState state = uut.loadLatest();
+
+    assertEquals("4711", state.getRevision().getId());
+  }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2006-2025 smartics, Kronseder & Reiner GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package de.smartics.maven.plugin.buildmetadata.scm.git;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.maven.scm.ScmFileStatus;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.util.SortedMap;
+
+/**
+ * Tests {@link GitBatchSession}.
+ */
+public class GitBatchSessionTest {
+  // ********************************* Fields *********************************
+
+  // --- constants ------------------------------------------------------------
+
+  private static final String IDS =
+      " N... 100644 100644 100644 "
+          + "ce013625030ba8dba906f756967f9e9ca394464a "
+          + "ce013625030ba8dba906f756967f9e9ca394464a ";
+
+  // --- members --------------------------------------------------------------
+
+  // ****************************** Inner Classes *****************************
+
+  // ********************************* Methods ********************************
+
+  // --- prepare --------------------------------------------------------------
+
+  // --- helper ---------------------------------------------------------------
+
+  private static SortedMap<String, ScmFileStatus> parse(final String output)
+      throws Exception {
+    return GitBatchSession
+        .parseStatus(new ByteArrayInputStream(output.getBytes("UTF-8")));
+  }
+
+  // --- tests ----------------------------------------------------------------
+
+  @Test
+  public void parsesOrdinaryEntries() throws Exception {
+    final SortedMap<String, ScmFileStatus> entries =
+        parse("1 .M" + IDS + "src/main/A.java\0" + "1 A." + IDS
+              + "src/main/B.java\0" + "1 .D" + IDS + "C.txt\0");
+
+    assertEquals(3, entries.size());
+    assertEquals(ScmFileStatus.MODIFIED, entries.get("src/main/A.java"));
+    assertEquals(ScmFileStatus.ADDED, entries.get("src/main/B.java"));
+    assertEquals(ScmFileStatus.DELETED, entries.get("C.txt"));
+  }
+
+  @Test
+  public void parsesPathsWithSpaces() throws Exception {
+    final SortedMap<String, ScmFileStatus> entries =
+        parse("1 M." + IDS + "dir with space/a b.txt\0");
+
+    assertEquals(ScmFileStatus.MODIFIED, entries.get("dir with space/a b.txt"));
+  }
+
+  @Test
+  public void skipsOriginalPathOfRenamedEntries() throws Exception {
+    final SortedMap<String, ScmFileStatus> entries =
+        parse("2 R." + IDS + "R100 new.txt\0old.txt\0" + "1 .M" + IDS
+              + "other.txt\0");
+
+    assertEquals(2, entries.size());
+    assertEquals(ScmFileStatus.RENAMED, entries.get("new.txt"));
+    assertEquals(ScmFileStatus.MODIFIED, entries.get("other.txt"));
+  }
+
+  @Test
+  public void reportsUnmergedEntriesAsModified() throws Exception {
+    final SortedMap<String, ScmFileStatus> entries =
+        parse("u UU N... 100644 100644 100644 100644 "
+              + "ce013625030ba8dba906f756967f9e9ca394464a "
+              + "ce013625030ba8dba906f756967f9e9ca394464a "
+              + "ce013625030ba8dba906f756967f9e9ca394464a conflict.txt\0");
+
+    assertEquals(ScmFileStatus.MODIFIED, entries.get("conflict.txt"));
+  }
+
+  @Test
+  public void ignoresUntrackedAndHeaderEntries() throws Exception {
+    final SortedMap<String, ScmFileStatus> entries =
+        parse("# branch.oid abc\0? untracked.txt\0! ignored.txt\0");
+
+    assertTrue(entries.isEmpty());
+  }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2006-2025 smartics, Kronseder & Reiner GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package de.smartics.maven.plugin.buildmetadata.scm.git;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Tests {@link GitIndex}.
+ */
+public class GitIndexTest {
+  // ********************************* Fields *********************************
+
+  // --- constants ------------------------------------------------------------
+
+  private static final String ID_A = "1111111111111111111111111111111111111111";
+
+  private static final String ID_B = "2222222222222222222222222222222222222222";
+
+  private static final String ID_TREE =
+      "3333333333333333333333333333333333333333";
+
+  // --- members --------------------------------------------------------------
+
+  // ****************************** Inner Classes *****************************
+
+  // ********************************* Methods ********************************
+
+  // --- prepare --------------------------------------------------------------
+
+  // --- helper ---------------------------------------------------------------
+
+  private static void writeHeader(final DataOutputStream out,
+      final int version, final int count) throws IOException {
+    out.writeBytes("DIRC");
+    out.writeInt(version);
+    out.writeInt(count);
+  }
+
+  private static void writeStat(final DataOutputStream out, final int mtime,
+      final int inode, final int size, final String id, final int flags)
+      throws IOException {
+    out.writeInt(mtime);
+    out.writeInt(0);
+    out.writeInt(mtime);
+    out.writeInt(7);
+    out.writeInt(1);
+    out.writeInt(inode);
+    out.writeInt(0100644);
+    out.writeInt(1000);
+    out.writeInt(1000);
+    out.writeInt(size);
+    for (int i = 0; i < 40; i += 2) {
+      out.writeByte(Integer.parseInt(id.substring(i, i + 2), 16));
+    }
+    out.writeShort(flags);
+  }
+
+  private static void writePaddedPath(final DataOutputStream out,
+      final String path) throws IOException {
+    out.writeBytes(path);
+    final int length = 62 + path.length();
+    final int padding = ((length + 8) & ~7) - length;
+    for (int i = 0; i < padding; i++) {
+      out.writeByte(0);
+    }
+  }
+
+  private static byte[] finish(final ByteArrayOutputStream bytes)
+      throws IOException {
+    bytes.write(new byte[20]);
+    return bytes.toByteArray();
+  }
+
+  // --- tests ----------------------------------------------------------------
+
+  @Test
+  public void readsVersion2EntriesAndCachedTree() throws IOException {
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    final DataOutputStream out = new DataOutputStream(bytes);
+    writeHeader(out, 2, 2);
+    writeStat(out, 100, 42, 5, ID_A, "a.txt".length());
+    writePaddedPath(out, "a.txt");
+    writeStat(out, 200, 43, 6, ID_B, 0x2000 | "dir/b.txt".length());
+    writePaddedPath(out, "dir/b.txt");
+    final String tree = "\u00002 1\n";
+    out.writeBytes("TREE");
+    out.writeInt(tree.length() + 20 + "dir\u0000-1 0\n".length());
+    out.writeBytes(tree);
+    for (int i = 0; i < 20; i++) {
+      out.writeByte(0x33);
+    }
+    out.writeBytes("dir\u0000-1 0\n");
+
+    final GitIndex uut = GitIndex.parse(finish(bytes), 0L);
+
+    final List<GitIndex.Entry> entries = uut.getEntries();
+    assertEquals(2, entries.size());
+    final GitIndex.Entry first = entries.get(0);
+    assertEquals("a.txt", first.getPath());
+    assertEquals(100L, first.getMtimeSeconds());
+    assertEquals(42L, first.getInode());
+    assertEquals(5L, first.getSize());
+    assertEquals(ID_A, first.getObjectId());
+    assertEquals(0, first.getStage());
+    final GitIndex.Entry second = entries.get(1);
+    assertEquals("dir/b.txt", second.getPath());
+    assertEquals(2, second.getStage());
+    assertEquals(ID_TREE, uut.getCachedTree(""));
+    assertNull(uut.getCachedTree("dir"));
+  }
+
+  @Test
+  public void readsVersion4PrefixCompressedPaths() throws IOException {
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    final DataOutputStream out = new DataOutputStream(bytes);
+    writeHeader(out, 4, 2);
+    writeStat(out, 100, 1, 1, ID_A, "src/Main.java".length());
+    out.writeByte(0);
+    out.writeBytes("src/Main.java\u0000");
+    writeStat(out, 100, 2, 1, ID_B, "src/Test.java".length());
+    out.writeByte("Main.java".length());
+    out.writeBytes("Test.java\u0000");
+
+    final GitIndex uut = GitIndex.parse(finish(bytes), 0L);
+
+    assertEquals("src/Main.java", uut.getEntries().get(0).getPath());
+    assertEquals("src/Test.java", uut.getEntries().get(1).getPath());
+  }
+
+  @Test
+  public void rejectsSplitIndex() throws IOException {
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    final DataOutputStream out = new DataOutputStream(bytes);
+    writeHeader(out, 2, 0);
+    out.writeBytes("link");
+    out.writeInt(0);
+
+    try {
+      GitIndex.parse(finish(bytes), 0L);
+      fail("Expected the split index to be rejected.");
+    } catch (final IOException e) {
+      assertTrue(e.getMessage().contains("not supported"));
+    }
+  }
+}
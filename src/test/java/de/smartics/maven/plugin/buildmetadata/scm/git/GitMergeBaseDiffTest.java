@@ -0,0 +1,77 @@
+/*
+ * Copyright 2006-2025 smartics, Kronseder & Reiner GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package de.smartics.maven.plugin.buildmetadata.scm.git;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.maven.scm.ScmFile;
+import org.apache.maven.scm.ScmFileStatus;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Tests {@link GitMergeBaseDiff}.
+ */
+public class GitMergeBaseDiffTest {
+  // ********************************* Fields *********************************
+
+  // --- constants ------------------------------------------------------------
+
+  // --- members --------------------------------------------------------------
+
+  // ****************************** Inner Classes *****************************
+
+  // ********************************* Methods ********************************
+
+  // --- prepare --------------------------------------------------------------
+
+  // --- helper ---------------------------------------------------------------
+
+  private static List<ScmFile> parse(final String output) throws Exception {
+    return GitMergeBaseDiff
+        .parseNameStatus(new ByteArrayInputStream(output.getBytes("UTF-8")));
+  }
+
+  // --- tests ----------------------------------------------------------------
+
+  @Test
+  public void parsesNameStatus() throws Exception {
+    final List<ScmFile> files = parse("M\0src/main/A.java\0A\0dir with space/"
+                                      + "b.bin\0D\0C.txt\0T\0link\0");
+
+    assertEquals(4, files.size());
+    assertEquals("src/main/A.java", files.get(0).getPath());
+    assertEquals(ScmFileStatus.MODIFIED, files.get(0).getStatus());
+    assertEquals("dir with space/b.bin", files.get(1).getPath());
+    assertEquals(ScmFileStatus.ADDED, files.get(1).getStatus());
+    assertEquals(ScmFileStatus.DELETED, files.get(2).getStatus());
+    assertEquals(ScmFileStatus.MODIFIED, files.get(3).getStatus());
+  }
+
+  @Test
+  public void emptyOutputHasNoChanges() throws Exception {
+    assertTrue(parse("").isEmpty());
+  }
+
+  @Test(expected = IOException.class)
+  public void truncatedOutputIsRejected() throws Exception {
+    parse("M\0");
+  }
+}
@@ -0,0 +1,242 @@
+/*
+ * Copyright 2006-2025 smartics, Kronseder & Reiner GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package de.smartics.maven.plugin.buildmetadata.scm.git;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.maven.scm.ScmFile;
+import org.apache.maven.scm.ScmFileStatus;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests {@link GitModificationChecker} with a working tree created by Git.
+ * The tests are skipped if Git is not installed.
+ */
+public class GitModificationCheckerTest {
+  // ********************************* Fields *********************************
+
+  // --- constants ------------------------------------------------------------
+
+  /**
+   * The modification time of the committed files, well before the index is
+   * written, so the files are not racily clean.
+   */
+  private static final long COMMITTED_TIME =
+      System.currentTimeMillis() - 100000L;
+
+  // --- members --------------------------------------------------------------
+
+  @Rule
+  public final TemporaryFolder folder = new TemporaryFolder();
+
+  private File workTree;
+
+  // ****************************** Inner Classes *****************************
+
+  // ********************************* Methods ********************************
+
+  // --- prepare --------------------------------------------------------------
+
+  @Before
+  public void setUp() throws Exception {
+    workTree = folder.newFolder("work");
+    assumeTrue(isGitInstalled());
+
+    git("init", "-q");
+    git("config", "core.autocrlf", "false");
+    git("config", "core.fileMode", "true");
+    write("a.txt", "aaaa");
+    write("dir/b.txt", "bbbb");
+    setCommittedTime("a.txt");
+    setCommittedTime("dir/b.txt");
+    git("add", ".");
+    git("-c", "user.name=Test", "-c", "user.email=test@example.com",
+        "commit", "-q", "-m", "Initial");
+  }
+
+  // --- helper ---------------------------------------------------------------
+
+  private boolean isGitInstalled() {
+    try {
+      git("--version");
+      return true;
+    } catch (final IOException e) {
+      return false;
+    }
+  }
+
+  private void git(final String... arguments) throws IOException {
+    final List<String> command = new ArrayList<String>();
+    command.add("git");
+    command.addAll(Arrays.asList(arguments));
+    final Process process = new ProcessBuilder(command).directory(workTree)
+        .redirectErrorStream(true).start();
+    try {
+      final String output = IOUtils.toString(process.getInputStream());
+      if (process.waitFor() != 0) {
+        throw new IOException("Command " + command + " failed: " + output);
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while running " + command + '.', e);
+    }
+  }
+
+  private void write(final String path, final String content)
+      throws IOException {
+    final File file = new File(workTree, path);
+    file.getParentFile().mkdirs();
+    final OutputStream out = new FileOutputStream(file);
+    try {
+      out.write(content.getBytes("UTF-8"));
+    } finally {
+      out.close();
+    }
+  }
+
+  private void setCommittedTime(final String path) throws IOException {
+    Files.setLastModifiedTime(new File(workTree, path).toPath(),
+        FileTime.fromMillis(COMMITTED_TIME));
+  }
+
+  private List<ScmFile> findModifications() throws IOException {
+    return new GitModificationChecker(GitRepository.find(workTree))
+        .findModifications(workTree);
+  }
+
+  private static void assertChange(final List<ScmFile> files,
+      final String path, final ScmFileStatus status) {
+    assertEquals(String.valueOf(files), 1, files.size());
+    assertEquals(path, files.get(0).getPath());
+    assertEquals(status, files.get(0).getStatus());
+  }
+
+  // --- tests ----------------------------------------------------------------
+
+  @Test
+  public void cleanWorkingTreeHasNoModifications() throws Exception {
+    assertTrue(findModifications().isEmpty());
+  }
+
+  @Test
+  public void checksLargeIndexWithGivenExecutor() throws Exception {
+    for (int i = 0; i < 2100; i++) {
+      final String path = "many/f" + i + ".txt";
+      write(path, "content");
+      setCommittedTime(path);
+    }
+    git("add", "many");
+    git("-c", "user.name=Test", "-c", "user.email=test@example.com",
+        "commit", "-q", "-m", "Many");
+    write("many/f1234.txt", "modified");
+    final AtomicInteger executions = new AtomicInteger();
+    final Executor executor = new Executor() {
+      public void execute(final Runnable task) {
+        executions.incrementAndGet();
+        new Thread(task).start();
+      }
+    };
+
+    final List<ScmFile> files =
+        new GitModificationChecker(GitRepository.find(workTree), executor)
+            .findModifications(workTree);
+
+    assertTrue(executions.get() > 1);
+    assertChange(files, "many/f1234.txt", ScmFileStatus.MODIFIED);
+  }
+
+  @Test
+  public void detectsModifiedFile() throws Exception {
+    write("dir/b.txt", "modified");
+
+    assertChange(findModifications(), "dir/b.txt", ScmFileStatus.MODIFIED);
+  }
+
+  @Test
+  public void detectsDeletedFile() throws Exception {
+    new File(workTree, "a.txt").delete();
+
+    assertChange(findModifications(), "a.txt", ScmFileStatus.DELETED);
+  }
+
+  @Test
+  public void detectsStagedAddedFile() throws Exception {
+    write("dir/c.txt", "cccc");
+    git("add", "dir/c.txt");
+
+    assertChange(findModifications(), "dir/c.txt", ScmFileStatus.ADDED);
+  }
+
+  @Test
+  public void trustsStatInformationOfIndex() throws Exception {
+    write("a.txt", "xxxx");
+    setCommittedTime("a.txt");
+
+    assertTrue(findModifications().isEmpty());
+  }
+
+  @Test
+  public void hashesRacilyCleanFile() throws Exception {
+    write("a.txt", "xxxx");
+    setCommittedTime("a.txt");
+    Files.setLastModifiedTime(new File(workTree, ".git/index").toPath(),
+        FileTime.fromMillis(COMMITTED_TIME));
+
+    assertChange(findModifications(), "a.txt", ScmFileStatus.MODIFIED);
+  }
+
+  @Test(expected = IOException.class)
+  public void requiresGitIfEndOfLineConversionApplies() throws Exception {
+    git("config", "core.autocrlf", "true");
+    write("a.txt", "modified");
+
+    findModifications();
+  }
+
+  @Test(expected = IOException.class)
+  public void requiresGitIfAttributesApply() throws Exception {
+    write(".gitattributes", "*.txt text\n");
+    git("add", ".gitattributes");
+    write("a.txt", "modified");
+
+    findModifications();
+  }
+
+  @Test
+  public void ignoresContentFiltersForUnmodifiedFiles() throws Exception {
+    git("config", "core.autocrlf", "true");
+
+    assertTrue(findModifications().isEmpty());
+  }
+}
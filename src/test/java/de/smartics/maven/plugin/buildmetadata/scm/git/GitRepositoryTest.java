@@ -0,0 +1,260 @@
+/*
+ * Copyright 2006-2025 smartics, Kronseder & Reiner GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package de.smartics.maven.plugin.buildmetadata.scm.git;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Tests {@link GitRepository}.
+ */
+public class GitRepositoryTest {
+  // ********************************* Fields *********************************
+
+  // --- constants ------------------------------------------------------------
+
+  private static final long COMMIT_TIME = 1500000000L;
+
+  // --- members --------------------------------------------------------------
+
+  @Rule
+  public final TemporaryFolder folder = new TemporaryFolder();
+
+  private File workTree;
+
+  private File gitDir;
+
+  private String commitId;
+
+  // ****************************** Inner Classes *****************************
+
+  // ********************************* Methods ********************************
+
+  // --- prepare --------------------------------------------------------------
+
+  @Before
+  public void setUp() throws Exception {
+    workTree = folder.newFolder("work");
+    gitDir = new File(workTree, ".git");
+    new File(gitDir, "refs/heads").mkdirs();
+    commitId = writeLooseObject("commit",
+        "tree 4b825dc642cb6eb9a060e54bf8d69288fbee4904\n"
+            + "author A <a@example.com> 1400000000 +0100\n"
+            + "committer C <c@example.com> " + COMMIT_TIME + " +0200\n\n"
+            + "Message\n");
+  }
+
+  // --- helper ---------------------------------------------------------------
+
+  private String writeLooseObject(final String type, final String content)
+      throws IOException, NoSuchAlgorithmException {
+    final byte[] body = content.getBytes("UTF-8");
+    final byte[] header =
+        (type + ' ' + body.length + '\0').getBytes("UTF-8");
+    final MessageDigest digest = MessageDigest.getInstance("SHA-1");
+    digest.update(header);
+    digest.update(body);
+    final String id = GitRepository.toHex(digest.digest());
+
+    final File file = new File(gitDir,
+        "objects/" + id.substring(0, 2) + '/' + id.substring(2));
+    file.getParentFile().mkdirs();
+    final OutputStream out =
+        new DeflaterOutputStream(new FileOutputStream(file));
+    try {
+      out.write(header);
+      out.write(body);
+    } finally {
+      out.close();
+    }
+    return id;
+  }
+
+  private static void write(final File file, final String content)
+      throws IOException {
+    file.getParentFile().mkdirs();
+    final OutputStream out = new FileOutputStream(file);
+    try {
+      out.write(content.getBytes("UTF-8"));
+    } finally {
+      out.close();
+    }
+  }
+
+  private static byte[] deflate(final byte[] content) throws IOException {
+    final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    final OutputStream out = new DeflaterOutputStream(buffer);
+    try {
+      out.write(content);
+    } finally {
+      out.close();
+    }
+    return buffer.toByteArray();
+  }
+
+  /**
+   * Writes a pack with a single blob and its index in version 1 format.
+   */
+  private void writeVersion1Pack(final byte[] id, final byte[] content)
+      throws IOException {
+    final File packDirectory = new File(gitDir, "objects/pack");
+    packDirectory.mkdirs();
+
+    final DataOutputStream pack = new DataOutputStream(
+        new FileOutputStream(new File(packDirectory, "pack-test.pack")));
+    try {
+      pack.write("PACK".getBytes("UTF-8"));
+      pack.writeInt(2);
+      pack.writeInt(1);
+      pack.writeByte((3 << 4) | content.length);
+      pack.write(deflate(content));
+    } finally {
+      pack.close();
+    }
+
+    final DataOutputStream index = new DataOutputStream(
+        new FileOutputStream(new File(packDirectory, "pack-test.idx")));
+    try {
+      for (int i = 0; i < 256; i++) {
+        index.writeInt((id[0] & 0xff) <= i ? 1 : 0);
+      }
+      index.writeInt(12);
+      index.write(id);
+    } finally {
+      index.close();
+    }
+  }
+
+  // --- tests ----------------------------------------------------------------
+
+  @Test
+  public void resolvesHeadViaLooseRef() throws Exception {
+    write(new File(gitDir, "HEAD"), "ref: refs/heads/master\n");
+    write(new File(gitDir, "refs/heads/master"), commitId + '\n');
+
+    final GitRepository uut = GitRepository.find(new File(workTree, "sub"));
+
+    assertEquals(workTree, uut.getWorkTree());
+    assertEquals(commitId, uut.resolveCommit("HEAD"));
+    assertEquals(COMMIT_TIME * 1000L,
+        uut.readCommitDate(commitId).getTime());
+  }
+
+  @Test
+  public void resolvesPackedRefs() throws Exception {
+    write(new File(gitDir, "HEAD"), "ref: refs/heads/master\n");
+    write(new File(gitDir, "packed-refs"),
+        "# pack-refs with: peeled fully-peeled sorted \n" + commitId
+            + " refs/heads/master\n" + commitId
+            + " refs/remotes/origin/master\n");
+
+    final GitRepository uut = GitRepository.find(workTree);
+
+    assertEquals(commitId, uut.resolveCommit("HEAD"));
+    assertEquals(commitId, uut.resolveCommit("origin/master"));
+  }
+
+  @Test
+  public void peelsAnnotatedTags() throws Exception {
+    final String tagId = writeLooseObject("tag", "object " + commitId
+        + "\ntype commit\ntag v1\ntagger T <t@example.com> 1 +0000\n\nTag\n");
+    write(new File(gitDir, "refs/tags/v1"), tagId + '\n');
+
+    final GitRepository uut = GitRepository.find(workTree);
+
+    assertEquals(tagId, uut.resolve("v1"));
+    assertEquals(commitId, uut.resolveCommit("v1"));
+  }
+
+  @Test
+  public void returnsNullForUnbornHead() throws Exception {
+    write(new File(gitDir, "HEAD"), "ref: refs/heads/master\n");
+
+    final GitRepository uut = GitRepository.find(workTree);
+
+    assertNull(uut.resolveCommit("HEAD"));
+  }
+
+  @Test
+  public void followsGitFileOfLinkedWorktree() throws Exception {
+    write(new File(gitDir, "refs/heads/master"), commitId + '\n');
+    final File worktreeGitDir = new File(gitDir, "worktrees/linked");
+    write(new File(worktreeGitDir, "HEAD"), "ref: refs/heads/master\n");
+    write(new File(worktreeGitDir, "commondir"), "../..\n");
+    final File linked = folder.newFolder("linked");
+    write(new File(linked, ".git"),
+        "gitdir: " + worktreeGitDir.getAbsolutePath() + '\n');
+
+    final GitRepository uut = GitRepository.find(linked);
+
+    assertEquals(gitDir.getCanonicalFile(), uut.getCommonDir());
+    assertEquals(commitId, uut.resolveCommit("HEAD"));
+    assertEquals(COMMIT_TIME * 1000L,
+        uut.readCommitDate(commitId).getTime());
+  }
+
+  @Test
+  public void detectsShallowClone() throws Exception {
+    final GitRepository uut = GitRepository.find(workTree);
+    assertFalse(uut.isShallow());
+
+    write(new File(gitDir, "shallow"), commitId + '\n');
+
+    assertTrue(uut.isShallow());
+  }
+
+  @Test
+  public void readsObjectStartingWithZeroFromVersion1PackIndex()
+      throws Exception {
+    final String id = "00" + commitId.substring(2);
+    writeVersion1Pack(GitRepository.toBytes(id), "hello".getBytes("UTF-8"));
+
+    final GitRepository.GitObject object =
+        GitRepository.find(workTree).readObject(id);
+
+    assertEquals("blob", object.getType());
+    assertArrayEquals("hello".getBytes("UTF-8"), object.getContent());
+  }
+
+  @Test
+  public void appliesDelta() throws Exception {
+    final byte[] base = "Hello World".getBytes("UTF-8");
+    final byte[] delta =
+        {11, 12, (byte) 0x90, 6, 6, 'B', 'u', 'i', 'l', 'd', '!'};
+
+    final byte[] result = GitRepository.applyDelta(base, delta);
+
+    assertArrayEquals("Hello Build!".getBytes("UTF-8"), result);
+  }
+}
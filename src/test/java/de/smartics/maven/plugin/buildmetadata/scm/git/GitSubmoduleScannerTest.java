@@ -0,0 +1,206 @@
+/*
+ * Copyright 2006-2025 smartics, Kronseder & Reiner GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package de.smartics.maven.plugin.buildmetadata.scm.git;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import de.smartics.maven.plugin.buildmetadata.scm.git.GitSubmoduleScanner.Submodule;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Tests {@link GitSubmoduleScanner}.
+ */
+public class GitSubmoduleScannerTest {
+  // ********************************* Fields *********************************
+
+  // --- constants ------------------------------------------------------------
+
+  private static final long COMMIT_TIME = 1500000000L;
+
+  private static final String ID_RECORDED =
+      "1111111111111111111111111111111111111111";
+
+  // --- members --------------------------------------------------------------
+
+  @Rule
+  public final TemporaryFolder folder = new TemporaryFolder();
+
+  private File workTree;
+
+  private GitRepository repository;
+
+  // ****************************** Inner Classes *****************************
+
+  // ********************************* Methods ********************************
+
+  // --- prepare --------------------------------------------------------------
+
+  @Before
+  public void setUp() throws IOException {
+    workTree = folder.newFolder("super");
+    new File(workTree, ".git").mkdirs();
+    repository = GitRepository.find(workTree);
+  }
+
+  // --- helper ---------------------------------------------------------------
+
+  private void writeIndex(final String gitlinkPath) throws IOException {
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    final DataOutputStream out = new DataOutputStream(bytes);
+    out.writeBytes("DIRC");
+    out.writeInt(2);
+    out.writeInt(1);
+    for (int i = 0; i < 6; i++) {
+      out.writeInt(0);
+    }
+    out.writeInt(GitIndex.Entry.TYPE_GITLINK);
+    out.writeInt(0);
+    out.writeInt(0);
+    out.writeInt(0);
+    for (int i = 0; i < 40; i += 2) {
+      out.writeByte(Integer.parseInt(ID_RECORDED.substring(i, i + 2), 16));
+    }
+    out.writeShort(gitlinkPath.length());
+    out.writeBytes(gitlinkPath);
+    final int length = 62 + gitlinkPath.length();
+    final int padding = ((length + 8) & ~7) - length;
+    for (int i = 0; i < padding; i++) {
+      out.writeByte(0);
+    }
+    bytes.write(new byte[20]);
+    write(new File(workTree, ".git/index"), bytes.toByteArray());
+  }
+
+  private static String writeCommit(final File gitDir) throws Exception {
+    final byte[] body = ("tree 4b825dc642cb6eb9a060e54bf8d69288fbee4904\n"
+                         + "author A <a@example.com> 1400000000 +0100\n"
+                         + "committer C <c@example.com> " + COMMIT_TIME
+                         + " +0200\n\nMessage\n").getBytes("UTF-8");
+    final byte[] header = ("commit " + body.length + '\0').getBytes("UTF-8");
+    final MessageDigest digest = MessageDigest.getInstance("SHA-1");
+    digest.update(header);
+    digest.update(body);
+    final String id = GitRepository.toHex(digest.digest());
+
+    final File file = new File(gitDir,
+        "objects/" + id.substring(0, 2) + '/' + id.substring(2));
+    file.getParentFile().mkdirs();
+    final OutputStream out =
+        new DeflaterOutputStream(new FileOutputStream(file));
+    try {
+      out.write(header);
+      out.write(body);
+    } finally {
+      out.close();
+    }
+    return id;
+  }
+
+  private static void write(final File file, final byte[] content)
+      throws IOException {
+    file.getParentFile().mkdirs();
+    final OutputStream out = new FileOutputStream(file);
+    try {
+      out.write(content);
+    } finally {
+      out.close();
+    }
+  }
+
+  // --- tests ----------------------------------------------------------------
+
+  @Test
+  public void findsNoSubmodulesWithoutIndex() throws IOException {
+    final GitSubmoduleScanner uut = new GitSubmoduleScanner(repository);
+
+    assertTrue(uut.scan(false).isEmpty());
+  }
+
+  @Test
+  public void reportsRecordedCommitOfUninitializedSubmodule()
+      throws IOException {
+    writeIndex("libs/lib");
+    new File(workTree, "libs/lib").mkdirs();
+    final GitSubmoduleScanner uut = new GitSubmoduleScanner(repository);
+
+    final List<Submodule> submodules = uut.scan(false);
+
+    assertEquals(1, submodules.size());
+    final Submodule submodule = submodules.get(0);
+    assertEquals("libs/lib", submodule.getPath());
+    assertEquals(ID_RECORDED, submodule.getRecordedId());
+    assertNull(submodule.getId());
+    assertNull(submodule.getDate());
+  }
+
+  @Test
+  public void readsCheckedOutCommitOfSubmodule() throws Exception {
+    writeIndex("libs/lib");
+    final File gitDir = new File(workTree, ".git/modules/lib");
+    final String commitId = writeCommit(gitDir);
+    write(new File(gitDir, "HEAD"), (commitId + '\n').getBytes("UTF-8"));
+    write(new File(workTree, "libs/lib/.git"),
+        "gitdir: ../../.git/modules/lib\n".getBytes("UTF-8"));
+    final GitSubmoduleScanner uut = new GitSubmoduleScanner(repository);
+
+    final List<Submodule> submodules = uut.scan(false);
+
+    assertEquals(1, submodules.size());
+    final Submodule submodule = submodules.get(0);
+    assertEquals(commitId, submodule.getId());
+    assertEquals(COMMIT_TIME * 1000L, submodule.getDate().getTime());
+    assertNull(submodule.getLocallyModified());
+  }
+
+  @Test
+  public void inspectsSubmodulesWithGivenExecutor() throws IOException {
+    writeIndex("libs/lib");
+    new File(workTree, "libs/lib").mkdirs();
+    final AtomicInteger executions = new AtomicInteger();
+    final Executor executor = new Executor() {
+      public void execute(final Runnable task) {
+        executions.incrementAndGet();
+        new Thread(task).start();
+      }
+    };
+    final GitSubmoduleScanner uut =
+        new GitSubmoduleScanner(repository, executor);
+
+    final List<Submodule> submodules = uut.scan(false);
+
+    assertEquals(1, executions.get());
+    assertEquals(1, submodules.size());
+    assertEquals(ID_RECORDED, submodules.get(0).getRecordedId());
+  }
+}
@@ -0,0 +1,259 @@
+/*
+ * Copyright 2006-2025 smartics, Kronseder & Reiner GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package de.smartics.maven.plugin.buildmetadata.scm.hg;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import de.smartics.maven.plugin.buildmetadata.scm.GlobMatcher;
+
+import org.apache.maven.scm.ScmFile;
+import org.apache.maven.scm.ScmFileStatus;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Tests {@link HgRepository} and {@link HgModificationChecker} with a
+ * repository written by the test.
+ */
+public class HgRepositoryTest {
+  // ********************************* Fields *********************************
+
+  // --- constants ------------------------------------------------------------
+
+  private static final long COMMIT_TIME = 1500000000L;
+
+  private static final String CONTENT = "Hello World!\n";
+
+  // --- members --------------------------------------------------------------
+
+  @Rule
+  public final TemporaryFolder folder = new TemporaryFolder();
+
+  private File root;
+
+  private File storeDir;
+
+  private byte[] changesetNode;
+
+  private File file;
+
+  // ****************************** Inner Classes *****************************
+
+  // ********************************* Methods ********************************
+
+  // --- prepare --------------------------------------------------------------
+
+  @Before
+  public void setUp() throws Exception {
+    root = folder.newFolder("work");
+    final File hgDir = new File(root, ".hg");
+    storeDir = new File(hgDir, "store");
+    write(new File(hgDir, "requires"),
+        "dotencode\nfncache\ngeneraldelta\nrevlogv1\nstore\n"
+            .getBytes("UTF-8"));
+
+    final byte[] fileNode = node(3);
+    writeRevlog(new File(storeDir, "data/sub/_foo__bar.txt.i"),
+        new byte[][] {("u\1\ncopy: x\n\1\n" + CONTENT).getBytes("UTF-8")},
+        new int[] {0}, new byte[][] {fileNode});
+
+    final byte[] manifestNode = node(2);
+    writeRevlog(new File(storeDir, "00manifest.i"),
+        new byte[][] {compress("sub/Foo_bar.txt\0"
+                               + HgRepository.toHex(fileNode) + "\n")},
+        new int[] {0}, new byte[][] {manifestNode});
+
+    changesetNode = node(1);
+    writeRevlog(new File(storeDir, "00changelog.i"),
+        new byte[][] {("u" + HgRepository.toHex(manifestNode) + "\nuser\n"
+                       + COMMIT_TIME + " -7200\nsub/Foo_bar.txt\n\nMessage")
+                           .getBytes("UTF-8")},
+        new int[] {0}, new byte[][] {changesetNode});
+
+    file = new File(root, "sub/Foo_bar.txt");
+    write(file, CONTENT.getBytes("UTF-8"));
+  }
+
+  // --- helper ---------------------------------------------------------------
+
+  private static byte[] node(final int value) {
+    final byte[] node = new byte[Revlog.NODE_SIZE];
+    Arrays.fill(node, (byte) value);
+    return node;
+  }
+
+  private static byte[] compress(final String text) throws IOException {
+    final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    final OutputStream out = new DeflaterOutputStream(buffer);
+    try {
+      out.write(text.getBytes("UTF-8"));
+    } finally {
+      out.close();
+    }
+    return buffer.toByteArray();
+  }
+
+  private static void writeRevlog(final File indexFile, final byte[][] chunks,
+      final int[] bases, final byte[][] nodes) throws IOException {
+    final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    final DataOutputStream out = new DataOutputStream(buffer);
+    for (int i = 0; i < chunks.length; i++) {
+      if (i == 0) {
+        out.writeInt(1 | 1 << 16 | 1 << 17);
+        out.writeInt(0);
+      } else {
+        out.writeLong(0L);
+      }
+      out.writeInt(chunks[i].length);
+      out.writeInt(-1);
+      out.writeInt(bases[i]);
+      out.writeInt(i);
+      out.writeInt(i - 1);
+      out.writeInt(-1);
+      out.write(nodes[i]);
+      out.write(new byte[12]);
+      out.write(chunks[i]);
+    }
+    out.flush();
+    write(indexFile, buffer.toByteArray());
+  }
+
+  private void writeDirstate(final int size, final int mtime)
+      throws IOException {
+    final byte[] path = "sub/Foo_bar.txt".getBytes("UTF-8");
+    final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    final DataOutputStream out = new DataOutputStream(buffer);
+    out.write(changesetNode);
+    out.write(new byte[Revlog.NODE_SIZE]);
+    out.writeByte('n');
+    out.writeInt(file.canExecute() ? 0755 : 0644);
+    out.writeInt(size);
+    out.writeInt(mtime);
+    out.writeInt(path.length);
+    out.write(path);
+    out.flush();
+    write(new File(root, ".hg/dirstate"), buffer.toByteArray());
+  }
+
+  private static void write(final File file, final byte[] content)
+      throws IOException {
+    file.getParentFile().mkdirs();
+    final OutputStream out = new FileOutputStream(file);
+    try {
+      out.write(content);
+    } finally {
+      out.close();
+    }
+  }
+
+  private List<ScmFile> findModifications() throws IOException {
+    final HgRepository repository = HgRepository.find(root);
+    return new HgModificationChecker(repository)
+        .findModifications(new File(root, "sub"), GlobMatcher.ALL);
+  }
+
+  // --- tests ----------------------------------------------------------------
+
+  @Test
+  public void readsChangesetOfDirstateParent() throws Exception {
+    writeDirstate(-1, -1);
+
+    final HgRepository uut = HgRepository.find(new File(root, "sub"));
+    final byte[] parent = uut.readDirstate().getParent();
+    final HgRepository.Changeset changeset = uut.readChangeset(parent);
+
+    assertEquals(root, uut.getRoot());
+    assertArrayEquals(changesetNode, parent);
+    assertEquals("010101010101", changeset.getShortId());
+    assertEquals(COMMIT_TIME * 1000L, changeset.getDate().getTime());
+  }
+
+  @Test
+  public void unknownChangesetIsNotFound() throws Exception {
+    final HgRepository uut = HgRepository.find(root);
+
+    assertNull(uut.readChangeset(node(9)));
+  }
+
+  @Test
+  public void readsFileRevisionWithoutMetadata() throws Exception {
+    final HgRepository uut = HgRepository.find(root);
+    final String node = uut.readManifest(HgRepository.toHex(node(2)))
+        .get("sub/Foo_bar.txt");
+
+    assertEquals(CONTENT,
+        new String(uut.readFile("sub/Foo_bar.txt", node), "UTF-8"));
+  }
+
+  @Test
+  public void encodesStorePaths() throws Exception {
+    final HgRepository uut = HgRepository.find(root);
+
+    assertEquals("data/_foo__bar.txt.i",
+        uut.encodeStorePath("data/Foo_bar.txt.i"));
+    assertEquals("data/au~78.txt.i", uut.encodeStorePath("data/aux.txt.i"));
+    assertEquals("data/~2ehgignore.i", uut.encodeStorePath("data/.hgignore.i"));
+    assertEquals("data/dir.i.hg/x.i", uut.encodeStorePath("data/dir.i/x.i"));
+    assertEquals("data/a~3fb~7e.i", uut.encodeStorePath("data/a?b~.i"));
+  }
+
+  @Test
+  public void unchangedFileIsNotReported() throws Exception {
+    writeDirstate(CONTENT.length(),
+        (int) (file.lastModified() / 1000L & 0x7fffffffL));
+
+    assertTrue(findModifications().isEmpty());
+  }
+
+  @Test
+  public void fileWithUnknownTimestampIsComparedByContent() throws Exception {
+    writeDirstate(CONTENT.length(), -1);
+    assertTrue(findModifications().isEmpty());
+
+    write(file, CONTENT.toUpperCase().getBytes("UTF-8"));
+    final List<ScmFile> files = findModifications();
+
+    assertEquals(1, files.size());
+    assertEquals("Foo_bar.txt", files.get(0).getPath());
+    assertEquals(ScmFileStatus.MODIFIED, files.get(0).getStatus());
+  }
+
+  @Test
+  public void missingFileIsDeleted() throws Exception {
+    writeDirstate(CONTENT.length(), -1);
+    assertTrue(file.delete());
+
+    final List<ScmFile> files = findModifications();
+
+    assertEquals(1, files.size());
+    assertEquals(ScmFileStatus.DELETED, files.get(0).getStatus());
+  }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2006-2025 smartics, Kronseder & Reiner GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package de.smartics.maven.plugin.buildmetadata.scm.hg;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Tests {@link Revlog}.
+ */
+public class RevlogTest {
+  // ********************************* Fields *********************************
+
+  // --- constants ------------------------------------------------------------
+
+  // --- members --------------------------------------------------------------
+
+  // ****************************** Inner Classes *****************************
+
+  // ********************************* Methods ********************************
+
+  // --- prepare --------------------------------------------------------------
+
+  // --- helper ---------------------------------------------------------------
+
+  private static byte[] delta(final Object... hunks) throws IOException {
+    final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    final DataOutputStream out = new DataOutputStream(buffer);
+    for (int i = 0; i < hunks.length; i += 3) {
+      final byte[] data = ((String) hunks[i + 2]).getBytes("UTF-8");
+      out.writeInt(((Integer) hunks[i]).intValue());
+      out.writeInt(((Integer) hunks[i + 1]).intValue());
+      out.writeInt(data.length);
+      out.write(data);
+    }
+    out.flush();
+    return buffer.toByteArray();
+  }
+
+  private static String apply(final String text, final byte[] delta)
+      throws IOException {
+    return new String(Revlog.applyDelta(text.getBytes("UTF-8"), delta),
+        "UTF-8");
+  }
+
+  // --- tests ----------------------------------------------------------------
+
+  @Test
+  public void emptyDeltaKeepsText() throws Exception {
+    assertEquals("abc", apply("abc", new byte[0]));
+  }
+
+  @Test
+  public void appliesHunksInOrder() throws Exception {
+    final byte[] delta = delta(0, 1, "A", 2, 2, "XY", 3, 5, "");
+
+    assertEquals("AbXYcf", apply("abcdef", delta));
+  }
+
+  @Test(expected = IOException.class)
+  public void overlappingHunksAreRejected() throws Exception {
+    apply("abcdef", delta(2, 4, "x", 1, 3, "y"));
+  }
+
+  @Test(expected = IOException.class)
+  public void truncatedDeltaIsRejected() throws Exception {
+    apply("abcdef", new byte[] {0, 0, 0, 1});
+  }
+}
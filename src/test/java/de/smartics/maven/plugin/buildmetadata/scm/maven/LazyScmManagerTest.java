@@ -0,0 +1,138 @@
+/*
+ * Copyright 2006-2025 smartics, Kronseder & Reiner GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package de.smartics.maven.plugin.buildmetadata.scm.maven;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import org.apache.maven.scm.manager.NoSuchScmProviderException;
+import org.apache.maven.scm.provider.ScmProvider;
+import org.apache.maven.scm.provider.git.gitexe.GitExeScmProvider;
+import org.apache.maven.scm.repository.ScmRepository;
+import org.codehaus.plexus.PlexusContainer;
+import org.codehaus.plexus.logging.Logger;
+import org.codehaus.plexus.logging.console.ConsoleLogger;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tests {@link LazyScmManager}.
+ */
+public class LazyScmManagerTest {
+  // ********************************* Fields *********************************
+
+  // --- constants ------------------------------------------------------------
+
+  // --- members --------------------------------------------------------------
+
+  private final Map<String, ScmProvider> providers =
+      new HashMap<String, ScmProvider>();
+
+  private final List<String> lookups = new ArrayList<String>();
+
+  private LazyScmManager uut;
+
+  // ****************************** Inner Classes *****************************
+
+  // ********************************* Methods ********************************
+
+  // --- prepare --------------------------------------------------------------
+
+  @Before
+  public void setUp() {
+    providers.put("git", new GitExeScmProvider());
+    uut = new LazyScmManager(createContainer());
+  }
+
+  // --- helper ---------------------------------------------------------------
+
+  private PlexusContainer createContainer() {
+    final Logger logger = new ConsoleLogger(Logger.LEVEL_DISABLED, "test");
+    return (PlexusContainer) Proxy.newProxyInstance(
+        PlexusContainer.class.getClassLoader(),
+        new Class<?>[] {PlexusContainer.class}, new InvocationHandler() {
+          public Object invoke(final Object proxy, final Method method,
+              final Object[] args) {
+            final String name = method.getName();
+            if ("getLogger".equals(name)) {
+              return logger;
+            }
+            if ("hasComponent".equals(name) && args.length == 2) {
+              return providers.containsKey(args[1]);
+            }
+            if ("lookup".equals(name) && args.length == 2) {
+              lookups.add((String) args[1]);
+              return providers.get(args[1]);
+            }
+            throw new UnsupportedOperationException(name);
+          }
+        });
+  }
+
+  // --- tests ----------------------------------------------------------------
+
+  @Test
+  public void providerIsLookedUpOnFirstRequestOnly() throws Exception {
+    final ScmProvider first = uut.getProviderByType("git");
+    final ScmProvider second = uut.getProviderByType("git");
+
+    assertSame(providers.get("git"), first);
+    assertSame(first, second);
+    assertEquals(Arrays.asList("git"), lookups);
+  }
+
+  @Test
+  public void repositoryIsCreatedWithRequestedProviderOnly()
+      throws Exception {
+    final ScmRepository repository = uut
+        .makeScmRepository("scm:git:https://example.org/project.git");
+
+    assertEquals("git", repository.getProvider());
+    assertEquals(Arrays.asList("git"), lookups);
+  }
+
+  @Test
+  public void unknownProviderIsReported() {
+    try {
+      uut.getProviderByType("svn");
+      fail("Expected the provider to be missing.");
+    } catch (final NoSuchScmProviderException e) {
+      assertEquals(0, lookups.size());
+    }
+  }
+
+  @Test
+  public void configuredImplementationIsLookedUp() {
+    uut.setScmProviderImplementation("git", "jgit");
+
+    try {
+      uut.getProviderByType("git");
+      fail("Expected the implementation to be missing.");
+    } catch (final NoSuchScmProviderException e) {
+      assertEquals(0, lookups.size());
+    }
+  }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2006-2025 smartics, Kronseder & Reiner GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package de.smartics.maven.plugin.buildmetadata.scm.maven;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+
+/**
+ * Tests {@link QueryRangeStore}.
+ */
+public class QueryRangeStoreTest {
+  // ********************************* Fields *********************************
+
+  // --- constants ------------------------------------------------------------
+
+  // --- members --------------------------------------------------------------
+
+  @Rule
+  public final TemporaryFolder folder = new TemporaryFolder();
+
+  // ****************************** Inner Classes *****************************
+
+  // ********************************* Methods ********************************
+
+  // --- prepare --------------------------------------------------------------
+
+  // --- helper ---------------------------------------------------------------
+
+  // --- tests ----------------------------------------------------------------
+
+  @Test
+  public void missingFileProvidesNoRange() {
+    final QueryRangeStore uut =
+        new QueryRangeStore(new File(folder.getRoot(), "range"), "svn");
+
+    assertEquals(0, uut.load());
+  }
+
+  @Test
+  public void noFileIgnoresStore() {
+    final QueryRangeStore uut = new QueryRangeStore(null, "svn");
+
+    uut.store(60);
+
+    assertEquals(0, uut.load());
+  }
+
+  @Test
+  public void storedRangeIsLoadedPerKey() {
+    final File file = new File(folder.getRoot(), "target/range.properties");
+    new QueryRangeStore(file, "svn").store(120);
+    new QueryRangeStore(file, "git").store(30);
+
+    assertEquals(120, new QueryRangeStore(file, "svn").load());
+    assertEquals(30, new QueryRangeStore(file, "git").load());
+  }
+}
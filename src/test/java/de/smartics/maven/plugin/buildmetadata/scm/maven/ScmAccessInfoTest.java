@@ -0,0 +1,97 @@
+/*
+ * Copyright 2006-2025 smartics, Kronseder & Reiner GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package de.smartics.maven.plugin.buildmetadata.scm.maven;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+import org.apache.maven.scm.provider.ScmProvider;
+import org.apache.maven.scm.provider.ScmProviderRepository;
+import org.apache.maven.scm.repository.ScmRepository;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+/**
+ * Tests {@link ScmAccessInfo}.
+ */
+public class ScmAccessInfoTest {
+  // ********************************* Fields *********************************
+
+  // --- constants ------------------------------------------------------------
+
+  // --- members --------------------------------------------------------------
+
+  @Rule
+  public final TemporaryFolder folder = new TemporaryFolder();
+
+  private File queryRangeFile;
+
+  private ScmAccessInfo uut;
+
+  // ****************************** Inner Classes *****************************
+
+  // ********************************* Methods ********************************
+
+  // --- prepare --------------------------------------------------------------
+
+  @Before
+  public void setUp() throws Exception {
+    queryRangeFile = new File(folder.getRoot(), "query-range.properties");
+    uut = new ScmAccessInfo();
+    uut.setRootDirectory(folder.newFolder("work"));
+    uut.setQueryRangeFile(queryRangeFile);
+  }
+
+  // --- helper ---------------------------------------------------------------
+
+  private static ScmProvider createProviderWithoutChangeLog() {
+    return (ScmProvider) Proxy.newProxyInstance(
+        ScmProvider.class.getClassLoader(),
+        new Class<?>[] {ScmProvider.class}, new InvocationHandler() {
+          public Object invoke(final Object proxy, final Method method,
+              final Object[] args) {
+            return null;
+          }
+        });
+  }
+
+  private static ScmRepository createRepository(final String provider) {
+    return new ScmRepository(provider, new ScmProviderRepository() {});
+  }
+
+  // --- tests ----------------------------------------------------------------
+
+  @Test
+  public void missingChangeLogResultIsReturned() {
+    assertNull(uut.fetchChangeLog(createRepository("svn"),
+        createProviderWithoutChangeLog()));
+    assertFalse(queryRangeFile.exists());
+  }
+
+  @Test
+  public void missingLimitedChangeLogResultIsReturned() {
+    assertNull(uut.fetchChangeLog(createRepository("git"),
+        createProviderWithoutChangeLog()));
+    assertFalse(queryRangeFile.exists());
+  }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2006-2025 smartics, Kronseder & Reiner GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package de.smartics.maven.plugin.buildmetadata.scm.svn;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+/**
+ * Tests {@link SvnInfo}.
+ */
+public class SvnInfoTest {
+  // ********************************* Fields *********************************
+
+  // --- constants ------------------------------------------------------------
+
+  private static final String HEADER =
+      "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<info>\n";
+
+  // --- members --------------------------------------------------------------
+
+  // ****************************** Inner Classes *****************************
+
+  // ********************************* Methods ********************************
+
+  // --- prepare --------------------------------------------------------------
+
+  // --- helper ---------------------------------------------------------------
+
+  private static String entry(final String path, final String commit) {
+    return "<entry kind=\"file\" path=\"" + path + "\" revision=\"120\">\n"
+           + "<url>https://example.com/svn/trunk/" + path + "</url>\n"
+           + "<wc-info><schedule>normal</schedule></wc-info>\n" + commit
+           + "</entry>\n";
+  }
+
+  private static String commit(final int revision, final String date) {
+    return "<commit revision=\"" + revision + "\">\n<author>me</author>\n"
+           + "<date>" + date + "</date>\n</commit>\n";
+  }
+
+  private static SvnInfo parse(final String xml) throws IOException {
+    return SvnInfo.parse(new ByteArrayInputStream(xml.getBytes("UTF-8")));
+  }
+
+  // --- tests ----------------------------------------------------------------
+
+  @Test
+  public void selectsYoungestCommitOfAllEntries() throws Exception {
+    final SvnInfo uut = parse(HEADER
+        + entry(".", commit(100, "2017-07-14T02:40:00.000000Z"))
+        + entry("a.txt", commit(117, "2017-07-15T10:20:30.123456Z"))
+        + entry("b.txt", commit(105, "2017-07-14T12:00:00.000000Z"))
+        + "</info>\n");
+
+    assertEquals(117L, uut.getLastChangedRevision());
+    assertEquals(1500114030123L, uut.getLastChangedDate().getTime());
+  }
+
+  @Test
+  public void uncommittedEntriesAreIgnored() throws Exception {
+    assertNull(parse(HEADER + entry("new.txt", "") + "</info>\n"));
+  }
+
+  @Test(expected = IOException.class)
+  public void invalidOutputIsRejected() throws Exception {
+    parse(HEADER + entry(".", commit(100, "yesterday")) + "</info>\n");
+  }
+}
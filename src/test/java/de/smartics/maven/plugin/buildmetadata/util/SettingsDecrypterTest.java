@@ -0,0 +1,144 @@
+/*
+ * Copyright 2006-2025 smartics, Kronseder & Reiner GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package de.smartics.maven.plugin.buildmetadata.util;
+
+import static org.junit.Assert.assertEquals;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.sonatype.plexus.components.cipher.DefaultPlexusCipher;
+import org.sonatype.plexus.components.sec.dispatcher.DefaultSecDispatcher;
+import org.sonatype.plexus.components.sec.dispatcher.PasswordDecryptor;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Tests {@link SettingsDecrypter}.
+ */
+public class SettingsDecrypterTest {
+  // ********************************* Fields *********************************
+
+  // --- constants ------------------------------------------------------------
+
+  private static final String MASTER = "master";
+
+  private static final String PASSWORD = "secret";
+
+  // --- members --------------------------------------------------------------
+
+  @Rule
+  public final TemporaryFolder folder = new TemporaryFolder();
+
+  // ****************************** Inner Classes *****************************
+
+  /**
+   * Appends the configured suffix to the password.
+   */
+  private static final class SuffixDecryptor implements PasswordDecryptor {
+    @SuppressWarnings("rawtypes")
+    public String decrypt(final String str, final Map attributes,
+        final Map config) {
+      return str + '-' + attributes.get("key") + '-' + config.get("suffix");
+    }
+  }
+
+  /**
+   * Dispatcher with the suffix decryptor registered.
+   */
+  private static final class StubSecDispatcher extends DefaultSecDispatcher {
+    private StubSecDispatcher() {
+      _decryptors = Collections.singletonMap("suffix", new SuffixDecryptor());
+    }
+  }
+
+  // ********************************* Methods ********************************
+
+  // --- prepare --------------------------------------------------------------
+
+  // --- helper ---------------------------------------------------------------
+
+  private File createSettingsSecurity() throws Exception {
+    return createSettingsSecurity("");
+  }
+
+  private File createSettingsSecurity(final String configurations)
+      throws Exception {
+    final String master = new DefaultPlexusCipher().encryptAndDecorate(MASTER,
+        DefaultSecDispatcher.SYSTEM_PROPERTY_SEC_LOCATION);
+    final File file = folder.newFile("settings-security.xml");
+    FileUtils.writeStringToFile(file, "<settingsSecurity><master>" + master
+        + "</master>" + configurations + "</settingsSecurity>", "UTF-8");
+    return file;
+  }
+
+  // --- tests ----------------------------------------------------------------
+
+  @Test
+  public void returnsValueIfNoSettingsSecurityIsFound() throws Exception {
+    final File missing = new File(folder.getRoot(), "missing.xml");
+    final SettingsDecrypter uut =
+        new SettingsDecrypter(null, missing.getAbsolutePath());
+
+    assertEquals("{abc}", uut.decrypt("{abc}"));
+  }
+
+  @Test
+  public void decryptsWithMasterPassword() throws Exception {
+    final String location = createSettingsSecurity().getAbsolutePath();
+    final String encrypted =
+        new DefaultPlexusCipher().encryptAndDecorate(PASSWORD, MASTER);
+    final SettingsDecrypter uut = new SettingsDecrypter(null, location);
+
+    assertEquals(PASSWORD, uut.decrypt(encrypted));
+    assertEquals(PASSWORD, uut.decrypt(encrypted));
+  }
+
+  @Test
+  public void decryptsWithNamedDecryptorOfSettingsSecurity()
+      throws Exception {
+    final String location = createSettingsSecurity("<configurations>"
+        + "<configuration><name>suffix</name><properties><property>"
+        + "<name>suffix</name><value>configured</value>"
+        + "</property></properties></configuration>"
+        + "</configurations>").getAbsolutePath();
+    final SettingsDecrypter uut =
+        new SettingsDecrypter(new StubSecDispatcher(), location);
+
+    assertEquals(PASSWORD + "-attribute-configured",
+        uut.decrypt("{[type=suffix,key=attribute]" + PASSWORD + "}"));
+  }
+
+  @Test
+  public void returnsPlainValue() throws Exception {
+    final String location = createSettingsSecurity().getAbsolutePath();
+    final SettingsDecrypter uut = new SettingsDecrypter(null, location);
+
+    assertEquals(PASSWORD, uut.decrypt(PASSWORD));
+  }
+
+  @Test
+  public void doesNotAlterSystemProperties() throws Exception {
+    final String key = DefaultSecDispatcher.SYSTEM_PROPERTY_SEC_LOCATION;
+    final String before = System.getProperty(key);
+    new SettingsDecrypter(null, createSettingsSecurity().getAbsolutePath());
+
+    assertEquals(before, System.getProperty(key));
+  }
+}